@@ -0,0 +1,350 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.access;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+
+/**
+ * Represents statistics about the resource allocations processed by the scheduler.
+ * <p>
+ * The wait time of an allocation is the time between a client requesting it and the allocation
+ * being granted. The hold time of a resource is the time between its allocation and its release.
+ * All times are given in milliseconds.
+ * </p>
+ */
+public class SchedulerAllocationStatistics
+    implements Serializable {
+
+  /**
+   * The wait times of all granted allocations.
+   */
+  private final Latency waitTimes;
+  /**
+   * The statistics for each client.
+   */
+  private final List<ClientStatistics> clientStatistics;
+  /**
+   * The statistics for the most contended resources, most contended first.
+   */
+  private final List<ResourceStatistics> mostContendedResources;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param waitTimes The wait times of all granted allocations.
+   * @param clientStatistics The statistics for each client.
+   * @param mostContendedResources The statistics for the most contended resources, most
+   * contended first.
+   */
+  public SchedulerAllocationStatistics(@Nonnull Latency waitTimes,
+                                       @Nonnull List<ClientStatistics> clientStatistics,
+                                       @Nonnull List<ResourceStatistics> mostContendedResources) {
+    this.waitTimes = requireNonNull(waitTimes, "waitTimes");
+    this.clientStatistics = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(clientStatistics, "clientStatistics")));
+    this.mostContendedResources = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(mostContendedResources, "mostContendedResources")));
+  }
+
+  /**
+   * Creates a new instance without any allocations recorded.
+   */
+  public SchedulerAllocationStatistics() {
+    this(new Latency(0, 0, 0, 0, 0, 0), new ArrayList<>(), new ArrayList<>());
+  }
+
+  /**
+   * Returns the wait times of all granted allocations.
+   *
+   * @return The wait times of all granted allocations.
+   */
+  @Nonnull
+  public Latency getWaitTimes() {
+    return waitTimes;
+  }
+
+  /**
+   * Returns the statistics for each client.
+   *
+   * @return The statistics for each client.
+   */
+  @Nonnull
+  public List<ClientStatistics> getClientStatistics() {
+    return clientStatistics;
+  }
+
+  /**
+   * Returns the statistics for the most contended resources, i.e. the resources allocations had to
+   * wait for most often, most contended first.
+   *
+   * @return The statistics for the most contended resources.
+   */
+  @Nonnull
+  public List<ResourceStatistics> getMostContendedResources() {
+    return mostContendedResources;
+  }
+
+  /**
+   * Describes the distribution of a set of durations.
+   */
+  public static class Latency
+      implements Serializable {
+
+    /**
+     * The number of durations.
+     */
+    private final long count;
+    /**
+     * The mean duration.
+     */
+    private final long mean;
+    /**
+     * The median duration.
+     */
+    private final long p50;
+    /**
+     * The 90th percentile.
+     */
+    private final long p90;
+    /**
+     * The 99th percentile.
+     */
+    private final long p99;
+    /**
+     * The longest duration.
+     */
+    private final long max;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param count The number of durations.
+     * @param mean The mean duration.
+     * @param p50 The median duration.
+     * @param p90 The 90th percentile.
+     * @param p99 The 99th percentile.
+     * @param max The longest duration.
+     */
+    public Latency(long count, long mean, long p50, long p90, long p99, long max) {
+      this.count = count;
+      this.mean = mean;
+      this.p50 = p50;
+      this.p90 = p90;
+      this.p99 = p99;
+      this.max = max;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getMean() {
+      return mean;
+    }
+
+    public long getP50() {
+      return p50;
+    }
+
+    public long getP90() {
+      return p90;
+    }
+
+    public long getP99() {
+      return p99;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    @Override
+    public String toString() {
+      return "Latency{"
+          + "count=" + count
+          + ", mean=" + mean
+          + ", p50=" + p50
+          + ", p90=" + p90
+          + ", p99=" + p99
+          + ", max=" + max
+          + '}';
+    }
+  }
+
+  /**
+   * The statistics for a single client.
+   */
+  public static class ClientStatistics
+      implements Serializable {
+
+    /**
+     * The client's ID.
+     */
+    private final String clientId;
+    /**
+     * The number of times an allocation of the client was deferred.
+     */
+    private final long deferralCount;
+    /**
+     * The wait times of the client's granted allocations.
+     */
+    private final Latency waitTimes;
+    /**
+     * The hold times of the resources released by the client.
+     */
+    private final Latency holdTimes;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param clientId The client's ID.
+     * @param deferralCount The number of times an allocation of the client was deferred.
+     * @param waitTimes The wait times of the client's granted allocations.
+     * @param holdTimes The hold times of the resources released by the client.
+     */
+    public ClientStatistics(@Nonnull String clientId,
+                            long deferralCount,
+                            @Nonnull Latency waitTimes,
+                            @Nonnull Latency holdTimes) {
+      this.clientId = requireNonNull(clientId, "clientId");
+      this.deferralCount = deferralCount;
+      this.waitTimes = requireNonNull(waitTimes, "waitTimes");
+      this.holdTimes = requireNonNull(holdTimes, "holdTimes");
+    }
+
+    @Nonnull
+    public String getClientId() {
+      return clientId;
+    }
+
+    public long getDeferralCount() {
+      return deferralCount;
+    }
+
+    @Nonnull
+    public Latency getWaitTimes() {
+      return waitTimes;
+    }
+
+    @Nonnull
+    public Latency getHoldTimes() {
+      return holdTimes;
+    }
+  }
+
+  /**
+   * The statistics for a single resource or block of resources.
+   */
+  public static class ResourceStatistics
+      implements Serializable {
+
+    /**
+     * The name of the resource or block.
+     */
+    private final String name;
+    /**
+     * The type of the resource, e.g. "Point", "Path" or "Block".
+     */
+    private final String type;
+    /**
+     * The number of times the resource was allocated.
+     */
+    private final long allocationCount;
+    /**
+     * The number of times an allocation had to wait for the resource.
+     */
+    private final long deferralCount;
+    /**
+     * The total time allocations had to wait for the resource.
+     */
+    private final long totalWaitTime;
+    /**
+     * The total time the resource was held by clients.
+     */
+    private final long totalHoldTime;
+    /**
+     * The longest time the resource was held by a client at once.
+     */
+    private final long maxHoldTime;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param name The name of the resource or block.
+     * @param type The type of the resource, e.g. "Point", "Path" or "Block".
+     * @param allocationCount The number of times the resource was allocated.
+     * @param deferralCount The number of times an allocation had to wait for the resource.
+     * @param totalWaitTime The total time allocations had to wait for the resource.
+     * @param totalHoldTime The total time the resource was held by clients.
+     * @param maxHoldTime The longest time the resource was held by a client at once.
+     */
+    public ResourceStatistics(@Nonnull String name,
+                              @Nonnull String type,
+                              long allocationCount,
+                              long deferralCount,
+                              long totalWaitTime,
+                              long totalHoldTime,
+                              long maxHoldTime) {
+      this.name = requireNonNull(name, "name");
+      this.type = requireNonNull(type, "type");
+      this.allocationCount = allocationCount;
+      this.deferralCount = deferralCount;
+      this.totalWaitTime = totalWaitTime;
+      this.totalHoldTime = totalHoldTime;
+      this.maxHoldTime = maxHoldTime;
+    }
+
+    @Nonnull
+    public String getName() {
+      return name;
+    }
+
+    @Nonnull
+    public String getType() {
+      return type;
+    }
+
+    public long getAllocationCount() {
+      return allocationCount;
+    }
+
+    public long getDeferralCount() {
+      return deferralCount;
+    }
+
+    public long getTotalWaitTime() {
+      return totalWaitTime;
+    }
+
+    public long getTotalHoldTime() {
+      return totalHoldTime;
+    }
+
+    public long getMaxHoldTime() {
+      return maxHoldTime;
+    }
+
+    @Override
+    public String toString() {
+      return "ResourceStatistics{"
+          + "name=" + name
+          + ", type=" + type
+          + ", allocationCount=" + allocationCount
+          + ", deferralCount=" + deferralCount
+          + ", totalWaitTime=" + totalWaitTime
+          + ", totalHoldTime=" + totalHoldTime
+          + ", maxHoldTime=" + maxHoldTime
+          + '}';
+    }
+  }
+}
@@ -9,10 +9,14 @@ package org.opentcs.access.rmi.services;
 
 import java.rmi.Remote;
 import java.rmi.RemoteException;
+import java.util.List;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
 
 /**
  * Declares the methods provided by the {@link RouterService} via RMI.
@@ -38,4 +42,11 @@ public interface RemoteRouterService
 
   public void updateRoutingTopology(ClientID clientId)
       throws RemoteException;
+
+  public List<Route> fetchShortestRoutes(ClientID clientId,
+                                         TCSObjectReference<Vehicle> vehicleRef,
+                                         TCSObjectReference<Point> sourcePointRef,
+                                         TCSObjectReference<Point> destinationPointRef,
+                                         int maxRouteCount)
+      throws RemoteException;
 }
@@ -8,11 +8,15 @@
 package org.opentcs.access.rmi.services;
 
 import java.rmi.RemoteException;
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
 
 /**
  * The default implementation of the router service.
@@ -49,4 +53,24 @@ class RemoteRouterServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public List<Route> fetchShortestRoutes(TCSObjectReference<Vehicle> vehicleRef,
+                                         TCSObjectReference<Point> sourcePointRef,
+                                         TCSObjectReference<Point> destinationPointRef,
+                                         int maxRouteCount)
+      throws ObjectUnknownException, KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchShortestRoutes(getClientId(),
+                                                    vehicleRef,
+                                                    sourcePointRef,
+                                                    destinationPointRef,
+                                                    maxRouteCount);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
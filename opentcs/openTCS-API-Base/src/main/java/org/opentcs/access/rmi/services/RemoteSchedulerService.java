@@ -10,6 +10,7 @@ package org.opentcs.access.rmi.services;
 import java.rmi.Remote;
 import java.rmi.RemoteException;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.components.kernel.services.SchedulerService;
 
@@ -34,4 +35,8 @@ public interface RemoteSchedulerService
 
   public SchedulerAllocationState fetchSchedulerAllocations(ClientID clientId)
       throws RemoteException;
+
+  public SchedulerAllocationStatistics fetchSchedulerAllocationStatistics(ClientID clientId,
+                                                                          int maxResourceCount)
+      throws RemoteException;
 }
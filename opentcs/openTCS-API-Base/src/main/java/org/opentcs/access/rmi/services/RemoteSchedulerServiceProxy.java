@@ -10,6 +10,7 @@ package org.opentcs.access.rmi.services;
 import java.rmi.RemoteException;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.components.kernel.services.SchedulerService;
 
 /**
@@ -34,4 +35,18 @@ class RemoteSchedulerServiceProxy
       throw findSuitableExceptionFor(ex);
     }
   }
+
+  @Override
+  public SchedulerAllocationStatistics fetchSchedulerAllocationStatistics(int maxResourceCount)
+      throws KernelRuntimeException {
+    checkServiceAvailability();
+
+    try {
+      return getRemoteService().fetchSchedulerAllocationStatistics(getClientId(),
+                                                                   maxResourceCount);
+    }
+    catch (RemoteException ex) {
+      throw findSuitableExceptionFor(ex);
+    }
+  }
 }
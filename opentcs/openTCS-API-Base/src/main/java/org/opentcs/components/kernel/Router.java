@@ -7,6 +7,7 @@
  */
 package org.opentcs.components.kernel;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -121,6 +122,31 @@ public interface Router
                            @Nonnull Point sourcePoint,
                            @Nonnull Point destinationPoint);
 
+  /**
+   * Returns up to the given number of loopless routes from one point to another, passable for a
+   * given vehicle, ordered by their costs.
+   * <p>
+   * This can be used to find an alternative to the cheapest route, e.g. if resources on the
+   * cheapest route are currently blocked by other vehicles.
+   * </p>
+   *
+   * @param vehicle The vehicle for which the routes must be passable.
+   * @param sourcePoint The starting point of the routes to calculate.
+   * @param destinationPoint The end point of the routes to calculate.
+   * @param maxRouteCount The maximum number of routes to be returned.
+   * @return The calculated routes, cheapest first. If no route between the given points exists,
+   * the returned list is empty.
+   */
+  @Nonnull
+  default List<Route> getRoutes(@Nonnull Vehicle vehicle,
+                                @Nonnull Point sourcePoint,
+                                @Nonnull Point destinationPoint,
+                                int maxRouteCount) {
+    return getRoute(vehicle, sourcePoint, destinationPoint)
+        .map(route -> Collections.singletonList(route))
+        .orElse(Collections.emptyList());
+  }
+
   /**
    * Returns the costs for travelling a route from one point to another with a
    * given vehicle.
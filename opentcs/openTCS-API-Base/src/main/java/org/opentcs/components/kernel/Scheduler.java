@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.annotation.Nonnull;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.components.Lifecycle;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.util.annotations.ScheduledApiChange;
@@ -119,6 +120,17 @@ public interface Scheduler
   @Nonnull
   Map<String, Set<TCSResource<?>>> getAllocations();
 
+  /**
+   * Returns statistics about the allocations processed by this scheduler.
+   *
+   * @param maxResourceCount The maximum number of most contended resources to be included.
+   * @return Statistics about the allocations processed by this scheduler.
+   */
+  @Nonnull
+  default SchedulerAllocationStatistics getAllocationStatistics(int maxResourceCount) {
+    return new SchedulerAllocationStatistics();
+  }
+
   /**
    * Informs the scheduler that a set of resources was successfully prepared in order of allocating
    * them to a client.
@@ -7,11 +7,15 @@
  */
 package org.opentcs.components.kernel.services;
 
+import java.util.List;
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
 
 /**
  * Provides methods concerning the {@link Router}.
@@ -40,4 +44,23 @@ public interface RouterService {
    */
   void updateRoutingTopology()
       throws KernelRuntimeException;
+
+  /**
+   * Returns up to the given number of loopless routes from one point to another, passable for the
+   * given vehicle, ordered by their costs.
+   *
+   * @param vehicleRef A reference to the vehicle for which the routes must be passable.
+   * @param sourcePointRef A reference to the starting point of the routes.
+   * @param destinationPointRef A reference to the end point of the routes.
+   * @param maxRouteCount The maximum number of routes to be returned.
+   * @return The routes, cheapest first, or an empty list, if no route between the points exists.
+   * @throws ObjectUnknownException If any of the referenced objects does not exist.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   * @see Router#getRoutes(Vehicle, Point, Point, int)
+   */
+  List<Route> fetchShortestRoutes(TCSObjectReference<Vehicle> vehicleRef,
+                                  TCSObjectReference<Point> sourcePointRef,
+                                  TCSObjectReference<Point> destinationPointRef,
+                                  int maxRouteCount)
+      throws ObjectUnknownException, KernelRuntimeException;
 }
@@ -9,6 +9,7 @@ package org.opentcs.components.kernel.services;
 
 import org.opentcs.access.KernelRuntimeException;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.components.kernel.Scheduler;
 
 /**
@@ -26,4 +27,15 @@ public interface SchedulerService {
    */
   SchedulerAllocationState fetchSchedulerAllocations()
       throws KernelRuntimeException;
+
+  /**
+   * Returns statistics about the resource allocations processed so far, e.g. how long allocations
+   * had to wait and which resources were contended most.
+   *
+   * @param maxResourceCount The maximum number of most contended resources to be included.
+   * @return Statistics about the resource allocations.
+   * @throws KernelRuntimeException In case there is an exception executing this method.
+   */
+  SchedulerAllocationStatistics fetchSchedulerAllocationStatistics(int maxResourceCount)
+      throws KernelRuntimeException;
 }
@@ -71,6 +71,14 @@ public interface ObjectPropConstants {
    * </p>
    */
   String LOC_DEFAULT_REPRESENTATION = "tcs:defaultLocationSymbol";
+  /**
+   * A property key for {@link Vehicle} instances to store the vehicle's deceleration, e.g. for
+   * estimating its braking distance.
+   * <p>
+   * Type: Integer (the deceleration in mm/s<sup>2</sup>, a positive value)
+   * </p>
+   */
+  String VEHICLE_DECELERATION = "tcs:deceleration";
   /**
    * A property key for {@link Vehicle} instances to store a preferred initial position to be used
    * by simulating communication adapter, for example.
@@ -0,0 +1,282 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.access.Kernel;
+import org.opentcs.access.LocalKernel;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+import org.opentcs.benchmarks.routing.SyntheticPlant;
+import org.opentcs.benchmarks.routing.SyntheticPlantGenerator;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.common.SimulationScheduledThreadPoolExecutor;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.TransportOrderService;
+import org.opentcs.components.kernel.services.VehicleService;
+import org.opentcs.configuration.cfg4j.Cfg4jConfigurationBindingProvider;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.kernel.DefaultKernelInjectionModule;
+import org.opentcs.strategies.basic.dispatching.DefaultDispatcherModule;
+import org.opentcs.strategies.basic.recovery.DefaultRecoveryEvaluatorModule;
+import org.opentcs.strategies.basic.routing.DefaultRouterModule;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerModule;
+import org.opentcs.util.Environment;
+import org.opentcs.util.event.EventSource;
+import org.opentcs.virtualvehicle.LoopbackCommAdapterModule;
+
+/**
+ * Runs a kernel with a generated plant model and a fleet of virtual vehicles without user
+ * interaction, creates transport orders and reports the fleet's throughput and the kernel's load.
+ * <p>
+ * The kernel's clock runs faster than real time, so that e.g. a shift of eight hours can be
+ * simulated within minutes. The report is written as JSON.
+ * </p>
+ * <p>
+ * Usage: {@code FleetLoadTest [options]}, with options:
+ * </p>
+ * <ul>
+ * <li>{@code --layout=<GRID|WAREHOUSE|RANDOM>}: The layout of the generated plant. Defaults to
+ * GRID.</li>
+ * <li>{@code --points=<n>}: The (approximate) number of points of the plant. Defaults to 400.</li>
+ * <li>{@code --vehicles=<n>}: The number of virtual vehicles. Defaults to 10.</li>
+ * <li>{@code --orderRate=<n>}: The number of transport orders to create per simulated hour. By
+ * default, transport orders are created on demand instead.</li>
+ * <li>{@code --activeOrders=<n>}: The number of active transport orders to be kept when creating
+ * them on demand. Defaults to the number of vehicles.</li>
+ * <li>{@code --orderSize=<n>}: The number of destinations per transport order. Defaults to 1.</li>
+ * <li>{@code --duration=<min>}: The simulated duration of the test. Defaults to 480.</li>
+ * <li>{@code --timeFactor=<factor>}: The factor by which the simulation runs faster than real
+ * time. Defaults to 60.</li>
+ * <li>{@code --seed=<n>}: The seed for generating the plant and the transport orders. Defaults to
+ * 1.</li>
+ * <li>{@code --config=<file>}: An additional kernel configuration file, e.g. for selecting the
+ * strategies to be compared.</li>
+ * <li>{@code --report=<file>}: The file to write the report to. Defaults to
+ * fleet-load-test.json.</li>
+ * </ul>
+ */
+public class FleetLoadTest {
+
+  /**
+   * The interval in which the kernel executor's queue depth is sampled (in simulated ms).
+   */
+  private static final long SAMPLE_INTERVAL = 1000;
+  /**
+   * The kernel's default configuration.
+   */
+  private static final String DEFAULTS_RESOURCE
+      = "/org/opentcs/kernel/distribution/config/opentcs-kernel-defaults-baseline.properties";
+
+  /**
+   * Prevents instantiation.
+   */
+  private FleetLoadTest() {
+  }
+
+  /**
+   * Runs a load test.
+   *
+   * @param args The options.
+   * @throws Exception If the load test failed.
+   */
+  public static void main(String[] args)
+      throws Exception {
+    LoadTestSettings settings;
+    try {
+      settings = LoadTestSettings.parse(args);
+    }
+    catch (IllegalArgumentException exc) {
+      System.err.println(exc.getMessage());
+      System.err.println("Usage: FleetLoadTest [--layout=<GRID|WAREHOUSE|RANDOM>] [--points=<n>]"
+          + " [--vehicles=<n>] [--orderRate=<n>] [--activeOrders=<n>] [--orderSize=<n>]"
+          + " [--duration=<min>] [--timeFactor=<factor>] [--seed=<n>] [--config=<file>]"
+          + " [--report=<file>]");
+      System.exit(1);
+      return;
+    }
+
+    Path workDirectory = Files.createTempDirectory("opentcs-load-test");
+    // The kernel persists the plant model in its home directory.
+    System.setProperty("opentcs.home", workDirectory.toString());
+
+    SimulationClock clock = new SimulationClock(settings.getTimeFactor());
+    InstrumentedKernelExecutor kernelExecutor = new InstrumentedKernelExecutor(clock);
+    Injector injector = Guice.createInjector(
+        kernelModule(settings, workDirectory, new LoadTestKernelModule(clock, kernelExecutor))
+    );
+
+    SyntheticPlant plant = SyntheticPlantGenerator.generate(settings.getLayout(),
+                                                            settings.getPointCount(),
+                                                            settings.getVehicleCount(),
+                                                            settings.getSeed());
+    LocalKernel kernel = injector.getInstance(LocalKernel.class);
+    kernel.initialize();
+    injector.getInstance(InternalPlantModelService.class)
+        .createPlantModel(plant.toCreationTO("FleetLoadTest"));
+    kernel.setState(Kernel.State.OPERATING);
+
+    VehicleService vehicleService = injector.getInstance(VehicleService.class);
+    for (Vehicle vehicle : vehicleService.fetchObjects(Vehicle.class)) {
+      vehicleService.updateVehicleIntegrationLevel(vehicle.getReference(),
+                                                   Vehicle.IntegrationLevel.TO_BE_UTILIZED);
+    }
+
+    EventSource eventSource
+        = injector.getInstance(Key.get(EventSource.class, ApplicationEventBus.class));
+    OrderMetrics orderMetrics = new OrderMetrics(clock);
+    eventSource.subscribe(orderMetrics);
+    ScheduledExecutorService loadExecutor = new SimulationScheduledThreadPoolExecutor(
+        1,
+        (runnable) -> new Thread(runnable, "loadTest"),
+        clock
+    );
+    OrderInjector orderInjector
+        = new OrderInjector(injector.getInstance(TransportOrderService.class),
+                            injector.getInstance(DispatcherService.class),
+                            loadExecutor,
+                            orderMetrics,
+                            settings.getOrderSize(),
+                            settings.getSeed());
+    eventSource.subscribe(orderInjector);
+    Samples queueDepths = new Samples();
+    loadExecutor.scheduleAtFixedRate(() -> queueDepths.record(kernelExecutor.getQueueDepth()),
+                                     0,
+                                     SAMPLE_INTERVAL,
+                                     TimeUnit.MILLISECONDS);
+
+    long simulatedStart = clock.millis();
+    long realStart = System.currentTimeMillis();
+    if (settings.getOrderRate() > 0) {
+      orderInjector.startAtRate(settings.getOrderRate());
+    }
+    else {
+      orderInjector.startOnDemand(settings.getActiveOrders());
+    }
+    TimeUnit.NANOSECONDS.sleep(clock.toRealNanos(settings.getDuration(), TimeUnit.MINUTES));
+    loadExecutor.shutdownNow();
+    eventSource.unsubscribe(orderInjector);
+    eventSource.unsubscribe(orderMetrics);
+
+    // The scheduler measures the wait times in real time.
+    Latency allocationWaitTimes = scale(injector.getInstance(Scheduler.class)
+        .getAllocationStatistics(0)
+        .getWaitTimes(), settings.getTimeFactor());
+    LoadTestReport report = new LoadTestReport(Environment.getBaselineVersion(),
+                                               settings,
+                                               System.currentTimeMillis() - realStart,
+                                               clock.millis() - simulatedStart,
+                                               orderMetrics.getCreatedCount(),
+                                               orderMetrics.getFinishedCount(),
+                                               orderMetrics.getFailedCount(),
+                                               orderMetrics.getLeadTimes().toLatency(),
+                                               kernelExecutor.getDispatcherRunTimes().toLatency(),
+                                               allocationWaitTimes,
+                                               queueDepths.toLatency());
+    new ObjectMapper()
+        .enable(SerializationFeature.INDENT_OUTPUT)
+        .writeValue(Paths.get(settings.getReportFile()).toFile(), report);
+    System.out.printf("Orders finished: %d of %d (%d failed), %.1f per hour%n",
+                      report.getOrdersFinished(),
+                      report.getOrdersCreated(),
+                      report.getOrdersFailed(),
+                      report.getOrdersPerHour());
+    System.out.printf("Report written to %s%n", settings.getReportFile());
+
+    kernel.setState(Kernel.State.SHUTDOWN);
+    // Some of the kernel's components keep non-daemon threads running.
+    System.exit(0);
+  }
+
+  private static Module kernelModule(LoadTestSettings settings,
+                                     Path workDirectory,
+                                     Module loadTestModule)
+      throws IOException {
+    List<KernelInjectionModule> modules
+        = Arrays.asList(new DefaultKernelInjectionModule(),
+                        new DefaultDispatcherModule(),
+                        new DefaultRouterModule(),
+                        new DefaultSchedulerModule(),
+                        new DefaultRecoveryEvaluatorModule(),
+                        new LoopbackCommAdapterModule());
+
+    Cfg4jConfigurationBindingProvider bindingProvider
+        = new Cfg4jConfigurationBindingProvider(extractDefaults(workDirectory),
+                                                configurationFiles(settings, workDirectory));
+    for (KernelInjectionModule module : modules) {
+      module.setConfigBindingProvider(bindingProvider);
+    }
+
+    return Modules.override(modules).with(loadTestModule);
+  }
+
+  private static Path extractDefaults(Path workDirectory)
+      throws IOException {
+    Path defaultsFile = workDirectory.resolve("opentcs-kernel-defaults-baseline.properties");
+    try (InputStream in = FleetLoadTest.class.getResourceAsStream(DEFAULTS_RESOURCE)) {
+      if (in == null) {
+        throw new IOException("Kernel defaults not found: " + DEFAULTS_RESOURCE);
+      }
+      Files.copy(in, defaultsFile);
+    }
+    return defaultsFile;
+  }
+
+  /**
+   * Returns the given configuration file, if any, and a file with the settings required for the
+   * load test, which take precedence.
+   */
+  private static Path[] configurationFiles(LoadTestSettings settings, Path workDirectory)
+      throws IOException {
+    List<Path> files = new ArrayList<>();
+    if (settings.getConfigFile() != null) {
+      files.add(Paths.get(settings.getConfigFile()).toAbsolutePath());
+    }
+
+    Path loadTestFile = workDirectory.resolve("opentcs-kernel-load-test.properties");
+    Files.write(loadTestFile,
+                Arrays.asList(
+                    "kernelapp.autoEnableDriversOnStartup = true",
+                    "kernelapp.simulationTimeFactor = " + settings.getTimeFactor(),
+                    "virtualvehicle.enable = true",
+                    "virtualvehicle.simulationMode = DISCRETE_EVENT"
+                ),
+                StandardCharsets.UTF_8);
+    files.add(loadTestFile);
+    return files.toArray(new Path[files.size()]);
+  }
+
+  private static Latency scale(Latency latency, double factor) {
+    return new Latency(latency.getCount(),
+                       (long) (latency.getMean() * factor),
+                       (long) (latency.getP50() * factor),
+                       (long) (latency.getP90() * factor),
+                       (long) (latency.getP99() * factor),
+                       (long) (latency.getMax() * factor));
+  }
+}
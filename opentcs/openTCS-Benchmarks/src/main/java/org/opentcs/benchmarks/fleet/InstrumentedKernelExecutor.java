@@ -0,0 +1,90 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.common.SimulationScheduledThreadPoolExecutor;
+import org.opentcs.strategies.basic.dispatching.FullDispatchTask;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
+
+/**
+ * The kernel executor for a load test, measuring the run times of the dispatcher.
+ * <p>
+ * The default dispatcher submits its full dispatch runs to the kernel executor, so they can be
+ * recognized here without changing the dispatcher.
+ * </p>
+ */
+class InstrumentedKernelExecutor
+    extends SimulationScheduledThreadPoolExecutor {
+
+  /**
+   * The run times of the dispatcher (in µs).
+   */
+  private final Samples dispatcherRunTimes = new Samples();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param clock The kernel's clock.
+   */
+  InstrumentedKernelExecutor(SimulationClock clock) {
+    super(1,
+          (runnable) -> {
+            Thread thread = new Thread(runnable, "kernelExecutor");
+            thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+            return thread;
+          },
+          clock);
+  }
+
+  @Override
+  public Future<?> submit(Runnable task) {
+    if (task instanceof FullDispatchTask) {
+      return super.submit(() -> runTimed(task));
+    }
+    return super.submit(task);
+  }
+
+  /**
+   * Returns the run times of the dispatcher measured so far.
+   *
+   * @return The run times of the dispatcher (in µs).
+   */
+  public Samples getDispatcherRunTimes() {
+    return dispatcherRunTimes;
+  }
+
+  /**
+   * Returns the number of tasks that are due but wait for the kernel executor's thread.
+   * Delayed and periodic tasks that are not due yet are not counted.
+   *
+   * @return The number of tasks that are due but wait for the kernel executor's thread.
+   */
+  public int getQueueDepth() {
+    int depth = 0;
+    for (Runnable task : getQueue()) {
+      if (!(task instanceof Delayed) || ((Delayed) task).getDelay(TimeUnit.NANOSECONDS) <= 0) {
+        depth++;
+      }
+    }
+    return depth;
+  }
+
+  private void runTimed(Runnable task) {
+    long start = System.nanoTime();
+    try {
+      task.run();
+    }
+    finally {
+      dispatcherRunTimes.record(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start));
+    }
+  }
+}
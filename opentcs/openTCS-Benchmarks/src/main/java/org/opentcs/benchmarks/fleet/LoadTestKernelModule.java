@@ -0,0 +1,58 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import com.google.inject.AbstractModule;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.customizations.kernel.KernelExecutor;
+
+/**
+ * Overrides the kernel's clock and executor with the instances observed by a load test.
+ */
+class LoadTestKernelModule
+    extends AbstractModule {
+
+  /**
+   * The kernel's clock.
+   */
+  private final SimulationClock clock;
+  /**
+   * The kernel executor.
+   */
+  private final InstrumentedKernelExecutor kernelExecutor;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param clock The kernel's clock.
+   * @param kernelExecutor The kernel executor.
+   */
+  LoadTestKernelModule(SimulationClock clock, InstrumentedKernelExecutor kernelExecutor) {
+    this.clock = requireNonNull(clock, "clock");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+  }
+
+  @Override
+  protected void configure() {
+    bind(SimulationClock.class)
+        .toInstance(clock);
+    bind(ScheduledExecutorService.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(kernelExecutor);
+    bind(ExecutorService.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(kernelExecutor);
+    bind(Executor.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(kernelExecutor);
+  }
+}
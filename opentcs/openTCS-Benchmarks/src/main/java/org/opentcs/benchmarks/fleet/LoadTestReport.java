@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+
+/**
+ * The results of a load test, written as JSON.
+ * Unless stated otherwise, times refer to the kernel's clock.
+ */
+public class LoadTestReport {
+
+  /**
+   * The version of the kernel tested.
+   */
+  private final String kernelVersion;
+  /**
+   * The test's settings.
+   */
+  private final LoadTestSettings settings;
+  /**
+   * The real duration of the test (in ms).
+   */
+  private final long realDuration;
+  /**
+   * The simulated duration of the test (in ms).
+   */
+  private final long simulatedDuration;
+  /**
+   * The number of transport orders created.
+   */
+  private final int ordersCreated;
+  /**
+   * The number of transport orders finished.
+   */
+  private final int ordersFinished;
+  /**
+   * The number of transport orders failed.
+   */
+  private final int ordersFailed;
+  /**
+   * The lead times of finished transport orders (in ms).
+   */
+  private final Latency leadTimes;
+  /**
+   * The run times of the dispatcher (in real µs).
+   */
+  private final Latency dispatcherRunTimes;
+  /**
+   * The times vehicles waited for resources to be allocated (in ms).
+   */
+  private final Latency allocationWaitTimes;
+  /**
+   * The number of tasks waiting for the kernel executor, sampled periodically.
+   */
+  private final Latency kernelExecutorQueueDepth;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param kernelVersion The version of the kernel tested.
+   * @param settings The test's settings.
+   * @param realDuration The real duration of the test (in ms).
+   * @param simulatedDuration The simulated duration of the test (in ms).
+   * @param ordersCreated The number of transport orders created.
+   * @param ordersFinished The number of transport orders finished.
+   * @param ordersFailed The number of transport orders failed.
+   * @param leadTimes The lead times of finished transport orders (in ms).
+   * @param dispatcherRunTimes The run times of the dispatcher (in real µs).
+   * @param allocationWaitTimes The times vehicles waited for resources to be allocated (in ms).
+   * @param kernelExecutorQueueDepth The number of tasks waiting for the kernel executor.
+   */
+  public LoadTestReport(@Nonnull String kernelVersion,
+                        @Nonnull LoadTestSettings settings,
+                        long realDuration,
+                        long simulatedDuration,
+                        int ordersCreated,
+                        int ordersFinished,
+                        int ordersFailed,
+                        @Nonnull Latency leadTimes,
+                        @Nonnull Latency dispatcherRunTimes,
+                        @Nonnull Latency allocationWaitTimes,
+                        @Nonnull Latency kernelExecutorQueueDepth) {
+    this.kernelVersion = requireNonNull(kernelVersion, "kernelVersion");
+    this.settings = requireNonNull(settings, "settings");
+    this.realDuration = realDuration;
+    this.simulatedDuration = simulatedDuration;
+    this.ordersCreated = ordersCreated;
+    this.ordersFinished = ordersFinished;
+    this.ordersFailed = ordersFailed;
+    this.leadTimes = requireNonNull(leadTimes, "leadTimes");
+    this.dispatcherRunTimes = requireNonNull(dispatcherRunTimes, "dispatcherRunTimes");
+    this.allocationWaitTimes = requireNonNull(allocationWaitTimes, "allocationWaitTimes");
+    this.kernelExecutorQueueDepth = requireNonNull(kernelExecutorQueueDepth,
+                                                   "kernelExecutorQueueDepth");
+  }
+
+  public String getKernelVersion() {
+    return kernelVersion;
+  }
+
+  public LoadTestSettings getSettings() {
+    return settings;
+  }
+
+  public long getRealDuration() {
+    return realDuration;
+  }
+
+  public long getSimulatedDuration() {
+    return simulatedDuration;
+  }
+
+  public int getOrdersCreated() {
+    return ordersCreated;
+  }
+
+  public int getOrdersFinished() {
+    return ordersFinished;
+  }
+
+  public int getOrdersFailed() {
+    return ordersFailed;
+  }
+
+  /**
+   * Returns the number of transport orders finished per simulated hour.
+   *
+   * @return The number of transport orders finished per simulated hour.
+   */
+  public double getOrdersPerHour() {
+    return simulatedDuration == 0 ? 0 : ordersFinished * 3600000.0 / simulatedDuration;
+  }
+
+  public Latency getLeadTimes() {
+    return leadTimes;
+  }
+
+  public Latency getDispatcherRunTimes() {
+    return dispatcherRunTimes;
+  }
+
+  public Latency getAllocationWaitTimes() {
+    return allocationWaitTimes;
+  }
+
+  public Latency getKernelExecutorQueueDepth() {
+    return kernelExecutorQueueDepth;
+  }
+}
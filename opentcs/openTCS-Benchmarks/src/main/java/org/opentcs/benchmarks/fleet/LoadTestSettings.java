@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.opentcs.benchmarks.routing.SyntheticPlantGenerator.Layout;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * The settings of a load test, parsed from command line options.
+ */
+public class LoadTestSettings {
+
+  /**
+   * The layout of the generated plant.
+   */
+  private final Layout layout;
+  /**
+   * The (approximate) number of points of the generated plant.
+   */
+  private final int pointCount;
+  /**
+   * The number of vehicles.
+   */
+  private final int vehicleCount;
+  /**
+   * The number of transport orders to create per hour, or 0 to create them on demand.
+   */
+  private final double orderRate;
+  /**
+   * The number of active transport orders to be kept, if transport orders are created on demand.
+   */
+  private final int activeOrders;
+  /**
+   * The number of destinations per transport order.
+   */
+  private final int orderSize;
+  /**
+   * The simulated duration of the test (in min).
+   */
+  private final long duration;
+  /**
+   * The factor by which the simulation runs faster than real time.
+   */
+  private final double timeFactor;
+  /**
+   * The seed for generating the plant and the transport orders.
+   */
+  private final long seed;
+  /**
+   * An additional kernel configuration file, or <code>null</code>.
+   */
+  private final String configFile;
+  /**
+   * The file the report is written to.
+   */
+  private final String reportFile;
+
+  private LoadTestSettings(Map<String, String> options) {
+    this.layout = Layout.valueOf(options.getOrDefault("layout", "GRID"));
+    this.pointCount = Integer.parseInt(options.getOrDefault("points", "400"));
+    this.vehicleCount = Integer.parseInt(options.getOrDefault("vehicles", "10"));
+    this.orderRate = Double.parseDouble(options.getOrDefault("orderRate", "0"));
+    this.activeOrders = Integer.parseInt(options.getOrDefault("activeOrders",
+                                                              Integer.toString(vehicleCount)));
+    this.orderSize = Integer.parseInt(options.getOrDefault("orderSize", "1"));
+    this.duration = Long.parseLong(options.getOrDefault("duration", "480"));
+    this.timeFactor = Double.parseDouble(options.getOrDefault("timeFactor", "60"));
+    this.seed = Long.parseLong(options.getOrDefault("seed", "1"));
+    this.configFile = options.get("config");
+    this.reportFile = options.getOrDefault("report", "fleet-load-test.json");
+
+    checkArgument(vehicleCount > 0, "vehicles <= 0: %s", vehicleCount);
+    checkArgument(orderRate >= 0, "orderRate < 0: %s", orderRate);
+    checkArgument(activeOrders > 0, "activeOrders <= 0: %s", activeOrders);
+    checkArgument(orderSize > 0, "orderSize <= 0: %s", orderSize);
+    checkArgument(duration > 0, "duration <= 0: %s", duration);
+    checkArgument(timeFactor > 0, "timeFactor <= 0: %s", timeFactor);
+  }
+
+  /**
+   * Parses the given command line options.
+   *
+   * @param args The command line options, each in the form {@code --<name>=<value>}.
+   * @return The settings.
+   * @throws IllegalArgumentException If an option is malformed or has an invalid value.
+   */
+  public static LoadTestSettings parse(String[] args)
+      throws IllegalArgumentException {
+    Map<String, String> options = new HashMap<>();
+    for (String arg : args) {
+      if (!arg.startsWith("--") || !arg.contains("=")) {
+        throw new IllegalArgumentException("Malformed option: " + arg);
+      }
+      int separator = arg.indexOf('=');
+      options.put(arg.substring(2, separator), arg.substring(separator + 1));
+    }
+    return new LoadTestSettings(options);
+  }
+
+  public Layout getLayout() {
+    return layout;
+  }
+
+  public int getPointCount() {
+    return pointCount;
+  }
+
+  public int getVehicleCount() {
+    return vehicleCount;
+  }
+
+  public double getOrderRate() {
+    return orderRate;
+  }
+
+  public int getActiveOrders() {
+    return activeOrders;
+  }
+
+  public int getOrderSize() {
+    return orderSize;
+  }
+
+  public long getDuration() {
+    return duration;
+  }
+
+  public double getTimeFactor() {
+    return timeFactor;
+  }
+
+  public long getSeed() {
+    return seed;
+  }
+
+  public String getConfigFile() {
+    return configFile;
+  }
+
+  public String getReportFile() {
+    return reportFile;
+  }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import java.util.ArrayList;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Random;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opentcs.access.KernelRuntimeException;
+import org.opentcs.access.to.order.DestinationCreationTO;
+import org.opentcs.access.to.order.TransportOrderCreationTO;
+import org.opentcs.components.kernel.services.DispatcherService;
+import org.opentcs.components.kernel.services.TransportOrderService;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.order.DriveOrder.Destination;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Creates transport orders to random locations, either at a fixed rate or whenever the number of
+ * active transport orders drops below a threshold.
+ * <p>
+ * The transport orders are created like those of the plant overview's load generator, i.e. with
+ * destinations chosen at random and no operations to be performed there.
+ * </p>
+ */
+class OrderInjector
+    implements EventHandler {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(OrderInjector.class);
+  /**
+   * The transport order service.
+   */
+  private final TransportOrderService transportOrderService;
+  /**
+   * The dispatcher service.
+   */
+  private final DispatcherService dispatcherService;
+  /**
+   * Creates the transport orders, with delays referring to the kernel's clock.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * Provides the number of active transport orders.
+   */
+  private final OrderMetrics orderMetrics;
+  /**
+   * The locations in the model.
+   */
+  private final List<Location> locations;
+  /**
+   * The number of drive orders per transport order.
+   */
+  private final int orderSize;
+  /**
+   * A random number generator for selecting locations.
+   */
+  private final Random random;
+  /**
+   * The number of active transport orders to be kept, if transport orders are created on demand.
+   */
+  private volatile int threshold = -1;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param transportOrderService The transport order service.
+   * @param dispatcherService The dispatcher service.
+   * @param executor Creates the transport orders, with delays referring to the kernel's clock.
+   * @param orderMetrics Provides the number of active transport orders.
+   * @param orderSize The number of drive orders per transport order.
+   * @param seed The seed for selecting locations.
+   */
+  OrderInjector(TransportOrderService transportOrderService,
+                DispatcherService dispatcherService,
+                ScheduledExecutorService executor,
+                OrderMetrics orderMetrics,
+                int orderSize,
+                long seed) {
+    this.transportOrderService = requireNonNull(transportOrderService, "transportOrderService");
+    this.dispatcherService = requireNonNull(dispatcherService, "dispatcherService");
+    this.executor = requireNonNull(executor, "executor");
+    this.orderMetrics = requireNonNull(orderMetrics, "orderMetrics");
+    this.orderSize = orderSize;
+    this.random = new Random(seed);
+    this.locations = new ArrayList<>(transportOrderService.fetchObjects(Location.class));
+  }
+
+  /**
+   * Starts creating transport orders at the given rate.
+   *
+   * @param ordersPerHour The number of transport orders to create per hour of the kernel's clock.
+   */
+  public void startAtRate(double ordersPerHour) {
+    long interval = Math.max(1, (long) (TimeUnit.HOURS.toMillis(1) / ordersPerHour));
+    LOG.info("Creating a transport order every {} ms.", interval);
+    executor.scheduleAtFixedRate(this::createOrder, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Starts creating transport orders whenever fewer than the given number are active, like the
+   * plant overview's threshold trigger.
+   * This instance must be registered for the kernel's events.
+   *
+   * @param activeOrders The number of active transport orders to be kept.
+   */
+  public void startOnDemand(int activeOrders) {
+    LOG.info("Keeping {} transport orders active.", activeOrders);
+    threshold = activeOrders;
+    executor.execute(this::replenishOrders);
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (threshold < 0 || !(event instanceof TCSObjectEvent)) {
+      return;
+    }
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    if (objectEvent.getType() == TCSObjectEvent.Type.OBJECT_MODIFIED
+        && objectEvent.getCurrentObjectState() instanceof TransportOrder
+        && ((TransportOrder) objectEvent.getCurrentObjectState()).getState().isFinalState()) {
+      // Do not create transport orders while the kernel is emitting events.
+      executor.execute(this::replenishOrders);
+    }
+  }
+
+  private void replenishOrders() {
+    int missingCount = threshold - orderMetrics.getActiveCount();
+    for (int i = 0; i < missingCount; i++) {
+      if (!createOrder()) {
+        return;
+      }
+    }
+  }
+
+  private boolean createOrder() {
+    if (locations.isEmpty()) {
+      return false;
+    }
+
+    List<DestinationCreationTO> destinations = new ArrayList<>();
+    for (int i = 0; i < orderSize; i++) {
+      Location location = locations.get(random.nextInt(locations.size()));
+      destinations.add(new DestinationCreationTO(location.getName(), Destination.OP_NOP));
+    }
+    try {
+      transportOrderService.createTransportOrder(
+          new TransportOrderCreationTO("TOrder-", destinations).withIncompleteName(true)
+      );
+      dispatcherService.dispatch();
+      return true;
+    }
+    catch (KernelRuntimeException exc) {
+      LOG.warn("Exception creating transport order", exc);
+      return false;
+    }
+  }
+}
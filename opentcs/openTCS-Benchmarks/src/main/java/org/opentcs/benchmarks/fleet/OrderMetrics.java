@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import static java.util.Objects.requireNonNull;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.util.event.EventHandler;
+
+/**
+ * Counts the transport orders created and finished in the kernel and measures their lead times,
+ * i.e. the times from their creation until they are finished.
+ * All times refer to the kernel's clock.
+ */
+class OrderMetrics
+    implements EventHandler {
+
+  /**
+   * The kernel's clock.
+   */
+  private final SimulationClock clock;
+  /**
+   * The lead times of finished transport orders (in ms).
+   */
+  private final Samples leadTimes = new Samples();
+  /**
+   * The number of transport orders created.
+   */
+  private int createdCount;
+  /**
+   * The number of transport orders failed.
+   */
+  private int failedCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param clock The kernel's clock.
+   */
+  OrderMetrics(SimulationClock clock) {
+    this.clock = requireNonNull(clock, "clock");
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    if (!(objectEvent.getCurrentOrPreviousObjectState() instanceof TransportOrder)) {
+      return;
+    }
+
+    switch (objectEvent.getType()) {
+      case OBJECT_CREATED:
+        orderCreated();
+        break;
+      case OBJECT_MODIFIED:
+        TransportOrder previous = (TransportOrder) objectEvent.getPreviousObjectState();
+        TransportOrder current = (TransportOrder) objectEvent.getCurrentObjectState();
+        if (previous.getState() != current.getState()) {
+          orderStateChanged(current);
+        }
+        break;
+      default:
+    }
+  }
+
+  /**
+   * Returns the number of transport orders created.
+   *
+   * @return The number of transport orders created.
+   */
+  public synchronized int getCreatedCount() {
+    return createdCount;
+  }
+
+  /**
+   * Returns the number of transport orders finished.
+   *
+   * @return The number of transport orders finished.
+   */
+  public int getFinishedCount() {
+    return leadTimes.getCount();
+  }
+
+  /**
+   * Returns the number of transport orders failed.
+   *
+   * @return The number of transport orders failed.
+   */
+  public synchronized int getFailedCount() {
+    return failedCount;
+  }
+
+  /**
+   * Returns the number of transport orders neither finished nor failed.
+   *
+   * @return The number of transport orders neither finished nor failed.
+   */
+  public synchronized int getActiveCount() {
+    return createdCount - leadTimes.getCount() - failedCount;
+  }
+
+  /**
+   * Returns the lead times of finished transport orders.
+   *
+   * @return The lead times of finished transport orders (in ms).
+   */
+  public Samples getLeadTimes() {
+    return leadTimes;
+  }
+
+  private synchronized void orderCreated() {
+    createdCount++;
+  }
+
+  private synchronized void orderStateChanged(TransportOrder order) {
+    switch (order.getState()) {
+      case FINISHED:
+        leadTimes.record(clock.millis() - order.getCreationTime());
+        break;
+      case FAILED:
+      case UNROUTABLE:
+        failedCount++;
+        break;
+      default:
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.fleet;
+
+import java.util.Arrays;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+
+/**
+ * Collects measured values and summarizes them with exact percentiles.
+ * This class is thread-safe.
+ */
+class Samples {
+
+  /**
+   * The initial capacity for values.
+   */
+  private static final int INITIAL_CAPACITY = 1024;
+  /**
+   * The values recorded so far, followed by unused capacity.
+   */
+  private long[] values = new long[INITIAL_CAPACITY];
+  /**
+   * The number of values recorded so far.
+   */
+  private int count;
+
+  /**
+   * Creates a new instance.
+   */
+  Samples() {
+  }
+
+  /**
+   * Records the given value.
+   *
+   * @param value The value.
+   */
+  public synchronized void record(long value) {
+    if (count == values.length) {
+      values = Arrays.copyOf(values, count * 2);
+    }
+    values[count++] = value;
+  }
+
+  /**
+   * Returns the number of values recorded so far.
+   *
+   * @return The number of values recorded so far.
+   */
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns a summary of the values recorded so far.
+   *
+   * @return A summary of the values recorded so far.
+   */
+  public synchronized Latency toLatency() {
+    if (count == 0) {
+      return new Latency(0, 0, 0, 0, 0, 0);
+    }
+
+    long[] sorted = Arrays.copyOf(values, count);
+    Arrays.sort(sorted);
+    long total = 0;
+    for (long value : sorted) {
+      total += value;
+    }
+    return new Latency(count,
+                       total / count,
+                       percentile(sorted, 50),
+                       percentile(sorted, 90),
+                       percentile(sorted, 99),
+                       sorted[count - 1]);
+  }
+
+  private static long percentile(long[] sorted, double percentile) {
+    int rank = Math.max(1, (int) Math.ceil(sorted.length * percentile / 100));
+    return sorted[rank - 1];
+  }
+}
@@ -0,0 +1,182 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.persistence;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.benchmarks.routing.SyntheticPlant;
+import org.opentcs.benchmarks.routing.SyntheticPlantGenerator;
+import org.opentcs.kernel.persistence.XMLModelBuilder;
+import org.opentcs.kernel.workingset.Model;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.util.event.SimpleEventBus;
+import org.opentcs.util.persistence.ModelParser;
+
+/**
+ * Compares the load time and peak heap usage of reading a plant model file completely before
+ * creating its elements with those of creating the elements while streaming the file.
+ * <p>
+ * Usage: {@code ModelLoadComparison [point count] [runs]}. The default of 10000 points results in
+ * a grid plant with roughly 50000 model elements. Run with a fixed heap size (e.g.
+ * {@code -Xms2g -Xmx2g}) for comparable peak heap values.
+ * </p>
+ * <p>
+ * Peak heap usage is the sum of the peak usages of all heap memory pools, which are not
+ * necessarily reached at the same time. The value is thus an upper bound, but is determined the
+ * same way for both variants.
+ * </p>
+ */
+public class ModelLoadComparison {
+
+  /**
+   * The number of unmeasured runs per variant.
+   */
+  private static final int WARMUP_RUNS = 3;
+  /**
+   * The seed for generating the plant.
+   */
+  private static final long SEED = 4711L;
+
+  /**
+   * Prevents instantiation.
+   */
+  private ModelLoadComparison() {
+  }
+
+  /**
+   * Runs the comparison.
+   *
+   * @param args The number of points and the number of measured runs per variant.
+   * @throws Exception If writing or reading the model file failed.
+   */
+  public static void main(String[] args)
+      throws Exception {
+    int pointCount = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+    int runs = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+
+    SyntheticPlant plant = SyntheticPlantGenerator.generate(SyntheticPlantGenerator.Layout.GRID,
+                                                            pointCount,
+                                                            0,
+                                                            SEED);
+    File file = File.createTempFile("model-load-", ".xml");
+    file.deleteOnExit();
+    new ModelParser().writeModel(plant.toCreationTO("ModelLoadComparison"), file);
+    System.out.printf("Model file:        %s (%d elements, %d KiB)%n",
+                      file.getAbsolutePath(),
+                      plant.getPoints().size() + plant.getPaths().size()
+                      + plant.getLocations().size() + 1,
+                      file.length() / 1024);
+    plant = null;
+
+    Variant complete = new Variant("Complete (JAXB)") {
+      @Override
+      void load(File file, Model model)
+          throws Exception {
+        PlantModelCreationTO to = new ModelParser().readModel(file);
+        model.clear();
+        model.setName(to.getName());
+        model.setProperties(to.getProperties());
+        model.createPlantModelObjects(to);
+      }
+    };
+    Variant streaming = new Variant("Streaming (StAX)") {
+      @Override
+      void load(File file, Model model)
+          throws Exception {
+        new XMLModelBuilder(new ModelParser()).readXMLModel(file, model);
+      }
+    };
+
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      complete.run(file, false);
+      streaming.run(file, false);
+    }
+    // Alternate the variants so that both are affected by JIT and GC effects alike.
+    for (int i = 0; i < runs; i++) {
+      complete.run(file, true);
+      streaming.run(file, true);
+    }
+
+    complete.printReport();
+    streaming.printReport();
+  }
+
+  /**
+   * A way to load a model.
+   */
+  private abstract static class Variant {
+
+    /**
+     * The variant's name.
+     */
+    private final String name;
+    /**
+     * The sum of all measured load times, in nanoseconds.
+     */
+    private long totalTime;
+    /**
+     * The highest peak heap usage measured, in bytes.
+     */
+    private long maxPeakHeap;
+    /**
+     * The number of measured runs.
+     */
+    private int runCount;
+
+    Variant(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Loads the model in the given file into the given model.
+     *
+     * @param file The model file.
+     * @param model The model.
+     * @throws Exception If loading failed.
+     */
+    abstract void load(File file, Model model)
+        throws Exception;
+
+    void run(File file, boolean measured)
+        throws Exception {
+      Model model = new Model(new TCSObjectPool(new SimpleEventBus()));
+      List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+          .filter(pool -> pool.getType() == MemoryType.HEAP)
+          .collect(Collectors.toList());
+      System.gc();
+      heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+      long start = System.nanoTime();
+      load(file, model);
+      long duration = System.nanoTime() - start;
+      long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+
+      if (measured) {
+        totalTime += duration;
+        maxPeakHeap = Math.max(maxPeakHeap, peakHeap);
+        runCount++;
+        System.out.printf("%-18s %8.1f ms, peak heap %6d MiB%n",
+                          name + ":",
+                          duration / 1_000_000.0,
+                          peakHeap / (1024 * 1024));
+      }
+    }
+
+    void printReport() {
+      System.out.printf("%-18s mean %8.1f ms, max. peak heap %6d MiB%n",
+                        name + ":",
+                        runCount == 0 ? 0.0 : totalTime / 1_000_000.0 / runCount,
+                        maxPeakHeap / (1024 * 1024));
+    }
+  }
+}
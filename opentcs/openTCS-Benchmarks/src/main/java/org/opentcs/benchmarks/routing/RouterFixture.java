@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.List;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.kernel.services.StandardTCSObjectService;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.strategies.basic.routing.DefaultRouterConfiguration;
+import org.opentcs.strategies.basic.routing.OccupancyTable;
+import org.opentcs.strategies.basic.routing.PointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.BellmanFordPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluator;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorCongestion;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorExplicitProperties;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorHops;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorTravelTime;
+import org.opentcs.strategies.basic.routing.jgrapht.FloydWarshallPointRouterFactory;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.opentcs.strategies.basic.routing.jgrapht.RoutingTableStore;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ * Wires a {@link DefaultRouter} for a synthetic plant the same way the kernel's Guice
+ * configuration does, but without an injector.
+ */
+public class RouterFixture {
+
+  /**
+   * The object service providing the plant model.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The router.
+   */
+  private final DefaultRouter router;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param plant The plant model.
+   * @param algorithm The shortest path algorithm to be used.
+   * @param evaluator The edge evaluator to be used.
+   */
+  RouterFixture(SyntheticPlant plant,
+                ShortestPathConfiguration.Algorithm algorithm,
+                ShortestPathConfiguration.EvaluatorType evaluator) {
+    this(createObjectService(plant), algorithm, evaluator);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing the plant model.
+   * @param algorithm The shortest path algorithm to be used.
+   * @param evaluator The edge evaluator to be used.
+   */
+  public RouterFixture(TCSObjectService objectService,
+                       ShortestPathConfiguration.Algorithm algorithm,
+                       ShortestPathConfiguration.EvaluatorType evaluator) {
+    this.objectService = objectService;
+
+    ShortestPathConfiguration spConfiguration = new BenchmarkShortestPathConfiguration(algorithm,
+                                                                                       evaluator);
+    OccupancyTable occupancyTable = new OccupancyTable();
+    EdgeEvaluator edgeEvaluator = createEdgeEvaluator(evaluator, occupancyTable);
+    ModelGraphMapper mapper = new DefaultModelGraphMapper(edgeEvaluator, spConfiguration);
+    router = new DefaultRouter(objectService,
+                               createPointRouterFactory(algorithm,
+                                                        mapper,
+                                                        edgeEvaluator,
+                                                        spConfiguration),
+                               occupancyTable,
+                               new BenchmarkRouterConfiguration());
+    router.initialize();
+  }
+
+  public TCSObjectService getObjectService() {
+    return objectService;
+  }
+
+  public DefaultRouter getRouter() {
+    return router;
+  }
+
+  private static TCSObjectService createObjectService(SyntheticPlant plant) {
+    TCSObjectPool pool = new TCSObjectPool(event -> {
+    });
+    plant.addTo(pool);
+    return new StandardTCSObjectService(new Object(), pool);
+  }
+
+  private EdgeEvaluator createEdgeEvaluator(ShortestPathConfiguration.EvaluatorType type,
+                                            OccupancyTable occupancyTable) {
+    switch (type) {
+      case DISTANCE:
+        return new EdgeEvaluatorDistance();
+      case TRAVELTIME:
+        return new EdgeEvaluatorTravelTime();
+      case HOPS:
+        return new EdgeEvaluatorHops();
+      case EXPLICIT_PROPERTIES:
+        return new EdgeEvaluatorExplicitProperties();
+      case CONGESTION:
+        return new EdgeEvaluatorCongestion(occupancyTable,
+                                           BenchmarkShortestPathConfiguration.CONGESTION_PENALTY);
+      default:
+        throw new IllegalArgumentException("Unsupported evaluator type: " + type);
+    }
+  }
+
+  private PointRouterFactory createPointRouterFactory(ShortestPathConfiguration.Algorithm algorithm,
+                                                      ModelGraphMapper mapper,
+                                                      EdgeEvaluator edgeEvaluator,
+                                                      ShortestPathConfiguration spConfiguration) {
+    switch (algorithm) {
+      case DIJKSTRA:
+        return new DijkstraPointRouterFactory(objectService, mapper);
+      case BELLMAN_FORD:
+        return new BellmanFordPointRouterFactory(objectService, mapper);
+      case FLOYD_WARSHALL:
+        return new FloydWarshallPointRouterFactory(objectService,
+                                                   mapper,
+                                                   edgeEvaluator,
+                                                   // Not used since tables are not persisted.
+                                                   new RoutingTableStore(
+                                                       new File(System.getProperty("java.io.tmpdir"))),
+                                                   spConfiguration);
+      default:
+        throw new IllegalArgumentException("Unhandled algorithm: " + algorithm);
+    }
+  }
+
+  /**
+   * A fixed shortest path configuration.
+   */
+  private static class BenchmarkShortestPathConfiguration
+      implements ShortestPathConfiguration {
+
+    /**
+     * The penalty for congested resources, as in the kernel's default configuration.
+     */
+    private static final int CONGESTION_PENALTY = 5000;
+    /**
+     * The algorithm.
+     */
+    private final Algorithm algorithm;
+    /**
+     * The edge evaluator.
+     */
+    private final EvaluatorType evaluator;
+
+    BenchmarkShortestPathConfiguration(Algorithm algorithm, EvaluatorType evaluator) {
+      this.algorithm = algorithm;
+      this.evaluator = evaluator;
+    }
+
+    @Override
+    public Algorithm algorithm() {
+      return algorithm;
+    }
+
+    @Override
+    public List<EvaluatorType> edgeEvaluators() {
+      return Collections.singletonList(evaluator);
+    }
+
+    @Override
+    public int congestionPenalty() {
+      return CONGESTION_PENALTY;
+    }
+
+    @Override
+    public boolean persistRoutingTables() {
+      return false;
+    }
+  }
+
+  /**
+   * A fixed router configuration.
+   */
+  private static class BenchmarkRouterConfiguration
+      implements DefaultRouterConfiguration {
+
+    @Override
+    public boolean routeToCurrentPosition() {
+      return false;
+    }
+
+    @Override
+    public int routingTableBuilderThreads() {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ * Measures the queries the kernel sends to the {@link DefaultRouter} while dispatching, for every
+ * combination of plant layout, plant size, shortest path algorithm and edge evaluator.
+ * <p>
+ * Each invocation works on the next one of a fixed set of randomly chosen queries, so results are
+ * not skewed by a single (short or long) route.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+
+  /**
+   * The number of distinct queries to cycle through.
+   */
+  private static final int QUERY_COUNT = 256;
+  /**
+   * The number of drive orders in each transport order.
+   */
+  private static final int DRIVE_ORDER_COUNT = 2;
+  /**
+   * The number of vehicles in the plant.
+   */
+  private static final int VEHICLE_COUNT = 10;
+
+  @Param({"GRID", "WAREHOUSE", "RANDOM"})
+  public SyntheticPlantGenerator.Layout layout;
+
+  @Param({"100", "1000"})
+  public int pointCount;
+
+  @Param({"DIJKSTRA", "BELLMAN_FORD", "FLOYD_WARSHALL"})
+  public ShortestPathConfiguration.Algorithm algorithm;
+
+  @Param({"DISTANCE", "TRAVELTIME", "HOPS", "EXPLICIT_PROPERTIES", "CONGESTION"})
+  public ShortestPathConfiguration.EvaluatorType evaluator;
+
+  private DefaultRouter router;
+
+  private Vehicle vehicle;
+
+  private Point[] sourcePoints;
+
+  private Point[] destinationPoints;
+
+  private TransportOrder[] transportOrders;
+
+  private int queryIndex;
+
+  @Setup
+  public void setUp() {
+    SyntheticPlant plant = SyntheticPlantGenerator.generate(layout, pointCount, VEHICLE_COUNT, 1L);
+    router = new RouterFixture(plant, algorithm, evaluator).getRouter();
+    vehicle = plant.getVehicles().get(0);
+
+    Random random = new Random(2L);
+    List<Point> points = plant.getPoints();
+    List<Location> locations = plant.getLocations();
+    sourcePoints = new Point[QUERY_COUNT];
+    destinationPoints = new Point[QUERY_COUNT];
+    transportOrders = new TransportOrder[QUERY_COUNT];
+    for (int i = 0; i < QUERY_COUNT; i++) {
+      sourcePoints[i] = points.get(random.nextInt(points.size()));
+      destinationPoints[i] = points.get(random.nextInt(points.size()));
+
+      List<DriveOrder> driveOrders = new ArrayList<>(DRIVE_ORDER_COUNT);
+      for (int j = 0; j < DRIVE_ORDER_COUNT; j++) {
+        Location location = locations.get(random.nextInt(locations.size()));
+        driveOrders.add(new DriveOrder(new DriveOrder.Destination(location.getReference())));
+      }
+      transportOrders[i] = new TransportOrder("TOrder-" + (i + 1), driveOrders);
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    router.terminate();
+  }
+
+  @Benchmark
+  public Optional<Route> getRoute() {
+    int index = nextQueryIndex();
+    return router.getRoute(vehicle, sourcePoints[index], destinationPoints[index]);
+  }
+
+  @Benchmark
+  public Optional<List<DriveOrder>> getRouteForTransportOrder() {
+    int index = nextQueryIndex();
+    return router.getRoute(vehicle, sourcePoints[index], transportOrders[index]);
+  }
+
+  @Benchmark
+  public long getCosts() {
+    int index = nextQueryIndex();
+    return router.getCosts(vehicle, sourcePoints[index], destinationPoints[index]);
+  }
+
+  @Benchmark
+  public Set<Vehicle> checkRoutability() {
+    return router.checkRoutability(transportOrders[nextQueryIndex()]);
+  }
+
+  private int nextQueryIndex() {
+    queryIndex = (queryIndex + 1) % QUERY_COUNT;
+    return queryIndex;
+  }
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+
+/**
+ * Measures how long the {@link DefaultRouter} takes to rebuild its routing tables, which happens
+ * whenever the topology changes.
+ * <p>
+ * Since a rebuild takes long compared to single routing queries, every invocation is measured
+ * separately.
+ * </p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class RoutingTableBenchmark {
+
+  /**
+   * The number of vehicles in the plant.
+   */
+  private static final int VEHICLE_COUNT = 10;
+
+  @Param({"GRID", "WAREHOUSE", "RANDOM"})
+  public SyntheticPlantGenerator.Layout layout;
+
+  @Param({"100", "1000"})
+  public int pointCount;
+
+  @Param({"DIJKSTRA", "BELLMAN_FORD", "FLOYD_WARSHALL"})
+  public ShortestPathConfiguration.Algorithm algorithm;
+
+  @Param({"DISTANCE", "TRAVELTIME", "HOPS", "EXPLICIT_PROPERTIES", "CONGESTION"})
+  public ShortestPathConfiguration.EvaluatorType evaluator;
+
+  private DefaultRouter router;
+
+  @Setup
+  public void setUp() {
+    SyntheticPlant plant = SyntheticPlantGenerator.generate(layout, pointCount, VEHICLE_COUNT, 1L);
+    router = new RouterFixture(plant, algorithm, evaluator).getRouter();
+  }
+
+  @TearDown
+  public void tearDown() {
+    router.terminate();
+  }
+
+  @Benchmark
+  public void updateRoutingTables() {
+    router.updateRoutingTables();
+  }
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.opentcs.access.to.model.LocationCreationTO;
+import org.opentcs.access.to.model.LocationTypeCreationTO;
+import org.opentcs.access.to.model.PathCreationTO;
+import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.access.to.model.PointCreationTO;
+import org.opentcs.access.to.model.VehicleCreationTO;
+import org.opentcs.common.LoopbackAdapterConstants;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+
+/**
+ * A generated plant model.
+ */
+public class SyntheticPlant {
+
+  /**
+   * The points, in the order they were generated.
+   */
+  private final List<Point> points = new ArrayList<>();
+  /**
+   * The paths.
+   */
+  private final List<Path> paths = new ArrayList<>();
+  /**
+   * The location type of all locations.
+   */
+  private final LocationType locationType;
+  /**
+   * The locations.
+   */
+  private final List<Location> locations = new ArrayList<>();
+  /**
+   * The vehicles.
+   */
+  private final List<Vehicle> vehicles = new ArrayList<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param locationType The location type of all locations.
+   */
+  SyntheticPlant(LocationType locationType) {
+    this.locationType = locationType;
+  }
+
+  public List<Point> getPoints() {
+    return Collections.unmodifiableList(points);
+  }
+
+  public List<Path> getPaths() {
+    return Collections.unmodifiableList(paths);
+  }
+
+  public LocationType getLocationType() {
+    return locationType;
+  }
+
+  public List<Location> getLocations() {
+    return Collections.unmodifiableList(locations);
+  }
+
+  public List<Vehicle> getVehicles() {
+    return Collections.unmodifiableList(vehicles);
+  }
+
+  /**
+   * Adds all objects of this plant to the given pool.
+   *
+   * @param pool The pool.
+   */
+  public void addTo(TCSObjectPool pool) {
+    Set<TCSObject<?>> objects = new HashSet<>();
+    objects.addAll(points);
+    objects.addAll(paths);
+    objects.add(locationType);
+    objects.addAll(locations);
+    objects.addAll(vehicles);
+    for (TCSObject<?> object : objects) {
+      pool.addObject(object);
+    }
+  }
+
+  /**
+   * Returns a transfer object for creating this plant in a kernel.
+   * The vehicles' current positions become their initial positions with the loopback driver.
+   *
+   * @param name The plant model's name.
+   * @return A transfer object for creating this plant.
+   */
+  public PlantModelCreationTO toCreationTO(String name) {
+    PlantModelCreationTO to = new PlantModelCreationTO(name)
+        .withLocationType(new LocationTypeCreationTO(locationType.getName())
+            .withAllowedOperations(new ArrayList<>(locationType.getAllowedOperations())));
+    for (Point point : points) {
+      to = to.withPoint(new PointCreationTO(point.getName())
+          .withPosition(point.getPosition())
+          .withType(point.getType()));
+    }
+    for (Path path : paths) {
+      to = to.withPath(new PathCreationTO(path.getName(),
+                                          path.getSourcePoint().getName(),
+                                          path.getDestinationPoint().getName())
+          .withLength(path.getLength())
+          .withMaxVelocity(path.getMaxVelocity())
+          .withMaxReverseVelocity(path.getMaxReverseVelocity())
+          .withProperties(path.getProperties()));
+    }
+    for (Location location : locations) {
+      LocationCreationTO locationTO = new LocationCreationTO(location.getName(),
+                                                             locationType.getName(),
+                                                             location.getPosition());
+      for (Location.Link link : location.getAttachedLinks()) {
+        locationTO = locationTO.withLink(link.getPoint().getName(), link.getAllowedOperations());
+      }
+      to = to.withLocation(locationTO);
+    }
+    for (Vehicle vehicle : vehicles) {
+      VehicleCreationTO vehicleTO = new VehicleCreationTO(vehicle.getName())
+          .withMaxVelocity(vehicle.getMaxVelocity())
+          .withMaxReverseVelocity(vehicle.getMaxReverseVelocity());
+      if (vehicle.getCurrentPosition() != null) {
+        vehicleTO = vehicleTO.withProperty(LoopbackAdapterConstants.PROPKEY_INITIAL_POSITION,
+                                           vehicle.getCurrentPosition().getName());
+      }
+      to = to.withVehicle(vehicleTO);
+    }
+    return to;
+  }
+
+  void addPoint(Point point) {
+    points.add(point);
+  }
+
+  void addPath(Path path) {
+    paths.add(path);
+  }
+
+  void addLocation(Location location) {
+    locations.add(location);
+  }
+
+  void addVehicle(Vehicle vehicle) {
+    vehicles.add(vehicle);
+  }
+}
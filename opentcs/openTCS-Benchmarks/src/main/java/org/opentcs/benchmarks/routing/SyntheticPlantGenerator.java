@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.routing;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import static org.opentcs.components.kernel.Router.PROPKEY_ROUTING_COST_FORWARD;
+import static org.opentcs.components.kernel.Router.PROPKEY_ROUTING_COST_REVERSE;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.data.model.Vehicle;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Generates plant models of configurable size for benchmarking.
+ * <p>
+ * All generated plants are strongly connected, so there is a route between any two points.
+ * Every path carries explicit routing costs (equal to its length) so that all edge evaluators can
+ * be applied to it.
+ * </p>
+ */
+public class SyntheticPlantGenerator {
+
+  /**
+   * The distance between neighbouring points (in mm).
+   */
+  private static final int SPACING = 2000;
+  /**
+   * The number of points in an aisle of a warehouse layout.
+   */
+  private static final int AISLE_LENGTH = 20;
+  /**
+   * The number of neighbours each point of a random layout is connected to.
+   */
+  private static final int RANDOM_DEGREE = 3;
+  /**
+   * Every n-th point gets a location attached.
+   */
+  private static final int LOCATION_INTERVAL = 10;
+  /**
+   * The maximum velocity of paths and vehicles (in mm/s).
+   */
+  private static final int MAX_VELOCITY = 1000;
+
+  /**
+   * The available layouts.
+   */
+  public enum Layout {
+    /**
+     * A rectangular grid of bidirectional paths.
+     */
+    GRID,
+    /**
+     * Parallel one-way aisles of alternating direction, connected by bidirectional cross aisles at
+     * both ends.
+     */
+    WAREHOUSE,
+    /**
+     * Randomly placed points, each connected to its nearest neighbours.
+     */
+    RANDOM
+  }
+
+  /**
+   * The plant being generated.
+   */
+  private final SyntheticPlant plant = new SyntheticPlant(new LocationType("LocationType-1"));
+  /**
+   * The names of the paths generated so far, used to avoid duplicates.
+   */
+  private final Set<String> pathNames = new HashSet<>();
+  /**
+   * The source of randomness.
+   */
+  private final Random random;
+
+  private SyntheticPlantGenerator(long seed) {
+    this.random = new Random(seed);
+  }
+
+  /**
+   * Generates a plant.
+   *
+   * @param layout The layout of the plant.
+   * @param pointCount The (approximate) number of points to generate.
+   * @param vehicleCount The number of vehicles to generate.
+   * @param seed The seed for randomized decisions. The same seed yields the same plant.
+   * @return The generated plant.
+   */
+  public static SyntheticPlant generate(Layout layout, int pointCount, int vehicleCount, long seed) {
+    checkArgument(pointCount >= 2, "pointCount %s < 2", pointCount);
+    checkArgument(vehicleCount >= 0, "vehicleCount %s < 0", vehicleCount);
+
+    SyntheticPlantGenerator generator = new SyntheticPlantGenerator(seed);
+    switch (layout) {
+      case GRID:
+        generator.generateGrid(pointCount);
+        break;
+      case WAREHOUSE:
+        generator.generateWarehouse(pointCount);
+        break;
+      case RANDOM:
+        generator.generateRandom(pointCount);
+        break;
+      default:
+        throw new IllegalArgumentException("Unhandled layout: " + layout);
+    }
+    generator.generateLocations();
+    generator.generateVehicles(vehicleCount);
+    return generator.plant;
+  }
+
+  private void generateGrid(int pointCount) {
+    int width = (int) Math.ceil(Math.sqrt(pointCount));
+    int height = (pointCount + width - 1) / width;
+
+    Point[][] grid = new Point[width][height];
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        grid[x][y] = createPoint(x * SPACING, y * SPACING);
+      }
+    }
+    for (int x = 0; x < width; x++) {
+      for (int y = 0; y < height; y++) {
+        if (x + 1 < width) {
+          createPath(grid[x][y], grid[x + 1][y], true);
+        }
+        if (y + 1 < height) {
+          createPath(grid[x][y], grid[x][y + 1], true);
+        }
+      }
+    }
+  }
+
+  private void generateWarehouse(int pointCount) {
+    int aisleCount = Math.max(2, (pointCount + AISLE_LENGTH - 1) / AISLE_LENGTH);
+
+    Point[][] aisles = new Point[aisleCount][AISLE_LENGTH];
+    for (int aisle = 0; aisle < aisleCount; aisle++) {
+      for (int pos = 0; pos < AISLE_LENGTH; pos++) {
+        aisles[aisle][pos] = createPoint(aisle * SPACING, pos * SPACING);
+      }
+    }
+    for (int aisle = 0; aisle < aisleCount; aisle++) {
+      // Aisles are one-way, alternating between up and down.
+      for (int pos = 0; pos + 1 < AISLE_LENGTH; pos++) {
+        if (aisle % 2 == 0) {
+          createPath(aisles[aisle][pos], aisles[aisle][pos + 1], false);
+        }
+        else {
+          createPath(aisles[aisle][pos + 1], aisles[aisle][pos], false);
+        }
+      }
+      // Cross aisles at both ends.
+      if (aisle + 1 < aisleCount) {
+        createPath(aisles[aisle][0], aisles[aisle + 1][0], true);
+        createPath(aisles[aisle][AISLE_LENGTH - 1], aisles[aisle + 1][AISLE_LENGTH - 1], true);
+      }
+    }
+  }
+
+  private void generateRandom(int pointCount) {
+    long extent = (long) Math.ceil(Math.sqrt(pointCount)) * SPACING;
+
+    List<Point> points = new ArrayList<>(pointCount);
+    for (int i = 0; i < pointCount; i++) {
+      points.add(createPoint((long) (random.nextDouble() * extent),
+                             (long) (random.nextDouble() * extent)));
+    }
+    // A chain through all points keeps the plant connected.
+    for (int i = 0; i + 1 < pointCount; i++) {
+      createPath(points.get(i), points.get(i + 1), true);
+    }
+    for (Point point : points) {
+      List<Point> neighbours = new ArrayList<>(points);
+      neighbours.remove(point);
+      neighbours.sort(Comparator.comparingDouble(other -> distance(point, other)));
+      for (Point neighbour : neighbours.subList(0, Math.min(RANDOM_DEGREE, neighbours.size()))) {
+        createPath(point, neighbour, true);
+      }
+    }
+  }
+
+  private void generateLocations() {
+    List<Point> points = plant.getPoints();
+    for (int i = 0; i < points.size(); i += LOCATION_INTERVAL) {
+      Point point = points.get(i);
+      Location location = new Location("Location-" + (plant.getLocations().size() + 1),
+                                       plant.getLocationType().getReference())
+          .withPosition(point.getPosition());
+      location = location.withAttachedLinks(Collections.singleton(
+          new Location.Link(location.getReference(), point.getReference())));
+      plant.addLocation(location);
+    }
+  }
+
+  private void generateVehicles(int vehicleCount) {
+    List<Point> points = plant.getPoints();
+    for (int i = 0; i < vehicleCount; i++) {
+      Point position = points.get(random.nextInt(points.size()));
+      plant.addVehicle(new Vehicle("Vehicle-" + (i + 1))
+          .withMaxVelocity(MAX_VELOCITY)
+          .withMaxReverseVelocity(MAX_VELOCITY)
+          .withCurrentPosition(position.getReference()));
+    }
+  }
+
+  private Point createPoint(long x, long y) {
+    Point point = new Point(String.format("Point-%06d", plant.getPoints().size() + 1))
+        .withPosition(new Triple(x, y, 0));
+    plant.addPoint(point);
+    return point;
+  }
+
+  private void createPath(Point source, Point destination, boolean bidirectional) {
+    String name = source.getName() + " --- " + destination.getName();
+    String reverseName = destination.getName() + " --- " + source.getName();
+    if (pathNames.contains(name) || (bidirectional && pathNames.contains(reverseName))) {
+      return;
+    }
+    pathNames.add(name);
+
+    long length = Math.max(1, Math.round(distance(source, destination)));
+    plant.addPath(new Path(name, source.getReference(), destination.getReference())
+        .withLength(length)
+        .withMaxVelocity(MAX_VELOCITY)
+        .withMaxReverseVelocity(bidirectional ? MAX_VELOCITY : 0)
+        .withProperty(PROPKEY_ROUTING_COST_FORWARD, Long.toString(length))
+        .withProperty(PROPKEY_ROUTING_COST_REVERSE, Long.toString(length)));
+  }
+
+  private static double distance(Point point1, Point point2) {
+    double dx = point1.getPosition().getX() - point2.getPosition().getX();
+    double dy = point1.getPosition().getY() - point2.getPosition().getY();
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+}
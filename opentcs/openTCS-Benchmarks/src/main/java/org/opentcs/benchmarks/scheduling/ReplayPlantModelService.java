@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.scheduling;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.ObjectUnknownException;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+import org.opentcs.kernel.persistence.InvalidModelException;
+import org.opentcs.kernel.persistence.XMLModelBuilder;
+import org.opentcs.kernel.services.AbstractTCSObjectService;
+import org.opentcs.kernel.services.StandardTCSObjectService;
+import org.opentcs.kernel.workingset.Model;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.util.persistence.ModelParser;
+
+/**
+ * Provides a plant model read from a file, without a kernel.
+ * The plant model cannot be modified.
+ */
+class ReplayPlantModelService
+    extends AbstractTCSObjectService
+    implements InternalPlantModelService {
+
+  /**
+   * The plant model.
+   */
+  private final Model model;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param objectService The object service providing the plant model's objects.
+   * @param model The plant model.
+   */
+  private ReplayPlantModelService(StandardTCSObjectService objectService, Model model) {
+    super(objectService);
+    this.model = model;
+  }
+
+  /**
+   * Reads the plant model from the given file.
+   *
+   * @param modelFile The file.
+   * @return A plant model service providing the plant model.
+   * @throws IOException If the file could not be read.
+   * @throws InvalidModelException If the file does not contain a valid plant model.
+   */
+  public static ReplayPlantModelService load(File modelFile)
+      throws IOException, InvalidModelException {
+    TCSObjectPool pool = new TCSObjectPool(event -> {
+    });
+    Model model = new Model(pool);
+    new XMLModelBuilder(new ModelParser()).readXMLModel(modelFile, model);
+    return new ReplayPlantModelService(new StandardTCSObjectService(new Object(), pool), model);
+  }
+
+  @Override
+  public Set<TCSResource<?>> expandResources(Set<TCSResourceReference<?>> resources)
+      throws ObjectUnknownException {
+    return model.expandResources(resources);
+  }
+
+  @Override
+  public void loadPlantModel()
+      throws IllegalStateException {
+    throw new UnsupportedOperationException("Not supported when replaying.");
+  }
+
+  @Override
+  public void savePlantModel()
+      throws IllegalStateException {
+    throw new UnsupportedOperationException("Not supported when replaying.");
+  }
+
+  @Override
+  public void createPlantModel(PlantModelCreationTO to) {
+    throw new UnsupportedOperationException("Not supported when replaying.");
+  }
+
+  @Override
+  @Deprecated
+  public String getLoadedModelName() {
+    return getModelName();
+  }
+
+  @Override
+  public String getModelName() {
+    return model.getName();
+  }
+
+  @Override
+  public Map<String, String> getModelProperties() {
+    return model.getProperties();
+  }
+
+  @Override
+  @Deprecated
+  public String getPersistentModelName() {
+    return getModelName();
+  }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.scheduling;
+
+import com.google.inject.AbstractModule;
+import java.io.File;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import javax.inject.Provider;
+import org.opentcs.benchmarks.routing.RouterFixture;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.configuration.ConfigurationBindingProvider;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.strategies.basic.dispatching.RerouteUtil;
+import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
+import org.opentcs.strategies.basic.scheduling.DefaultScheduler;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerModule;
+import org.opentcs.util.event.EventHandler;
+
+/**
+ * Binds a {@link DefaultScheduler} with a given configuration using the kernel's Guice
+ * configuration, but for a plant model without a kernel.
+ * Deadlock resolution is not supported, since it requires vehicles to be rerouted.
+ */
+class ReplaySchedulerModule
+    extends AbstractModule {
+
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * Provides the plant model.
+   */
+  private final ReplayPlantModelService plantModelService;
+  /**
+   * Executes scheduling tasks.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The scheduler's configuration.
+   * @param plantModelService Provides the plant model.
+   * @param kernelExecutor Executes scheduling tasks.
+   */
+  ReplaySchedulerModule(DefaultSchedulerConfiguration configuration,
+                        ReplayPlantModelService plantModelService,
+                        ScheduledExecutorService kernelExecutor) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.plantModelService = requireNonNull(plantModelService, "plantModelService");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+  }
+
+  @Override
+  protected void configure() {
+    bind(Object.class).annotatedWith(GlobalSyncObject.class).toInstance(new Object());
+    bind(ScheduledExecutorService.class)
+        .annotatedWith(KernelExecutor.class)
+        .toInstance(kernelExecutor);
+    bind(EventHandler.class)
+        .annotatedWith(ApplicationEventBus.class)
+        .toInstance(event -> {
+        });
+    bind(File.class)
+        .annotatedWith(ApplicationHome.class)
+        .toInstance(new File(System.getProperty("java.io.tmpdir")));
+
+    bind(InternalPlantModelService.class).toInstance(plantModelService);
+    bind(TCSObjectService.class).toInstance(plantModelService);
+    bind(Router.class).toInstance(
+        new RouterFixture(plantModelService,
+                          ShortestPathConfiguration.Algorithm.DIJKSTRA,
+                          ShortestPathConfiguration.EvaluatorType.DISTANCE)
+            .getRouter());
+    bind(RerouteUtil.class).toProvider(UnsupportedRerouteUtilProvider.class);
+
+    DefaultSchedulerModule schedulerModule = new DefaultSchedulerModule();
+    schedulerModule.setConfigBindingProvider(new ReplayConfigurationBindingProvider());
+    install(schedulerModule);
+  }
+
+  /**
+   * Provides the scheduler's configuration.
+   */
+  private class ReplayConfigurationBindingProvider
+      implements ConfigurationBindingProvider {
+
+    @Override
+    public <T> T get(String prefix, Class<T> type) {
+      if (type != DefaultSchedulerConfiguration.class) {
+        throw new IllegalArgumentException("Unsupported configuration type: " + type);
+      }
+      return type.cast(configuration);
+    }
+  }
+
+  /**
+   * Refuses to provide the utility for rerouting vehicles, as there are no vehicles to reroute.
+   */
+  private static class UnsupportedRerouteUtilProvider
+      implements Provider<RerouteUtil> {
+
+    @Override
+    public RerouteUtil get() {
+      throw new UnsupportedOperationException("Rerouting is not supported when replaying.");
+    }
+  }
+}
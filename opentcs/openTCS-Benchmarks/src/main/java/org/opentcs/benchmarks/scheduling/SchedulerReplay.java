@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.benchmarks.scheduling;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.File;
+import java.io.FileInputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.opentcs.access.SchedulerAllocationStatistics;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+import org.opentcs.access.SchedulerAllocationStatistics.ResourceStatistics;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.SchedulerTraceReader;
+import org.opentcs.strategies.basic.scheduling.SchedulerTraceReplayer;
+
+/**
+ * Replays a scheduler trace recorded by the kernel on a {@link Scheduler} without a kernel and
+ * reports the scheduler's throughput and the allocations' wait times.
+ * <p>
+ * Usage: {@code SchedulerReplay <plant model file> <trace file> [options]}, with options:
+ * </p>
+ * <ul>
+ * <li>{@code --speed=<factor>}: Replay the operations at their recorded points of time,
+ * accelerated by the given factor. By default, operations are replayed as fast as possible.</li>
+ * <li>{@code --allocationLocking=<GLOBAL|FINE_GRAINED>}: The scheduler's allocation locking.
+ * Defaults to GLOBAL.</li>
+ * <li>{@code --deadlockAvoidance=<true|false>}: Whether the scheduler avoids deadlocks.
+ * Defaults to true.</li>
+ * <li>{@code --stallTimeout=<ms>}: The maximum time to wait for pending allocations at the end of
+ * the trace. Defaults to 5000.</li>
+ * </ul>
+ */
+public class SchedulerReplay {
+
+  /**
+   * The number of most contended resources reported.
+   */
+  private static final int REPORTED_RESOURCE_COUNT = 10;
+
+  /**
+   * Prevents instantiation.
+   */
+  private SchedulerReplay() {
+  }
+
+  /**
+   * Replays a scheduler trace.
+   *
+   * @param args The plant model file, the trace file and options.
+   * @throws Exception If the replay failed.
+   */
+  public static void main(String[] args)
+      throws Exception {
+    if (args.length < 2) {
+      System.err.println("Usage: SchedulerReplay <plant model file> <trace file> [--speed=<factor>]"
+          + " [--allocationLocking=<GLOBAL|FINE_GRAINED>] [--deadlockAvoidance=<true|false>]"
+          + " [--stallTimeout=<ms>]");
+      System.exit(1);
+    }
+
+    Map<String, String> options = parseOptions(args);
+    ReplayConfiguration configuration = new ReplayConfiguration(
+        DefaultSchedulerConfiguration.AllocationLocking.valueOf(
+            options.getOrDefault("allocationLocking", "GLOBAL")),
+        Boolean.parseBoolean(options.getOrDefault("deadlockAvoidance", "true")));
+    double speed = Double.parseDouble(options.getOrDefault("speed", "0"));
+    long stallTimeout = Long.parseLong(options.getOrDefault("stallTimeout", "5000"));
+
+    ReplayPlantModelService plantModelService = ReplayPlantModelService.load(new File(args[0]));
+    ScheduledExecutorService kernelExecutor = Executors.newSingleThreadScheduledExecutor();
+    Injector injector = Guice.createInjector(new ReplaySchedulerModule(configuration,
+                                                                       plantModelService,
+                                                                       kernelExecutor));
+    Scheduler scheduler = injector.getInstance(Scheduler.class);
+    scheduler.initialize();
+
+    SchedulerTraceReplayer.Result result;
+    try (SchedulerTraceReader reader = new SchedulerTraceReader(new FileInputStream(args[1]),
+                                                                plantModelService)) {
+      result = new SchedulerTraceReplayer(scheduler, speed, stallTimeout).replay(reader);
+    }
+    finally {
+      kernelExecutor.shutdown();
+    }
+
+    printReport(result, scheduler.getAllocationStatistics(REPORTED_RESOURCE_COUNT));
+    scheduler.terminate();
+  }
+
+  private static Map<String, String> parseOptions(String[] args) {
+    Map<String, String> options = new HashMap<>();
+    for (int i = 2; i < args.length; i++) {
+      if (!args[i].startsWith("--") || !args[i].contains("=")) {
+        throw new IllegalArgumentException("Malformed option: " + args[i]);
+      }
+      int separator = args[i].indexOf('=');
+      options.put(args[i].substring(2, separator), args[i].substring(separator + 1));
+    }
+    return options;
+  }
+
+  private static void printReport(SchedulerTraceReplayer.Result result,
+                                  SchedulerAllocationStatistics statistics) {
+    System.out.printf("Operations:        %d (%d failed)%n",
+                      result.getOperationCount(),
+                      result.getErrorCount());
+    System.out.printf("Duration:          %d ms%n", result.getDuration());
+    System.out.printf("Throughput:        %.1f operations/s%n", result.getThroughput());
+    System.out.printf("Allocations:       %d granted, %d failed%n",
+                      result.getGrantedCount(),
+                      result.getFailedCount());
+    System.out.printf("Stalled clients:   %s%n", result.getStalledClients());
+    Latency waitTimes = statistics.getWaitTimes();
+    System.out.printf("Wait times (ms):   mean %d, p50 %d, p90 %d, p99 %d, max %d%n",
+                      waitTimes.getMean(),
+                      waitTimes.getP50(),
+                      waitTimes.getP90(),
+                      waitTimes.getP99(),
+                      waitTimes.getMax());
+    System.out.println("Most contended resources:");
+    for (ResourceStatistics resource : statistics.getMostContendedResources()) {
+      System.out.printf("  %-30s %-8s %6d deferrals, %8d ms waited%n",
+                        resource.getName(),
+                        resource.getType(),
+                        resource.getDeferralCount(),
+                        resource.getTotalWaitTime());
+    }
+  }
+
+  /**
+   * The scheduler's configuration for a replay.
+   */
+  private static class ReplayConfiguration
+      implements DefaultSchedulerConfiguration {
+
+    /**
+     * How resource allocations are synchronized.
+     */
+    private final AllocationLocking allocationLocking;
+    /**
+     * Whether to avoid deadlocks.
+     */
+    private final boolean deadlockAvoidance;
+
+    ReplayConfiguration(AllocationLocking allocationLocking, boolean deadlockAvoidance) {
+      this.allocationLocking = allocationLocking;
+      this.deadlockAvoidance = deadlockAvoidance;
+    }
+
+    @Override
+    public AllocationLocking allocationLocking() {
+      return allocationLocking;
+    }
+
+    @Override
+    public boolean deadlockAvoidance() {
+      return deadlockAvoidance;
+    }
+
+    @Override
+    public DeadlockResolution deadlockResolution() {
+      return DeadlockResolution.NONE;
+    }
+
+    @Override
+    public int deadlockRerouteRouteCount() {
+      return 0;
+    }
+
+    @Override
+    public boolean traceRecording() {
+      return false;
+    }
+  }
+}
@@ -8,6 +8,7 @@
 package org.opentcs.virtualvehicle;
 
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import javax.inject.Singleton;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -39,6 +40,9 @@ public class LoopbackCommAdapterModule
     bind(VirtualVehicleConfiguration.class)
         .toInstance(configuration);
 
+    bind(SimulationEngine.class)
+        .in(Singleton.class);
+
     install(new FactoryModuleBuilder().build(LoopbackAdapterComponentsFactory.class));
     
     // tag::documentation_createCommAdapterModule[]
@@ -35,6 +35,7 @@ import org.opentcs.drivers.vehicle.messages.SetSpeedMultiplier;
 import org.opentcs.util.CyclicTask;
 import org.opentcs.util.ExplainedBoolean;
 import org.opentcs.virtualvehicle.VelocityController.WayEntry;
+import org.opentcs.virtualvehicle.VirtualVehicleConfiguration.SimulationMode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -82,10 +83,18 @@ public class LoopbackCommunicationAdapter
    * The kernel's executor.
    */
   private final ExecutorService kernelExecutor;
+  /**
+   * Drives the simulation of all virtual vehicles in discrete event mode.
+   */
+  private final SimulationEngine simulationEngine;
   /**
    * The task simulating the virtual vehicle's behaviour.
    */
   private CyclicTask vehicleSimulationTask;
+  /**
+   * The simulation of the virtual vehicle's behaviour in discrete event mode.
+   */
+  private DiscreteEventSimulation discreteEventSimulation;
   /**
    * The boolean flag to check if execution of the next command is allowed.
    */
@@ -110,12 +119,14 @@ public class LoopbackCommunicationAdapter
    * @param configuration This class's configuration.
    * @param vehicle The vehicle this adapter is associated with.
    * @param kernelExecutor The kernel's executor.
+   * @param simulationEngine Drives the simulation of all virtual vehicles in discrete event mode.
    */
   @Inject
   public LoopbackCommunicationAdapter(LoopbackAdapterComponentsFactory componentsFactory,
                                       VirtualVehicleConfiguration configuration,
                                       @Assisted Vehicle vehicle,
-                                      @KernelExecutor ExecutorService kernelExecutor) {
+                                      @KernelExecutor ExecutorService kernelExecutor,
+                                      SimulationEngine simulationEngine) {
     super(new LoopbackVehicleModel(vehicle),
           configuration.commandQueueCapacity(),
           1,
@@ -124,6 +135,7 @@ public class LoopbackCommunicationAdapter
     this.configuration = requireNonNull(configuration, "configuration");
     this.componentsFactory = requireNonNull(componentsFactory, "componentsFactory");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.simulationEngine = requireNonNull(simulationEngine, "simulationEngine");
   }
 
   @Override
@@ -187,10 +199,16 @@ public class LoopbackCommunicationAdapter
       return;
     }
     getProcessModel().getVelocityController().addVelocityListener(getProcessModel());
-    // Create task for vehicle simulation.
-    vehicleSimulationTask = new VehicleSimulationTask();
-    Thread simThread = new Thread(vehicleSimulationTask, getName() + "-simulationTask");
-    simThread.start();
+    if (configuration.simulationMode() == SimulationMode.DISCRETE_EVENT) {
+      discreteEventSimulation = new DiscreteEventSimulation();
+      discreteEventSimulation.start();
+    }
+    else {
+      // Create task for vehicle simulation.
+      vehicleSimulationTask = new VehicleSimulationTask();
+      Thread simThread = new Thread(vehicleSimulationTask, getName() + "-simulationTask");
+      simThread.start();
+    }
     super.enable();
   }
 
@@ -200,8 +218,14 @@ public class LoopbackCommunicationAdapter
       return;
     }
     // Disable vehicle simulation.
-    vehicleSimulationTask.terminate();
-    vehicleSimulationTask = null;
+    if (discreteEventSimulation != null) {
+      discreteEventSimulation.terminate();
+      discreteEventSimulation = null;
+    }
+    else {
+      vehicleSimulationTask.terminate();
+      vehicleSimulationTask = null;
+    }
     getProcessModel().getVelocityController().removeVelocityListener(getProcessModel());
     super.disable();
   }
@@ -225,6 +249,9 @@ public class LoopbackCommunicationAdapter
     singleStepExecutionAllowed = false;
     // Don't do anything else - the command will be put into the sentQueue
     // automatically, where it will be picked up by the simulation task.
+    if (discreteEventSimulation != null) {
+      discreteEventSimulation.commandSent();
+    }
   }
 
   @Override
@@ -349,7 +376,7 @@ public class LoopbackCommunicationAdapter
       synchronized (LoopbackCommunicationAdapter.this) {
         curCommand = getSentQueue().peek();
       }
-      simAdvanceTime = (int) (ADVANCE_TIME * configuration.simulationTimeFactor());
+      simAdvanceTime = (int) (ADVANCE_TIME * simulationEngine.getTimeFactor());
       if (curCommand == null) {
         Uninterruptibles.sleepUninterruptibly(ADVANCE_TIME, TimeUnit.MILLISECONDS);
         getProcessModel().getVelocityController().advanceTime(simAdvanceTime);
@@ -366,31 +393,7 @@ public class LoopbackCommunicationAdapter
         }
         LOG.debug("Processed MovementCommand.");
         if (!isTerminated()) {
-          // Set the vehicle's state back to IDLE, but only if there aren't 
-          // any more movements to be processed.
-          //将车辆状态重新设置为空闲，但前提是没有任何要处理的移动。
-          if (getSentQueue().size() <= 1 && getCommandQueue().isEmpty()) {
-            getProcessModel().setVehicleState(Vehicle.State.IDLE);
-          }
-          // Update GUI.
-          synchronized (LoopbackCommunicationAdapter.this) {
-            MovementCommand sentCmd = getSentQueue().poll();
-            // If the command queue was cleared in the meantime, the kernel
-            // might be surprised to hear we executed a command we shouldn't
-            // have, so we only peek() at the beginning of this method and
-            // poll() here. If sentCmd is null, the queue was probably cleared
-            // and we shouldn't report anything back.
-            /**
-             * 如果同时清除了命令队列，内核可能会惊讶地听到我们执行了一个不应该执行的命令，
-             * 因此我们只在这个方法的开头使用peek（）和poll（）。
-             * 如果sentCmd为空，则队列可能已清除，我们不应报告任何内容
-             */
-            if (sentCmd != null && sentCmd.equals(curCommand)) {
-              // Let the vehicle manager know we've finished this command.
-              getProcessModel().commandExecuted(curCommand);
-              LoopbackCommunicationAdapter.this.notify();
-            }
-          }
+          commandProcessed(curCommand);
         }
       }
     }
@@ -411,24 +414,8 @@ public class LoopbackCommunicationAdapter
         return;
       }
 
-      Orientation orientation = step.getVehicleOrientation();
-      long pathLength = step.getPath().getLength();
-      int maxVelocity;
-      switch (orientation) {
-        case BACKWARD:
-          maxVelocity = step.getPath().getMaxReverseVelocity();
-          break;
-        default:
-          maxVelocity = step.getPath().getMaxVelocity();
-          break;
-      }
-      String pointName = step.getDestinationPoint().getName();
-
       getProcessModel().setVehicleState(Vehicle.State.EXECUTING);
-      getProcessModel().getVelocityController().addWayEntry(new WayEntry(pathLength,
-                                                                         maxVelocity,
-                                                                         pointName,
-                                                                         orientation));
+      getProcessModel().getVelocityController().addWayEntry(createWayEntry(step));
       // Advance the velocity controller by small steps until the
       // controller has processed all way entries.
       //将速度控制器小步前进，直到控制器处理完所有路径条目
@@ -468,15 +455,209 @@ public class LoopbackCommunicationAdapter
         Uninterruptibles.sleepUninterruptibly(ADVANCE_TIME, TimeUnit.MILLISECONDS);
         getProcessModel().getVelocityController().advanceTime(simAdvanceTime);
       }
-      if (operation.equals(getProcessModel().getLoadOperation())) {
-        // Update load handling devices as defined by this operation
-        getProcessModel().setVehicleLoadHandlingDevices(
-            Arrays.asList(new LoadHandlingDevice(LHD_NAME, true)));
+      operationProcessed(operation);
+    }
+  }
+
+  /**
+   * Creates a way entry for the velocity controller for moving along the given step's path.
+   *
+   * @param step The step. Its path must not be <code>null</code>.
+   * @return The way entry.
+   */
+  private WayEntry createWayEntry(Step step) {
+    Orientation orientation = step.getVehicleOrientation();
+    long pathLength = step.getPath().getLength();
+    int maxVelocity;
+    switch (orientation) {
+      case BACKWARD:
+        maxVelocity = step.getPath().getMaxReverseVelocity();
+        break;
+      default:
+        maxVelocity = step.getPath().getMaxVelocity();
+        break;
+    }
+    String pointName = step.getDestinationPoint().getName();
+
+    return new WayEntry(pathLength, maxVelocity, pointName, orientation);
+  }
+
+  /**
+   * Updates the load handling devices as defined by a processed operation.
+   *
+   * @param operation The operation.
+   */
+  private void operationProcessed(String operation) {
+    if (operation.equals(getProcessModel().getLoadOperation())) {
+      // Update load handling devices as defined by this operation
+      getProcessModel().setVehicleLoadHandlingDevices(
+          Arrays.asList(new LoadHandlingDevice(LHD_NAME, true)));
+    }
+    else if (operation.equals(getProcessModel().getUnloadOperation())) {
+      getProcessModel().setVehicleLoadHandlingDevices(
+          Arrays.asList(new LoadHandlingDevice(LHD_NAME, false)));
+    }
+  }
+
+  /**
+   * Reports a processed command to the kernel.
+   *
+   * @param curCommand The command.
+   */
+  private void commandProcessed(MovementCommand curCommand) {
+    // Set the vehicle's state back to IDLE, but only if there aren't 
+    // any more movements to be processed.
+    //将车辆状态重新设置为空闲，但前提是没有任何要处理的移动。
+    if (getSentQueue().size() <= 1 && getCommandQueue().isEmpty()) {
+      getProcessModel().setVehicleState(Vehicle.State.IDLE);
+    }
+    // Update GUI.
+    synchronized (this) {
+      MovementCommand sentCmd = getSentQueue().poll();
+      // If the command queue was cleared in the meantime, the kernel
+      // might be surprised to hear we executed a command we shouldn't
+      // have, so we only peek() at the beginning of this method and
+      // poll() here. If sentCmd is null, the queue was probably cleared
+      // and we shouldn't report anything back.
+      /**
+       * 如果同时清除了命令队列，内核可能会惊讶地听到我们执行了一个不应该执行的命令，
+       * 因此我们只在这个方法的开头使用peek（）和poll（）。
+       * 如果sentCmd为空，则队列可能已清除，我们不应报告任何内容
+       */
+      if (sentCmd != null && sentCmd.equals(curCommand)) {
+        // Let the vehicle manager know we've finished this command.
+        getProcessModel().commandExecuted(curCommand);
+        notify();
       }
-      else if (operation.equals(getProcessModel().getUnloadOperation())) {
-        getProcessModel().setVehicleLoadHandlingDevices(
-            Arrays.asList(new LoadHandlingDevice(LHD_NAME, false)));
+    }
+  }
+
+  /**
+   * Simulates a vehicle's behaviour using events scheduled with the simulation engine.
+   * Instead of advancing the velocity controller in real time, it is advanced at once until the
+   * vehicle reaches the next point, and the vehicle's position is updated by an event at the point
+   * of time the vehicle arrives there.
+   * All methods except {@link #terminate()} are performed by the simulation engine's thread.
+   */
+  private class DiscreteEventSimulation {
+
+    /**
+     * The maximum simulation time a vehicle's movement is computed in advance (in ms).
+     */
+    private static final long MAX_MOVEMENT_TIME = 60000;
+    /**
+     * Whether the vehicle is currently processing a command.
+     */
+    private boolean processingCommand;
+    /**
+     * Whether this simulation has been terminated.
+     */
+    private volatile boolean terminated;
+
+    /**
+     * Starts the simulation.
+     */
+    void start() {
+      simulationEngine.schedule(0, this::processNextCommand);
+    }
+
+    /**
+     * Terminates the simulation.
+     */
+    void terminate() {
+      terminated = true;
+    }
+
+    /**
+     * Lets the simulation know that a command has been sent to the vehicle.
+     */
+    void commandSent() {
+      simulationEngine.schedule(0, this::processNextCommand);
+    }
+
+    private void processNextCommand() {
+      if (terminated || processingCommand) {
+        return;
+      }
+
+      final MovementCommand curCommand;
+      synchronized (LoopbackCommunicationAdapter.this) {
+        curCommand = getSentQueue().peek();
+      }
+      if (curCommand == null) {
+        // Bring the vehicle to a halt while it has nothing to do.
+        getProcessModel().getVelocityController().advanceTime(ADVANCE_TIME);
+        return;
+      }
+
+      LOG.debug("Processing MovementCommand...");
+      processingCommand = true;
+      Step curStep = curCommand.getStep();
+      if (curStep.getPath() == null) {
+        movementProcessed(curCommand);
+        return;
       }
+      getProcessModel().setVehicleState(Vehicle.State.EXECUTING);
+      getProcessModel().getVelocityController().addWayEntry(createWayEntry(curStep));
+      move(curCommand);
+    }
+
+    private void move(MovementCommand curCommand) {
+      if (terminated) {
+        return;
+      }
+
+      VelocityController velocityController = getProcessModel().getVelocityController();
+      if (velocityController.isVehiclePaused()) {
+        // Check again later whether the vehicle may move on.
+        velocityController.advanceTime(ADVANCE_TIME);
+        simulationEngine.schedule(ADVANCE_TIME, () -> move(curCommand));
+        return;
+      }
+
+      long movementTime = 0;
+      while (velocityController.hasWayEntries()
+          && !velocityController.isVehiclePaused()
+          && movementTime < MAX_MOVEMENT_TIME) {
+        velocityController.advanceTime(ADVANCE_TIME);
+        movementTime += ADVANCE_TIME;
+      }
+      simulationEngine.schedule(movementTime, () -> {
+        if (velocityController.hasWayEntries()) {
+          move(curCommand);
+        }
+        else if (!terminated) {
+          // Let the vehicle manager know that the vehicle has reached the destination point.
+          getProcessModel().setVehiclePosition(
+              curCommand.getStep().getDestinationPoint().getName()
+          );
+          movementProcessed(curCommand);
+        }
+      });
+    }
+
+    private void movementProcessed(MovementCommand curCommand) {
+      if (curCommand.isWithoutOperation()) {
+        commandFinished(curCommand);
+        return;
+      }
+
+      LOG.debug("Operating...");
+      getProcessModel().getVelocityController().advanceTime(ADVANCE_TIME);
+      getProcessModel().setVehicleState(Vehicle.State.EXECUTING);
+      simulationEngine.schedule(getProcessModel().getOperatingTime(), () -> {
+        if (!terminated) {
+          operationProcessed(curCommand.getOperation());
+          commandFinished(curCommand);
+        }
+      });
+    }
+
+    private void commandFinished(MovementCommand curCommand) {
+      LOG.debug("Processed MovementCommand.");
+      commandProcessed(curCommand);
+      processingCommand = false;
+      processNextCommand();
     }
   }
 
@@ -12,6 +12,7 @@ import javax.inject.Inject;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.drivers.vehicle.VehicleCommAdapterDescription;
 import org.opentcs.drivers.vehicle.VehicleCommAdapterFactory;
+import org.opentcs.virtualvehicle.VirtualVehicleConfiguration.SimulationMode;
 
 /**
  * A factory for loopback communication adapters (virtual vehicles).
@@ -25,6 +26,14 @@ public class LoopbackCommunicationAdapterFactory
    * The adapter components factory.
    */
   private final LoopbackAdapterComponentsFactory adapterFactory;
+  /**
+   * The virtual vehicles' configuration.
+   */
+  private final VirtualVehicleConfiguration configuration;
+  /**
+   * Drives the simulation of the virtual vehicles in discrete event mode.
+   */
+  private final SimulationEngine simulationEngine;
   /**
    * Indicates whether this component is initialized or not.
    */
@@ -34,10 +43,16 @@ public class LoopbackCommunicationAdapterFactory
    * Creates a new factory.
    *
    * @param componentsFactory The adapter components factory.
+   * @param configuration The virtual vehicles' configuration.
+   * @param simulationEngine Drives the simulation of the virtual vehicles in discrete event mode.
    */
   @Inject
-  public LoopbackCommunicationAdapterFactory(LoopbackAdapterComponentsFactory componentsFactory) {
+  public LoopbackCommunicationAdapterFactory(LoopbackAdapterComponentsFactory componentsFactory,
+                                             VirtualVehicleConfiguration configuration,
+                                             SimulationEngine simulationEngine) {
     this.adapterFactory = requireNonNull(componentsFactory, "componentsFactory");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.simulationEngine = requireNonNull(simulationEngine, "simulationEngine");
   }
 
   @Override
@@ -45,6 +60,9 @@ public class LoopbackCommunicationAdapterFactory
     if (isInitialized()) {
       return;
     }
+    if (configuration.simulationMode() == SimulationMode.DISCRETE_EVENT) {
+      simulationEngine.initialize();
+    }
     initialized = true;
   }
 
@@ -58,6 +76,7 @@ public class LoopbackCommunicationAdapterFactory
     if (!isInitialized()) {
       return;
     }
+    simulationEngine.terminate();
     initialized = false;
   }
 
@@ -251,12 +251,14 @@ public class LoopbackVehicleModel
 
   @Override
   public void addVelocityValue(int velocityValue) {
-    // Store the new value in the history...
-    velocityHistory.addVelocityValue(velocityValue);
-    // ...and let all observers know about it.
-    getPropertyChangeSupport().firePropertyChange(Attribute.VELOCITY_HISTORY.name(),
-                                                  null,
-                                                  velocityHistory);
+    // Store the new value in the history and let all observers know about it - but only once the
+    // history actually changed, i.e. once per batch of values, as every property change results in
+    // a process model event.
+    if (velocityHistory.addVelocityValue(velocityValue)) {
+      getPropertyChangeSupport().firePropertyChange(Attribute.VELOCITY_HISTORY.name(),
+                                                    null,
+                                                    velocityHistory);
+    }
   }
 
   private int parseOperatingTime(Vehicle vehicle) {
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.virtualvehicle;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Drives the simulation of all virtual vehicles using discrete events.
+ * <p>
+ * Instead of advancing each vehicle's simulation in small steps on a thread of its own, vehicles
+ * schedule events for the points of time at which something happens - e.g. the vehicle reaches a
+ * point or finishes an operation. A single thread performs these events in the order of their
+ * points of time, waiting in between as long as the simulation time factor requires.
+ * </p>
+ * <p>
+ * The simulation time follows the kernel's clock, scaled by the simulation time factor. If the
+ * kernel's clock itself runs faster than real time, so does the simulation.
+ * </p>
+ * <p>
+ * Events are expected to complete quickly, as they delay all subsequent events.
+ * </p>
+ */
+public class SimulationEngine
+    implements Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SimulationEngine.class);
+  /**
+   * The kernel's clock.
+   */
+  private final SimulationClock clock;
+  /**
+   * The factor by which the simulation is faster than the kernel's clock.
+   */
+  private final double clockFactor;
+  /**
+   * The factor by which the simulation is faster than real time.
+   */
+  private final double timeFactor;
+  /**
+   * The scheduled events, ordered by their points of time.
+   */
+  private final PriorityQueue<Event> events = new PriorityQueue<>();
+  /**
+   * The number of events scheduled so far, for performing events with the same point of time in
+   * the order they were scheduled in.
+   */
+  private long eventCount;
+  /**
+   * The kernel's time at which the simulation was started (in ms).
+   */
+  private long startTime;
+  /**
+   * The thread performing the events.
+   */
+  private Thread engineThread;
+  /**
+   * Whether this engine is initialized.
+   */
+  private volatile boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The virtual vehicles' configuration.
+   * @param clock The kernel's clock.
+   */
+  @Inject
+  public SimulationEngine(VirtualVehicleConfiguration configuration, SimulationClock clock) {
+    this.clock = requireNonNull(clock, "clock");
+    this.clockFactor = requireNonNull(configuration, "configuration").simulationTimeFactor();
+    checkArgument(clockFactor > 0, "simulationTimeFactor <= 0: %s", clockFactor);
+    this.timeFactor = clockFactor * clock.getTimeFactor();
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    synchronized (this) {
+      startTime = clock.millis();
+      engineThread = new Thread(this::performEvents, "loopbackSimulationEngine");
+      engineThread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+      initialized = true;
+      engineThread.start();
+    }
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    Thread thread;
+    synchronized (this) {
+      initialized = false;
+      events.clear();
+      thread = engineThread;
+      engineThread = null;
+      notifyAll();
+    }
+    try {
+      thread.join();
+    }
+    catch (InterruptedException exc) {
+      LOG.warn("Interrupted while waiting for the simulation engine to terminate.");
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Returns the factor by which the simulation is faster than real time, i.e. the simulation time
+   * factor multiplied with the kernel clock's time factor.
+   *
+   * @return The factor by which the simulation is faster than real time.
+   */
+  public double getTimeFactor() {
+    return timeFactor;
+  }
+
+  /**
+   * Returns the current simulation time.
+   *
+   * @return The current simulation time (in ms since the engine was initialized).
+   */
+  public synchronized long getCurrentTime() {
+    return (long) ((clock.millis() - startTime) * clockFactor);
+  }
+
+  /**
+   * Schedules an event.
+   *
+   * @param delay The simulation time after which the event is to be performed (in ms).
+   * @param action The action to be performed.
+   * @return The scheduled event, which may be used to cancel it.
+   */
+  @Nonnull
+  public synchronized Event schedule(long delay, @Nonnull Runnable action) {
+    requireNonNull(action, "action");
+    checkArgument(delay >= 0, "delay < 0: %s", delay);
+
+    Event event = new Event(getCurrentTime() + delay, eventCount++, action);
+    events.add(event);
+    notifyAll();
+    return event;
+  }
+
+  /**
+   * Cancels a scheduled event.
+   * Does nothing if the event has already been performed.
+   *
+   * @param event The event.
+   */
+  public synchronized void cancel(@Nonnull Event event) {
+    requireNonNull(event, "event");
+
+    events.remove(event);
+  }
+
+  private void performEvents() {
+    while (true) {
+      Event event;
+      synchronized (this) {
+        event = nextDueEvent();
+        if (event == null) {
+          return;
+        }
+      }
+
+      try {
+        event.action.run();
+      }
+      catch (RuntimeException exc) {
+        LOG.warn("Exception performing simulation event", exc);
+      }
+    }
+  }
+
+  /**
+   * Waits for the next event to become due and removes it.
+   *
+   * @return The next event, or <code>null</code>, if this engine has been terminated.
+   */
+  private Event nextDueEvent() {
+    while (initialized) {
+      Event event = events.peek();
+      if (event == null) {
+        waitUninterruptibly(0);
+        continue;
+      }
+
+      long remainingTime = (long) ((event.time - getCurrentTime()) / timeFactor);
+      if (remainingTime > 0) {
+        waitUninterruptibly(remainingTime);
+        continue;
+      }
+
+      return events.poll();
+    }
+    return null;
+  }
+
+  private void waitUninterruptibly(long timeout) {
+    try {
+      wait(timeout);
+    }
+    catch (InterruptedException exc) {
+      LOG.debug("Interrupted while waiting for the next event, ignored.");
+    }
+  }
+
+  /**
+   * An event scheduled with the simulation engine.
+   */
+  public static class Event
+      implements Comparable<Event> {
+
+    /**
+     * The simulation time at which the event is to be performed (in ms).
+     */
+    private final long time;
+    /**
+     * The event's sequence number.
+     */
+    private final long sequenceNumber;
+    /**
+     * The action to be performed.
+     */
+    private final Runnable action;
+
+    private Event(long time, long sequenceNumber, Runnable action) {
+      this.time = time;
+      this.sequenceNumber = sequenceNumber;
+      this.action = action;
+    }
+
+    /**
+     * Returns the simulation time at which the event is to be performed.
+     *
+     * @return The simulation time at which the event is to be performed (in ms).
+     */
+    public long getTime() {
+      return time;
+    }
+
+    @Override
+    public int compareTo(Event other) {
+      int result = Long.compare(time, other.time);
+      return result != 0 ? result : Long.compare(sequenceNumber, other.sequenceNumber);
+    }
+  }
+}
@@ -9,12 +9,10 @@ package org.opentcs.virtualvehicle;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import java.io.Serializable;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.LinkedList;
+import java.util.ArrayDeque;
+import java.util.Arrays;
 import static java.util.Objects.requireNonNull;
 import java.util.Queue;
-import java.util.Set;
 import org.opentcs.data.model.Vehicle;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,6 +20,10 @@ import org.slf4j.LoggerFactory;
 /**
  * Simulates the velocity of a vehicle depending on the length of the way and
  * the time it has moved already.
+ * <p>
+ * Advancing the time is performed many times per second for every simulated vehicle. It works on
+ * primitive state only and does not allocate any objects.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  * @author Iryna Felko (Fraunhofer IML)
@@ -68,11 +70,13 @@ public class VelocityController {
   /**
    * This controller's processing queue.
    */
-  private final Queue<WayEntry> wayEntries = new LinkedList<>();
+  private final Queue<WayEntry> wayEntries = new ArrayDeque<>();
   /**
-   * A set of velocity listeners.
+   * The velocity listeners.
+   * Replaced as a whole when listeners are added or removed, so notifying them does not require
+   * an iterator or a lock.
    */
-  private final Set<VelocityListener> velocityListeners = new HashSet<>();
+  private volatile VelocityListener[] velocityListeners = new VelocityListener[0];
   /**
    * True, if the vehicle has been paused, e.g. via the kernel gui
    * or a by a client message.
@@ -195,11 +199,17 @@ public class VelocityController {
    *
    * @param listener The velocity listener to be added.
    */
-  public void addVelocityListener(VelocityListener listener) {
+  public synchronized void addVelocityListener(VelocityListener listener) {
     if (listener == null) {
       throw new NullPointerException("listener is null");
     }
-    velocityListeners.add(listener);
+    if (Arrays.asList(velocityListeners).contains(listener)) {
+      return;
+    }
+    VelocityListener[] newListeners = Arrays.copyOf(velocityListeners,
+                                                    velocityListeners.length + 1);
+    newListeners[newListeners.length - 1] = listener;
+    velocityListeners = newListeners;
   }
 
   /**
@@ -207,11 +217,13 @@ public class VelocityController {
    *
    * @param listener The velocity listener to be removed.
    */
-  public void removeVelocityListener(VelocityListener listener) {
+  public synchronized void removeVelocityListener(VelocityListener listener) {
     if (listener == null) {
       throw new IllegalArgumentException("listener is null");
     }
-    velocityListeners.remove(listener);
+    velocityListeners = Arrays.stream(velocityListeners)
+        .filter(curListener -> !curListener.equals(listener))
+        .toArray(VelocityListener[]::new);
   }
 
   /**
@@ -291,9 +303,7 @@ public class VelocityController {
     }
     final int oldPosition = currentPosition;
     final int oldVelocity = currentVelocity;
-    final Iterator<WayEntry> wayEntryIter = wayEntries.iterator();
-    final WayEntry curWayEntry
-        = wayEntryIter.hasNext() ? wayEntryIter.next() : null;
+    final WayEntry curWayEntry = wayEntries.peek();
     final int targetVelocity;
     final long accelerationDistance;
     if (curWayEntry == null || paused) {
@@ -337,8 +347,9 @@ public class VelocityController {
     // The given time has now passed.
     currentTime += dt;
     // Let the listeners know about the new velocity value.
-    for (VelocityListener curListener : velocityListeners) {
-      curListener.addVelocityValue(currentVelocity);
+    final VelocityListener[] curListeners = velocityListeners;
+    for (int i = 0; i < curListeners.length; i++) {
+      curListeners[i].addVelocityValue(currentVelocity);
     }
   }
 
@@ -363,13 +374,17 @@ public class VelocityController {
     // Compute travelling time.
     // XXX Divide by zero if (v_current == -v_target), especially if both are 0!
     final double t = s / (v_current + (v_target - v_current) / 2);
-    LOG.debug("t = " + t
-        + "; s = " + s
-        + "; v_current = " + v_current
-        + "; v_target = " + v_target);
     // Compute acceleration.
     int result = (int) ((v_target - v_current) / t);
-    LOG.debug("result = " + result);
+    // Avoid building log messages on every simulation step.
+    if (LOG.isDebugEnabled()) {
+      LOG.debug("t = {}; s = {}; v_current = {}; v_target = {}; result = {}",
+                t,
+                s,
+                v_current,
+                v_target,
+                result);
+    }
     if (result > maxAcceleration) {
       result = maxAcceleration;
     }
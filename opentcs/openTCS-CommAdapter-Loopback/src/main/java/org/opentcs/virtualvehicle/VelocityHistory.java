@@ -67,17 +67,21 @@ public class VelocityHistory {
 
   /**
    * Adds a new velocity value to this history.
+   * Only every <em>n</em>th value is actually written to the ring buffer, where <em>n</em> is this
+   * history's divisor, so observers only need to be notified in batches of <em>n</em> values.
    *
    * @param newValue The value to be added.
+   * @return <code>true</code> if, and only if, the value was written to the ring buffer.
    */
-  public void addVelocityValue(int newValue) {
-    LOG.debug("method entry");
+  public boolean addVelocityValue(int newValue) {
     synchronized (velocities) {
-      if (valueCounter % divisor == 0) {
+      boolean written = valueCounter % divisor == 0;
+      if (written) {
         velocities[writeIndex] = newValue;
         writeIndex = (writeIndex + 1) % velocityQueueCapacity;
       }
-      valueCounter++;
+      valueCounter = (valueCounter + 1) % divisor;
+      return written;
     }
   }
 
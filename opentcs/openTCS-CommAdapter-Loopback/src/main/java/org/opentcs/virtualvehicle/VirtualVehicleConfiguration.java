@@ -47,4 +47,29 @@ public interface VirtualVehicleConfiguration {
                      "1.0 is real time, greater values speed up simulation."},
       orderKey = "1_behaviour_3")
   double simulationTimeFactor();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How virtual vehicles are simulated. Valid values:",
+        "'THREAD_PER_VEHICLE': Each vehicle is simulated in small time steps by a thread of its "
+        + "own.",
+        "'DISCRETE_EVENT': All vehicles are simulated by a single thread, which only becomes "
+        + "active when a vehicle reaches a point or finishes an operation."},
+      orderKey = "1_behaviour_4")
+  SimulationMode simulationMode();
+
+  /**
+   * The ways virtual vehicles can be simulated.
+   */
+  enum SimulationMode {
+    /**
+     * Each vehicle is simulated in small time steps by a thread of its own.
+     */
+    THREAD_PER_VEHICLE,
+    /**
+     * All vehicles are simulated by a shared {@link SimulationEngine}.
+     */
+    DISCRETE_EVENT;
+  }
 }
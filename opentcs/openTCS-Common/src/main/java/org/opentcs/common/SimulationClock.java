@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.common;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A clock that may run faster than real time, shared by all components of a simulation.
+ * <p>
+ * The clock starts at the real time of its creation and advances by the time factor times the
+ * real time elapsed since then. With a time factor of 1.0, it follows real time.
+ * </p>
+ */
+public class SimulationClock
+    extends Clock {
+
+  /**
+   * The factor by which this clock runs faster than real time.
+   */
+  private final double timeFactor;
+  /**
+   * The clock's time zone.
+   */
+  private final ZoneId zone;
+  /**
+   * The real time at which the clock was started (in ms since the epoch).
+   */
+  private final long startMillis;
+  /**
+   * The value of the system's high-resolution time source when the clock was started (in ns).
+   */
+  private final long startNanos;
+
+  /**
+   * Creates a new instance, starting at the current real time.
+   *
+   * @param timeFactor The factor by which the clock runs faster than real time.
+   * @throws IllegalArgumentException If the time factor is not positive.
+   */
+  public SimulationClock(double timeFactor) {
+    this(timeFactor, ZoneOffset.UTC, System.currentTimeMillis(), System.nanoTime());
+  }
+
+  private SimulationClock(double timeFactor, ZoneId zone, long startMillis, long startNanos) {
+    checkArgument(timeFactor > 0, "timeFactor <= 0: %s", timeFactor);
+    this.timeFactor = timeFactor;
+    this.zone = requireNonNull(zone, "zone");
+    this.startMillis = startMillis;
+    this.startNanos = startNanos;
+  }
+
+  /**
+   * Returns the factor by which this clock runs faster than real time.
+   *
+   * @return The factor by which this clock runs faster than real time.
+   */
+  public double getTimeFactor() {
+    return timeFactor;
+  }
+
+  /**
+   * Converts a duration on this clock to the corresponding real duration.
+   *
+   * @param duration The duration on this clock.
+   * @param unit The duration's unit.
+   * @return The corresponding real duration (in ns).
+   */
+  public long toRealNanos(long duration, @Nonnull TimeUnit unit) {
+    requireNonNull(unit, "unit");
+    return (long) (unit.toNanos(duration) / timeFactor);
+  }
+
+  @Override
+  public long millis() {
+    return startMillis + TimeUnit.NANOSECONDS.toMillis(elapsedNanos());
+  }
+
+  @Override
+  public Instant instant() {
+    return Instant.ofEpochMilli(startMillis).plusNanos(elapsedNanos());
+  }
+
+  @Override
+  public ZoneId getZone() {
+    return zone;
+  }
+
+  @Override
+  public Clock withZone(ZoneId zone) {
+    if (this.zone.equals(zone)) {
+      return this;
+    }
+    return new SimulationClock(timeFactor, zone, startMillis, startNanos);
+  }
+
+  /**
+   * Returns the time elapsed on this clock since its start.
+   * The real time elapsed is scaled before it is truncated to any coarser unit, so fractions of a
+   * real millisecond still advance the clock when it runs faster than real time.
+   *
+   * @return The time elapsed on this clock since its start (in ns).
+   */
+  private long elapsedNanos() {
+    return (long) ((System.nanoTime() - startNanos) * timeFactor);
+  }
+
+  @Override
+  public String toString() {
+    return "SimulationClock{" + "timeFactor=" + timeFactor + ", zone=" + zone + '}';
+  }
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.common;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+
+/**
+ * Extends the {@link LoggingScheduledThreadPoolExecutor} by interpreting delays and periods of
+ * scheduled tasks as durations on a {@link SimulationClock}.
+ * <p>
+ * E.g. with a clock running ten times faster than real time, a task scheduled at a fixed rate of
+ * ten seconds is executed every second.
+ * </p>
+ */
+public class SimulationScheduledThreadPoolExecutor
+    extends LoggingScheduledThreadPoolExecutor {
+
+  /**
+   * The clock the delays and periods refer to.
+   */
+  private final SimulationClock clock;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param corePoolSize The number of threads to keep in the pool.
+   * @param threadFactory The factory to use when the executor creates a new thread.
+   * @param clock The clock the delays and periods of scheduled tasks refer to.
+   * @throws IllegalArgumentException If {@code corePoolSize < 0}
+   * @throws NullPointerException If {@code threadFactory} or {@code clock} is null
+   */
+  public SimulationScheduledThreadPoolExecutor(int corePoolSize,
+                                               ThreadFactory threadFactory,
+                                               @Nonnull SimulationClock clock) {
+    super(corePoolSize, threadFactory);
+    this.clock = requireNonNull(clock, "clock");
+  }
+
+  @Override
+  public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    return super.schedule(command, clock.toRealNanos(delay, unit), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    return super.schedule(callable, clock.toRealNanos(delay, unit), TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleAtFixedRate(Runnable command,
+                                                long initialDelay,
+                                                long period,
+                                                TimeUnit unit) {
+    return super.scheduleAtFixedRate(command,
+                                     clock.toRealNanos(initialDelay, unit),
+                                     realPeriod(period, unit),
+                                     TimeUnit.NANOSECONDS);
+  }
+
+  @Override
+  public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command,
+                                                   long initialDelay,
+                                                   long delay,
+                                                   TimeUnit unit) {
+    return super.scheduleWithFixedDelay(command,
+                                        clock.toRealNanos(initialDelay, unit),
+                                        realPeriod(delay, unit),
+                                        TimeUnit.NANOSECONDS);
+  }
+
+  /**
+   * Converts a period, keeping it positive so that the superclass does not reject it.
+   */
+  private long realPeriod(long period, TimeUnit unit) {
+    return period > 0 ? Math.max(clock.toRealNanos(period, unit), 1) : period;
+  }
+}
@@ -7,19 +7,27 @@
  */
 package org.opentcs.util.persistence;
 
+import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.Charset;
 import java.util.Objects;
+import static java.util.Objects.requireNonNull;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import org.opentcs.access.to.model.PlantModelCreationTO;
+import org.opentcs.util.persistence.v002.V002ModelStreamReader;
 import org.opentcs.util.persistence.v002.V002PlantModelTO;
 import org.opentcs.util.persistence.v002.V002TOMapper;
 import org.slf4j.Logger;
@@ -40,6 +48,20 @@ public class ModelParser {
    * The charset to use for the reader/writer.
    */
   private static final Charset CHARSET = Charset.forName("UTF-8");
+  /**
+   * The factory for streaming readers.
+   */
+  private final XMLInputFactory inputFactory;
+
+  /**
+   * Creates a new instance.
+   */
+  public ModelParser() {
+    inputFactory = XMLInputFactory.newInstance();
+    // Model files neither need nor may pull in any external content.
+    inputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    inputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+  }
 
   /**
    * Reads a model from the given file and parses it to a {@link PlantModelCreationTO} instance.
@@ -68,6 +90,78 @@ public class ModelParser {
     }
   }
 
+  /**
+   * Reads a model from the given file, passing its elements to the given handler one by one while
+   * parsing it.
+   * <p>
+   * In contrast to {@link #readModel(java.io.File)}, this does not keep the whole model in memory
+   * and is thus preferable for large models.
+   * </p>
+   *
+   * @param file The model file to read.
+   * @param handler The handler to pass the model's elements to.
+   * @throws IOException If there was an error reading the model file.
+   * @throws IllegalArgumentException If there is no parser for the version of the model file.
+   */
+  public void readModel(File file, PlantModelElementHandler handler)
+      throws IOException {
+    requireNonNull(file, "file");
+    requireNonNull(handler, "handler");
+
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(in, CHARSET.name());
+      try {
+        reader.nextTag();
+        String modelVersion = reader.getAttributeValue(null, "version");
+
+        LOG.debug("File '{}' contains a model version '{}'.", file.getAbsolutePath(), modelVersion);
+
+        if (Objects.equals(modelVersion, V002TOMapper.VERSION_STRING)) {
+          new V002ModelStreamReader().read(reader, handler);
+        }
+        else {
+          throw new IllegalArgumentException(
+              String.format("There is no parser for a model file with version: %s.", modelVersion)
+          );
+        }
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (XMLStreamException exc) {
+      throw new IOException("Exception parsing model file " + file.getAbsolutePath(), exc);
+    }
+  }
+
+  /**
+   * Reads only the name of the model in the given file.
+   *
+   * @param file The model file to read.
+   * @return The model's name, or an empty string, if the model file does not contain one.
+   * @throws IOException If there was an error reading the model file.
+   */
+  public String readModelName(File file)
+      throws IOException {
+    requireNonNull(file, "file");
+
+    try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+      XMLStreamReader reader = inputFactory.createXMLStreamReader(in, CHARSET.name());
+      try {
+        reader.nextTag();
+        reader.require(XMLStreamConstants.START_ELEMENT, null, "model");
+        String name = reader.getAttributeValue(null, "name");
+        return name != null ? name : "";
+      }
+      finally {
+        reader.close();
+      }
+    }
+    catch (XMLStreamException exc) {
+      throw new IOException("Exception parsing model file " + file.getAbsolutePath(), exc);
+    }
+  }
+
   /**
    * Writes the given {@link PlantModelCreationTO} to the given file.
    *
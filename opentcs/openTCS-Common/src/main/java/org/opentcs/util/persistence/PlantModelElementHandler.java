@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.persistence;
+
+import java.util.Map;
+import javax.annotation.Nonnull;
+import org.opentcs.access.to.model.BlockCreationTO;
+import org.opentcs.access.to.model.GroupCreationTO;
+import org.opentcs.access.to.model.LocationCreationTO;
+import org.opentcs.access.to.model.LocationTypeCreationTO;
+import org.opentcs.access.to.model.PathCreationTO;
+import org.opentcs.access.to.model.PointCreationTO;
+import org.opentcs.access.to.model.VehicleCreationTO;
+import org.opentcs.access.to.model.VisualLayoutCreationTO;
+
+/**
+ * Receives the elements of a plant model one by one while a model file is being read.
+ * <p>
+ * Elements are passed in the order they appear in the model file. For files written by openTCS,
+ * this means points, paths, vehicles, location types, locations, blocks, groups and visual
+ * layouts, followed by the model's properties.
+ * </p>
+ *
+ * @see ModelParser#readModel(java.io.File, PlantModelElementHandler)
+ */
+public interface PlantModelElementHandler {
+
+  /**
+   * Called with the model's name before any of its elements.
+   *
+   * @param name The model's name.
+   */
+  void handleModelName(@Nonnull String name);
+
+  /**
+   * Called with the model's properties after all of its elements.
+   *
+   * @param properties The model's properties.
+   */
+  void handleModelProperties(@Nonnull Map<String, String> properties);
+
+  /**
+   * Called for every point in the model.
+   *
+   * @param point The point.
+   */
+  void handlePoint(@Nonnull PointCreationTO point);
+
+  /**
+   * Called for every path in the model.
+   *
+   * @param path The path.
+   */
+  void handlePath(@Nonnull PathCreationTO path);
+
+  /**
+   * Called for every vehicle in the model.
+   *
+   * @param vehicle The vehicle.
+   */
+  void handleVehicle(@Nonnull VehicleCreationTO vehicle);
+
+  /**
+   * Called for every location type in the model.
+   *
+   * @param locationType The location type.
+   */
+  void handleLocationType(@Nonnull LocationTypeCreationTO locationType);
+
+  /**
+   * Called for every location in the model.
+   *
+   * @param location The location.
+   */
+  void handleLocation(@Nonnull LocationCreationTO location);
+
+  /**
+   * Called for every block in the model.
+   *
+   * @param block The block.
+   */
+  void handleBlock(@Nonnull BlockCreationTO block);
+
+  /**
+   * Called for every group in the model.
+   *
+   * @param group The group.
+   */
+  void handleGroup(@Nonnull GroupCreationTO group);
+
+  /**
+   * Called for every visual layout in the model.
+   *
+   * @param visualLayout The visual layout.
+   */
+  void handleVisualLayout(@Nonnull VisualLayoutCreationTO visualLayout);
+}
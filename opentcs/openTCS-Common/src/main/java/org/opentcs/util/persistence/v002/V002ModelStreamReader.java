@@ -0,0 +1,385 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.util.persistence.v002;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import org.opentcs.access.to.model.BlockCreationTO;
+import org.opentcs.access.to.model.GroupCreationTO;
+import org.opentcs.access.to.model.LocationCreationTO;
+import org.opentcs.access.to.model.LocationTypeCreationTO;
+import org.opentcs.access.to.model.ModelLayoutElementCreationTO;
+import org.opentcs.access.to.model.PathCreationTO;
+import org.opentcs.access.to.model.PointCreationTO;
+import org.opentcs.access.to.model.ShapeLayoutElementCreationTO;
+import org.opentcs.access.to.model.VehicleCreationTO;
+import org.opentcs.access.to.model.VisualLayoutCreationTO;
+import org.opentcs.data.model.Block;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Triple;
+import org.opentcs.util.persistence.PlantModelElementHandler;
+
+/**
+ * Reads a model in the format of {@link V002PlantModelTO} element by element, passing every
+ * element to a {@link PlantModelElementHandler} as soon as it has been read.
+ * <p>
+ * In contrast to unmarshalling a {@link V002PlantModelTO} and mapping it with
+ * {@link V002TOMapper}, this never keeps more than a single element of the model in memory. The
+ * elements are mapped the same way, though, including the defaults for missing attributes.
+ * </p>
+ */
+public class V002ModelStreamReader {
+
+  /**
+   * Creates a new instance.
+   */
+  public V002ModelStreamReader() {
+  }
+
+  /**
+   * Reads the model from the given reader.
+   *
+   * @param reader The reader, positioned at the model's root element.
+   * @param handler The handler to pass the model's elements to.
+   * @throws XMLStreamException If the input is not well-formed.
+   */
+  public void read(@Nonnull XMLStreamReader reader, @Nonnull PlantModelElementHandler handler)
+      throws XMLStreamException {
+    requireNonNull(reader, "reader");
+    requireNonNull(handler, "handler");
+    reader.require(XMLStreamConstants.START_ELEMENT, null, "model");
+
+    handler.handleModelName(attribute(reader, "name", ""));
+    Map<String, String> properties = new HashMap<>();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "point":
+          handler.handlePoint(readPoint(reader));
+          break;
+        case "path":
+          handler.handlePath(readPath(reader));
+          break;
+        case "vehicle":
+          handler.handleVehicle(readVehicle(reader));
+          break;
+        case "locationType":
+          handler.handleLocationType(readLocationType(reader));
+          break;
+        case "location":
+          handler.handleLocation(readLocation(reader));
+          break;
+        case "block":
+          handler.handleBlock(readBlock(reader));
+          break;
+        case "group":
+          handler.handleGroup(readGroup(reader));
+          break;
+        case "visualLayout":
+          handler.handleVisualLayout(readVisualLayout(reader));
+          break;
+        case "property":
+          readProperty(reader, properties);
+          break;
+        default:
+          // Static routes are not mapped, either.
+          skipElement(reader);
+      }
+    }
+    handler.handleModelProperties(properties);
+  }
+
+  private PointCreationTO readPoint(XMLStreamReader reader)
+      throws XMLStreamException {
+    PointCreationTO point = new PointCreationTO(attribute(reader, "name", ""))
+        .withPosition(new Triple(longAttribute(reader, "xPosition"),
+                                 longAttribute(reader, "yPosition"),
+                                 longAttribute(reader, "zPosition")))
+        .withVehicleOrientationAngle(floatAttribute(reader, "vehicleOrientationAngle"))
+        .withType(Point.Type.valueOf(attribute(reader, "type", "")));
+    return point.withProperties(readProperties(reader));
+  }
+
+  @SuppressWarnings("deprecation")
+  private PathCreationTO readPath(XMLStreamReader reader)
+      throws XMLStreamException {
+    PathCreationTO path = new PathCreationTO(attribute(reader, "name", ""),
+                                             attribute(reader, "sourcePoint", ""),
+                                             attribute(reader, "destinationPoint", ""))
+        .withLength(longAttribute(reader, "length"))
+        .withRoutingCost(longAttribute(reader, "routingCost"))
+        .withLocked(booleanAttribute(reader, "locked"))
+        .withMaxVelocity((int) longAttribute(reader, "maxVelocity"))
+        .withMaxReverseVelocity((int) longAttribute(reader, "maxReverseVelocity"));
+    return path.withProperties(readProperties(reader));
+  }
+
+  private VehicleCreationTO readVehicle(XMLStreamReader reader)
+      throws XMLStreamException {
+    VehicleCreationTO vehicle = new VehicleCreationTO(attribute(reader, "name", ""))
+        .withLength((int) longAttribute(reader, "length"))
+        .withEnergyLevelCritical((int) longAttribute(reader, "energyLevelCritical"))
+        .withEnergyLevelGood((int) longAttribute(reader, "energyLevelGood"))
+        .withEnergyLevelFullyRecharged((int) longAttribute(reader, "energyLevelFullyRecharged"))
+        .withEnergyLevelSufficientlyRecharged(
+            (int) longAttribute(reader, "energyLevelSufficientlyRecharged")
+        )
+        .withMaxReverseVelocity((int) longAttribute(reader, "maxReverseVelocity"))
+        .withMaxVelocity((int) longAttribute(reader, "maxVelocity"));
+    return vehicle.withProperties(readProperties(reader));
+  }
+
+  private LocationTypeCreationTO readLocationType(XMLStreamReader reader)
+      throws XMLStreamException {
+    String name = attribute(reader, "name", "");
+    List<String> allowedOperations = new LinkedList<>();
+    Map<String, String> properties = new HashMap<>();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "allowedOperation":
+          allowedOperations.add(attribute(reader, "name", ""));
+          skipElement(reader);
+          break;
+        case "property":
+          readProperty(reader, properties);
+          break;
+        default:
+          skipElement(reader);
+      }
+    }
+    return new LocationTypeCreationTO(name)
+        .withAllowedOperations(allowedOperations)
+        .withProperties(properties);
+  }
+
+  private LocationCreationTO readLocation(XMLStreamReader reader)
+      throws XMLStreamException {
+    LocationCreationTO location
+        = new LocationCreationTO(attribute(reader, "name", ""),
+                                 attribute(reader, "type", ""),
+                                 new Triple(longAttribute(reader, "xPosition"),
+                                            longAttribute(reader, "yPosition"),
+                                            longAttribute(reader, "zPosition")));
+    Map<String, Set<String>> links = new HashMap<>();
+    Map<String, String> properties = new HashMap<>();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "link":
+          String point = attribute(reader, "point", "");
+          links.put(point, readAllowedOperations(reader));
+          break;
+        case "property":
+          readProperty(reader, properties);
+          break;
+        default:
+          skipElement(reader);
+      }
+    }
+    return location.withLinks(links).withProperties(properties);
+  }
+
+  private BlockCreationTO readBlock(XMLStreamReader reader)
+      throws XMLStreamException {
+    BlockCreationTO block = new BlockCreationTO(attribute(reader, "name", ""))
+        .withType(Block.Type.valueOf(attribute(reader, "type",
+                                               Block.Type.SINGLE_VEHICLE_ONLY.name())));
+    Set<String> members = new HashSet<>();
+    Map<String, String> properties = new HashMap<>();
+    readMembers(reader, members, properties);
+    return block.withMemberNames(members).withProperties(properties);
+  }
+
+  private GroupCreationTO readGroup(XMLStreamReader reader)
+      throws XMLStreamException {
+    GroupCreationTO group = new GroupCreationTO(attribute(reader, "name", ""));
+    Set<String> members = new HashSet<>();
+    Map<String, String> properties = new HashMap<>();
+    readMembers(reader, members, properties);
+    return group.withMemberNames(members).withProperties(properties);
+  }
+
+  private VisualLayoutCreationTO readVisualLayout(XMLStreamReader reader)
+      throws XMLStreamException {
+    VisualLayoutCreationTO layout = new VisualLayoutCreationTO(attribute(reader, "name", ""))
+        .withScaleX(floatAttribute(reader, "scaleX"))
+        .withScaleY(floatAttribute(reader, "scaleY"));
+    List<ShapeLayoutElementCreationTO> shapeElements = new LinkedList<>();
+    List<ModelLayoutElementCreationTO> modelElements = new LinkedList<>();
+    Map<String, String> properties = new HashMap<>();
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "shapeLayoutElement":
+          ShapeLayoutElementCreationTO shapeElement = new ShapeLayoutElementCreationTO("")
+              .withLayer((int) longAttribute(reader, "layer"));
+          shapeElements.add(shapeElement.withProperties(readProperties(reader)));
+          break;
+        case "modelLayoutElement":
+          ModelLayoutElementCreationTO modelElement
+              = new ModelLayoutElementCreationTO(attribute(reader, "visualizedObjectName", ""))
+                  .withLayer((int) longAttribute(reader, "layer"));
+          modelElements.add(modelElement.withProperties(readProperties(reader)));
+          break;
+        case "property":
+          readProperty(reader, properties);
+          break;
+        default:
+          // Colors and view bookmarks are not mapped, either.
+          skipElement(reader);
+      }
+    }
+    return layout.withShapeElements(shapeElements)
+        .withModelElements(modelElements)
+        .withProperties(properties);
+  }
+
+  /**
+   * Reads the members and properties of a block or group.
+   */
+  private void readMembers(XMLStreamReader reader,
+                           Set<String> members,
+                           Map<String, String> properties)
+      throws XMLStreamException {
+    while (nextChild(reader)) {
+      switch (reader.getLocalName()) {
+        case "member":
+          members.add(attribute(reader, "name", ""));
+          skipElement(reader);
+          break;
+        case "property":
+          readProperty(reader, properties);
+          break;
+        default:
+          skipElement(reader);
+      }
+    }
+  }
+
+  /**
+   * Reads the names of the allowed operations nested in the current element.
+   */
+  private Set<String> readAllowedOperations(XMLStreamReader reader)
+      throws XMLStreamException {
+    List<String> result = new ArrayList<>();
+    while (nextChild(reader)) {
+      if ("allowedOperation".equals(reader.getLocalName())) {
+        result.add(attribute(reader, "name", ""));
+      }
+      skipElement(reader);
+    }
+    return new HashSet<>(result);
+  }
+
+  /**
+   * Reads the properties nested in the current element, ignoring any other nested elements.
+   */
+  private Map<String, String> readProperties(XMLStreamReader reader)
+      throws XMLStreamException {
+    Map<String, String> result = new HashMap<>();
+    while (nextChild(reader)) {
+      if ("property".equals(reader.getLocalName())) {
+        readProperty(reader, result);
+      }
+      else {
+        skipElement(reader);
+      }
+    }
+    return result;
+  }
+
+  private void readProperty(XMLStreamReader reader, Map<String, String> properties)
+      throws XMLStreamException {
+    String name = attribute(reader, "name", "");
+    String value = attribute(reader, "value", "");
+    properties.put(name.isEmpty() ? "Property unknown" : name,
+                   value.isEmpty() ? "Value unknown" : value);
+    skipElement(reader);
+  }
+
+  /**
+   * Advances to the next child element of the current element.
+   *
+   * @return <code>true</code> if the reader is now positioned at the start of a child element,
+   * <code>false</code> if it is positioned at the end of the current element.
+   */
+  private boolean nextChild(XMLStreamReader reader)
+      throws XMLStreamException {
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        return true;
+      }
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        return false;
+      }
+    }
+    throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+  }
+
+  /**
+   * Skips the current element including all of its children.
+   */
+  private void skipElement(XMLStreamReader reader)
+      throws XMLStreamException {
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        depth++;
+      }
+      else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      }
+    }
+  }
+
+  private String attribute(XMLStreamReader reader, String name, String defaultValue) {
+    String value = reader.getAttributeValue(null, name);
+    return value != null ? value : defaultValue;
+  }
+
+  private long longAttribute(XMLStreamReader reader, String name)
+      throws XMLStreamException {
+    String value = reader.getAttributeValue(null, name);
+    try {
+      return value != null ? Long.parseLong(value.trim()) : 0L;
+    }
+    catch (NumberFormatException exc) {
+      throw new XMLStreamException("Invalid value for " + name + ": " + value,
+                                   reader.getLocation(),
+                                   exc);
+    }
+  }
+
+  private float floatAttribute(XMLStreamReader reader, String name)
+      throws XMLStreamException {
+    String value = reader.getAttributeValue(null, name);
+    try {
+      return value != null ? Float.parseFloat(value.trim()) : 0.0F;
+    }
+    catch (NumberFormatException exc) {
+      throw new XMLStreamException("Invalid value for " + name + ": " + value,
+                                   reader.getLocation(),
+                                   exc);
+    }
+  }
+
+  private boolean booleanAttribute(XMLStreamReader reader, String name) {
+    // As defined for xs:boolean.
+    String value = attribute(reader, name, "false").trim();
+    return "true".equals(value) || "1".equals(value);
+  }
+}
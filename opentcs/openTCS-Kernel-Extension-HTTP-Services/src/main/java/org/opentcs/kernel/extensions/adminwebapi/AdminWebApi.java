@@ -66,6 +66,8 @@ public class AdminWebApi
                service.get("/version", v1RequestHandler::handleGetVersion);
                service.get("/status", v1RequestHandler::handleGetStatus);
                service.delete("/kernel", v1RequestHandler::handleDeleteKernel);
+               service.get("/scheduler/statistics",
+                           v1RequestHandler::handleGetSchedulerStatistics);
              }
     );
     service.exception(IllegalArgumentException.class, (exception, request, response) -> {
@@ -19,6 +19,7 @@ import javax.inject.Inject;
 import org.opentcs.access.Kernel;
 import org.opentcs.access.LocalKernel;
 import org.opentcs.components.Lifecycle;
+import org.opentcs.components.kernel.services.SchedulerService;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -52,6 +53,10 @@ public class V1RequestHandler
    * Used to schedule kernel shutdowns.
    */
   private final ScheduledExecutorService kernelExecutor;
+  /**
+   * Provides statistics about resource allocations.
+   */
+  private final SchedulerService schedulerService;
   /**
    * Whether this instance is initialized.
    */
@@ -62,12 +67,15 @@ public class V1RequestHandler
    *
    * @param kernel The local kernel.
    * @param kernelExecutor Use to schedule kernel shutdowns.
+   * @param schedulerService Provides statistics about resource allocations.
    */
   @Inject
   public V1RequestHandler(LocalKernel kernel,
-                          @KernelExecutor ScheduledExecutorService kernelExecutor) {
+                          @KernelExecutor ScheduledExecutorService kernelExecutor,
+                          SchedulerService schedulerService) {
     this.kernel = requireNonNull(kernel, "kernel");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.schedulerService = requireNonNull(schedulerService, "schedulerService");
   }
 
   @Override
@@ -107,6 +115,22 @@ public class V1RequestHandler
     return "";
   }
 
+  public Object handleGetSchedulerStatistics(Request request, Response response)
+      throws IllegalArgumentException {
+    return toJson(schedulerService.fetchSchedulerAllocationStatistics(resources(request)));
+  }
+
+  private int resources(Request request)
+      throws IllegalArgumentException {
+    String param = request.queryParamOrDefault("resources", "10");
+    try {
+      return Math.max(0, Integer.parseInt(param));
+    }
+    catch (NumberFormatException exc) {
+      throw new IllegalArgumentException("Malformed resources: " + param);
+    }
+  }
+
   private <T> T fromJson(String jsonString, Class<T> clazz)
       throws IllegalArgumentException {
     try {
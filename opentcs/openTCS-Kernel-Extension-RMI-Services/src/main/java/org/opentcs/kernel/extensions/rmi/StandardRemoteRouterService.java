@@ -11,6 +11,7 @@ import java.rmi.NotBoundException;
 import java.rmi.RemoteException;
 import java.rmi.registry.Registry;
 import java.rmi.server.UnicastRemoteObject;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -23,6 +24,9 @@ import org.opentcs.components.kernel.services.RouterService;
 import org.opentcs.customizations.kernel.KernelExecutor;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -174,4 +178,18 @@ public class StandardRemoteRouterService
       throw findSuitableExceptionFor(exc);
     }
   }
+
+  @Override
+  public List<Route> fetchShortestRoutes(ClientID clientId,
+                                         TCSObjectReference<Vehicle> vehicleRef,
+                                         TCSObjectReference<Point> sourcePointRef,
+                                         TCSObjectReference<Point> destinationPointRef,
+                                         int maxRouteCount) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return routerService.fetchShortestRoutes(vehicleRef,
+                                             sourcePointRef,
+                                             destinationPointRef,
+                                             maxRouteCount);
+  }
 }
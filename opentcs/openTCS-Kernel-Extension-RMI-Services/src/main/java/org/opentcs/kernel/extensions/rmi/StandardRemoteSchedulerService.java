@@ -14,6 +14,7 @@ import java.rmi.server.UnicastRemoteObject;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.access.rmi.ClientID;
 import org.opentcs.access.rmi.factories.SocketFactoryProvider;
 import org.opentcs.access.rmi.services.RegistrationName;
@@ -146,4 +147,12 @@ public class StandardRemoteSchedulerService
 
     return schedulerService.fetchSchedulerAllocations();
   }
+
+  @Override
+  public SchedulerAllocationStatistics fetchSchedulerAllocationStatistics(ClientID clientId,
+                                                                          int maxResourceCount) {
+    userManager.verifyCredentials(clientId, UserPermission.READ_DATA);
+
+    return schedulerService.fetchSchedulerAllocationStatistics(maxResourceCount);
+  }
 }
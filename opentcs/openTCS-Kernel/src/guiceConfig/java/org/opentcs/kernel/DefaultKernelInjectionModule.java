@@ -14,11 +14,14 @@ import java.io.File;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 import javax.inject.Singleton;
 import org.opentcs.access.Kernel;
 import org.opentcs.access.LocalKernel;
 import org.opentcs.access.SslParameterSet;
 import org.opentcs.common.LoggingScheduledThreadPoolExecutor;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.common.SimulationScheduledThreadPoolExecutor;
 import org.opentcs.components.kernel.ObjectNameProvider;
 import org.opentcs.components.kernel.services.DispatcherService;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
@@ -40,6 +43,8 @@ import org.opentcs.drivers.vehicle.VehicleControllerPool;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.VehicleEntryPool;
 import org.opentcs.kernel.persistence.ModelPersister;
+import org.opentcs.kernel.persistence.OrderJournalConfiguration;
+import org.opentcs.kernel.persistence.TransportOrderJournal;
 import org.opentcs.kernel.persistence.XMLFileModelPersister;
 import org.opentcs.kernel.persistence.XMLModelBuilder;
 import org.opentcs.kernel.persistence.XMLModelReader;
@@ -55,6 +60,7 @@ import org.opentcs.kernel.services.StandardVehicleService;
 import org.opentcs.kernel.vehicles.DefaultVehicleControllerPool;
 import org.opentcs.kernel.vehicles.LocalVehicleControllerPool;
 import org.opentcs.kernel.vehicles.VehicleCommAdapterRegistry;
+import org.opentcs.kernel.vehicles.VehicleControllerExecutor;
 import org.opentcs.kernel.vehicles.VehicleControllerFactory;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.NotificationBuffer;
@@ -161,6 +167,8 @@ public class DefaultKernelInjectionModule
 
   private void configureVehicleControllers() {
     install(new FactoryModuleBuilder().build(VehicleControllerFactory.class));
+    bind(VehicleControllerExecutor.class)
+        .in(Singleton.class);
 
     bind(DefaultVehicleControllerPool.class)
         .in(Singleton.class);
@@ -174,6 +182,11 @@ public class DefaultKernelInjectionModule
     bind(ModelPersister.class).to(XMLFileModelPersister.class);
     bind(XMLModelReader.class).to(XMLModelBuilder.class);
     bind(XMLModelWriter.class).to(XMLModelBuilder.class);
+
+    bind(OrderJournalConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(OrderJournalConfiguration.PREFIX,
+                                                   OrderJournalConfiguration.class));
+    bind(TransportOrderJournal.class).in(Singleton.class);
   }
 
   @SuppressWarnings("deprecation")
@@ -242,15 +255,23 @@ public class DefaultKernelInjectionModule
   }
 
   private void configureKernelExecutor() {
+    KernelApplicationConfiguration configuration
+        = getConfigBindingProvider().get(KernelApplicationConfiguration.PREFIX,
+                                         KernelApplicationConfiguration.class);
+    SimulationClock clock = new SimulationClock(configuration.simulationTimeFactor());
+    bind(SimulationClock.class)
+        .toInstance(clock);
+
+    ThreadFactory threadFactory = (runnable) -> {
+      Thread thread = new Thread(runnable, "kernelExecutor");
+      thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+      return thread;
+    };
+    // Only pay for the conversion of delays if the kernel's clock does not follow real time.
     ScheduledExecutorService executor
-        = new LoggingScheduledThreadPoolExecutor(
-            1,
-            (runnable) -> {
-              Thread thread = new Thread(runnable, "kernelExecutor");
-              thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
-              return thread;
-            }
-        );
+        = clock.getTimeFactor() == 1.0
+            ? new LoggingScheduledThreadPoolExecutor(1, threadFactory)
+            : new SimulationScheduledThreadPoolExecutor(1, threadFactory, clock);
     bind(ScheduledExecutorService.class)
         .annotatedWith(KernelExecutor.class)
         .toInstance(executor);
@@ -46,4 +46,74 @@ public interface KernelApplicationConfiguration {
       description = "Whether to implicitly update the router's topology when a path is (un)locked.",
       orderKey = "3_topologyUpdate")
   boolean updateRoutingTopologyOnPathLockChange();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = "Whether vehicle controllers perform their state transitions one after another "
+      + "on a shared pool of threads instead of synchronizing with their communication adapters.",
+      orderKey = "4_vehicleControllerMailbox_0")
+  boolean vehicleControllerMailbox();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The number of threads performing the vehicle controllers' state transitions "
+      + "if 'vehicleControllerMailbox' is enabled. 0 uses one thread per available processor.",
+      orderKey = "4_vehicleControllerMailbox_1")
+  int vehicleControllerMailboxThreads();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = "The minimum time between two updates of a vehicle's precise position or "
+      + "orientation angle reported by its driver (in ms). 0 updates them with every report.",
+      orderKey = "4_precisePositionUpdate_0")
+  long precisePositionUpdateInterval();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The minimum distance between two updates of a vehicle's precise position "
+      + "(in mm).",
+      orderKey = "4_precisePositionUpdate_1")
+  int precisePositionUpdateThreshold();
+
+  @ConfigurationEntry(
+      type = "Double",
+      description = "The minimum difference between two updates of a vehicle's orientation angle "
+      + "(in degrees).",
+      orderKey = "4_precisePositionUpdate_2")
+  double orientationAngleUpdateThreshold();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How many movement commands vehicle controllers send to their vehicles in advance. "
+        + "Valid values:",
+        "'QUEUE_CAPACITY': As many as the vehicle's driver accepts.",
+        "'BRAKING_DISTANCE': As many as needed for the vehicle to be able to brake to a stop at the "
+        + "end of the commands sent, at the maximum velocity allowed on their paths, as long as "
+        + "the vehicle's driver accepts them. Commands already passed on to the vehicle do not "
+        + "count against the driver's command queue capacity."},
+      orderKey = "4_vehicleControllerLookAhead")
+  CommandLookAhead vehicleControllerLookAhead();
+
+  @ConfigurationEntry(
+      type = "Double",
+      description = "The factor by which the kernel's clock runs faster than real time, e.g. for "
+      + "benchmarking strategies with simulated vehicles. Applies to the kernel's periodic tasks, "
+      + "the time stamps of transport orders and the loopback driver. 1.0 runs in real time.",
+      orderKey = "5_simulationTimeFactor")
+  double simulationTimeFactor();
+
+  /**
+   * The ways the number of movement commands sent to a vehicle in advance can be determined.
+   */
+  enum CommandLookAhead {
+    /**
+     * As many commands as the vehicle's driver accepts are sent.
+     */
+    QUEUE_CAPACITY,
+    /**
+     * As many commands as needed to cover the vehicle's braking distance are sent.
+     */
+    BRAKING_DISTANCE;
+  }
 }
@@ -49,6 +49,7 @@ import org.opentcs.drivers.vehicle.VehicleCommAdapter;
 import org.opentcs.kernel.extensions.controlcenter.vehicles.AttachmentManager;
 import org.opentcs.kernel.extensions.xmlhost.orders.ScriptFileManager;
 import org.opentcs.kernel.persistence.ModelPersister;
+import org.opentcs.kernel.persistence.TransportOrderJournal;
 import org.opentcs.kernel.vehicles.LocalVehicleControllerPool;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.kernel.workingset.NotificationBuffer;
@@ -111,6 +112,10 @@ class KernelStateOperating
    * A task for periodically getting rid of old orders.
    */
   private final OrderCleanerTask orderCleanerTask;
+  /**
+   * Journals transport orders and order sequences.
+   */
+  private final TransportOrderJournal orderJournal;
   /**
    * This kernel state's local extensions.
    */
@@ -158,6 +163,7 @@ class KernelStateOperating
                        ScriptFileManager scriptFileManager,
                        @KernelExecutor ScheduledExecutorService kernelExecutor,
                        OrderCleanerTask orderCleanerTask,
+                       TransportOrderJournal orderJournal,
                        @ActiveInOperatingMode Set<KernelExtension> extensions,
                        AttachmentManager attachmentManager,
                        VehicleService vehicleService) {
@@ -177,6 +183,7 @@ class KernelStateOperating
     this.vehicleControllerPool = requireNonNull(controllerPool, "controllerPool");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.orderCleanerTask = requireNonNull(orderCleanerTask, "orderCleanerTask");
+    this.orderJournal = requireNonNull(orderJournal, "orderJournal");
     this.extensions = requireNonNull(extensions, "extensions");
     this.attachmentManager = requireNonNull(attachmentManager, "attachmentManager");
     this.vehicleService = requireNonNull(vehicleService, "vehicleService");
@@ -202,6 +209,10 @@ class KernelStateOperating
       setVehicleOrderSequence(curVehicle.getReference(), null);
     }
 
+    // Restore transport orders from the journal before any strategy looks at them.
+    LOG.debug("Initializing transport order journal '{}'...", orderJournal);
+    orderJournal.initialize();
+
     LOG.debug("Initializing scheduler '{}'...", scheduler);
     scheduler.initialize();
     LOG.debug("Initializing router '{}'...", router);
@@ -250,6 +261,10 @@ class KernelStateOperating
     LOG.debug("Terminating operating state...");
     super.terminate();
 
+    // Journal the transport orders' states before they are withdrawn and removed.
+    LOG.debug("Terminating transport order journal '{}'...", orderJournal);
+    orderJournal.terminate();
+
     // Terminate everything that may still use resources.
     for (KernelExtension extension : extensions) {
       LOG.debug("Terminating kernel extension '{}'...", extension);
@@ -13,6 +13,7 @@ import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import java.util.function.Predicate;
 import javax.inject.Inject;
+import org.opentcs.common.SimulationClock;
 import org.opentcs.components.kernel.OrderSequenceCleanupApproval;
 import org.opentcs.components.kernel.TransportOrderCleanupApproval;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
@@ -55,25 +56,32 @@ class OrderCleanerTask
    * This class's configuration.
    */
   private final OrderPoolConfiguration configuration;
+  /**
+   * Provides the current time.
+   */
+  private final SimulationClock clock;
 
   /**
    * Creates a new instance.
    *
    * @param kernel The kernel.
    * @param configuration This class's configuration.
+   * @param clock Provides the current time.
    */
   @Inject
   public OrderCleanerTask(@GlobalSyncObject Object globalSyncObject,
                           TransportOrderPool orderPool,
                           Set<TransportOrderCleanupApproval> orderCleanupApprovals,
                           Set<OrderSequenceCleanupApproval> sequenceCleanupApprovals,
-                          OrderPoolConfiguration configuration) {
+                          OrderPoolConfiguration configuration,
+                          SimulationClock clock) {
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
     this.orderPool = requireNonNull(orderPool, "orderPool");
     this.orderCleanupApprovals = requireNonNull(orderCleanupApprovals, "orderCleanupApprovals");
     this.sequenceCleanupApprovals = requireNonNull(sequenceCleanupApprovals,
                                                    "sequenceCleanupApprovals");
     this.configuration = requireNonNull(configuration, "configuration");
+    this.clock = requireNonNull(clock, "clock");
   }
 
   public long getSweepInterval() {
@@ -85,7 +93,7 @@ class OrderCleanerTask
     synchronized (globalSyncObject) {
       LOG.debug("Sweeping order pool...");
       // Candidates that are created before this point of time should be removed.
-      long creationTimeThreshold = System.currentTimeMillis() - configuration.sweepAge();
+      long creationTimeThreshold = clock.millis() - configuration.sweepAge();
 
       // Remove all transport orders in a final state that do NOT belong to a sequence and that are
       // older than the threshold.
@@ -0,0 +1,332 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.zip.CRC32;
+import org.opentcs.data.ObjectExistsException;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.model.Block;
+import org.opentcs.data.model.Group;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.model.visualization.VisualLayout;
+import org.opentcs.kernel.workingset.Model;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A binary snapshot of a model as read from a model file, for loading the model without parsing
+ * the model file again.
+ * <p>
+ * The snapshot starts with a format version and a digest of the model file it was created from,
+ * followed by the length and checksum of its payload. The payload contains the model's name,
+ * properties and objects, serialized in the order they were created in. A snapshot is only used
+ * if its format version is the current one, its digest matches the model file's content and its
+ * payload is intact.
+ * </p>
+ */
+class ModelSnapshotFile {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(ModelSnapshotFile.class);
+  /**
+   * Identifies model snapshot files.
+   */
+  private static final int MAGIC = 0x4f54534d;
+  /**
+   * The current version of the snapshot format.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * The algorithm for computing the model file's digest.
+   */
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  /**
+   * The snapshot file.
+   */
+  private final Path snapshotPath;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param snapshotPath The snapshot file.
+   */
+  ModelSnapshotFile(Path snapshotPath) {
+    this.snapshotPath = requireNonNull(snapshotPath, "snapshotPath");
+  }
+
+  /**
+   * Computes the digest of the given model file, which a snapshot must match to be used.
+   *
+   * @param modelFile The model file.
+   * @return The model file's digest.
+   * @throws IOException If reading the model file failed.
+   */
+  public static byte[] digest(Path modelFile)
+      throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+    }
+    catch (NoSuchAlgorithmException exc) {
+      // Every Java platform is required to support SHA-256.
+      throw new IllegalStateException(exc);
+    }
+    byte[] buffer = new byte[64 * 1024];
+    try (InputStream in = new DigestInputStream(Files.newInputStream(modelFile), digest)) {
+      while (in.read(buffer) >= 0) {
+        // Only reading is required for the digest.
+      }
+    }
+    return digest.digest();
+  }
+
+  /**
+   * Fills the given model with the snapshot's content, if the snapshot is usable.
+   * Leaves the model untouched otherwise.
+   *
+   * @param modelDigest The digest of the current model file.
+   * @param model The model to fill.
+   * @return Whether the model has been filled with the snapshot's content.
+   */
+  public boolean read(byte[] modelDigest, Model model) {
+    requireNonNull(modelDigest, "modelDigest");
+    requireNonNull(model, "model");
+
+    if (!Files.isRegularFile(snapshotPath)) {
+      LOG.debug("No model snapshot at {}.", snapshotPath);
+      return false;
+    }
+
+    Content content;
+    try {
+      content = readContent(modelDigest);
+    }
+    catch (IOException | ClassNotFoundException | ClassCastException exc) {
+      LOG.warn("Could not read model snapshot {}, ignoring it.", snapshotPath, exc);
+      return false;
+    }
+    if (content == null) {
+      return false;
+    }
+
+    TCSObjectPool objectPool = model.getObjectPool();
+    try {
+      model.clear();
+      model.setName(content.name);
+      model.setProperties(content.properties);
+      for (TCSObject<?> object : content.objects) {
+        objectPool.addObject(object);
+        objectPool.emitObjectEvent(object.clone(), null, TCSObjectEvent.Type.OBJECT_CREATED);
+      }
+    }
+    catch (ObjectExistsException exc) {
+      LOG.warn("Model snapshot {} contains duplicate objects, ignoring it.", snapshotPath, exc);
+      model.clear();
+      return false;
+    }
+    LOG.debug("Read model snapshot with {} objects.", content.objects.size());
+    return true;
+  }
+
+  /**
+   * Replaces the snapshot with one of the given model.
+   * The model must not have been modified since it was read from the model file.
+   *
+   * @param modelDigest The digest of the model file the model was read from.
+   * @param model The model.
+   * @throws IOException If writing the snapshot failed.
+   */
+  public void write(byte[] modelDigest, Model model)
+      throws IOException {
+    requireNonNull(modelDigest, "modelDigest");
+    requireNonNull(model, "model");
+
+    // In the order the objects need to be created in, as they refer to each other.
+    TCSObjectPool objectPool = model.getObjectPool();
+    List<TCSObject<?>> objects = new ArrayList<>();
+    objects.addAll(objectPool.getObjects(Point.class));
+    objects.addAll(objectPool.getObjects(org.opentcs.data.model.Path.class));
+    objects.addAll(objectPool.getObjects(Vehicle.class));
+    objects.addAll(objectPool.getObjects(LocationType.class));
+    objects.addAll(objectPool.getObjects(Location.class));
+    objects.addAll(objectPool.getObjects(Block.class));
+    objects.addAll(objectPool.getObjects(Group.class));
+    objects.addAll(objectPool.getObjects(VisualLayout.class));
+
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(payload)) {
+      objectOut.writeObject(model.getName());
+      objectOut.writeObject(new HashMap<>(model.getProperties()));
+      objectOut.writeInt(objects.size());
+      for (TCSObject<?> object : objects) {
+        objectOut.writeObject(object);
+      }
+    }
+    byte[] payloadBytes = payload.toByteArray();
+    CRC32 checksum = new CRC32();
+    checksum.update(payloadBytes, 0, payloadBytes.length);
+
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    DataOutputStream headerOut = new DataOutputStream(header);
+    headerOut.writeInt(MAGIC);
+    headerOut.writeInt(FORMAT_VERSION);
+    headerOut.writeInt(modelDigest.length);
+    headerOut.write(modelDigest);
+    headerOut.writeInt(payloadBytes.length);
+    headerOut.writeLong(checksum.getValue());
+
+    Path tmpPath = snapshotPath.resolveSibling(snapshotPath.getFileName() + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmpPath,
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer[] buffers = {ByteBuffer.wrap(header.toByteArray()), ByteBuffer.wrap(payloadBytes)};
+      while (buffers[1].hasRemaining()) {
+        channel.write(buffers);
+      }
+      channel.force(false);
+    }
+    Files.move(tmpPath,
+               snapshotPath,
+               StandardCopyOption.REPLACE_EXISTING,
+               StandardCopyOption.ATOMIC_MOVE);
+    LOG.debug("Wrote model snapshot with {} objects ({} bytes).",
+              objects.size(),
+              payloadBytes.length);
+  }
+
+  /**
+   * Deletes the snapshot, if it exists.
+   *
+   * @throws IOException If deleting the snapshot failed.
+   */
+  public void delete()
+      throws IOException {
+    Files.deleteIfExists(snapshotPath);
+  }
+
+  /**
+   * Reads the snapshot's content.
+   *
+   * @return The snapshot's content, or <code>null</code>, if the snapshot does not match the
+   * model file or is corrupt.
+   */
+  private Content readContent(byte[] modelDigest)
+      throws IOException, ClassNotFoundException {
+    byte[] payloadBytes;
+    long expectedChecksum;
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+      if (in.readInt() != MAGIC) {
+        LOG.warn("{} is not a model snapshot, ignoring it.", snapshotPath);
+        return null;
+      }
+      int formatVersion = in.readInt();
+      if (formatVersion != FORMAT_VERSION) {
+        LOG.info("Model snapshot has format version {} instead of {}, ignoring it.",
+                 formatVersion,
+                 FORMAT_VERSION);
+        return null;
+      }
+      int digestLength = in.readInt();
+      if (digestLength != modelDigest.length) {
+        LOG.warn("Model snapshot {} is corrupt, ignoring it.", snapshotPath);
+        return null;
+      }
+      byte[] snapshotDigest = new byte[digestLength];
+      in.readFully(snapshotDigest);
+      if (!MessageDigest.isEqual(snapshotDigest, modelDigest)) {
+        LOG.info("Model snapshot does not match the model file, ignoring it.");
+        return null;
+      }
+      int payloadLength = in.readInt();
+      if (payloadLength < 0 || payloadLength > Files.size(snapshotPath)) {
+        LOG.warn("Model snapshot {} is corrupt, ignoring it.", snapshotPath);
+        return null;
+      }
+      expectedChecksum = in.readLong();
+      payloadBytes = new byte[payloadLength];
+      in.readFully(payloadBytes);
+    }
+
+    CRC32 checksum = new CRC32();
+    checksum.update(payloadBytes, 0, payloadBytes.length);
+    if (checksum.getValue() != expectedChecksum) {
+      LOG.warn("Model snapshot {} has an invalid checksum, ignoring it.", snapshotPath);
+      return null;
+    }
+
+    try (ObjectInputStream objectIn
+        = new ObjectInputStream(new ByteArrayInputStream(payloadBytes))) {
+      String name = (String) objectIn.readObject();
+      @SuppressWarnings("unchecked")
+      Map<String, String> properties = (Map<String, String>) objectIn.readObject();
+      int objectCount = objectIn.readInt();
+      List<TCSObject<?>> objects = new ArrayList<>(objectCount);
+      for (int i = 0; i < objectCount; i++) {
+        objects.add((TCSObject<?>) objectIn.readObject());
+      }
+      return new Content(name, properties, objects);
+    }
+  }
+
+  /**
+   * The content of a snapshot.
+   */
+  private static class Content {
+
+    /**
+     * The model's name.
+     */
+    private final String name;
+    /**
+     * The model's properties.
+     */
+    private final Map<String, String> properties;
+    /**
+     * The model's objects, in the order they need to be created in.
+     */
+    private final List<TCSObject<?>> objects;
+
+    Content(String name, Map<String, String> properties, List<TCSObject<?>> objects) {
+      this.name = requireNonNull(name, "name");
+      this.properties = requireNonNull(properties, "properties");
+      this.objects = requireNonNull(objects, "objects");
+    }
+  }
+}
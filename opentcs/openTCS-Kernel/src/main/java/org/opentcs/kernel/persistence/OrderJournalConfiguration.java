@@ -0,0 +1,47 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.persistence;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link TransportOrderJournal}.
+ */
+@ConfigurationPrefix(OrderJournalConfiguration.PREFIX)
+public interface OrderJournalConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "orderjournal";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to journal transport orders and order sequences and to restore them when entering",
+        "operating mode, e.g. after a restart of the kernel."},
+      orderKey = "0_enable")
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The maximum time (in ms) changes are collected before they are written to disk together.",
+        "Changes made within this time may be lost if the kernel crashes."},
+      orderKey = "1_syncInterval")
+  long syncInterval();
+
+  @ConfigurationEntry(
+      type = "Long",
+      description = {
+        "The interval (in ms) in which the journal is replaced by a snapshot of all transport",
+        "orders and order sequences."},
+      orderKey = "2_compactionInterval")
+  long compactionInterval();
+}
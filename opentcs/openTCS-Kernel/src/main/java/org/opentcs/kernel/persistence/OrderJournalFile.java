@@ -0,0 +1,658 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.persistence;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectReference;
+import static org.opentcs.util.Assertions.checkState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * An append-only journal of object states, backed by a journal file and a snapshot file.
+ * <p>
+ * Each record in the journal contains either the complete new state of an object or a reference
+ * to an object that was removed. Records are written by a thread of their own, which collects
+ * them for up to the configured sync interval and then writes and syncs them to disk together.
+ * Appending a record thus merely enqueues it.
+ * </p>
+ * <p>
+ * A snapshot contains the states of all objects at a point in the sequence of records. Writing a
+ * snapshot replaces the previous one and empties the journal. Records are numbered, so records
+ * already contained in the snapshot are skipped when reading the journal, even if the kernel
+ * crashed before the journal was emptied.
+ * </p>
+ * <p>
+ * Both files start with a header identifying the file format. Files in an unknown format are moved
+ * aside instead of being read, and records whose objects cannot be deserialized, e.g. after the
+ * classes changed incompatibly, are skipped.
+ * </p>
+ * <p>
+ * If records cannot be enqueued because the writer cannot keep up, or cannot be written, the
+ * journal drops all further records until the next snapshot, so it always reflects a consistent
+ * state. Its owner is expected to write a snapshot as soon as {@link #isSnapshotRequired()}
+ * indicates it.
+ * </p>
+ */
+class OrderJournalFile {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(OrderJournalFile.class);
+  /**
+   * The name of the journal file.
+   */
+  private static final String JOURNAL_FILE_NAME = "orders.journal";
+  /**
+   * The name of the snapshot file.
+   */
+  private static final String SNAPSHOT_FILE_NAME = "orders.snapshot";
+  /**
+   * The suffix appended to the names of files moved aside for being in an unknown format.
+   */
+  private static final String UNREADABLE_SUFFIX = ".unreadable";
+  /**
+   * Identifies the journal and snapshot files.
+   */
+  private static final int FORMAT_MAGIC = 0x4f4a524e;
+  /**
+   * The version of the journal and snapshot files' format.
+   */
+  private static final int FORMAT_VERSION = 1;
+  /**
+   * The size of the journal and snapshot files' header (in bytes).
+   */
+  private static final int HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+  /**
+   * The maximum number of records waiting to be written.
+   * If the journal cannot keep up, further records are dropped until the next snapshot.
+   */
+  private static final int QUEUE_CAPACITY = 10000;
+  /**
+   * The maximum size of a record's payload, for detecting corrupt records.
+   */
+  private static final int MAX_PAYLOAD_SIZE = 64 * 1024 * 1024;
+  /**
+   * Marks the end of the records to be written.
+   */
+  private static final Object END_OF_RECORDS = new Object();
+  /**
+   * The journal file.
+   */
+  private final Path journalPath;
+  /**
+   * The snapshot file.
+   */
+  private final Path snapshotPath;
+  /**
+   * The maximum time (in ms) records are collected before they are written.
+   */
+  private final long syncInterval;
+  /**
+   * The records waiting to be written.
+   */
+  private final BlockingQueue<Object> pendingRecords = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+  /**
+   * Synchronizes enqueueing records with replacing them by a snapshot.
+   */
+  private final Object enqueueLock = new Object();
+  /**
+   * Buffers encoded records until they are written.
+   */
+  private final ByteArrayOutputStream writeBuffer = new ByteArrayOutputStream();
+  /**
+   * Computes checksums of records.
+   */
+  private final CRC32 checksum = new CRC32();
+  /**
+   * The channel for writing to the journal file.
+   */
+  private FileChannel journalChannel;
+  /**
+   * The thread writing the records.
+   */
+  private Thread writerThread;
+  /**
+   * The number of the last record written.
+   */
+  private long lastRecordNumber;
+  /**
+   * The number of records skipped while reading because they could not be deserialized.
+   */
+  private int unreadableRecordCount;
+  /**
+   * Whether records have been dropped since the last snapshot.
+   */
+  private volatile boolean snapshotRequired;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param directory The directory containing the journal and snapshot files.
+   * @param syncInterval The maximum time (in ms) records are collected before they are written.
+   */
+  OrderJournalFile(Path directory, long syncInterval) {
+    requireNonNull(directory, "directory");
+    this.journalPath = directory.resolve(JOURNAL_FILE_NAME);
+    this.snapshotPath = directory.resolve(SNAPSHOT_FILE_NAME);
+    this.syncInterval = syncInterval;
+  }
+
+  /**
+   * Reads the snapshot and the journal and opens the journal for appending records.
+   * A record that was only partially written, e.g. because the kernel crashed, is discarded.
+   * Files in an unknown format are moved aside, and records that cannot be deserialized are
+   * skipped.
+   *
+   * @return The latest states of all objects, mapped by their names.
+   * @throws IOException If reading or opening the files failed.
+   */
+  public Map<String, TCSObject<?>> open()
+      throws IOException {
+    checkState(journalChannel == null, "Already open");
+
+    Files.createDirectories(journalPath.getParent());
+    Map<String, TCSObject<?>> objects = new LinkedHashMap<>();
+    long snapshotRecordNumber = readSnapshot(objects);
+    if (snapshotRecordNumber < 0) {
+      // Without the snapshot, the journal's records do not describe a consistent state.
+      moveAside(snapshotPath);
+      moveAside(journalPath);
+      snapshotRecordNumber = 0;
+    }
+    long validLength = readJournal(objects, snapshotRecordNumber);
+    if (validLength < 0) {
+      moveAside(journalPath);
+      validLength = HEADER_SIZE;
+    }
+    lastRecordNumber = Math.max(lastRecordNumber, snapshotRecordNumber);
+    if (unreadableRecordCount > 0) {
+      LOG.warn("Skipped {} records that could not be deserialized", unreadableRecordCount);
+    }
+
+    journalChannel = FileChannel.open(journalPath,
+                                      StandardOpenOption.CREATE,
+                                      StandardOpenOption.WRITE);
+    if (journalChannel.size() == 0) {
+      writeFully(journalChannel, encodeHeader());
+      journalChannel.force(false);
+    }
+    else if (journalChannel.size() > validLength) {
+      LOG.warn("Discarding {} bytes of incomplete records at the end of {}",
+               journalChannel.size() - validLength,
+               journalPath);
+      journalChannel.truncate(validLength);
+    }
+    journalChannel.position(validLength);
+
+    writerThread = new Thread(this::writeRecords, "orderJournalWriter");
+    // Incomplete records are discarded when reading the journal, so the thread need not keep the
+    // JVM alive.
+    writerThread.setDaemon(true);
+    writerThread.start();
+    return objects;
+  }
+
+  /**
+   * Writes all pending records and closes the journal.
+   */
+  public void close() {
+    if (journalChannel == null) {
+      return;
+    }
+    try {
+      // Not called with any kernel lock held, so waiting for room in the queue is fine.
+      pendingRecords.put(END_OF_RECORDS);
+      writerThread.join();
+    }
+    catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      LOG.warn("Interrupted while waiting for pending records to be written");
+    }
+    try {
+      journalChannel.close();
+    }
+    catch (IOException exc) {
+      LOG.warn("Exception closing {}", journalPath, exc);
+    }
+    journalChannel = null;
+    writerThread = null;
+  }
+
+  /**
+   * Appends the given state of an object to the journal.
+   *
+   * @param object The object's state.
+   */
+  public void appendObject(TCSObject<?> object) {
+    requireNonNull(object, "object");
+    enqueue(object);
+  }
+
+  /**
+   * Appends the removal of the referenced object to the journal.
+   *
+   * @param ref A reference to the removed object.
+   */
+  public void appendRemoval(TCSObjectReference<?> ref) {
+    requireNonNull(ref, "ref");
+    enqueue(ref);
+  }
+
+  /**
+   * Replaces the snapshot with the given object states and empties the journal.
+   * The given states have to include all records appended before, so records not written, yet, are
+   * discarded.
+   *
+   * @param objects The states of all objects.
+   */
+  public void writeSnapshot(Collection<TCSObject<?>> objects) {
+    requireNonNull(objects, "objects");
+    checkState(journalChannel != null, "Not open");
+    synchronized (enqueueLock) {
+      pendingRecords.clear();
+      pendingRecords.add(new Snapshot(objects));
+      snapshotRequired = false;
+    }
+  }
+
+  /**
+   * Indicates whether records have been dropped since the last snapshot, because the writer could
+   * not keep up or writing failed.
+   * Until the next snapshot, all records appended are dropped.
+   *
+   * @return <code>true</code> if, and only if, a snapshot should be written.
+   */
+  public boolean isSnapshotRequired() {
+    return snapshotRequired;
+  }
+
+  private void enqueue(Object record) {
+    checkState(journalChannel != null, "Not open");
+    synchronized (enqueueLock) {
+      if (snapshotRequired) {
+        return;
+      }
+      // Appending must not block, as it usually happens while holding the kernel's global lock.
+      if (!pendingRecords.offer(record)) {
+        LOG.warn("Journal writer cannot keep up, dropping records until the next snapshot");
+        snapshotRequired = true;
+      }
+    }
+  }
+
+  private void writeRecords() {
+    List<Object> batch = new ArrayList<>();
+    while (true) {
+      try {
+        batch.add(pendingRecords.take());
+      }
+      catch (InterruptedException exc) {
+        LOG.warn("Interrupted, pending records are lost.");
+        return;
+      }
+      pendingRecords.drainTo(batch);
+      long batchStart = System.currentTimeMillis();
+      boolean endOfRecords = writeBatch(batch);
+      batch.clear();
+      if (endOfRecords) {
+        return;
+      }
+
+      // Let further records accumulate, so they can be written and synced together.
+      long remainingTime = syncInterval - (System.currentTimeMillis() - batchStart);
+      if (remainingTime > 0) {
+        try {
+          TimeUnit.MILLISECONDS.sleep(remainingTime);
+        }
+        catch (InterruptedException exc) {
+          LOG.warn("Interrupted, pending records are lost.");
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes the given records and syncs them to disk.
+   *
+   * @return Whether the end of the records was reached.
+   */
+  private boolean writeBatch(List<Object> batch) {
+    // The state of the journal after the last records that were completely written.
+    long writtenRecordNumber = lastRecordNumber;
+    long writtenLength = -1;
+    try {
+      writtenLength = journalChannel.position();
+      for (Object record : batch) {
+        if (record == END_OF_RECORDS) {
+          flushJournal();
+          return true;
+        }
+        else if (record instanceof Snapshot) {
+          flushJournal();
+          replaceSnapshot(((Snapshot) record).objects);
+          writtenRecordNumber = lastRecordNumber;
+          writtenLength = journalChannel.position();
+        }
+        else {
+          lastRecordNumber++;
+          encodeRecord(lastRecordNumber, record, writeBuffer);
+        }
+      }
+      flushJournal();
+    }
+    catch (IOException exc) {
+      LOG.error("Exception writing {}, dropping records until the next snapshot", journalPath, exc);
+      rollBack(writtenRecordNumber, writtenLength);
+      snapshotRequired = true;
+      return batch.contains(END_OF_RECORDS);
+    }
+    return false;
+  }
+
+  /**
+   * Discards records that were not completely written, so records written later are not appended
+   * to a partial one and are numbered consecutively.
+   */
+  private void rollBack(long writtenRecordNumber, long writtenLength) {
+    writeBuffer.reset();
+    lastRecordNumber = writtenRecordNumber;
+    if (writtenLength < 0) {
+      return;
+    }
+    try {
+      journalChannel.truncate(writtenLength);
+      journalChannel.position(writtenLength);
+    }
+    catch (IOException exc) {
+      LOG.error("Exception truncating {} to its last complete record", journalPath, exc);
+    }
+  }
+
+  private void flushJournal()
+      throws IOException {
+    if (writeBuffer.size() == 0) {
+      return;
+    }
+    byte[] records = writeBuffer.toByteArray();
+    writeBuffer.reset();
+    writeFully(journalChannel, records);
+    journalChannel.force(false);
+  }
+
+  private void replaceSnapshot(Collection<TCSObject<?>> objects)
+      throws IOException {
+    Path tmpPath = snapshotPath.resolveSibling(SNAPSHOT_FILE_NAME + ".tmp");
+    ByteArrayOutputStream snapshotBuffer = new ByteArrayOutputStream();
+    snapshotBuffer.write(encodeHeader());
+    new DataOutputStream(snapshotBuffer).writeLong(lastRecordNumber);
+    for (TCSObject<?> object : objects) {
+      encodeRecord(lastRecordNumber, object, snapshotBuffer);
+    }
+    try (FileChannel channel = FileChannel.open(tmpPath,
+                                                StandardOpenOption.CREATE,
+                                                StandardOpenOption.WRITE,
+                                                StandardOpenOption.TRUNCATE_EXISTING)) {
+      writeFully(channel, snapshotBuffer.toByteArray());
+      channel.force(false);
+    }
+    Files.move(tmpPath,
+               snapshotPath,
+               StandardCopyOption.REPLACE_EXISTING,
+               StandardCopyOption.ATOMIC_MOVE);
+
+    // All records in the journal are now contained in the snapshot.
+    journalChannel.truncate(HEADER_SIZE);
+    journalChannel.position(HEADER_SIZE);
+    journalChannel.force(false);
+    LOG.debug("Wrote snapshot of {} objects at record {}", objects.size(), lastRecordNumber);
+  }
+
+  private static void writeFully(FileChannel channel, byte[] bytes)
+      throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  private static byte[] encodeHeader()
+      throws IOException {
+    ByteArrayOutputStream header = new ByteArrayOutputStream();
+    DataOutputStream dataOut = new DataOutputStream(header);
+    dataOut.writeInt(FORMAT_MAGIC);
+    dataOut.writeInt(FORMAT_VERSION);
+    return header.toByteArray();
+  }
+
+  /**
+   * Reads a file's header.
+   *
+   * @return Whether the file is in the current format.
+   */
+  private static boolean readHeader(DataInputStream in)
+      throws IOException {
+    try {
+      return in.readInt() == FORMAT_MAGIC && in.readInt() == FORMAT_VERSION;
+    }
+    catch (EOFException exc) {
+      return false;
+    }
+  }
+
+  /**
+   * Moves the given file aside, so it is neither read nor overwritten.
+   */
+  private void moveAside(Path path)
+      throws IOException {
+    if (!Files.exists(path)) {
+      return;
+    }
+    Path unreadablePath = path.resolveSibling(path.getFileName() + UNREADABLE_SUFFIX);
+    Files.move(path, unreadablePath, StandardCopyOption.REPLACE_EXISTING);
+    LOG.warn("{} is not in the current format, moved it to {}", path, unreadablePath);
+  }
+
+  /**
+   * Encodes a record as its number, its payload's length and checksum and the payload.
+   */
+  private void encodeRecord(long recordNumber, Object record, ByteArrayOutputStream out)
+      throws IOException {
+    ByteArrayOutputStream payload = new ByteArrayOutputStream();
+    try (ObjectOutputStream objectOut = new ObjectOutputStream(payload)) {
+      objectOut.writeObject(record);
+    }
+    byte[] payloadBytes = payload.toByteArray();
+    checksum.reset();
+    checksum.update(payloadBytes, 0, payloadBytes.length);
+
+    DataOutputStream dataOut = new DataOutputStream(out);
+    dataOut.writeLong(recordNumber);
+    dataOut.writeInt(payloadBytes.length);
+    dataOut.writeLong(checksum.getValue());
+    dataOut.write(payloadBytes);
+  }
+
+  /**
+   * Reads the snapshot, if any, into the given map.
+   *
+   * @return The number of the last record contained in the snapshot, or -1, if the snapshot is not
+   * in the current format.
+   */
+  private long readSnapshot(Map<String, TCSObject<?>> objects)
+      throws IOException {
+    if (!Files.exists(snapshotPath)) {
+      return 0;
+    }
+    try (DataInputStream in = openDataStream(snapshotPath)) {
+      if (!readHeader(in)) {
+        return -1;
+      }
+      long snapshotRecordNumber = in.readLong();
+      // Snapshots are written completely before they replace the previous one, so all of their
+      // records are valid.
+      long recordLength;
+      do {
+        recordLength = readRecord(in, objects);
+      }
+      while (recordLength >= 0);
+      LOG.debug("Read snapshot of {} objects at record {}", objects.size(), snapshotRecordNumber);
+      return snapshotRecordNumber;
+    }
+  }
+
+  /**
+   * Applies the journal's records not contained in the snapshot to the given map.
+   *
+   * @return The length of the journal's header and valid records, or -1, if the journal is not in
+   * the current format.
+   */
+  private long readJournal(Map<String, TCSObject<?>> objects, long snapshotRecordNumber)
+      throws IOException {
+    if (!Files.exists(journalPath) || Files.size(journalPath) == 0) {
+      return HEADER_SIZE;
+    }
+    long validLength = HEADER_SIZE;
+    int recordCount = 0;
+    try (DataInputStream in = openDataStream(journalPath)) {
+      if (!readHeader(in)) {
+        return -1;
+      }
+      Map<String, TCSObject<?>> recordObjects = new LinkedHashMap<>();
+      while (true) {
+        recordObjects.clear();
+        long recordLength = readRecord(in, recordObjects);
+        if (recordLength < 0) {
+          break;
+        }
+        validLength += recordLength;
+        // Skip records already contained in the snapshot.
+        if (lastRecordNumber > snapshotRecordNumber) {
+          for (Map.Entry<String, TCSObject<?>> entry : recordObjects.entrySet()) {
+            if (entry.getValue() == null) {
+              objects.remove(entry.getKey());
+            }
+            else {
+              objects.put(entry.getKey(), entry.getValue());
+            }
+          }
+          recordCount++;
+        }
+      }
+    }
+    LOG.debug("Applied {} records from {}", recordCount, journalPath);
+    return validLength;
+  }
+
+  /**
+   * Reads a single record and applies it to the given map, with a removal being applied as a
+   * <code>null</code> value.
+   * A record that is complete and valid but cannot be deserialized is skipped.
+   *
+   * @return The length of the record read, or -1, if there was no complete, valid record.
+   */
+  private long readRecord(DataInputStream in, Map<String, TCSObject<?>> objects)
+      throws IOException {
+    byte[] payload;
+    long recordNumber;
+    try {
+      recordNumber = in.readLong();
+      int payloadLength = in.readInt();
+      long expectedChecksum = in.readLong();
+      if (payloadLength < 0 || payloadLength > MAX_PAYLOAD_SIZE) {
+        return -1;
+      }
+      payload = new byte[payloadLength];
+      in.readFully(payload);
+      checksum.reset();
+      checksum.update(payload, 0, payload.length);
+      if (checksum.getValue() != expectedChecksum) {
+        return -1;
+      }
+      lastRecordNumber = recordNumber;
+    }
+    catch (EOFException exc) {
+      return -1;
+    }
+
+    long recordLength = Long.BYTES + Integer.BYTES + Long.BYTES + payload.length;
+    Object record;
+    try (ObjectInputStream objectIn = new ObjectInputStream(new ByteArrayInputStream(payload))) {
+      record = objectIn.readObject();
+    }
+    catch (ClassNotFoundException | ObjectStreamException exc) {
+      LOG.debug("Skipping record {} that cannot be deserialized", recordNumber, exc);
+      unreadableRecordCount++;
+      return recordLength;
+    }
+    if (record instanceof TCSObject) {
+      TCSObject<?> object = (TCSObject<?>) record;
+      objects.put(object.getName(), object);
+    }
+    else if (record instanceof TCSObjectReference) {
+      objects.put(((TCSObjectReference<?>) record).getName(), null);
+    }
+    else {
+      LOG.debug("Skipping record {} of unknown type {}",
+                recordNumber,
+                record.getClass().getName());
+      unreadableRecordCount++;
+    }
+    return recordLength;
+  }
+
+  private DataInputStream openDataStream(Path path)
+      throws IOException {
+    InputStream in = Files.newInputStream(path);
+    return new DataInputStream(new BufferedInputStream(in));
+  }
+
+  /**
+   * The states of all objects to be written as a snapshot.
+   */
+  private static class Snapshot {
+
+    /**
+     * The states of all objects.
+     */
+    private final Collection<TCSObject<?>> objects;
+
+    Snapshot(Collection<TCSObject<?>> objects) {
+      this.objects = objects;
+    }
+  }
+}
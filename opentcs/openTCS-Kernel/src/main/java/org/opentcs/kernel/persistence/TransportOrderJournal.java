@@ -0,0 +1,330 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.persistence;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.TCSObject;
+import org.opentcs.data.TCSObjectEvent;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.OrderSequence;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.kernel.workingset.TCSObjectPool;
+import org.opentcs.util.event.EventHandler;
+import org.opentcs.util.event.EventSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Journals all changes to transport orders and order sequences and restores them when the kernel
+ * enters operating mode again, e.g. after a restart or a crash.
+ * <p>
+ * Transport orders that were being processed or withdrawn are restored as failed, as the state
+ * of the vehicle processing them is unknown. Transport orders not assigned to a vehicle, yet, are
+ * restored as raw and dispatched again. Transport orders and order sequences referring to objects
+ * that are not part of the current plant model are not restored.
+ * </p>
+ */
+public class TransportOrderJournal
+    implements EventHandler,
+               Lifecycle {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TransportOrderJournal.class);
+  /**
+   * The directory containing the journal.
+   */
+  private final File dataDirectory;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * The object pool containing the transport orders and order sequences.
+   */
+  private final TCSObjectPool objectPool;
+  /**
+   * Where this instance registers for events.
+   */
+  private final EventSource eventSource;
+  /**
+   * The kernel's executor, for compacting the journal periodically.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * This class's configuration.
+   */
+  private final OrderJournalConfiguration configuration;
+  /**
+   * The journal file, if journaling is enabled.
+   */
+  private OrderJournalFile journalFile;
+  /**
+   * A handle for the compaction task.
+   */
+  private ScheduledFuture<?> compactionFuture;
+  /**
+   * Whether changes have been journaled since the last snapshot.
+   */
+  private volatile boolean modified;
+  /**
+   * This instance's <em>initialized</em> flag.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param directory The application's home directory.
+   * @param globalSyncObject A global object to be used for synchronization within the kernel.
+   * @param objectPool The object pool containing the transport orders and order sequences.
+   * @param eventSource Where this instance registers for events.
+   * @param kernelExecutor The kernel's executor.
+   * @param configuration This class's configuration.
+   */
+  @Inject
+  public TransportOrderJournal(@ApplicationHome File directory,
+                               @GlobalSyncObject Object globalSyncObject,
+                               TCSObjectPool objectPool,
+                               @ApplicationEventBus EventSource eventSource,
+                               @KernelExecutor ScheduledExecutorService kernelExecutor,
+                               OrderJournalConfiguration configuration) {
+    this.dataDirectory = new File(requireNonNull(directory, "directory"), "data");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.objectPool = requireNonNull(objectPool, "objectPool");
+    this.eventSource = requireNonNull(eventSource, "eventSource");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.configuration = requireNonNull(configuration, "configuration");
+  }
+
+  /**
+   * Restores the journaled transport orders and order sequences and starts journaling changes.
+   * Has no effect if journaling is disabled.
+   *
+   * @throws IllegalStateException If reading or opening the journal failed.
+   */
+  @Override
+  public void initialize()
+      throws IllegalStateException {
+    if (initialized) {
+      LOG.debug("Already initialized.");
+      return;
+    }
+    if (!configuration.enable()) {
+      LOG.debug("Transport order journal disabled.");
+      initialized = true;
+      return;
+    }
+
+    journalFile = new OrderJournalFile(dataDirectory.toPath(), configuration.syncInterval());
+    Map<String, TCSObject<?>> journaledObjects;
+    try {
+      journaledObjects = journalFile.open();
+    }
+    catch (IOException exc) {
+      journalFile = null;
+      throw new IllegalStateException("Exception opening transport order journal", exc);
+    }
+
+    synchronized (globalSyncObject) {
+      restore(journaledObjects.values());
+      eventSource.subscribe(this);
+      // Start with a snapshot of the restored objects only.
+      modified = true;
+      compact();
+    }
+    compactionFuture = kernelExecutor.scheduleWithFixedDelay(this::compact,
+                                                             configuration.compactionInterval(),
+                                                             configuration.compactionInterval(),
+                                                             TimeUnit.MILLISECONDS);
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  /**
+   * Stops journaling changes and writes the changes not written, yet.
+   */
+  @Override
+  public void terminate() {
+    if (!initialized) {
+      LOG.debug("Not initialized.");
+      return;
+    }
+    if (journalFile != null) {
+      compactionFuture.cancel(false);
+      compactionFuture = null;
+      OrderJournalFile closingFile;
+      synchronized (globalSyncObject) {
+        eventSource.unsubscribe(this);
+        closingFile = journalFile;
+        journalFile = null;
+      }
+      closingFile.close();
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void onEvent(Object event) {
+    if (!(event instanceof TCSObjectEvent)) {
+      return;
+    }
+    TCSObjectEvent objectEvent = (TCSObjectEvent) event;
+    TCSObject<?> object = objectEvent.getCurrentOrPreviousObjectState();
+    if (!(object instanceof TransportOrder) && !(object instanceof OrderSequence)) {
+      return;
+    }
+
+    if (objectEvent.getType() == TCSObjectEvent.Type.OBJECT_REMOVED) {
+      journalFile.appendRemoval(object.getReference());
+    }
+    else {
+      journalFile.appendObject(object);
+    }
+    modified = true;
+    if (journalFile.isSnapshotRequired()) {
+      // Records have been dropped, so restore a consistent state right away.
+      compact();
+    }
+  }
+
+  /**
+   * Replaces the journal with a snapshot of all transport orders and order sequences, if they
+   * have been modified since the last snapshot.
+   */
+  private void compact() {
+    synchronized (globalSyncObject) {
+      if (!modified || journalFile == null) {
+        return;
+      }
+      List<TCSObject<?>> objects = new ArrayList<>();
+      objects.addAll(objectPool.getObjects(OrderSequence.class));
+      objects.addAll(objectPool.getObjects(TransportOrder.class));
+      // Enqueued while holding the lock, so no change can slip in between.
+      journalFile.writeSnapshot(objects);
+      modified = false;
+    }
+  }
+
+  private void restore(Collection<TCSObject<?>> journaledObjects) {
+    Map<String, TransportOrder> orders = new HashMap<>();
+    Map<String, OrderSequence> sequences = new HashMap<>();
+    for (TCSObject<?> object : journaledObjects) {
+      if (object instanceof TransportOrder) {
+        orders.put(object.getName(), (TransportOrder) object);
+      }
+      else if (object instanceof OrderSequence) {
+        sequences.put(object.getName(), (OrderSequence) object);
+      }
+    }
+
+    Set<String> invalidOrders = orders.values().stream()
+        .filter(order -> !isRestorable(order))
+        .map(TransportOrder::getName)
+        .collect(Collectors.toSet());
+    // Sequences cannot be restored partially.
+    for (OrderSequence sequence : new ArrayList<>(sequences.values())) {
+      boolean restorable = isKnown(sequence.getIntendedVehicle())
+          && sequence.getOrders().stream()
+              .allMatch(ref -> orders.containsKey(ref.getName())
+              && !invalidOrders.contains(ref.getName()));
+      if (!restorable) {
+        sequences.remove(sequence.getName());
+        sequence.getOrders().forEach(ref -> invalidOrders.add(ref.getName()));
+      }
+    }
+    for (TransportOrder order : orders.values()) {
+      if (order.getWrappingSequence() != null
+          && !sequences.containsKey(order.getWrappingSequence().getName())) {
+        invalidOrders.add(order.getName());
+      }
+    }
+    if (!invalidOrders.isEmpty()) {
+      LOG.warn("Not restoring transport orders referring to unknown objects: {}", invalidOrders);
+    }
+    orders.keySet().removeAll(invalidOrders);
+
+    for (OrderSequence sequence : sequences.values()) {
+      OrderSequence restoredSequence = sequence.withProcessingVehicle(null);
+      objectPool.addObject(restoredSequence);
+      objectPool.emitObjectEvent(restoredSequence.clone(),
+                                 null,
+                                 TCSObjectEvent.Type.OBJECT_CREATED);
+    }
+    for (TransportOrder order : orders.values()) {
+      TransportOrder restoredOrder = restoredState(order)
+          .withDependencies(order.getDependencies().stream()
+              .filter(ref -> orders.containsKey(ref.getName()))
+              .collect(Collectors.toSet()));
+      objectPool.addObject(restoredOrder);
+      objectPool.emitObjectEvent(restoredOrder.clone(), null, TCSObjectEvent.Type.OBJECT_CREATED);
+    }
+    LOG.info("Restored {} transport orders and {} order sequences from journal.",
+             orders.size(),
+             sequences.size());
+  }
+
+  private TransportOrder restoredState(TransportOrder order) {
+    switch (order.getState()) {
+      case RAW:
+      case ACTIVE:
+      case DISPATCHABLE:
+        return order.withState(TransportOrder.State.RAW).withProcessingVehicle(null);
+      case BEING_PROCESSED:
+      case WITHDRAWN:
+        LOG.warn("Transport order {} was {}, restoring it as failed.",
+                 order.getName(),
+                 order.getState());
+        return order.withState(TransportOrder.State.FAILED).withProcessingVehicle(null);
+      default:
+        return order;
+    }
+  }
+
+  private boolean isRestorable(TransportOrder order) {
+    if (!isKnown(order.getIntendedVehicle()) || !isKnown(order.getProcessingVehicle())) {
+      return false;
+    }
+    for (DriveOrder driveOrder : order.getAllDriveOrders()) {
+      if (!isKnown(driveOrder.getDestination().getDestination())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isKnown(TCSObjectReference<?> ref) {
+    return ref == null || objectPool.getObjectOrNull(ref) != null;
+  }
+}
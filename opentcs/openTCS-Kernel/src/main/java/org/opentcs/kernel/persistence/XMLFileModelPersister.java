@@ -27,6 +27,11 @@ import org.slf4j.LoggerFactory;
 /**
  * A ModelPersister implementation realizing persistence of models with XML
  * files.
+ * <p>
+ * After a model has been read from its XML file, a binary snapshot of it is written next to the
+ * file. As long as the XML file does not change, the model is loaded from the snapshot, which is
+ * considerably faster than parsing the XML file for large models.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  * @author Tobias Marquardt (Fraunhofer IML)
@@ -42,6 +47,10 @@ public class XMLFileModelPersister
    * The name of the model file in the model directory.
    */
   private static final String MODEL_FILE_NAME = "model.xml";
+  /**
+   * The name of the model snapshot file in the model directory.
+   */
+  private static final String SNAPSHOT_FILE_NAME = "model.snapshot";
   /**
    * The directory path for the persisted model.
    */
@@ -56,6 +65,10 @@ public class XMLFileModelPersister
    * a model is written to file.
    */
   private final Provider<XMLModelWriter> writerProvider;
+  /**
+   * The snapshot of the model read from the model file.
+   */
+  private final ModelSnapshotFile modelSnapshot;
 
   /**
    * Creates a new XMLFileModelPersister.
@@ -71,6 +84,8 @@ public class XMLFileModelPersister
     this.readerProvider = requireNonNull(readerProvider, "readerProvider");
     this.writerProvider = requireNonNull(writerProvider, "writerProvider");
     this.dataDirectory = new File(requireNonNull(directory, "directory"), "data");
+    this.modelSnapshot
+        = new ModelSnapshotFile(new File(dataDirectory, SNAPSHOT_FILE_NAME).toPath());
   }
 
   @Override
@@ -105,6 +120,8 @@ public class XMLFileModelPersister
 
       XMLModelWriter writer = writerProvider.get();
       writer.writeXMLModel(model, modelName, modelFile);
+      // The model may contain state not written to the model file, so don't snapshot it here.
+      modelSnapshot.delete();
     }
     catch (IOException exc) {
       throw new IllegalStateException("Exception saving model", exc);
@@ -127,8 +144,14 @@ public class XMLFileModelPersister
     try {
       // Read the model from the file.
       File modelFile = new File(dataDirectory, MODEL_FILE_NAME);
+      byte[] modelDigest = ModelSnapshotFile.digest(modelFile.toPath());
+      if (modelSnapshot.read(modelDigest, model)) {
+        LOG.debug("Successfully loaded model '{}' from snapshot", model.getName());
+        return;
+      }
       readXMLModel(modelFile, model);
       LOG.debug("Successfully loaded model '" + model.getName() + "'");
+      writeSnapshot(modelDigest, model);
     }
     catch (IOException exc) {
       throw new IllegalArgumentException("Exception loading model", exc);
@@ -206,12 +229,29 @@ public class XMLFileModelPersister
       if (!FileSystems.deleteRecursively(modelFile)) {
         throw new IOException("Cannot delete " + modelFile.getPath());
       }
+      modelSnapshot.delete();
     }
     catch (IOException exc) {
       throw new IllegalStateException("Exception removing model", exc);
     }
   }
 
+  /**
+   * Writes a snapshot of the given model, which has just been read from the model file.
+   * As the snapshot only speeds up loading the model, failing to write it is not an error.
+   *
+   * @param modelDigest The model file's digest.
+   * @param model The model.
+   */
+  private void writeSnapshot(byte[] modelDigest, Model model) {
+    try {
+      modelSnapshot.write(modelDigest, model);
+    }
+    catch (IOException exc) {
+      LOG.warn("Exception writing model snapshot", exc);
+    }
+  }
+
   /**
    * Reads a model's name from a given InputStream.
    *
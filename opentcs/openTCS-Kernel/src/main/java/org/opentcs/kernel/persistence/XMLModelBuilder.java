@@ -32,6 +32,7 @@ import org.opentcs.access.to.model.ShapeLayoutElementCreationTO;
 import org.opentcs.access.to.model.VehicleCreationTO;
 import org.opentcs.access.to.model.VisualLayoutCreationTO;
 import org.opentcs.data.ObjectExistsException;
+import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObject;
 import org.opentcs.data.model.Block;
 import org.opentcs.data.model.Group;
@@ -47,6 +48,7 @@ import org.opentcs.data.model.visualization.ShapeLayoutElement;
 import org.opentcs.data.model.visualization.VisualLayout;
 import org.opentcs.kernel.workingset.Model;
 import org.opentcs.util.persistence.ModelParser;
+import org.opentcs.util.persistence.PlantModelElementHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -107,7 +109,7 @@ public class XMLModelBuilder
       throws InvalidModelException, IOException {
     requireNonNull(file, "file");
 
-    String modelName = modelParser.readModel(file).getName();
+    String modelName = modelParser.readModelName(file);
 
     if (modelName.isEmpty()) {
       modelName = "ModelNameMissing";
@@ -122,6 +124,32 @@ public class XMLModelBuilder
     requireNonNull(file, "file");
     requireNonNull(model, "model");
 
+    try {
+      model.clear();
+      // Create the model's elements while parsing the file, without keeping all of them in memory.
+      modelParser.readModel(file, new ModelFiller(model));
+    }
+    catch (ObjectUnknownException exc) {
+      // Only files not written by openTCS may refer to elements before defining them.
+      LOG.info("Elements in {} not in the expected order, reading the whole model at once.",
+               file.getAbsolutePath());
+      readCompleteModel(file, model);
+    }
+    catch (ObjectExistsException exc) {
+      throw new InvalidModelException("Duplicate objects found in model", exc);
+    }
+  }
+
+  /**
+   * Reads the whole model from the given file before filling the given model with its elements.
+   *
+   * @param file The model file.
+   * @param model The model.
+   * @throws InvalidModelException If the model file contains duplicate objects.
+   * @throws IOException If there was an error reading the model file.
+   */
+  private void readCompleteModel(File file, Model model)
+      throws InvalidModelException, IOException {
     PlantModelCreationTO plantModel = modelParser.readModel(file);
 
     try {
@@ -520,4 +548,75 @@ public class XMLModelBuilder
       model.createVisualLayout(visualLayoutTO);
     }
   }
+
+  /**
+   * Creates the elements of a model as they are read from a model file.
+   */
+  private static class ModelFiller
+      implements PlantModelElementHandler {
+
+    /**
+     * The model to fill.
+     */
+    private final Model model;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param model The model to fill.
+     */
+    ModelFiller(Model model) {
+      this.model = requireNonNull(model, "model");
+    }
+
+    @Override
+    public void handleModelName(String name) {
+      model.setName(name);
+    }
+
+    @Override
+    public void handleModelProperties(Map<String, String> properties) {
+      model.setProperties(properties);
+    }
+
+    @Override
+    public void handlePoint(PointCreationTO point) {
+      model.createPoint(point);
+    }
+
+    @Override
+    public void handlePath(PathCreationTO path) {
+      model.createPath(path);
+    }
+
+    @Override
+    public void handleVehicle(VehicleCreationTO vehicle) {
+      model.createVehicle(vehicle);
+    }
+
+    @Override
+    public void handleLocationType(LocationTypeCreationTO locationType) {
+      model.createLocationType(locationType);
+    }
+
+    @Override
+    public void handleLocation(LocationCreationTO location) {
+      model.createLocation(location);
+    }
+
+    @Override
+    public void handleBlock(BlockCreationTO block) {
+      model.createBlock(block);
+    }
+
+    @Override
+    public void handleGroup(GroupCreationTO group) {
+      model.createGroup(group);
+    }
+
+    @Override
+    public void handleVisualLayout(VisualLayoutCreationTO visualLayout) {
+      model.createVisualLayout(visualLayout);
+    }
+  }
 }
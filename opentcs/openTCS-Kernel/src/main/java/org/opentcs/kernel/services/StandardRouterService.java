@@ -7,6 +7,7 @@
  */
 package org.opentcs.kernel.services;
 
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import org.opentcs.access.Kernel;
@@ -18,6 +19,9 @@ import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
 import org.opentcs.kernel.KernelApplicationConfiguration;
 import org.opentcs.kernel.workingset.Model;
 
@@ -98,4 +102,22 @@ public class StandardRouterService
       dispatcher.topologyChanged();
     }
   }
+
+  @Override
+  public List<Route> fetchShortestRoutes(TCSObjectReference<Vehicle> vehicleRef,
+                                         TCSObjectReference<Point> sourcePointRef,
+                                         TCSObjectReference<Point> destinationPointRef,
+                                         int maxRouteCount)
+      throws ObjectUnknownException {
+    Vehicle vehicle;
+    Point sourcePoint;
+    Point destinationPoint;
+    synchronized (globalSyncObject) {
+      vehicle = model.getObjectPool().getObject(Vehicle.class, vehicleRef);
+      sourcePoint = model.getObjectPool().getObject(Point.class, sourcePointRef);
+      destinationPoint = model.getObjectPool().getObject(Point.class, destinationPointRef);
+    }
+    // The router has its own synchronization, so don't block the kernel while computing.
+    return router.getRoutes(vehicle, sourcePoint, destinationPoint, maxRouteCount);
+  }
 }
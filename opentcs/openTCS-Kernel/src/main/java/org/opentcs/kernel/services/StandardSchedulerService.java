@@ -10,6 +10,7 @@ package org.opentcs.kernel.services;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.SchedulerService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
@@ -50,4 +51,9 @@ public class StandardSchedulerService
       return new SchedulerAllocationState(scheduler.getAllocations());
     }
   }
+
+  @Override
+  public SchedulerAllocationStatistics fetchSchedulerAllocationStatistics(int maxResourceCount) {
+    return scheduler.getAllocationStatistics(maxResourceCount);
+  }
 }
@@ -12,6 +12,7 @@ import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -22,6 +23,8 @@ import java.util.Objects;
 import static java.util.Objects.requireNonNull;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.inject.Inject;
@@ -32,10 +35,13 @@ import org.opentcs.components.kernel.services.DispatcherService;
 import org.opentcs.components.kernel.services.InternalVehicleService;
 import org.opentcs.components.kernel.services.NotificationService;
 import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.ObjectPropConstants;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObjectEvent;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.data.model.Triple;
@@ -52,6 +58,7 @@ import org.opentcs.drivers.vehicle.VehicleCommAdapterEvent;
 import org.opentcs.drivers.vehicle.VehicleController;
 import org.opentcs.drivers.vehicle.VehicleProcessModel;
 import org.opentcs.drivers.vehicle.management.ProcessModelEvent;
+import org.opentcs.kernel.KernelApplicationConfiguration;
 import static org.opentcs.util.Assertions.checkArgument;
 import static org.opentcs.util.Assertions.checkState;
 import org.opentcs.util.ExplainedBoolean;
@@ -76,6 +83,10 @@ public class DefaultVehicleController
    * This class's Logger.
    */
   private static final Logger LOG = LoggerFactory.getLogger(DefaultVehicleController.class);
+  /**
+   * The deceleration assumed for vehicles that do not specify one (in mm/s^2).
+   */
+  private static final int DEFAULT_DECELERATION = 500;
   /**
    * The local kernel.
    */
@@ -108,6 +119,19 @@ public class DefaultVehicleController
    * The communication adapter controlling the physical vehicle.
    */
   private final VehicleCommAdapter commAdapter;
+  /**
+   * The kernel application's configuration.
+   */
+  private final KernelApplicationConfiguration configuration;
+  /**
+   * The pool of threads performing the state transitions of controllers with a mailbox.
+   */
+  private final VehicleControllerExecutor controllerExecutor;
+  /**
+   * Performs this controller's state transitions, or <code>null</code>, if transitions are
+   * performed by the calling threads while synchronizing with the communication adapter.
+   */
+  private volatile VehicleControllerMailbox mailbox;
   /**
    * This controller's <em>enabled</em> flag.
    */
@@ -115,7 +139,7 @@ public class DefaultVehicleController
   /**
    * A list of commands that still need to be sent to the communication adapter.
    */
-  private final Queue<MovementCommand> futureCommands = new LinkedList<>();
+  private final Deque<MovementCommand> futureCommands = new LinkedList<>();
   /**
    * A command for which a resource allocation is pending and which has not yet been sent to the
    * adapter.
@@ -128,7 +152,7 @@ public class DefaultVehicleController
   /**
    * A list of commands that have been sent to the communication adapter.
    */
-  private final Queue<MovementCommand> commandsSent = new LinkedList<>();
+  private final Queue<MovementCommand> commandsSent = new ConcurrentLinkedQueue<>();
   /**
    * The last command that has been executed.
    */
@@ -152,6 +176,14 @@ public class DefaultVehicleController
    * resources at a time (which can cause deadlocks).
    */
   private volatile boolean waitingForAllocation;
+  /**
+   * The vehicle's deceleration (in mm/s^2).
+   */
+  private final int deceleration;
+  /**
+   * Limits the rate of the vehicle's precise position and orientation angle updates.
+   */
+  private final PrecisePositionThrottle precisePositionThrottle;
 
   /**
    * Creates a new instance associated with the given vehicle.
@@ -164,6 +196,10 @@ public class DefaultVehicleController
    * @param dispatcherService The kernel's dispatcher service.
    * @param scheduler The scheduler managing resource allocations.
    * @param eventBus The event bus this instance should register with and send events to.
+   * @param configuration The kernel application's configuration.
+   * @param controllerExecutor The pool of threads performing the state transitions of controllers
+   * with a mailbox.
+   * @param kernelExecutor The kernel executor, performing delayed precise position updates.
    */
   @Inject
   public DefaultVehicleController(@Assisted @Nonnull Vehicle vehicle,
@@ -173,7 +209,10 @@ public class DefaultVehicleController
                                   @Nonnull NotificationService notificationService,
                                   @Nonnull DispatcherService dispatcherService,
                                   @Nonnull Scheduler scheduler,
-                                  @Nonnull @ApplicationEventBus EventBus eventBus) {
+                                  @Nonnull @ApplicationEventBus EventBus eventBus,
+                                  @Nonnull KernelApplicationConfiguration configuration,
+                                  @Nonnull VehicleControllerExecutor controllerExecutor,
+                                  @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor) {
     this.vehicle = requireNonNull(vehicle, "vehicle");
     this.commAdapter = requireNonNull(adapter, "adapter");
     this.localKernel = requireNonNull(kernel, "kernel");
@@ -182,6 +221,17 @@ public class DefaultVehicleController
     this.dispatcherService = requireNonNull(dispatcherService, "dispatcherService");
     this.scheduler = requireNonNull(scheduler, "scheduler");
     this.eventBus = requireNonNull(eventBus, "eventBus");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.controllerExecutor = requireNonNull(controllerExecutor, "controllerExecutor");
+    this.deceleration = parseDeceleration(vehicle);
+    this.precisePositionThrottle = new PrecisePositionThrottle(
+        configuration.precisePositionUpdateInterval(),
+        configuration.precisePositionUpdateThreshold(),
+        configuration.orientationAngleUpdateThreshold(),
+        requireNonNull(kernelExecutor, "kernelExecutor"),
+        this::updateVehiclePrecisePosition,
+        angle -> vehicleService.updateVehicleOrientationAngle(vehicle.getReference(), angle)
+    );
   }
 
   @Override
@@ -196,6 +246,10 @@ public class DefaultVehicleController
       return;
     }
 
+    if (configuration.vehicleControllerMailbox()) {
+      mailbox = new VehicleControllerMailbox(vehicle.getName(), controllerExecutor);
+    }
+
     eventBus.subscribe(this);
 
     vehicleService.updateVehicleRechargeOperation(vehicle.getReference(),
@@ -203,28 +257,32 @@ public class DefaultVehicleController
     commAdapter.getProcessModel().addPropertyChangeListener(this);
 
     // Initialize standard attributes once.
-    setVehiclePosition(commAdapter.getProcessModel().getVehiclePosition());
-    vehicleService.updateVehiclePrecisePosition(
-        vehicle.getReference(),
-        commAdapter.getProcessModel().getVehiclePrecisePosition()
-    );
-    vehicleService.updateVehicleOrientationAngle(
-        vehicle.getReference(),
-        commAdapter.getProcessModel().getVehicleOrientationAngle()
-    );
-    vehicleService.updateVehicleEnergyLevel(vehicle.getReference(),
-                                            commAdapter.getProcessModel().getVehicleEnergyLevel());
-    vehicleService.updateVehicleLoadHandlingDevices(
-        vehicle.getReference(),
-        commAdapter.getProcessModel().getVehicleLoadHandlingDevices()
-    );
-    updateVehicleState(commAdapter.getProcessModel().getVehicleState());
-    updateCommAdapterState(commAdapter.getProcessModel().getVehicleAdapterState());
-
-    // Add a first entry into allocatedResources to shift freeing of resources
-    // in commandExecuted() by one - we need to free the resources allocated for
-    // the command before the one executed there.
-    allocatedResources.add(null);
+    transition(() -> {
+      setVehiclePosition(commAdapter.getProcessModel().getVehiclePosition());
+      vehicleService.updateVehiclePrecisePosition(
+          vehicle.getReference(),
+          commAdapter.getProcessModel().getVehiclePrecisePosition()
+      );
+      vehicleService.updateVehicleOrientationAngle(
+          vehicle.getReference(),
+          commAdapter.getProcessModel().getVehicleOrientationAngle()
+      );
+      vehicleService.updateVehicleEnergyLevel(
+          vehicle.getReference(),
+          commAdapter.getProcessModel().getVehicleEnergyLevel()
+      );
+      vehicleService.updateVehicleLoadHandlingDevices(
+          vehicle.getReference(),
+          commAdapter.getProcessModel().getVehicleLoadHandlingDevices()
+      );
+      updateVehicleState(commAdapter.getProcessModel().getVehicleState());
+      updateCommAdapterState(commAdapter.getProcessModel().getVehicleAdapterState());
+
+      // Add a first entry into allocatedResources to shift freeing of resources
+      // in commandExecuted() by one - we need to free the resources allocated for
+      // the command before the one executed there.
+      allocatedResources.add(null);
+    });
 
     initialized = true;
   }
@@ -237,17 +295,25 @@ public class DefaultVehicleController
     }
 
     commAdapter.getProcessModel().removePropertyChangeListener(this);
-    // Reset the vehicle's position.
-    updatePosition(null, null);
-    vehicleService.updateVehiclePrecisePosition(vehicle.getReference(), null);
-    // Free all allocated resources.
-    freeAllResources();
-
-    updateCommAdapterState(VehicleCommAdapter.State.UNKNOWN);
-    updateVehicleState(Vehicle.State.UNKNOWN);
-
     eventBus.unsubscribe(this);
 
+    transition(() -> {
+      // Reset the vehicle's position, discarding updates still held back.
+      precisePositionThrottle.reset();
+      updatePosition(null, null);
+      vehicleService.updateVehiclePrecisePosition(vehicle.getReference(), null);
+      // Free all allocated resources.
+      freeAllResources();
+
+      updateCommAdapterState(VehicleCommAdapter.State.UNKNOWN);
+      updateVehicleState(Vehicle.State.UNKNOWN);
+    });
+
+    if (mailbox != null) {
+      mailbox.terminate();
+      mailbox = null;
+    }
+
     initialized = false;
   }
 
@@ -257,7 +323,17 @@ public class DefaultVehicleController
       return;
     }
 
-    handleProcessModelEvent(evt);
+    // Publish the process model's current state right away, but let the controller react to the
+    // change in order with its other state transitions.
+    eventBus.onEvent(new ProcessModelEvent(evt.getPropertyName(),
+                                           commAdapter.createTransferableProcessModel()));
+    VehicleControllerMailbox currentMailbox = mailbox;
+    if (currentMailbox == null) {
+      handleProcessModelEvent(evt);
+    }
+    else {
+      currentMailbox.post(() -> handleProcessModelEvent(evt));
+    }
   }
 
   @Override
@@ -292,10 +368,11 @@ public class DefaultVehicleController
   public void setDriveOrder(@Nonnull DriveOrder newOrder,
                             @Nonnull Map<String, String> orderProperties)
       throws IllegalStateException {
-    synchronized (commAdapter) {
-      requireNonNull(newOrder, "newOrder");
-      requireNonNull(orderProperties, "orderProperties");
-      requireNonNull(newOrder.getRoute(), "newOrder.getRoute()");
+    requireNonNull(newOrder, "newOrder");
+    requireNonNull(orderProperties, "orderProperties");
+    requireNonNull(newOrder.getRoute(), "newOrder.getRoute()");
+
+    transitionAndWait(() -> {
       // Assert that there isn't still is a drive order that hasn't been finished/removed, yet.
       checkState(currentDriveOrder == null,
                  "%s still has an order! Current order: %s, new order: %s",
@@ -319,16 +396,17 @@ public class DefaultVehicleController
       Point nextPoint = newOrder.getRoute().getSteps().get(0).getDestinationPoint();
       vehicleService.updateVehicleNextPosition(vehicle.getReference(),
                                                nextPoint.getReference());
-    }
+    });
   }
 
   @Override
   public void updateDriveOrder(@Nonnull DriveOrder newOrder,
                                @Nonnull Map<String, String> orderProperties)
       throws IllegalStateException {
-    synchronized (commAdapter) {
+    requireNonNull(newOrder, "newOrder");
+
+    transitionAndWait(() -> {
       checkState(currentDriveOrder != null, "There's no drive order to be updated");
-      requireNonNull(newOrder, "newOrder");
 
       checkArgument(driveOrdersContinual(currentDriveOrder, newOrder),
                     "The new drive order contains steps the vehicle didn't process for the current "
@@ -361,7 +439,7 @@ public class DefaultVehicleController
           && canSendNextCommand()) {
         allocateForNextCommand();
       }
-    }
+    });
   }
 
   private boolean driveOrdersContinual(DriveOrder oldOrder, DriveOrder newOrder) {
@@ -421,7 +499,7 @@ public class DefaultVehicleController
 
   @Override
   public void clearDriveOrder() {
-    synchronized (commAdapter) {
+    transition(() -> {
       currentDriveOrder = null;
 
       // Clear pending resource allocations. If they still arrive, we will
@@ -431,23 +509,23 @@ public class DefaultVehicleController
 
       vehicleService.updateVehicleRouteProgressIndex(vehicle.getReference(),
                                                      Vehicle.ROUTE_INDEX_DEFAULT);
-    }
+    });
   }
 
   @Override
   public void abortDriveOrder() {
-    synchronized (commAdapter) {
+    transition(() -> {
       if (currentDriveOrder == null) {
         LOG.debug("{}: No drive order to be aborted", vehicle.getName());
         return;
       }
       futureCommands.clear();
-    }
+    });
   }
 
   @Override
   public void clearCommandQueue() {
-    synchronized (commAdapter) {
+    transition(() -> {
       commAdapter.clearCommandQueue();
       commandsSent.clear();
       futureCommands.clear();
@@ -462,20 +540,20 @@ public class DefaultVehicleController
       allocatedResources.clear();
       // Put the resources for the current command/position back in...
       allocatedResources.add(neededResources);
-    }
+    });
   }
 
   @Override
   @Deprecated
   public void resetVehiclePosition() {
-    synchronized (commAdapter) {
+    transitionAndWait(() -> {
       checkState(currentDriveOrder == null, "%s: Vehicle has a drive order", vehicle.getName());
       checkState(!waitingForAllocation,
                  "%s: Vehicle is waiting for resource allocation",
                  vehicle.getName());
 
       setVehiclePosition(null);
-    }
+    });
   }
 
   @Override
@@ -513,66 +591,62 @@ public class DefaultVehicleController
     return vehicle.getName();
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * With a mailbox, the allocation is checked by the mailbox's thread, so the scheduler's thread
+   * does not have to wait for it. The resources are then always accepted, and given back to the
+   * scheduler via {@link Scheduler#free(Scheduler.Client, Set)} if they turn out not to be needed
+   * any more.
+   * </p>
+   */
   @Override
   public boolean allocationSuccessful(@Nonnull Set<TCSResource<?>> resources) {
     requireNonNull(resources, "resources");
 
-    // Look up the command the resources were required for.
-    MovementCommand command;
-    synchronized (commAdapter) {
-      // Check if we've actually been waiting for these resources now. If not,
-      // let the scheduler know that we don't want them.
+    VehicleControllerMailbox currentMailbox = mailbox;
+    if (currentMailbox == null) {
+      synchronized (commAdapter) {
+        return acceptAllocation(resources);
+      }
+    }
+
+    // Accept the resources right away so the scheduler does not have to wait for us, and give
+    // them back if it turns out we don't need them any more.
+    currentMailbox.post(() -> {
+      if (!acceptAllocation(resources)) {
+        scheduler.free(this, resources);
+      }
+    });
+    return true;
+  }
+
+  @Override
+  public void allocationFailed(@Nonnull Set<TCSResource<?>> resources) {
+    requireNonNull(resources, "resources");
+
+    transition(() -> {
       if (!Objects.equals(resources, pendingResources)) {
-        LOG.warn("{}: Allocated resources ({}) != pending resources ({}), refusing them",
+        LOG.warn("{}: Failed resources ({}) != pending resources ({}), ignored",
                  vehicle.getName(),
                  resources,
                  pendingResources);
-        return false;
-      }
-
-      command = pendingCommand;
-      // If there was no command in the queue, it must have been withdrawn in
-      // the meantime - let the scheduler know that we don't need the resources
-      // any more.
-      if (command == null) {
-        LOG.warn("{}: No pending command, pending resources = {}, refusing allocated resources: {}",
-                 vehicle.getName(),
-                 pendingResources,
-                 resources);
-        waitingForAllocation = false;
-        pendingResources = null;
-        // In case the contoller's vehicle got rerouted while waiting for resource allocation
-        // the pending command is reset and therefore the associated allocation will be ignored. 
-        // Since there's now a new/updated route we need to trigger the next allocation. Otherwise
-        // the vehicle would wait forever to get the next command.
-        if (canSendNextCommand()) {
-          allocateForNextCommand();
-        }
-        return false;
+        return;
       }
-      pendingCommand = null;
-      pendingResources = null;
-
-      allocatedResources.add(resources);
-      // Send the command to the communication adapter.
-      checkState(commAdapter.enqueueCommand(command),
-                 "Comm adapter did not accept command");
-      commandsSent.add(command);
 
-      // Check if the communication adapter has capacity for another command.
+      LOG.debug("{}: Allocation of resources failed: {}", vehicle.getName(), resources);
       waitingForAllocation = false;
+      pendingResources = null;
+      // If the command is still pending (i.e. the route was not changed in the meantime), it needs
+      // to be allocated again before anything else.
+      if (pendingCommand != null) {
+        futureCommands.addFirst(pendingCommand);
+        pendingCommand = null;
+      }
       if (canSendNextCommand()) {
         allocateForNextCommand();
       }
-    }
-    // Let the scheduler know we've accepted the resources given.
-    return true;
-  }
-
-  @Override
-  public void allocationFailed(@Nonnull Set<TCSResource<?>> resources) {
-    requireNonNull(resources, "resources");
-    throw new IllegalStateException("Failed to allocate: " + resources);
+    });
   }
 
   @Override
@@ -582,20 +656,18 @@ public class DefaultVehicleController
 
   @SuppressWarnings({"unchecked", "deprecation"})
   private void handleProcessModelEvent(PropertyChangeEvent evt) {
-    eventBus.onEvent(new ProcessModelEvent(evt.getPropertyName(),
-                                           commAdapter.createTransferableProcessModel()));
-
     if (Objects.equals(evt.getPropertyName(), VehicleProcessModel.Attribute.POSITION.name())) {
+      // Bring the precise position up to date before the logical one changes.
+      precisePositionThrottle.flush();
       updateVehiclePosition((String) evt.getNewValue());
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.PRECISE_POSITION.name())) {
-      updateVehiclePrecisePosition((Triple) evt.getNewValue());
+      precisePositionThrottle.precisePositionChanged((Triple) evt.getNewValue());
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.ORIENTATION_ANGLE.name())) {
-      vehicleService.updateVehicleOrientationAngle(vehicle.getReference(),
-                                                   (Double) evt.getNewValue());
+      precisePositionThrottle.orientationAngleChanged((Double) evt.getNewValue());
     }
     else if (Objects.equals(evt.getPropertyName(),
                             VehicleProcessModel.Attribute.ENERGY_LEVEL.name())) {
@@ -692,7 +764,7 @@ public class DefaultVehicleController
         return;
       }
     }
-    synchronized (commAdapter) {
+    transition(() -> {
       // If the current drive order is null, just set the vehicle's position.
       if (currentDriveOrder == null) {
         LOG.debug("{}: Reported new position {} and we do not have a drive order.",
@@ -713,13 +785,13 @@ public class DefaultVehicleController
       else {
         updatePositionWithOrder(position, point);
       }
-    }
+    });
   }
 
   private void commandExecuted(MovementCommand executedCommand) {
     requireNonNull(executedCommand, "executedCommand");
 
-    synchronized (commAdapter) {
+    transition(() -> {
       // Check if the executed command is the one we expect at this point.
       MovementCommand expectedCommand = commandsSent.peek();
       if (!Objects.equals(expectedCommand, executedCommand)) {
@@ -762,7 +834,7 @@ public class DefaultVehicleController
       else if (canSendNextCommand()) {
         allocateForNextCommand();
       }
-    }
+    });
   }
 
   private void createFutureCommands(DriveOrder newOrder, Map<String, String> orderProperties) {
@@ -815,6 +887,101 @@ public class DefaultVehicleController
     vehicleService.updateVehicleState(vehicle.getReference(), newState);
   }
 
+  /**
+   * Sends the pending command to the communication adapter after its resources have been
+   * allocated.
+   *
+   * @param resources The allocated resources.
+   * @return <code>true</code> if, and only if, the resources were the pending ones and the pending
+   * command was sent.
+   */
+  private boolean acceptAllocation(Set<TCSResource<?>> resources) {
+    // Check if we've actually been waiting for these resources now. If not,
+    // let the scheduler know that we don't want them.
+    if (!Objects.equals(resources, pendingResources)) {
+      LOG.warn("{}: Allocated resources ({}) != pending resources ({}), refusing them",
+               vehicle.getName(),
+               resources,
+               pendingResources);
+      return false;
+    }
+
+    // Look up the command the resources were required for.
+    MovementCommand command = pendingCommand;
+    // If there was no command in the queue, it must have been withdrawn in
+    // the meantime - let the scheduler know that we don't need the resources
+    // any more.
+    if (command == null) {
+      LOG.warn("{}: No pending command, pending resources = {}, refusing allocated resources: {}",
+               vehicle.getName(),
+               pendingResources,
+               resources);
+      waitingForAllocation = false;
+      pendingResources = null;
+      // In case the contoller's vehicle got rerouted while waiting for resource allocation
+      // the pending command is reset and therefore the associated allocation will be ignored. 
+      // Since there's now a new/updated route we need to trigger the next allocation. Otherwise
+      // the vehicle would wait forever to get the next command.
+      if (canSendNextCommand()) {
+        allocateForNextCommand();
+      }
+      return false;
+    }
+    pendingCommand = null;
+    pendingResources = null;
+
+    allocatedResources.add(resources);
+    // Send the command to the communication adapter.
+    checkState(commAdapter.enqueueCommand(command),
+               "Comm adapter did not accept command");
+    commandsSent.add(command);
+
+    // Check if the communication adapter has capacity for another command.
+    waitingForAllocation = false;
+    if (canSendNextCommand()) {
+      allocateForNextCommand();
+    }
+    return true;
+  }
+
+  /**
+   * Performs the given state transition of this controller.
+   * With a mailbox, the transition is enqueued to be performed by the mailbox's thread. Otherwise,
+   * it is performed immediately, synchronized with the communication adapter.
+   *
+   * @param transition The transition.
+   */
+  private void transition(Runnable transition) {
+    VehicleControllerMailbox currentMailbox = mailbox;
+    if (currentMailbox == null) {
+      synchronized (commAdapter) {
+        transition.run();
+      }
+    }
+    else {
+      currentMailbox.post(transition);
+    }
+  }
+
+  /**
+   * Performs the given state transition of this controller and waits for it, so exceptions thrown
+   * by it, e.g. for violated preconditions, reach the caller.
+   * With a mailbox, the transition is performed in order with the ones already enqueued.
+   *
+   * @param transition The transition.
+   */
+  private void transitionAndWait(Runnable transition) {
+    VehicleControllerMailbox currentMailbox = mailbox;
+    if (currentMailbox == null) {
+      synchronized (commAdapter) {
+        transition.run();
+      }
+    }
+    else {
+      currentMailbox.invoke(transition);
+    }
+  }
+
   /**
    * Checks if we can send another command to the communication adapter without
    * overflowing its capacity and with respect to the number of commands still
@@ -823,8 +990,7 @@ public class DefaultVehicleController
    * @return <code>true</code> if, and only if, we can send another command.
    */
   private boolean canSendNextCommand() {
-    int sendableCommands = Math.min(commAdapter.getCommandQueueCapacity() - commandsSent.size(),
-                                    futureCommands.size());
+    int sendableCommands = Math.min(acceptableCommandCount(), futureCommands.size());
     if (sendableCommands <= 0) {
       LOG.debug("{}: Cannot send, number of sendable commands: {}",
                 vehicle.getName(),
@@ -839,9 +1005,85 @@ public class DefaultVehicleController
       LOG.debug("{}: Cannot send, waiting for allocation", vehicle.getName());
       return false;
     }
+    if (configuration.vehicleControllerLookAhead()
+        == KernelApplicationConfiguration.CommandLookAhead.BRAKING_DISTANCE
+        && brakingDistanceCovered()) {
+      LOG.debug("{}: Cannot send, commands sent cover the braking distance", vehicle.getName());
+      return false;
+    }
     return true;
   }
 
+  /**
+   * Returns the number of commands the communication adapter can currently accept.
+   * When looking ahead by the braking distance, commands the adapter has already passed on to the
+   * vehicle do not count, so the look-ahead may extend beyond the adapter's command queue capacity
+   * and is limited by the braking distance instead.
+   *
+   * @return The number of commands the communication adapter can currently accept.
+   */
+  private int acceptableCommandCount() {
+    if (configuration.vehicleControllerLookAhead()
+        != KernelApplicationConfiguration.CommandLookAhead.BRAKING_DISTANCE) {
+      return commAdapter.getCommandQueueCapacity() - commandsSent.size();
+    }
+    synchronized (commAdapter) {
+      return commAdapter.getCommandQueueCapacity() - commAdapter.getCommandQueue().size();
+    }
+  }
+
+  /**
+   * Checks if the commands sent to the communication adapter cover the distance the vehicle needs
+   * to brake to a stop at the maximum velocity allowed on their paths.
+   * The command currently being executed is not taken into account, as the vehicle may already be
+   * close to its end.
+   *
+   * @return <code>true</code> if, and only if, the commands sent cover the braking distance.
+   */
+  private boolean brakingDistanceCovered() {
+    if (commandsSent.isEmpty()) {
+      return false;
+    }
+
+    long distanceAhead = 0;
+    long maxVelocity = 0;
+    boolean currentCommand = true;
+    for (MovementCommand cmd : commandsSent) {
+      maxVelocity = Math.max(maxVelocity, allowedVelocity(cmd.getStep()));
+      if (currentCommand) {
+        currentCommand = false;
+      }
+      else if (cmd.getStep().getPath() != null) {
+        distanceAhead += cmd.getStep().getPath().getLength();
+      }
+    }
+
+    long brakingDistance = maxVelocity * maxVelocity / (2L * deceleration);
+    LOG.debug("{}: Distance ahead: {} mm, braking distance: {} mm",
+              vehicle.getName(),
+              distanceAhead,
+              brakingDistance);
+    return distanceAhead >= brakingDistance;
+  }
+
+  /**
+   * Returns the maximum velocity the vehicle may move with on the given step.
+   *
+   * @param step The step.
+   * @return The maximum velocity (in mm/s).
+   */
+  private int allowedVelocity(Step step) {
+    boolean reverse = step.getVehicleOrientation() == Vehicle.Orientation.BACKWARD;
+    int vehicleVelocity = reverse ? vehicle.getMaxReverseVelocity() : vehicle.getMaxVelocity();
+    Path path = step.getPath();
+    if (path == null) {
+      return 0;
+    }
+    int pathVelocity = reverse ? path.getMaxReverseVelocity() : path.getMaxVelocity();
+    // A path without a velocity limit does not restrict the vehicle.
+    return pathVelocity <= 0 ? vehicleVelocity : Math.min(pathVelocity, vehicleVelocity);
+  }
+
   /**
    * Allocate the resources needed for executing the next command.
    */
@@ -969,7 +1211,7 @@ public class DefaultVehicleController
     Vehicle.IntegrationLevel prevIntegrationLevel = prevVehicleState.getIntegrationLevel();
     Vehicle.IntegrationLevel currIntegrationLevel = currVehicleState.getIntegrationLevel();
 
-    synchronized (commAdapter) {
+    transition(() -> {
       if (currIntegrationLevel == Vehicle.IntegrationLevel.TO_BE_IGNORED) {
         // Reset the vehicle's position to free all allocated resources
         resetVehiclePosition();
@@ -997,7 +1239,7 @@ public class DefaultVehicleController
       }
 
       updateVehicleProcState(currIntegrationLevel, currVehicleState);
-    }
+    });
   }
 
   @SuppressWarnings("deprecation")
@@ -1032,6 +1274,30 @@ public class DefaultVehicleController
         .anyMatch(resource -> resource.getName().equals(position));
   }
 
+  /**
+   * Returns the deceleration specified for the given vehicle.
+   *
+   * @param vehicle The vehicle.
+   * @return The vehicle's deceleration (in mm/s^2), a positive value.
+   */
+  private static int parseDeceleration(Vehicle vehicle) {
+    String deceleration = vehicle.getProperty(ObjectPropConstants.VEHICLE_DECELERATION);
+    if (deceleration == null) {
+      return DEFAULT_DECELERATION;
+    }
+    try {
+      // Decelerations are usually given as negative values.
+      return Math.max(Math.abs(Integer.parseInt(deceleration.trim())), 1);
+    }
+    catch (NumberFormatException exc) {
+      LOG.warn("{}: Invalid deceleration '{}', assuming {}",
+               vehicle.getName(),
+               deceleration,
+               DEFAULT_DECELERATION);
+      return DEFAULT_DECELERATION;
+    }
+  }
+
   private static TCSObjectReference<Point> toReference(Point point) {
     return point == null ? null : point.getReference();
   }
@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.data.model.Triple;
+
+/**
+ * Limits the rate at which a vehicle's precise position and orientation angle are updated in the
+ * kernel.
+ * <p>
+ * A reported value is forwarded only if the given interval has passed since the last value was
+ * forwarded and it differs from that value at least by the given threshold. Values that are not
+ * forwarded are kept and forwarded when the throttle is flushed, e.g. before the vehicle's logical
+ * position is updated, or at the latest the given interval after they were held back, so the last
+ * value reported by a vehicle coming to a stop is not lost.
+ * Resetting the precise position (i.e. reporting <code>null</code>) and reporting the first known
+ * value are always forwarded immediately.
+ * </p>
+ * <p>
+ * Values are forwarded while holding this instance's lock, so they reach the sinks in the order
+ * they were reported.
+ * </p>
+ */
+final class PrecisePositionThrottle {
+
+  /**
+   * The minimum time between two forwarded values (in ms).
+   */
+  private final long interval;
+  /**
+   * The minimum distance between two forwarded precise positions (in mm).
+   */
+  private final long positionThreshold;
+  /**
+   * The minimum difference between two forwarded orientation angles (in degrees).
+   */
+  private final double angleThreshold;
+  /**
+   * Performs the delayed flushes of held back values.
+   */
+  private final ScheduledExecutorService executor;
+  /**
+   * Receives the forwarded precise positions.
+   */
+  private final Consumer<Triple> positionSink;
+  /**
+   * Receives the forwarded orientation angles.
+   */
+  private final DoubleConsumer angleSink;
+  /**
+   * The last forwarded precise position.
+   */
+  private Triple lastPosition;
+  /**
+   * The point of time the last precise position was forwarded.
+   */
+  private long lastPositionTime = Long.MIN_VALUE;
+  /**
+   * The latest precise position that has not been forwarded.
+   */
+  private Triple pendingPosition;
+  /**
+   * Whether there is a precise position that has not been forwarded.
+   */
+  private boolean positionPending;
+  /**
+   * The last forwarded orientation angle.
+   */
+  private double lastAngle = Double.NaN;
+  /**
+   * The point of time the last orientation angle was forwarded.
+   */
+  private long lastAngleTime = Long.MIN_VALUE;
+  /**
+   * The latest orientation angle that has not been forwarded.
+   */
+  private double pendingAngle = Double.NaN;
+  /**
+   * Whether there is an orientation angle that has not been forwarded.
+   */
+  private boolean anglePending;
+  /**
+   * The delayed flush of held back values, or <code>null</code>, if none is scheduled.
+   */
+  private ScheduledFuture<?> scheduledFlush;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param interval The minimum time between two forwarded values (in ms).
+   * @param positionThreshold The minimum distance between two forwarded precise positions (in mm).
+   * @param angleThreshold The minimum difference between two forwarded orientation angles (in
+   * degrees).
+   * @param executor Performs the delayed flushes of held back values.
+   * @param positionSink Receives the forwarded precise positions.
+   * @param angleSink Receives the forwarded orientation angles.
+   */
+  PrecisePositionThrottle(long interval,
+                          long positionThreshold,
+                          double angleThreshold,
+                          @Nonnull ScheduledExecutorService executor,
+                          @Nonnull Consumer<Triple> positionSink,
+                          @Nonnull DoubleConsumer angleSink) {
+    this.interval = interval;
+    this.positionThreshold = positionThreshold;
+    this.angleThreshold = angleThreshold;
+    this.executor = requireNonNull(executor, "executor");
+    this.positionSink = requireNonNull(positionSink, "positionSink");
+    this.angleSink = requireNonNull(angleSink, "angleSink");
+  }
+
+  /**
+   * Handles a reported precise position.
+   *
+   * @param position The reported precise position.
+   */
+  synchronized void precisePositionChanged(@Nullable Triple position) {
+    long now = System.currentTimeMillis();
+    if (position == null
+        || lastPosition == null
+        || (now - lastPositionTime >= interval
+            && distance(lastPosition, position) >= positionThreshold)) {
+      positionForwarded(position, now);
+      positionSink.accept(position);
+      return;
+    }
+    pendingPosition = new Triple(position);
+    positionPending = true;
+    scheduleFlush();
+  }
+
+  /**
+   * Handles a reported orientation angle.
+   *
+   * @param angle The reported orientation angle.
+   */
+  synchronized void orientationAngleChanged(double angle) {
+    long now = System.currentTimeMillis();
+    if (Double.isNaN(angle) != Double.isNaN(lastAngle)
+        || (now - lastAngleTime >= interval
+            && angleDifference(lastAngle, angle) >= angleThreshold)) {
+      angleForwarded(angle, now);
+      angleSink.accept(angle);
+      return;
+    }
+    pendingAngle = angle;
+    anglePending = true;
+    scheduleFlush();
+  }
+
+  /**
+   * Forwards the values that have been held back.
+   */
+  synchronized void flush() {
+    long now = System.currentTimeMillis();
+    if (positionPending) {
+      Triple position = pendingPosition;
+      positionForwarded(position, now);
+      positionSink.accept(position);
+    }
+    if (anglePending) {
+      double angle = pendingAngle;
+      angleForwarded(angle, now);
+      angleSink.accept(angle);
+    }
+  }
+
+  /**
+   * Discards the values that have been held back and forgets the values forwarded last, e.g. when
+   * the vehicle's precise position is reset.
+   */
+  synchronized void reset() {
+    if (scheduledFlush != null) {
+      scheduledFlush.cancel(false);
+      scheduledFlush = null;
+    }
+    positionForwarded(null, Long.MIN_VALUE);
+    angleForwarded(Double.NaN, Long.MIN_VALUE);
+  }
+
+  /**
+   * Schedules a flush of the values held back, unless one is already scheduled.
+   * Without an interval, values are only held back for not exceeding the thresholds, and
+   * forwarding them after a delay would render the thresholds meaningless.
+   */
+  private void scheduleFlush() {
+    if (scheduledFlush != null || interval <= 0) {
+      return;
+    }
+    scheduledFlush = executor.schedule(this::delayedFlush, interval, TimeUnit.MILLISECONDS);
+  }
+
+  private synchronized void delayedFlush() {
+    scheduledFlush = null;
+    flush();
+  }
+
+  private void positionForwarded(Triple position, long now) {
+    lastPosition = position == null ? null : new Triple(position);
+    lastPositionTime = now;
+    pendingPosition = null;
+    positionPending = false;
+  }
+
+  private void angleForwarded(double angle, long now) {
+    lastAngle = angle;
+    lastAngleTime = now;
+    pendingAngle = Double.NaN;
+    anglePending = false;
+  }
+
+  private static double distance(Triple a, Triple b) {
+    double dx = a.getX() - b.getX();
+    double dy = a.getY() - b.getY();
+    double dz = a.getZ() - b.getZ();
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  private static double angleDifference(double a, double b) {
+    if (Double.isNaN(a) && Double.isNaN(b)) {
+      return 0.0;
+    }
+    double difference = Math.abs(a - b) % 360.0;
+    return difference > 180.0 ? 360.0 - difference : difference;
+  }
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import static java.util.Objects.requireNonNull;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.kernel.KernelApplicationConfiguration;
+import org.opentcs.util.logging.UncaughtExceptionLogger;
+
+/**
+ * The pool of threads shared by the vehicle controllers' mailboxes for performing their state
+ * transitions.
+ * Threads are only started when transitions are to be performed and terminate when idle.
+ */
+public class VehicleControllerExecutor
+    implements Executor {
+
+  /**
+   * The pool's threads.
+   */
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The kernel application's configuration.
+   */
+  @Inject
+  public VehicleControllerExecutor(@Nonnull KernelApplicationConfiguration configuration) {
+    requireNonNull(configuration, "configuration");
+
+    int threadCount = configuration.vehicleControllerMailboxThreads() > 0
+        ? configuration.vehicleControllerMailboxThreads()
+        : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor = new ThreadPoolExecutor(
+        threadCount,
+        threadCount,
+        60,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable,
+                                     "vehicleController-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          thread.setUncaughtExceptionHandler(new UncaughtExceptionLogger(false));
+          return thread;
+        });
+    // Don't keep idle threads around, e.g. if mailboxes are not used at all.
+    executor.allowCoreThreadTimeOut(true);
+  }
+
+  @Override
+  public void execute(@Nonnull Runnable command) {
+    executor.execute(command);
+  }
+}
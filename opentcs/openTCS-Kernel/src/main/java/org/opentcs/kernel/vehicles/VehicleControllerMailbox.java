@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.kernel.vehicles;
+
+import java.util.ArrayDeque;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Performs a vehicle controller's state transitions one after another, on a pool of threads shared
+ * by all vehicles.
+ * <p>
+ * Threads reporting to the controller - e.g. the kernel executor, the scheduler or the
+ * communication adapter's threads - merely enqueue the corresponding transitions and thus never
+ * wait for each other.
+ * Transitions posted by the thread currently performing the mailbox's transitions, i.e. from within
+ * another transition, are performed immediately.
+ * </p>
+ */
+final class VehicleControllerMailbox {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(VehicleControllerMailbox.class);
+  /**
+   * The maximum time to wait for pending transitions when terminating (in ms).
+   */
+  private static final long TERMINATION_TIMEOUT = 10000;
+  /**
+   * The maximum number of transitions performed before the pool's thread is yielded to other
+   * mailboxes.
+   */
+  private static final int BATCH_SIZE = 32;
+  /**
+   * The name of the vehicle whose controller's transitions are performed.
+   */
+  private final String vehicleName;
+  /**
+   * The shared pool performing the transitions.
+   */
+  private final Executor executor;
+  /**
+   * The transitions not yet performed.
+   */
+  private final Queue<Runnable> transitions = new ArrayDeque<>();
+  /**
+   * Whether performing the pending transitions has been handed to the pool.
+   */
+  private boolean scheduled;
+  /**
+   * Whether this mailbox has been terminated.
+   */
+  private boolean terminated;
+  /**
+   * The thread currently performing the transitions, or <code>null</code>, if none.
+   */
+  private volatile Thread performingThread;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param vehicleName The name of the vehicle whose controller's transitions are performed.
+   * @param executor The shared pool performing the transitions.
+   */
+  VehicleControllerMailbox(@Nonnull String vehicleName, @Nonnull Executor executor) {
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    this.executor = requireNonNull(executor, "executor");
+  }
+
+  /**
+   * Enqueues the given transition, or performs it immediately if called from within another
+   * transition.
+   * Transitions posted after the mailbox has been terminated are discarded.
+   *
+   * @param transition The transition.
+   */
+  void post(@Nonnull Runnable transition) {
+    requireNonNull(transition, "transition");
+
+    if (Thread.currentThread() == performingThread) {
+      transition.run();
+      return;
+    }
+
+    if (!enqueue(transition)) {
+      LOG.debug("{}: Mailbox terminated, discarding transition.", vehicleName);
+    }
+  }
+
+  /**
+   * Performs the given transition in order with the ones already enqueued and waits for it.
+   * Exceptions thrown by the transition are rethrown to the caller.
+   * The caller must not hold any locks the pending transitions require, e.g. the kernel's global
+   * synchronization object.
+   *
+   * @param transition The transition.
+   * @throws IllegalStateException If the mailbox has been terminated or the calling thread was
+   * interrupted while waiting.
+   */
+  void invoke(@Nonnull Runnable transition)
+      throws IllegalStateException {
+    requireNonNull(transition, "transition");
+
+    if (Thread.currentThread() == performingThread) {
+      transition.run();
+      return;
+    }
+
+    FutureTask<Void> task = new FutureTask<>(transition, null);
+    if (!enqueue(task)) {
+      throw new IllegalStateException(vehicleName + ": Mailbox terminated");
+    }
+    try {
+      task.get();
+    }
+    catch (ExecutionException exc) {
+      if (exc.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exc.getCause();
+      }
+      if (exc.getCause() instanceof Error) {
+        throw (Error) exc.getCause();
+      }
+      throw new IllegalStateException(exc.getCause());
+    }
+    catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(vehicleName + ": Interrupted waiting for transition", exc);
+    }
+  }
+
+  /**
+   * Terminates this mailbox, waiting for the transitions already enqueued to be performed.
+   */
+  void terminate() {
+    synchronized (this) {
+      terminated = true;
+    }
+    if (Thread.currentThread() == performingThread) {
+      return;
+    }
+
+    long deadline = System.currentTimeMillis() + TERMINATION_TIMEOUT;
+    synchronized (this) {
+      try {
+        while (scheduled) {
+          long remaining = deadline - System.currentTimeMillis();
+          if (remaining <= 0) {
+            LOG.warn("{}: Pending transitions not performed within {} ms.",
+                     vehicleName,
+                     TERMINATION_TIMEOUT);
+            return;
+          }
+          TimeUnit.MILLISECONDS.timedWait(this, remaining);
+        }
+      }
+      catch (InterruptedException exc) {
+        LOG.warn("{}: Interrupted while waiting for pending transitions.", vehicleName);
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Enqueues the given transition and hands performing it to the pool, if necessary.
+   *
+   * @param transition The transition.
+   * @return <code>false</code> if, and only if, the mailbox has been terminated.
+   */
+  private boolean enqueue(Runnable transition) {
+    synchronized (this) {
+      if (terminated) {
+        return false;
+      }
+      transitions.add(transition);
+      if (scheduled) {
+        return true;
+      }
+      scheduled = true;
+    }
+    executor.execute(this::performPending);
+    return true;
+  }
+
+  /**
+   * Performs pending transitions, yielding the pool's thread after a batch of them.
+   */
+  private void performPending() {
+    performingThread = Thread.currentThread();
+    for (int i = 0; i < BATCH_SIZE; i++) {
+      Runnable transition;
+      synchronized (this) {
+        transition = transitions.poll();
+        if (transition == null) {
+          // Reset before another thread may be scheduled to perform new transitions.
+          performingThread = null;
+          scheduled = false;
+          notifyAll();
+          return;
+        }
+      }
+      perform(transition);
+    }
+    performingThread = null;
+    // Let other vehicles' transitions be performed before the remaining ones.
+    executor.execute(this::performPending);
+  }
+
+  private void perform(Runnable transition) {
+    // Keep performing subsequent transitions.
+    try {
+      transition.run();
+    }
+    catch (RuntimeException exc) {
+      LOG.warn("{}: Exception performing state transition", vehicleName, exc);
+    }
+  }
+}
@@ -7,7 +7,6 @@
  */
 package org.opentcs.kernel.workingset;
 
-import java.time.Instant;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -22,6 +21,7 @@ import javax.inject.Inject;
 import org.opentcs.access.to.order.DestinationCreationTO;
 import org.opentcs.access.to.order.OrderSequenceCreationTO;
 import org.opentcs.access.to.order.TransportOrderCreationTO;
+import org.opentcs.common.SimulationClock;
 import org.opentcs.data.ObjectExistsException;
 import org.opentcs.data.ObjectUnknownException;
 import org.opentcs.data.TCSObject;
@@ -64,18 +64,25 @@ public class TransportOrderPool {
    * Provides names for transport orders and order sequences.
    */
   private final ObjectNameProvider objectNameProvider;
+  /**
+   * Provides the creation times of transport orders.
+   */
+  private final SimulationClock clock;
 
   /**
    * Creates a new instance.
    *
    * @param objectPool The object pool serving as the container for this order pool's data.
    * @param orderNameProvider Provides names for transport orders.
+   * @param clock Provides the creation times of transport orders.
    */
   @Inject
   public TransportOrderPool(TCSObjectPool objectPool,
-                            ObjectNameProvider orderNameProvider) {
+                            ObjectNameProvider orderNameProvider,
+                            SimulationClock clock) {
     this.objectPool = requireNonNull(objectPool, "objectPool");
     this.objectNameProvider = requireNonNull(orderNameProvider, "orderNameProvider");
+    this.clock = requireNonNull(clock, "clock");
   }
 
   /**
@@ -125,7 +132,7 @@ public class TransportOrderPool {
         = new TransportOrder(orderID,
                              orderName,
                              destinations,
-                             System.currentTimeMillis());
+                             clock.millis());
     // Store the instance in the global object pool.
     try {
       objectPool.addObject(newOrder);
@@ -158,7 +165,7 @@ public class TransportOrderPool {
       throws ObjectUnknownException, ObjectExistsException, IllegalArgumentException {
     TransportOrder newOrder = new TransportOrder(nameFor(to),
                                                  toDriveOrders(to.getDestinations()))
-        .withCreationTime(Instant.now())
+        .withCreationTime(clock.instant())
         .withIntendedVehicle(toVehicleReference(to.getIntendedVehicleName()))
         .withCategory(to.getCategory())
         .withDeadline(to.getDeadline().toInstant())
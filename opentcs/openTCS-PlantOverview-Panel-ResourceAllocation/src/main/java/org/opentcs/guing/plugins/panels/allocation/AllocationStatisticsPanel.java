@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.guing.plugins.panels.allocation;
+
+import java.awt.BorderLayout;
+import java.awt.GridLayout;
+import static java.util.Objects.requireNonNull;
+import java.util.ResourceBundle;
+import javax.swing.BorderFactory;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.table.DefaultTableModel;
+import org.opentcs.access.SchedulerAllocationStatistics;
+import org.opentcs.access.SchedulerAllocationStatistics.ClientStatistics;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+import org.opentcs.access.SchedulerAllocationStatistics.ResourceStatistics;
+import static org.opentcs.guing.plugins.panels.allocation.I18nPlantOverviewPanelResourceAllocation.BUNDLE_PATH;
+
+/**
+ * Displays the allocation wait and hold times of each vehicle and the most contended resources.
+ */
+public class AllocationStatisticsPanel
+    extends JPanel {
+
+  /**
+   * This class's resource bundle.
+   */
+  private static final ResourceBundle BUNDLE = ResourceBundle.getBundle(BUNDLE_PATH);
+  /**
+   * Summarizes the wait times of all allocations.
+   */
+  private final JLabel summaryLabel = new JLabel();
+  /**
+   * The model of the table with the statistics of each client.
+   */
+  private final DefaultTableModel clientTableModel = new ReadOnlyTableModel(
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_client.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_allocations.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_deferrals.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_waitP50.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_waitP90.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_waitP99.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_waitMax.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_clients.column_holdMean.headerText")
+  );
+  /**
+   * The model of the table with the statistics of the most contended resources.
+   */
+  private final DefaultTableModel resourceTableModel = new ReadOnlyTableModel(
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_resource.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_type.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_allocations.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_deferrals.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_totalWait.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_totalHold.headerText"),
+      BUNDLE.getString("allocationStatisticsPanel.table_resources.column_maxHold.headerText")
+  );
+
+  /**
+   * Creates a new instance.
+   */
+  public AllocationStatisticsPanel() {
+    setLayout(new BorderLayout());
+
+    summaryLabel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+    add(summaryLabel, BorderLayout.PAGE_START);
+
+    JPanel tablesPanel = new JPanel(new GridLayout(2, 1));
+    tablesPanel.add(createTablePane(
+        clientTableModel,
+        BUNDLE.getString("allocationStatisticsPanel.table_clients.title")));
+    tablesPanel.add(createTablePane(
+        resourceTableModel,
+        BUNDLE.getString("allocationStatisticsPanel.table_resources.title")));
+    add(tablesPanel, BorderLayout.CENTER);
+  }
+
+  /**
+   * Displays the given statistics.
+   *
+   * @param statistics The statistics.
+   */
+  public void updateStatistics(SchedulerAllocationStatistics statistics) {
+    requireNonNull(statistics, "statistics");
+
+    Latency waitTimes = statistics.getWaitTimes();
+    summaryLabel.setText(String.format(
+        BUNDLE.getString("allocationStatisticsPanel.label_summary.text"),
+        waitTimes.getCount(),
+        waitTimes.getP50(),
+        waitTimes.getP90(),
+        waitTimes.getP99(),
+        waitTimes.getMax()));
+
+    clientTableModel.setRowCount(0);
+    for (ClientStatistics client : statistics.getClientStatistics()) {
+      clientTableModel.addRow(new Object[]{
+        client.getClientId(),
+        client.getWaitTimes().getCount(),
+        client.getDeferralCount(),
+        client.getWaitTimes().getP50(),
+        client.getWaitTimes().getP90(),
+        client.getWaitTimes().getP99(),
+        client.getWaitTimes().getMax(),
+        client.getHoldTimes().getMean()
+      });
+    }
+
+    resourceTableModel.setRowCount(0);
+    for (ResourceStatistics resource : statistics.getMostContendedResources()) {
+      resourceTableModel.addRow(new Object[]{
+        resource.getName(),
+        resource.getType(),
+        resource.getAllocationCount(),
+        resource.getDeferralCount(),
+        resource.getTotalWaitTime(),
+        resource.getTotalHoldTime(),
+        resource.getMaxHoldTime()
+      });
+    }
+  }
+
+  private JScrollPane createTablePane(DefaultTableModel model, String title) {
+    JTable table = new JTable(model);
+    table.setAutoCreateRowSorter(true);
+    JScrollPane scrollPane = new JScrollPane(table);
+    scrollPane.setBorder(BorderFactory.createTitledBorder(title));
+    return scrollPane;
+  }
+
+  /**
+   * A table model whose cells cannot be edited.
+   */
+  private static class ReadOnlyTableModel
+      extends DefaultTableModel {
+
+    ReadOnlyTableModel(String... columnNames) {
+      super(columnNames, 0);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+      return getRowCount() == 0 ? Object.class : getValueAt(0, columnIndex).getClass();
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+      return false;
+    }
+  }
+}
@@ -9,8 +9,11 @@ package org.opentcs.guing.plugins.panels.allocation;
 
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
+import javax.swing.JDialog;
+import javax.swing.JOptionPane;
 import org.opentcs.access.Kernel;
 import org.opentcs.access.SchedulerAllocationState;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.access.SharedKernelServicePortal;
 import org.opentcs.access.SharedKernelServicePortalProvider;
 import org.opentcs.components.kernel.services.ServiceUnavailableException;
@@ -37,6 +40,10 @@ public class ResourceAllocationPanel
    * This class' logger:
    */
   private static final Logger LOG = LoggerFactory.getLogger(ResourceAllocationPanel.class);
+  /**
+   * The maximum number of most contended resources to be displayed.
+   */
+  private static final int MAX_CONTENDED_RESOURCES = 20;
   /**
    * The kernel to query allocations from.
    */
@@ -161,6 +168,36 @@ public class ResourceAllocationPanel
     ((AllocationTreeModel) allocationTable.getModel()).updateAllocations(allocationState.getAllocationStates());
   }
 
+  /**
+   * Queries the kernel for statistics about the resource allocations and displays them in a dialog.
+   */
+  private void showAllocationStatistics() {
+    if (sharedPortal == null || !portalProvider.portalShared()) {
+      LOG.debug("No connection to the kernel, not showing allocation statistics.");
+      return;
+    }
+
+    SchedulerAllocationStatistics statistics;
+    try {
+      statistics = sharedPortal.getPortal().getSchedulerService()
+          .fetchSchedulerAllocationStatistics(MAX_CONTENDED_RESOURCES);
+    }
+    catch (RuntimeException exc) {
+      LOG.warn("Could not fetch allocation statistics", exc);
+      JOptionPane.showMessageDialog(this, exc.getMessage());
+      return;
+    }
+
+    AllocationStatisticsPanel statisticsPanel = new AllocationStatisticsPanel();
+    statisticsPanel.updateStatistics(statistics);
+
+    JDialog dialog = new JOptionPane(statisticsPanel, JOptionPane.PLAIN_MESSAGE)
+        .createDialog(this, showStatisticsButton.getText());
+    dialog.setResizable(true);
+    dialog.setModal(false);
+    dialog.setVisible(true);
+  }
+
   /**
    * This method is called from within the constructor to
    * initialize the form.
@@ -173,6 +210,7 @@ public class ResourceAllocationPanel
 
         optionsPanel = new javax.swing.JPanel();
         enableUpdatesCheckbox = new javax.swing.JCheckBox();
+        showStatisticsButton = new javax.swing.JButton();
         allocationScrollPane = new javax.swing.JScrollPane();
         allocationTable = new javax.swing.JTree();
 
@@ -190,6 +228,14 @@ public class ResourceAllocationPanel
         });
         optionsPanel.add(enableUpdatesCheckbox, new java.awt.GridBagConstraints());
 
+        showStatisticsButton.setText(bundle.getString("resourceAllocationPanel.button_showStatistics.text")); // NOI18N
+        showStatisticsButton.addActionListener(new java.awt.event.ActionListener() {
+            public void actionPerformed(java.awt.event.ActionEvent evt) {
+                showStatisticsButtonActionPerformed(evt);
+            }
+        });
+        optionsPanel.add(showStatisticsButton, new java.awt.GridBagConstraints());
+
         add(optionsPanel, java.awt.BorderLayout.PAGE_START);
 
         allocationTable.setModel(new AllocationTreeModel());
@@ -203,11 +249,16 @@ public class ResourceAllocationPanel
     enableUpdates = enableUpdatesCheckbox.isSelected();
   }//GEN-LAST:event_enableUpdatesCheckboxActionPerformed
 
+  private void showStatisticsButtonActionPerformed(java.awt.event.ActionEvent evt) {//GEN-FIRST:event_showStatisticsButtonActionPerformed
+    showAllocationStatistics();
+  }//GEN-LAST:event_showStatisticsButtonActionPerformed
+
 
     // Variables declaration - do not modify//GEN-BEGIN:variables
     private javax.swing.JScrollPane allocationScrollPane;
     protected javax.swing.JTree allocationTable;
     private javax.swing.JCheckBox enableUpdatesCheckbox;
     private javax.swing.JPanel optionsPanel;
+    private javax.swing.JButton showStatisticsButton;
     // End of variables declaration//GEN-END:variables
 }
@@ -14,6 +14,7 @@ import org.opentcs.components.kernel.Dispatcher;
 import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.plantoverview.PropertySuggestions;
+import org.opentcs.data.ObjectPropConstants;
 
 /**
  * The default property suggestions of the baseline plant overview.
@@ -37,6 +38,7 @@ public class DefaultPropertySuggestions
     keySuggestions.add(Dispatcher.PROPKEY_PREFERRED_PARKING_POSITION);
     keySuggestions.add(Dispatcher.PROPKEY_ASSIGNED_RECHARGE_LOCATION);
     keySuggestions.add(Dispatcher.PROPKEY_PREFERRED_RECHARGE_LOCATION);
+    keySuggestions.add(ObjectPropConstants.VEHICLE_DECELERATION);
     keySuggestions.add(LoopbackAdapterConstants.PROPKEY_INITIAL_POSITION);
     keySuggestions.add(LoopbackAdapterConstants.PROPKEY_OPERATING_TIME);
     keySuggestions.add(LoopbackAdapterConstants.PROPKEY_LOAD_OPERATION);
@@ -7,12 +7,15 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import com.google.inject.Provider;
+import javax.inject.Singleton;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
 import org.opentcs.strategies.basic.routing.jgrapht.BellmanFordPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.DefaultModelGraphMapper;
 import org.opentcs.strategies.basic.routing.jgrapht.DijkstraPointRouterFactory;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluator;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorComposite;
+import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorCongestion;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorDistance;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorExplicitProperties;
 import org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorHops;
@@ -22,6 +25,9 @@ import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
 import org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration;
 import static org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.EvaluatorType.EXPLICIT;
 import static org.opentcs.strategies.basic.routing.jgrapht.ShortestPathConfiguration.EvaluatorType.TRAVELTIME;
+import org.opentcs.strategies.basic.routing.timewindow.ReservationTable;
+import org.opentcs.strategies.basic.routing.timewindow.TimeWindowConfiguration;
+import org.opentcs.strategies.basic.routing.timewindow.TimeWindowRouter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -41,7 +47,23 @@ public class DefaultRouterModule
   @Override
   protected void configure() {
     configureRouterDependencies();
-    bindRouter(DefaultRouter.class);
+
+    TimeWindowConfiguration twConfiguration
+        = getConfigBindingProvider().get(TimeWindowConfiguration.PREFIX,
+                                         TimeWindowConfiguration.class);
+    bind(TimeWindowConfiguration.class)
+        .toInstance(twConfiguration);
+
+    if (twConfiguration.enable()) {
+      bind(ReservationTable.class)
+          .in(Singleton.class);
+      bind(DefaultRouter.class)
+          .in(Singleton.class);
+      bindRouter(TimeWindowRouter.class);
+    }
+    else {
+      bindRouter(DefaultRouter.class);
+    }
   }
 
   private void configureRouterDependencies() {
@@ -58,6 +80,10 @@ public class DefaultRouterModule
     bind(ModelGraphMapper.class)
         .to(DefaultModelGraphMapper.class);
 
+    bind(OccupancyTable.class)
+        .in(Singleton.class);
+    Provider<OccupancyTable> occupancyTableProvider = getProvider(OccupancyTable.class);
+
     switch (spConfiguration.algorithm()) {
       case DIJKSTRA:
         bind(PointRouterFactory.class)
@@ -78,11 +104,20 @@ public class DefaultRouterModule
             .to(DijkstraPointRouterFactory.class);
     }
 
+    if (spConfiguration.algorithm() == ShortestPathConfiguration.Algorithm.FLOYD_WARSHALL
+        && spConfiguration.edgeEvaluators().contains(
+            ShortestPathConfiguration.EvaluatorType.CONGESTION)) {
+      LOG.warn("Algorithm {} precomputes all routes, congestion costs will not be up to date.",
+               spConfiguration.algorithm());
+    }
+
     bind(EdgeEvaluator.class)
         .toProvider(() -> {
           EdgeEvaluatorComposite result = new EdgeEvaluatorComposite();
           for (ShortestPathConfiguration.EvaluatorType type : spConfiguration.edgeEvaluators()) {
-            result.getComponents().add(toEdgeEvaluator(type));
+            result.getComponents().add(toEdgeEvaluator(type,
+                                                       spConfiguration,
+                                                       occupancyTableProvider));
           }
           // Make sure at least one evaluator is used.
           if (result.getComponents().isEmpty()) {
@@ -94,7 +129,9 @@ public class DefaultRouterModule
   }
 
   @SuppressWarnings("deprecation")
-  private EdgeEvaluator toEdgeEvaluator(ShortestPathConfiguration.EvaluatorType type) {
+  private EdgeEvaluator toEdgeEvaluator(ShortestPathConfiguration.EvaluatorType type,
+                                        ShortestPathConfiguration spConfiguration,
+                                        Provider<OccupancyTable> occupancyTableProvider) {
     switch (type) {
       case DISTANCE:
         return new EdgeEvaluatorDistance();
@@ -106,6 +143,9 @@ public class DefaultRouterModule
         return new org.opentcs.strategies.basic.routing.jgrapht.EdgeEvaluatorExplicit();
       case EXPLICIT_PROPERTIES:
         return new EdgeEvaluatorExplicitProperties();
+      case CONGESTION:
+        return new EdgeEvaluatorCongestion(occupancyTableProvider.get(),
+                                           spConfiguration.congestionPenalty());
       default:
         throw new IllegalArgumentException("Unhandled evaluator type: " + type);
     }
@@ -11,6 +11,9 @@ import com.google.inject.multibindings.Multibinder;
 import javax.inject.Singleton;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.customizations.kernel.KernelInjectionModule;
+import org.opentcs.strategies.basic.routing.OccupancyTable;
+import org.opentcs.strategies.basic.scheduling.modules.DeadlockAvoidanceModule;
+import org.opentcs.strategies.basic.scheduling.modules.OccupancyTrackingModule;
 import org.opentcs.strategies.basic.scheduling.modules.SameDirectionBlockModule;
 import org.opentcs.strategies.basic.scheduling.modules.SingleVehicleBlockModule;
 
@@ -29,11 +32,25 @@ public class DefaultSchedulerModule
   }
 
   private void configureSchedulerDependencies() {
+    bind(DefaultSchedulerConfiguration.class)
+        .toInstance(getConfigBindingProvider().get(DefaultSchedulerConfiguration.PREFIX,
+                                                   DefaultSchedulerConfiguration.class));
+
     bind(ReservationPool.class).in(Singleton.class);
+    bind(DeferredAllocations.class).in(Singleton.class);
+    bind(AllocationMetrics.class).in(Singleton.class);
+    bind(WaitForGraph.class).in(Singleton.class);
+    bind(DeadlockResolver.class).in(Singleton.class);
+    bind(SchedulerTraceRecorder.class).in(Singleton.class);
+    // Shared with the router. Bound here, too, as the scheduler may be used without the default
+    // router - Guice ignores the identical binding if both modules are installed.
+    bind(OccupancyTable.class).in(Singleton.class);
 
     Multibinder<Scheduler.Module> moduleBinder = Multibinder.newSetBinder(binder(),
                                                                           Scheduler.Module.class);
     moduleBinder.addBinding().to(SingleVehicleBlockModule.class);
     moduleBinder.addBinding().to(SameDirectionBlockModule.class);
+    moduleBinder.addBinding().to(DeadlockAvoidanceModule.class);
+    moduleBinder.addBinding().to(OccupancyTrackingModule.class);
   }
 }
@@ -135,6 +135,65 @@ public class RerouteUtil {
     updateTransportOrder(originalOrder, newDriveOrders, vehicle);
   }
 
+  /**
+   * Replaces the route of the given vehicle's current drive order with the given one.
+   * The given route must start at the point the vehicle will be at after processing the commands
+   * already sent to it (see {@link #getFutureOrCurrentPosition(Vehicle)}) and end at the current
+   * drive order's destination point.
+   *
+   * @param vehicle The vehicle.
+   * @param newRoute The new route for the vehicle's current drive order.
+   * @return <code>true</code> if, and only if, the vehicle was rerouted. Vehicles not processing a
+   * drive order or having received all commands for it cannot be rerouted.
+   */
+  public boolean rerouteCurrentDriveOrder(Vehicle vehicle, Route newRoute) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(newRoute, "newRoute");
+
+    if (!vehicle.isProcessingOrder()
+        || !vehicle.hasProcState(Vehicle.ProcState.PROCESSING_ORDER)) {
+      LOG.debug("{} isn't processing a drive order, can't reroute it.", vehicle.getName());
+      return false;
+    }
+
+    TransportOrder originalOrder = transportOrderService.fetchObject(TransportOrder.class,
+                                                                     vehicle.getTransportOrder());
+    DriveOrder currentOrder = originalOrder.getCurrentDriveOrder();
+    Point rerouteSource = getFutureOrCurrentPosition(vehicle);
+    if (currentOrder == null || isPointDestinationOfOrder(rerouteSource, currentOrder)) {
+      LOG.debug("{} already received all commands for its drive order, can't reroute it.",
+                vehicle.getName());
+      return false;
+    }
+
+    List<DriveOrder> newDriveOrders = getUnfinishedDriveOrders(originalOrder);
+    newDriveOrders.set(0, new DriveOrder(currentOrder.getDestination())
+                       .withState(currentOrder.getState())
+                       .withTransportOrder(currentOrder.getTransportOrder())
+                       .withRoute(newRoute));
+    adjustFirstDriveOrder(newDriveOrders, vehicle, originalOrder, rerouteSource);
+
+    LOG.debug("Updating transport order {}...", originalOrder.getName());
+    updateTransportOrder(originalOrder, newDriveOrders, vehicle);
+    return true;
+  }
+
+  /**
+   * Concatenates the two given routes.
+   *
+   * @param routeA A route.
+   * @param routeB A route starting at the destination point of {@code routeA}.
+   * @return The concatenated route.
+   */
+  public Route concatenateRoutes(Route routeA, Route routeB) {
+    requireNonNull(routeA, "routeA");
+    requireNonNull(routeB, "routeB");
+
+    List<Step> steps = new ArrayList<>(routeA.getSteps());
+    steps.addAll(routeB.getSteps());
+    return new Route(updateRouteIndices(steps), routeA.getCosts() + routeB.getCosts());
+  }
+
   private void adjustFirstDriveOrder(List<DriveOrder> newDriveOrders,
                                      Vehicle vehicle,
                                      TransportOrder originalOrder,
@@ -242,6 +301,44 @@ public class RerouteUtil {
     return optDriveOrders;
   }
 
+  /**
+   * Returns the cheapest of the given number of alternative routes between the given points that
+   * does not contain any blocked step.
+   *
+   * @param vehicle The vehicle to find a route for.
+   * @param sourcePoint The source point.
+   * @param destinationPoint The destination point.
+   * @param blockedTest Tests whether a step is blocked, e.g. because its resources are currently
+   * allocated by another vehicle.
+   * @param maxRouteCount The maximum number of alternative routes to be considered.
+   * @return The cheapest route without any blocked step, or an empty optional, if every route
+   * considered contains a blocked step.
+   */
+  public Optional<Route> findUnblockedRoute(Vehicle vehicle,
+                                            Point sourcePoint,
+                                            Point destinationPoint,
+                                            Predicate<Step> blockedTest,
+                                            int maxRouteCount) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoint, "destinationPoint");
+    requireNonNull(blockedTest, "blockedTest");
+
+    // The routes are ordered by their costs, so the first unblocked one is the cheapest.
+    Optional<Route> result = router.getRoutes(vehicle,
+                                              sourcePoint,
+                                              destinationPoint,
+                                              maxRouteCount).stream()
+        .filter(route -> route.getSteps().stream().noneMatch(blockedTest))
+        .findFirst();
+    LOG.debug("Unblocked route for {} from {} to {}: {}",
+              vehicle.getName(),
+              sourcePoint.getName(),
+              destinationPoint.getName(),
+              result);
+    return result;
+  }
+
   /**
    * Returns the steps the given vehicle will process in the future after processing the commands
    * that have been already sent to it.
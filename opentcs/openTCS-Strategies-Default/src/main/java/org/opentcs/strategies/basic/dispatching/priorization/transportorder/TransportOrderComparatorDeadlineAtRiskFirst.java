@@ -10,6 +10,7 @@ package org.opentcs.strategies.basic.dispatching.priorization.transportorder;
 import java.util.Comparator;
 import static java.util.Objects.requireNonNull;
 import javax.inject.Inject;
+import org.opentcs.common.SimulationClock;
 import org.opentcs.data.order.TransportOrder;
 import org.opentcs.strategies.basic.dispatching.DefaultDispatcherConfiguration;
 
@@ -33,12 +34,18 @@ public class TransportOrderComparatorDeadlineAtRiskFirst
    * The time window (in ms) before its deadline in which an order becomes urgent.
    */
   private final long deadlineAtRiskPeriod;
+  /**
+   * Provides the current time, to which the deadlines are compared.
+   */
+  private final SimulationClock clock;
 
   @Inject
-  public TransportOrderComparatorDeadlineAtRiskFirst(DefaultDispatcherConfiguration configuration) {
+  public TransportOrderComparatorDeadlineAtRiskFirst(DefaultDispatcherConfiguration configuration,
+                                                     SimulationClock clock) {
     requireNonNull(configuration, "configuration");
 
     this.deadlineAtRiskPeriod = configuration.deadlineAtRiskPeriod();
+    this.clock = requireNonNull(clock, "clock");
   }
 
   /**
@@ -69,7 +76,7 @@ public class TransportOrderComparatorDeadlineAtRiskFirst
   }
 
   private boolean deadlineAtRisk(TransportOrder order) {
-    return order.getDeadline() - deadlineAtRiskPeriod < System.currentTimeMillis();
+    return order.getDeadline() - deadlineAtRiskPeriod < clock.millis();
   }
 
 }
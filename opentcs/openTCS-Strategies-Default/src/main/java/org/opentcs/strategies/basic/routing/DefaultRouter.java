@@ -7,7 +7,6 @@
  */
 package org.opentcs.strategies.basic.routing;
 
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -18,6 +17,13 @@ import static java.util.Objects.requireNonNull;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import javax.inject.Inject;
@@ -27,6 +33,7 @@ import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Location;
 import org.opentcs.data.model.Location.Link;
 import org.opentcs.data.model.LocationType;
+import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.DriveOrder;
@@ -65,6 +72,10 @@ public class DefaultRouter
    * A builder for constructing our routing tables.
    */
   private final PointRouterFactory pointRouterFactory;
+  /**
+   * Keeps track of the vehicles using points and paths.
+   */
+  private final OccupancyTable occupancyTable;
   /**
    * The routes selected for each vehicle.
    */
@@ -77,6 +88,19 @@ public class DefaultRouter
    * Prevents reading from the routing tables and planned routes while updating them.
    */
   private final ReadWriteLock rwLock = new ReentrantReadWriteLock();
+  /**
+   * Creates point routers for different routing groups concurrently.
+   */
+  private final ThreadPoolExecutor routingTableBuilder;
+  /**
+   * The number of the most recently started update of the routing tables.
+   */
+  private final AtomicLong latestUpdate = new AtomicLong();
+  /**
+   * The number of the update whose point routers are currently used.
+   * Guarded by the write lock.
+   */
+  private long installedUpdate;
   /**
    * Indicates whether this component is enabled.
    */
@@ -87,15 +111,37 @@ public class DefaultRouter
    *
    * @param objectService The object service providing the model data.
    * @param pointRouterFactory A factory for point routers.
+   * @param occupancyTable Keeps track of the vehicles using points and paths.
    * @param configuration This class's configuration.
    */
   @Inject
   public DefaultRouter(TCSObjectService objectService,
                        PointRouterFactory pointRouterFactory,
+                       OccupancyTable occupancyTable,
                        DefaultRouterConfiguration configuration) {
     this.objectService = requireNonNull(objectService, "objectService");
     this.pointRouterFactory = requireNonNull(pointRouterFactory, "pointRouterFactory");
+    this.occupancyTable = requireNonNull(occupancyTable, "occupancyTable");
     this.configuration = requireNonNull(configuration, "configuration");
+
+    int threadCount = configuration.routingTableBuilderThreads() > 0
+        ? configuration.routingTableBuilderThreads()
+        : Runtime.getRuntime().availableProcessors();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.routingTableBuilder = new ThreadPoolExecutor(
+        threadCount,
+        threadCount,
+        60,
+        TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        runnable -> {
+          Thread thread = new Thread(runnable,
+                                     "routingTableBuilder-" + threadNumber.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        });
+    // Routing tables are updated rarely, so don't keep idle threads around.
+    routingTableBuilder.allowCoreThreadTimeOut(true);
   }
 
   @Override
@@ -106,6 +152,7 @@ public class DefaultRouter
     try {
       rwLock.writeLock().lock();
       routesByVehicle.clear();
+      occupancyTable.clear();
       updateRoutingTables();
       initialized = true;
     }
@@ -127,6 +174,7 @@ public class DefaultRouter
     try {
       rwLock.writeLock().lock();
       routesByVehicle.clear();
+      occupancyTable.clear();
       pointRoutersByVehicleGroup.clear();
       initialized = false;
     }
@@ -138,16 +186,23 @@ public class DefaultRouter
   @Override
   @Deprecated
   public void updateRoutingTables() {
+    // Build the new point routers without holding the lock, so routing queries can still be
+    // answered using the previous ones in the meantime.
+    long update = latestUpdate.incrementAndGet();
+    Map<String, PointRouter> newPointRouters = createPointRouters();
+
     try {
       rwLock.writeLock().lock();
-      pointRoutersByVehicleGroup.clear();
-      for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
-        String currentGroup = getRoutingGroupOfVehicle(curVehicle);
-        if (!pointRoutersByVehicleGroup.containsKey(currentGroup)) {
-          pointRoutersByVehicleGroup.put(currentGroup,
-                                         pointRouterFactory.createPointRouter(curVehicle));
-        }
+      // With concurrent updates, do not replace point routers built from a more recent model.
+      if (update < installedUpdate) {
+        LOG.debug("Discarding point routers of update {}, update {} is already installed.",
+                  update,
+                  installedUpdate);
+        return;
       }
+      installedUpdate = update;
+      pointRoutersByVehicleGroup.clear();
+      pointRoutersByVehicleGroup.putAll(newPointRouters);
       LOG.debug("Number of point routers created: {}", pointRoutersByVehicleGroup.size());
     }
     finally {
@@ -236,6 +291,25 @@ public class DefaultRouter
     }
   }
 
+  @Override
+  public List<Route> getRoutes(Vehicle vehicle,
+                               Point sourcePoint,
+                               Point destinationPoint,
+                               int maxRouteCount) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoint, "destinationPoint");
+
+    try {
+      rwLock.readLock().lock();
+      return pointRoutersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle))
+          .getRoutes(sourcePoint, destinationPoint, maxRouteCount);
+    }
+    finally {
+      rwLock.readLock().unlock();
+    }
+  }
+
   @Override
   public long getCosts(Vehicle vehicle,
                        Point sourcePoint,
@@ -286,14 +360,18 @@ public class DefaultRouter
       // Get all attached links for source and destination
       Set<Link> srcLinks = objectService.fetchObject(Location.class, srcRef).getAttachedLinks();
       Set<Link> destLinks = objectService.fetchObject(Location.class, destRef).getAttachedLinks();
+      PointRouter pointRouter = pointRoutersByVehicleGroup.get(getRoutingGroupOfVehicle(vehicle));
 
-      // Find the cheapest destination link to be used
+      Set<Point> destPoints = new HashSet<>();
+      for (Link destLink : destLinks) {
+        destPoints.add(objectService.fetchObject(Point.class, destLink.getPoint()));
+      }
+
+      // Find the cheapest destination link to be used, with a single search per source link
       long costs = Long.MAX_VALUE;
       for (Link srcLink : srcLinks) {
-        for (Link destLink : destLinks) {
-          long linkCosts = getCosts(vehicle,
-                                    objectService.fetchObject(Point.class, srcLink.getPoint()),
-                                    objectService.fetchObject(Point.class, destLink.getPoint()));
+        Point srcPoint = objectService.fetchObject(Point.class, srcLink.getPoint());
+        for (long linkCosts : pointRouter.getCosts(srcPoint, destPoints).values()) {
           costs = Math.min(costs, linkCosts);
         }
       }
@@ -317,6 +395,7 @@ public class DefaultRouter
       else {
         routesByVehicle.put(vehicle, driveOrders);
       }
+      occupancyTable.routeSelected(vehicle.getName(), driveOrders);
     }
     finally {
       rwLock.writeLock().unlock();
@@ -372,11 +451,13 @@ public class DefaultRouter
     assert pointRouter != null;
 
     if (nextHopIndex < driveOrders.length) {
-      for (Point curPoint : getDestinationPoints(driveOrders[nextHopIndex])) {
+      Map<Point, Long> costsByPoint
+          = pointRouter.getCosts(startPoint, getDestinationPoints(driveOrders[nextHopIndex]));
+      for (Map.Entry<Point, Long> curEntry : costsByPoint.entrySet()) {
         // Check if there is a route from the starting point to the current
         // point and if the rest of the orders are routable from there, too.
-        if (pointRouter.getCosts(startPoint, curPoint) != INFINITE_COSTS
-            && isRoutable(curPoint, driveOrders, nextHopIndex + 1, pointRouter)) {
+        if (curEntry.getValue() != INFINITE_COSTS
+            && isRoutable(curEntry.getKey(), driveOrders, nextHopIndex + 1, pointRouter)) {
           // If it was possible to reach the end of the order list from here,
           // propagate the result back to the caller.
           return true;
@@ -420,33 +501,17 @@ public class DefaultRouter
         destPoints.add(startPoint);
       }
       boolean routable = false;
-      for (Point curDestPoint : destPoints) {
-        final long hopCosts = params.pointRouter.getCosts(startPoint, curDestPoint);
-        if (hopCosts == INFINITE_COSTS) {
-          continue;
-        }
-        // Get the list of steps for the route of the current drive order.
-        List<Route.Step> steps = params.pointRouter.getRouteSteps(startPoint, curDestPoint);
-        if (steps.isEmpty()) {
-          // If the list of steps returned is empty, we're already at the
-          // destination point of the drive order - create a single step
-          // without a path.
-          steps = new ArrayList<>(1);
-          steps.add(new Route.Step(null,
-                                   null,
-                                   startPoint,
-                                   Vehicle.Orientation.UNDEFINED,
-                                   0));
-        }
-        // Create a route from the list of steps gathered.
-        Route hopRoute = new Route(steps, hopCosts);
+      // Compute the routes to all possible destination points at once.
+      Map<Point, Route> routesByDestPoint = params.pointRouter.getRoutes(startPoint, destPoints);
+      for (Map.Entry<Point, Route> curEntry : routesByDestPoint.entrySet()) {
+        Route hopRoute = curEntry.getValue();
         // Copy the current drive order, add the computed route to it and
         // place it in the result struct.
         DriveOrder hopOrder = params.driveOrders[hopIndex].withRoute(hopRoute);
         result.currentRoute[hopIndex] = hopOrder;
         // Calculate the costs for the route so far, too.
         result.currentCosts = currentRouteCosts + hopRoute.getCosts();
-        computeCheapestOrderRoute(curDestPoint, params, hopIndex + 1, result);
+        computeCheapestOrderRoute(curEntry.getKey(), params, hopIndex + 1, result);
         // Remember that we did find at least one route that works.
         routable = true;
       }
@@ -521,6 +586,65 @@ public class DefaultRouter
     }
   }
 
+  /**
+   * Creates a point router for every routing group, using one vehicle of the respective group.
+   * Point routers for different groups are created concurrently.
+   * <p>
+   * The model data is retrieved once by the calling thread, as it may hold the kernel's global
+   * lock, which the worker threads would then wait for.
+   * </p>
+   *
+   * @return The point routers, by routing group.
+   */
+  private Map<String, PointRouter> createPointRouters() {
+    Map<String, Vehicle> vehiclesByGroup = new HashMap<>();
+    for (Vehicle curVehicle : objectService.fetchObjects(Vehicle.class)) {
+      vehiclesByGroup.putIfAbsent(getRoutingGroupOfVehicle(curVehicle), curVehicle);
+    }
+    Set<Point> points = objectService.fetchObjects(Point.class);
+    Set<Path> paths = objectService.fetchObjects(Path.class);
+
+    Map<String, PointRouter> result = new HashMap<>();
+    if (vehiclesByGroup.size() <= 1) {
+      for (Map.Entry<String, Vehicle> entry : vehiclesByGroup.entrySet()) {
+        result.put(entry.getKey(),
+                   pointRouterFactory.createPointRouter(entry.getValue(), points, paths));
+      }
+      return result;
+    }
+
+    Map<String, Future<PointRouter>> futures = new HashMap<>();
+    try {
+      for (Map.Entry<String, Vehicle> entry : vehiclesByGroup.entrySet()) {
+        futures.put(entry.getKey(),
+                    routingTableBuilder.submit(
+                        () -> pointRouterFactory.createPointRouter(entry.getValue(),
+                                                                   points,
+                                                                   paths)));
+      }
+      for (Map.Entry<String, Future<PointRouter>> entry : futures.entrySet()) {
+        result.put(entry.getKey(), entry.getValue().get());
+      }
+      return result;
+    }
+    catch (InterruptedException exc) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while creating point routers", exc);
+    }
+    catch (ExecutionException exc) {
+      if (exc.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) exc.getCause();
+      }
+      throw new IllegalStateException("Exception creating point routers", exc.getCause());
+    }
+    finally {
+      // Don't keep the builder threads busy with results nobody waits for.
+      for (Future<PointRouter> future : futures.values()) {
+        future.cancel(true);
+      }
+    }
+  }
+
   /**
    * Returns all vehicles within the given routing group.
    *
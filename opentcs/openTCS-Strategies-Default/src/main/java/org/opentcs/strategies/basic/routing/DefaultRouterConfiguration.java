@@ -28,4 +28,12 @@ public interface DefaultRouterConfiguration {
       description = "Whether to compute a route even if the vehicle is already at the destination.")
   boolean routeToCurrentPosition();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of threads building the routing tables of different routing groups "
+        + "concurrently.",
+        "If 0, the number of available processors is used."})
+  int routingTableBuilderThreads();
+
 }
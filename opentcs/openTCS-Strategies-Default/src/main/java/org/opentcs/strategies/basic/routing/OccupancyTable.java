@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+
+/**
+ * Keeps track of the vehicles using points and paths, either because the resources are part of a
+ * vehicle's selected route or because they are currently allocated by it.
+ * <p>
+ * The table is updated incrementally, i.e. with every update only the resources of the affected
+ * vehicle are touched.
+ * Reading the usage of a resource does not block.
+ * </p>
+ */
+public class OccupancyTable {
+
+  /**
+   * The names of the resources on each vehicle's selected route, by vehicle name.
+   */
+  private final Map<String, Set<String>> routedResources = new HashMap<>();
+  /**
+   * The names of the resources currently allocated by each vehicle, by vehicle name.
+   */
+  private final Map<String, Set<String>> allocatedResources = new HashMap<>();
+  /**
+   * For each resource name, the names of the vehicles using it, along with the number of sources
+   * (route and/or allocation) the usage stems from.
+   */
+  private final ConcurrentMap<String, ConcurrentMap<String, Integer>> usersByResource
+      = new ConcurrentHashMap<>();
+
+  /**
+   * Creates a new instance.
+   */
+  @Inject
+  public OccupancyTable() {
+  }
+
+  /**
+   * Returns the number of vehicles using the resource with the given name.
+   *
+   * @param resourceName The name of the resource.
+   * @param excludedVehicle The name of a vehicle not to be counted, or <code>null</code>.
+   * @return The number of vehicles using the resource.
+   */
+  public int getUsage(@Nonnull String resourceName, @Nullable String excludedVehicle) {
+    requireNonNull(resourceName, "resourceName");
+
+    Map<String, Integer> users = usersByResource.get(resourceName);
+    if (users == null) {
+      return 0;
+    }
+    int result = users.size();
+    if (excludedVehicle != null && users.containsKey(excludedVehicle)) {
+      result--;
+    }
+    return result;
+  }
+
+  /**
+   * Sets the route selected for the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param driveOrders The drive orders encapsulating the route, or <code>null</code>, if the
+   * vehicle does not have a route any more.
+   */
+  public synchronized void routeSelected(@Nonnull String vehicleName,
+                                         @Nullable List<DriveOrder> driveOrders) {
+    requireNonNull(vehicleName, "vehicleName");
+
+    Set<String> resources = new HashSet<>();
+    if (driveOrders != null) {
+      for (DriveOrder driveOrder : driveOrders) {
+        if (driveOrder.getRoute() == null) {
+          continue;
+        }
+        for (Route.Step step : driveOrder.getRoute().getSteps()) {
+          if (step.getPath() != null) {
+            resources.add(step.getPath().getName());
+          }
+          resources.add(step.getDestinationPoint().getName());
+        }
+      }
+    }
+    replace(routedResources, vehicleName, resources);
+  }
+
+  /**
+   * Sets the resources currently allocated by the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param resourceNames The names of the allocated resources.
+   */
+  public synchronized void allocationsChanged(@Nonnull String vehicleName,
+                                              @Nonnull Collection<String> resourceNames) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(resourceNames, "resourceNames");
+
+    replace(allocatedResources, vehicleName, new HashSet<>(resourceNames));
+  }
+
+  /**
+   * Adds the given resources to the ones allocated by the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param resourceNames The names of the newly allocated resources.
+   */
+  public synchronized void resourcesAllocated(@Nonnull String vehicleName,
+                                              @Nonnull Collection<String> resourceNames) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(resourceNames, "resourceNames");
+
+    Set<String> resources = allocatedResources.computeIfAbsent(vehicleName, n -> new HashSet<>());
+    for (String resourceName : resourceNames) {
+      if (resources.add(resourceName)) {
+        addUser(resourceName, vehicleName);
+      }
+    }
+  }
+
+  /**
+   * Removes the given resources from the ones allocated by the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param resourceNames The names of the released resources.
+   */
+  public synchronized void resourcesReleased(@Nonnull String vehicleName,
+                                             @Nonnull Collection<String> resourceNames) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(resourceNames, "resourceNames");
+
+    Set<String> resources = allocatedResources.get(vehicleName);
+    if (resources == null) {
+      return;
+    }
+    for (String resourceName : resourceNames) {
+      if (resources.remove(resourceName)) {
+        removeUser(resourceName, vehicleName);
+      }
+    }
+  }
+
+  /**
+   * Removes all entries from this table.
+   */
+  public synchronized void clear() {
+    routedResources.clear();
+    allocatedResources.clear();
+    usersByResource.clear();
+  }
+
+  private void replace(Map<String, Set<String>> resourcesByVehicle,
+                       String vehicleName,
+                       Set<String> newResources) {
+    Set<String> oldResources = newResources.isEmpty()
+        ? resourcesByVehicle.remove(vehicleName)
+        : resourcesByVehicle.put(vehicleName, newResources);
+    if (oldResources == null) {
+      oldResources = new HashSet<>();
+    }
+
+    for (String resourceName : oldResources) {
+      if (!newResources.contains(resourceName)) {
+        removeUser(resourceName, vehicleName);
+      }
+    }
+    for (String resourceName : newResources) {
+      if (!oldResources.contains(resourceName)) {
+        addUser(resourceName, vehicleName);
+      }
+    }
+  }
+
+  private void addUser(String resourceName, String vehicleName) {
+    usersByResource.computeIfAbsent(resourceName, n -> new ConcurrentHashMap<>())
+        .merge(vehicleName, 1, Integer::sum);
+  }
+
+  private void removeUser(String resourceName, String vehicleName) {
+    ConcurrentMap<String, Integer> users = usersByResource.get(resourceName);
+    if (users == null) {
+      return;
+    }
+    users.computeIfPresent(vehicleName, (name, count) -> count > 1 ? count - 1 : null);
+    if (users.isEmpty()) {
+      usersByResource.remove(resourceName, users);
+    }
+  }
+}
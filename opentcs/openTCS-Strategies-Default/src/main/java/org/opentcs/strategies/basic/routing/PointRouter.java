@@ -7,10 +7,16 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static java.util.Objects.requireNonNull;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
 import org.opentcs.data.order.Route;
 
 /**
@@ -69,4 +75,75 @@ public interface PointRouter {
 
     return getCosts(srcPoint.getReference(), destPoint.getReference());
   }
+
+  /**
+   * Returns the costs for travelling the shortest routes from one point to each of the given
+   * destination points.
+   * Implementations should answer this with a single search instead of one per destination point.
+   *
+   * @param srcPoint The starting point.
+   * @param destPoints The destination points.
+   * @return The costs for travelling from the starting point to each of the destination points.
+   * If no route to a destination point exists, its costs are {@link #INFINITE_COSTS INFINITE_COSTS}.
+   */
+  default Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      result.put(destPoint, getCosts(srcPoint, destPoint));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the shortest routes from one point to each of the given destination points.
+   * Implementations should answer this with a single search instead of one per destination point.
+   *
+   * @param srcPoint The starting point.
+   * @param destPoints The destination points.
+   * @return The routes from the starting point to the destination points, by destination point.
+   * Destination points to which no route exists are not contained.
+   * If a destination point is the starting point, its route consists of a single step without a
+   * path.
+   */
+  default Map<Point, Route> getRoutes(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    Map<Point, Route> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      long costs = getCosts(srcPoint, destPoint);
+      if (costs == INFINITE_COSTS) {
+        continue;
+      }
+      List<Route.Step> steps = getRouteSteps(srcPoint, destPoint);
+      if (steps.isEmpty()) {
+        steps = new ArrayList<>(1);
+        steps.add(new Route.Step(null, null, srcPoint, Vehicle.Orientation.UNDEFINED, 0));
+      }
+      result.put(destPoint, new Route(steps, costs));
+    }
+    return result;
+  }
+
+  /**
+   * Returns up to the given number of loopless routes from one point to another, ordered by their
+   * costs.
+   *
+   * @param srcPoint The starting point.
+   * @param destPoint The destination point.
+   * @param maxRouteCount The maximum number of routes to be returned.
+   * @return The routes, cheapest first. If no route exists, the returned list is empty.
+   * If source point and destination point are identical, the returned list contains a single route
+   * consisting of a single step without a path.
+   */
+  default List<Route> getRoutes(Point srcPoint, Point destPoint, int maxRouteCount) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+
+    Route route = getRoutes(srcPoint, Collections.singleton(destPoint)).get(destPoint);
+    return route == null ? Collections.emptyList() : Collections.singletonList(route);
+  }
 }
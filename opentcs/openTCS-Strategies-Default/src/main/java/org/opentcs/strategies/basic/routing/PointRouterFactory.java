@@ -7,6 +7,9 @@
  */
 package org.opentcs.strategies.basic.routing;
 
+import java.util.Collection;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
 
 /**
@@ -23,4 +26,18 @@ public interface PointRouterFactory {
    * @return The point router.
    */
   PointRouter createPointRouter(Vehicle vehicle);
+
+  /**
+   * Creates a point router for the given vehicle and the given model elements.
+   * <p>
+   * Implementations must not retrieve any model data themselves, as this method may be called from
+   * worker threads while the calling thread holds the kernel's global lock.
+   * </p>
+   *
+   * @param vehicle The vehicle.
+   * @param points The points of the model.
+   * @param paths The paths of the model.
+   * @return The point router.
+   */
+  PointRouter createPointRouter(Vehicle vehicle, Collection<Point> points, Collection<Path> paths);
 }
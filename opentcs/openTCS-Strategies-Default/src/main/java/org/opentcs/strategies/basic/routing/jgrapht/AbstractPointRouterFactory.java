@@ -19,8 +19,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
+import java.util.Collection;
 import java.util.Iterator;
-import java.util.Set;
 
 import static java.util.Objects.requireNonNull;
 
@@ -61,14 +61,26 @@ public abstract class AbstractPointRouterFactory
   public PointRouter createPointRouter(Vehicle vehicle) {
     requireNonNull(vehicle, "vehicle");
 
+    return createPointRouter(vehicle,
+                             objectService.fetchObjects(Point.class),
+                             objectService.fetchObjects(Path.class));
+  }
+
+  @Override
+  public PointRouter createPointRouter(Vehicle vehicle,
+                                       Collection<Point> points,
+                                       Collection<Path> paths) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
     long timeStampBefore = System.currentTimeMillis();
 
-    Set<Point> points = objectService.fetchObjects(Point.class);
-    Graph<String, ModelEdge> graph = mapper.translateModel(points,
-                                                           objectService.fetchObjects(Path.class),
-                                                           vehicle);
+    Graph<String, ModelEdge> graph = mapper.translateModel(points, paths, vehicle);
 
-    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph), points);
+    PointRouter router = new ShortestPathPointRouter(createShortestPathAlgorithm(graph, vehicle),
+                                                     graph,
+                                                     points);
     // Make a single request for a route from one point to a different one to make sure the
     // point router is primed. (Some implementations are initialized lazily.)
     if (points.size() >= 2) {
@@ -91,4 +103,19 @@ public abstract class AbstractPointRouterFactory
    */
   protected abstract ShortestPathAlgorithm<String, ModelEdge> createShortestPathAlgorithm(
       Graph<String, ModelEdge> graph);
+
+  /**
+   * Returns a shortest path algorithm implementation working on the given graph, which was created
+   * for the given vehicle.
+   * By default, delegates to {@link #createShortestPathAlgorithm(org.jgrapht.Graph)}.
+   *
+   * @param graph The graph.
+   * @param vehicle The vehicle the graph was created for.
+   * @return A shortest path algorithm implementation working on the given graph.
+   */
+  protected ShortestPathAlgorithm<String, ModelEdge> createShortestPathAlgorithm(
+      Graph<String, ModelEdge> graph,
+      Vehicle vehicle) {
+    return createShortestPathAlgorithm(graph);
+  }
 }
@@ -8,11 +8,11 @@
 package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.Collection;
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.jgrapht.Graph;
-import org.jgrapht.graph.DirectedWeightedMultigraph;
 import org.opentcs.data.model.Path;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
@@ -39,6 +39,10 @@ public class DefaultModelGraphMapper
    * The configuration.
    */
   private final ShortestPathConfiguration configuration;
+  /**
+   * The topology shared by the graphs of all vehicles.
+   */
+  private ModelGraphTopology topology;
 
   /**
    * Creates a new instance.
@@ -61,60 +65,59 @@ public class DefaultModelGraphMapper
     requireNonNull(paths, "paths");
     requireNonNull(vehicle, "vehicle");
 
-    Graph<String, ModelEdge> graph = new DirectedWeightedMultigraph<>(ModelEdge.class);
-
-    for (Point point : points) {
-      graph.addVertex(point.getName());
-    }
+    ModelGraphTopology currentTopology = getTopology(points, paths);
+    List<ModelEdge> edges = currentTopology.getEdges();
+    double[] weights = edgeEvaluator.computeWeights(edges, vehicle);
 
     boolean allowNegativeEdgeWeights = configuration.algorithm().isHandlingNegativeCosts();
 
-    for (Path path : paths) {
+    for (ModelEdge edge : edges) {
+      int index = edge.getIndex();
 
-      if (shouldAddForwardEdge(path, vehicle)) {
-        ModelEdge edge = new ModelEdge(path, false);
-        double weight = edgeEvaluator.computeWeight(edge, vehicle);
-
-        if (weight < 0 && !allowNegativeEdgeWeights) {
-          LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
-                   edge,
-                   weight,
-                   configuration.algorithm().name());
-        }
-        else {
-          graph.addEdge(path.getSourcePoint().getName(),
-                        path.getDestinationPoint().getName(),
-                        edge);
-          graph.setEdgeWeight(edge, weight);
-        }
+      if (edge.isTravellingReverse()
+          ? !shouldAddReverseEdge(edge.getModelPath(), vehicle)
+          : !shouldAddForwardEdge(edge.getModelPath(), vehicle)) {
+        weights[index] = Double.NaN;
       }
-
-      if (shouldAddReverseEdge(path, vehicle)) {
-        ModelEdge edge = new ModelEdge(path, true);
-        double weight = edgeEvaluator.computeWeight(edge, vehicle);
-
-        if (weight < 0 && !allowNegativeEdgeWeights) {
-          LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
-                   edge,
-                   weight,
-                   configuration.algorithm().name());
-        }
-        else {
-          graph.addEdge(path.getDestinationPoint().getName(),
-                        path.getSourcePoint().getName(),
-                        edge);
-          graph.setEdgeWeight(edge, weight);
-        }
+      else if (weights[index] < 0 && !allowNegativeEdgeWeights) {
+        LOG.warn("Edge {} with weight {} ignored. Algorithm {} cannot handle negative weights.",
+                 edge,
+                 weights[index],
+                 configuration.algorithm().name());
+        weights[index] = Double.NaN;
       }
+    }
 
+    if (!edgeEvaluator.isDynamic()) {
+      return currentTopology.withWeights(weights);
     }
+    return currentTopology.withWeights(weights,
+                                       edge -> edgeEvaluator.computeDynamicWeight(edge, vehicle));
+  }
 
-    return graph;
+  /**
+   * Returns the topology for the given points and paths, reusing the one created for a previous
+   * call if the model has not changed since.
+   *
+   * @param points The points of the model.
+   * @param paths The paths of the model.
+   * @return The topology for the given points and paths.
+   */
+  private synchronized ModelGraphTopology getTopology(Collection<Point> points,
+                                                      Collection<Path> paths) {
+    if (topology == null || !topology.isBasedOn(points, paths)) {
+      LOG.debug("Creating graph topology for {} points and {} paths.",
+                points.size(),
+                paths.size());
+      topology = new ModelGraphTopology(points, paths);
+    }
+    return topology;
   }
 
   /**
    * Returns <code>true</code> if and only if the graph should contain an edge from the source
    * of the path to its destination for the given vehicle.
+   * Only paths navigable in forward direction are considered.
    *
    * @param path The path
    * @param vehicle The vehicle
@@ -127,6 +130,7 @@ public class DefaultModelGraphMapper
   /**
    * Returns <code>true</code> if and only if the graph should contain an edge from the destination
    * of the path to its source for the given vehicle.
+   * Only paths navigable in reverse direction are considered.
    *
    * @param path The path
    * @param vehicle The vehicle
@@ -7,6 +7,7 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import java.util.List;
 import org.opentcs.data.model.Vehicle;
 
 /**
@@ -17,4 +18,49 @@ import org.opentcs.data.model.Vehicle;
 public interface EdgeEvaluator {
 
   double computeWeight(ModelEdge edge, Vehicle vehicle);
+
+  /**
+   * Computes the weights of the given edges at once.
+   * <p>
+   * For dynamic evaluators, the returned weights are all zero, as their weights are added only
+   * when requested during a route computation.
+   * </p>
+   *
+   * @param edges The edges, ordered by their indices.
+   * @param vehicle The vehicle for which to compute the weights.
+   * @return The edges' weights, in the order of the given edges.
+   */
+  default double[] computeWeights(List<ModelEdge> edges, Vehicle vehicle) {
+    double[] result = new double[edges.size()];
+    if (isDynamic()) {
+      return result;
+    }
+    for (int i = 0; i < result.length; i++) {
+      result[i] = computeWeight(edges.get(i), vehicle);
+    }
+    return result;
+  }
+
+  /**
+   * Indicates whether the weights computed by this evaluator depend on the current state of the
+   * plant (e.g. on other vehicles' routes) instead of the plant model only.
+   * Weights of dynamic evaluators are not compiled into a routing graph but computed whenever a
+   * route is computed.
+   *
+   * @return <code>true</code> if, and only if, this evaluator is dynamic.
+   */
+  default boolean isDynamic() {
+    return false;
+  }
+
+  /**
+   * Computes the current dynamic share of an edge's weight.
+   *
+   * @param edge The edge.
+   * @param vehicle The vehicle for which to compute the weight.
+   * @return The dynamic share of the edge's weight.
+   */
+  default double computeDynamicWeight(ModelEdge edge, Vehicle vehicle) {
+    return isDynamic() ? computeWeight(edge, vehicle) : 0.0;
+  }
 }
@@ -8,6 +8,7 @@
 package org.opentcs.strategies.basic.routing.jgrapht;
 
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import org.opentcs.data.model.Vehicle;
 
@@ -39,6 +40,35 @@ public class EdgeEvaluatorComposite
     return result;
   }
 
+  @Override
+  public double[] computeWeights(List<ModelEdge> edges, Vehicle vehicle) {
+    double[] result = new double[edges.size()];
+    for (EdgeEvaluator component : components) {
+      if (component.isDynamic()) {
+        continue;
+      }
+      double[] componentWeights = component.computeWeights(edges, vehicle);
+      for (int i = 0; i < result.length; i++) {
+        result[i] += componentWeights[i];
+      }
+    }
+    return result;
+  }
+
+  @Override
+  public boolean isDynamic() {
+    return components.stream().anyMatch(component -> component.isDynamic());
+  }
+
+  @Override
+  public double computeDynamicWeight(ModelEdge edge, Vehicle vehicle) {
+    double result = 0.0;
+    for (EdgeEvaluator component : components) {
+      result += component.computeDynamicWeight(edge, vehicle);
+    }
+    return result;
+  }
+
   /**
    * Returns the {@link EdgeEvaluator}s that make up this composite.
    *
@@ -0,0 +1,64 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.strategies.basic.routing.OccupancyTable;
+
+/**
+ * Uses a penalty for every other vehicle currently using an edge's path or its destination point as
+ * the edge's weight.
+ * <p>
+ * The weights are dynamic, i.e. they are computed whenever a route is computed.
+ * (Note that shortest path algorithms precomputing all routes, e.g. Floyd-Warshall, will only see
+ * the weights at the time the routing tables were built.)
+ * </p>
+ */
+public class EdgeEvaluatorCongestion
+    implements EdgeEvaluator {
+
+  /**
+   * Keeps track of the vehicles using points and paths.
+   */
+  private final OccupancyTable occupancyTable;
+  /**
+   * The penalty for every vehicle using a resource.
+   */
+  private final double penalty;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param occupancyTable Keeps track of the vehicles using points and paths.
+   * @param penalty The penalty for every vehicle using a resource.
+   */
+  public EdgeEvaluatorCongestion(@Nonnull OccupancyTable occupancyTable, double penalty) {
+    this.occupancyTable = requireNonNull(occupancyTable, "occupancyTable");
+    this.penalty = penalty;
+  }
+
+  @Override
+  public double computeWeight(ModelEdge edge, Vehicle vehicle) {
+    Path path = edge.getModelPath();
+    String destinationPointName = edge.isTravellingReverse()
+        ? path.getSourcePoint().getName()
+        : path.getDestinationPoint().getName();
+
+    int usage = occupancyTable.getUsage(path.getName(), vehicle.getName())
+        + occupancyTable.getUsage(destinationPointName, vehicle.getName());
+    return usage * penalty;
+  }
+
+  @Override
+  public boolean isDynamic() {
+    return true;
+  }
+}
@@ -7,6 +7,7 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import java.util.List;
 import static java.util.Objects.requireNonNull;
 import static org.opentcs.components.kernel.Router.PROPKEY_ROUTING_COST_FORWARD;
 import static org.opentcs.components.kernel.Router.PROPKEY_ROUTING_COST_REVERSE;
@@ -50,6 +51,27 @@ public class EdgeEvaluatorExplicitProperties
     }
   }
 
+  @Override
+  public double[] computeWeights(List<ModelEdge> edges, Vehicle vehicle) {
+    requireNonNull(edges, "edges");
+    requireNonNull(vehicle, "vehicle");
+
+    // The property keys are the same for all edges, so determine them only once.
+    String group = extractVehicleGroup(vehicle);
+    String forwardKey = PROPKEY_ROUTING_COST_FORWARD + group;
+    String reverseKey = PROPKEY_ROUTING_COST_REVERSE + group;
+
+    double[] result = new double[edges.size()];
+    for (int i = 0; i < result.length; i++) {
+      ModelEdge edge = edges.get(i);
+      result[i] = parseCosts(extractRoutingCostString(edge.getModelPath(),
+                                                      edge.isTravellingReverse()
+                                                      ? reverseKey
+                                                      : forwardKey));
+    }
+    return result;
+  }
+
   private String extractVehicleGroup(Vehicle vehicle) {
     String group = vehicle.getProperty(PROPKEY_ROUTING_GROUP);
 
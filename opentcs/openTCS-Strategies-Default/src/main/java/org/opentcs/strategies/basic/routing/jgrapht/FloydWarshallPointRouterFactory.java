@@ -7,13 +7,18 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import static java.util.Objects.requireNonNull;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
 import org.jgrapht.Graph;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
 import org.jgrapht.alg.shortestpath.FloydWarshallShortestPaths;
+import org.opentcs.components.kernel.Router;
 import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Vehicle;
 import org.opentcs.strategies.basic.routing.PointRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * Creates {@link PointRouter} instances based on the Floyd-Warshall algorithm.
@@ -23,16 +28,45 @@ import org.opentcs.strategies.basic.routing.PointRouter;
 public class FloydWarshallPointRouterFactory
     extends AbstractPointRouterFactory {
 
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(FloydWarshallPointRouterFactory.class);
+  /**
+   * Stores the computed routing tables.
+   */
+  private final RoutingTableStore routingTableStore;
+  /**
+   * Whether the computed routing tables are stored.
+   */
+  private final boolean persistRoutingTables;
+
   /**
    * Creates a new instance.
    *
    * @param objectService The object service providing model data.
    * @param mapper Maps the plant model to a graph.
+   * @param edgeEvaluator Computes the weights of the graph's edges.
+   * @param routingTableStore Stores the computed routing tables.
+   * @param configuration The configuration.
    */
   @Inject
   public FloydWarshallPointRouterFactory(@Nonnull TCSObjectService objectService,
-                                         @Nonnull ModelGraphMapper mapper) {
+                                         @Nonnull ModelGraphMapper mapper,
+                                         @Nonnull EdgeEvaluator edgeEvaluator,
+                                         @Nonnull RoutingTableStore routingTableStore,
+                                         @Nonnull ShortestPathConfiguration configuration) {
     super(objectService, mapper);
+    requireNonNull(edgeEvaluator, "edgeEvaluator");
+    this.routingTableStore = requireNonNull(routingTableStore, "routingTableStore");
+    requireNonNull(configuration, "configuration");
+
+    // Dynamic weights change with every update of the routing tables, so stored ones would never
+    // be reused.
+    this.persistRoutingTables = configuration.persistRoutingTables() && !edgeEvaluator.isDynamic();
+    if (configuration.persistRoutingTables() && !persistRoutingTables) {
+      LOG.info("Not storing routing tables as the edge evaluators' weights are dynamic.");
+    }
   }
 
   @Override
@@ -41,4 +75,15 @@ public class FloydWarshallPointRouterFactory
     return new FloydWarshallShortestPaths<>(graph);
   }
 
+  @Override
+  protected ShortestPathAlgorithm<String, ModelEdge> createShortestPathAlgorithm(
+      Graph<String, ModelEdge> graph,
+      Vehicle vehicle) {
+    if (persistRoutingTables) {
+      String routingGroup = vehicle.getProperty(Router.PROPKEY_ROUTING_GROUP);
+      return routingTableStore.getShortestPaths(routingGroup == null ? "" : routingGroup, graph);
+    }
+    return createShortestPathAlgorithm(graph);
+  }
+
 }
@@ -21,10 +21,19 @@ public class ModelEdge
   private final Path modelPath;
 
   private final boolean travellingReverse;
+  /**
+   * This edge's index in the {@link ModelGraphTopology} it belongs to, or -1.
+   */
+  private final int index;
 
   public ModelEdge(Path modelPath, boolean travellingReverse) {
+    this(modelPath, travellingReverse, -1);
+  }
+
+  public ModelEdge(Path modelPath, boolean travellingReverse, int index) {
     this.modelPath = requireNonNull(modelPath, "modelPath");
     this.travellingReverse = travellingReverse;
+    this.index = index;
   }
 
   public Path getModelPath() {
@@ -35,11 +44,21 @@ public class ModelEdge
     return travellingReverse;
   }
 
+  /**
+   * Returns this edge's index in the {@link ModelGraphTopology} it belongs to.
+   *
+   * @return This edge's index, or -1, if this edge does not belong to a topology.
+   */
+  public int getIndex() {
+    return index;
+  }
+
   @Override
   public String toString() {
     return "ModelEdge{"
         + "modelPath=" + modelPath
         + ", travellingReverse=" + travellingReverse
+        + ", index=" + index
         + '}';
   }
 
@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.function.ToDoubleFunction;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.jgrapht.Graph;
+import org.jgrapht.graph.DirectedWeightedMultigraph;
+import org.jgrapht.graph.GraphDelegator;
+import org.jgrapht.graph.MaskSubgraph;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+
+/**
+ * The topology of a plant model as a directed graph without vehicle-specific edge weights.
+ * <p>
+ * The topology contains an edge for every navigable direction of every path.
+ * Graphs for different routing groups share a single topology and differ only by an array of edge
+ * weights, which is indexed by {@link ModelEdge#getIndex()}.
+ * </p>
+ */
+public class ModelGraphTopology {
+
+  /**
+   * The graph containing all vertices and edges.
+   */
+  private final Graph<String, ModelEdge> graph
+      = new DirectedWeightedMultigraph<>(ModelEdge.class);
+  /**
+   * All edges of the graph, ordered by their indices.
+   */
+  private final List<ModelEdge> edges = new ArrayList<>();
+  /**
+   * The paths the topology was built from, by name.
+   */
+  private final Map<String, Path> paths = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param points The points of the model.
+   * @param paths The paths of the model.
+   */
+  public ModelGraphTopology(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    for (Point point : points) {
+      graph.addVertex(point.getName());
+    }
+
+    for (Path path : paths) {
+      this.paths.put(path.getName(), path);
+
+      if (path.isNavigableForward()) {
+        addEdge(path.getSourcePoint().getName(),
+                path.getDestinationPoint().getName(),
+                new ModelEdge(path, false, edges.size()));
+      }
+      if (path.isNavigableReverse()) {
+        addEdge(path.getDestinationPoint().getName(),
+                path.getSourcePoint().getName(),
+                new ModelEdge(path, true, edges.size()));
+      }
+    }
+  }
+
+  /**
+   * Returns all edges of this topology, ordered by their indices.
+   *
+   * @return All edges of this topology.
+   */
+  @Nonnull
+  public List<ModelEdge> getEdges() {
+    return Collections.unmodifiableList(edges);
+  }
+
+  /**
+   * Checks whether this topology was built from exactly the given points and paths.
+   * <p>
+   * Paths are compared by identity, as any modification of a path (e.g. locking it) results in a
+   * new instance.
+   * </p>
+   *
+   * @param points The points of the model.
+   * @param paths The paths of the model.
+   * @return <code>true</code> if, and only if, this topology represents the given points and paths.
+   */
+  public boolean isBasedOn(@Nonnull Collection<Point> points, @Nonnull Collection<Path> paths) {
+    requireNonNull(points, "points");
+    requireNonNull(paths, "paths");
+
+    if (points.size() != graph.vertexSet().size() || paths.size() != this.paths.size()) {
+      return false;
+    }
+    for (Point point : points) {
+      if (!graph.containsVertex(point.getName())) {
+        return false;
+      }
+    }
+    for (Path path : paths) {
+      if (this.paths.get(path.getName()) != path) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns a view on this topology using the given edge weights.
+   * Edges with a weight of {@link Double#NaN} are excluded from the view.
+   *
+   * @param weights The edge weights, indexed by {@link ModelEdge#getIndex()}.
+   * @return A view on this topology using the given edge weights.
+   */
+  @Nonnull
+  public Graph<String, ModelEdge> withWeights(@Nonnull double[] weights) {
+    return withWeights(weights, null);
+  }
+
+  /**
+   * Returns a view on this topology using the given edge weights.
+   * Edges with a weight of {@link Double#NaN} are excluded from the view.
+   *
+   * @param weights The edge weights, indexed by {@link ModelEdge#getIndex()}.
+   * @param dynamicWeights Provides weights to be added to the given ones whenever an edge's weight
+   * is requested, or <code>null</code>.
+   * @return A view on this topology using the given edge weights.
+   */
+  @Nonnull
+  public Graph<String, ModelEdge> withWeights(@Nonnull double[] weights,
+                                              @Nullable ToDoubleFunction<ModelEdge> dynamicWeights) {
+    requireNonNull(weights, "weights");
+    if (weights.length != edges.size()) {
+      throw new IllegalArgumentException("Expected " + edges.size() + " weights, got "
+          + weights.length);
+    }
+
+    Graph<String, ModelEdge> result = new WeightArrayGraph(graph, weights, dynamicWeights);
+    for (double weight : weights) {
+      if (Double.isNaN(weight)) {
+        return new MaskSubgraph<>(result,
+                                  vertex -> false,
+                                  edge -> Double.isNaN(weights[edge.getIndex()]));
+      }
+    }
+    return result;
+  }
+
+  private void addEdge(String sourceVertex, String targetVertex, ModelEdge edge) {
+    graph.addEdge(sourceVertex, targetVertex, edge);
+    edges.add(edge);
+  }
+
+  /**
+   * A graph taking its edge weights from an array instead of the edges themselves.
+   */
+  private static class WeightArrayGraph
+      extends GraphDelegator<String, ModelEdge> {
+
+    /**
+     * The edge weights, indexed by {@link ModelEdge#getIndex()}.
+     */
+    private final double[] weights;
+    /**
+     * Provides weights to be added to the static ones, or <code>null</code>.
+     */
+    private final ToDoubleFunction<ModelEdge> dynamicWeights;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param topology The underlying topology graph.
+     * @param weights The edge weights.
+     * @param dynamicWeights Provides weights to be added to the static ones, or <code>null</code>.
+     */
+    WeightArrayGraph(Graph<String, ModelEdge> topology,
+                     double[] weights,
+                     ToDoubleFunction<ModelEdge> dynamicWeights) {
+      super(topology);
+      this.weights = weights;
+      this.dynamicWeights = dynamicWeights;
+    }
+
+    @Override
+    public double getEdgeWeight(ModelEdge edge) {
+      if (dynamicWeights == null) {
+        return weights[edge.getIndex()];
+      }
+      return weights[edge.getIndex()] + dynamicWeights.applyAsDouble(edge);
+    }
+
+    @Override
+    public void setEdgeWeight(ModelEdge edge, double weight) {
+      weights[edge.getIndex()] = weight;
+    }
+  }
+}
@@ -0,0 +1,265 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.graph.GraphWalk;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A shortest path algorithm answering queries from all-pairs routing tables, i.e. a distance
+ * matrix and a matrix of the first edge on every shortest path.
+ * <p>
+ * The tables are computed using the Floyd-Warshall algorithm or wrap buffers read from a file (see
+ * {@link RoutingTableStore}).
+ * Vertices are indexed in the order of their names, edges by {@link ModelEdge#getIndex()}.
+ * </p>
+ */
+public class PrecomputedShortestPaths
+    implements ShortestPathAlgorithm<String, ModelEdge> {
+
+  /**
+   * Marks a pair of vertices without a path between them in the first-edge matrix.
+   */
+  static final int NO_EDGE = -1;
+  /**
+   * The maximum number of entries of a routing table, limited by the maximum size of an array.
+   */
+  private static final long MAX_TABLE_SIZE = Integer.MAX_VALUE - 8;
+  /**
+   * The graph.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The vertices, ordered by their indices.
+   */
+  private final List<String> vertices;
+  /**
+   * The indices of the vertices, by vertex.
+   */
+  private final Map<String, Integer> vertexIndices = new HashMap<>();
+  /**
+   * The edges of the graph, by edge index.
+   */
+  private final Map<Integer, ModelEdge> edgesByIndex = new HashMap<>();
+  /**
+   * The weights of the shortest paths, in row-major order.
+   */
+  private final DoubleBuffer distances;
+  /**
+   * The indices of the first edges on the shortest paths, in row-major order.
+   */
+  private final IntBuffer firstEdges;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph.
+   * @param distances The weights of the shortest paths, in row-major order.
+   * @param firstEdges The indices of the first edges on the shortest paths, in row-major order.
+   */
+  PrecomputedShortestPaths(@Nonnull Graph<String, ModelEdge> graph,
+                           @Nonnull DoubleBuffer distances,
+                           @Nonnull IntBuffer firstEdges) {
+    this.graph = requireNonNull(graph, "graph");
+    this.distances = requireNonNull(distances, "distances");
+    this.firstEdges = requireNonNull(firstEdges, "firstEdges");
+    this.vertices = sortedVertices(graph);
+
+    int vertexCount = vertices.size();
+    if (distances.capacity() != vertexCount * vertexCount
+        || firstEdges.capacity() != vertexCount * vertexCount) {
+      throw new IllegalArgumentException("Routing tables do not match graph with " + vertexCount
+          + " vertices.");
+    }
+    for (int i = 0; i < vertexCount; i++) {
+      vertexIndices.put(vertices.get(i), i);
+    }
+    for (ModelEdge edge : graph.edgeSet()) {
+      edgesByIndex.put(edge.getIndex(), edge);
+    }
+  }
+
+  /**
+   * Computes the routing tables for the given graph using the Floyd-Warshall algorithm.
+   *
+   * @param graph The graph.
+   * @return The shortest paths in the given graph.
+   * @throws IllegalArgumentException If the graph has too many vertices for the routing tables to
+   * fit into arrays.
+   */
+  @Nonnull
+  public static PrecomputedShortestPaths compute(@Nonnull Graph<String, ModelEdge> graph)
+      throws IllegalArgumentException {
+    requireNonNull(graph, "graph");
+    long tableSize = (long) graph.vertexSet().size() * graph.vertexSet().size();
+    checkArgument(tableSize <= MAX_TABLE_SIZE,
+                  "Too many vertices for routing tables: %s",
+                  graph.vertexSet().size());
+
+    List<String> vertices = sortedVertices(graph);
+    Map<String, Integer> indices = new HashMap<>();
+    for (int i = 0; i < vertices.size(); i++) {
+      indices.put(vertices.get(i), i);
+    }
+
+    int n = vertices.size();
+    double[] dist = new double[n * n];
+    int[] next = new int[n * n];
+    Arrays.fill(dist, Double.POSITIVE_INFINITY);
+    Arrays.fill(next, NO_EDGE);
+    for (int i = 0; i < n; i++) {
+      dist[i * n + i] = 0.0;
+    }
+    for (ModelEdge edge : graph.edgeSet()) {
+      int i = indices.get(graph.getEdgeSource(edge));
+      int j = indices.get(graph.getEdgeTarget(edge));
+      double weight = graph.getEdgeWeight(edge);
+      if (i != j && weight < dist[i * n + j]) {
+        dist[i * n + j] = weight;
+        next[i * n + j] = edge.getIndex();
+      }
+    }
+
+    for (int k = 0; k < n; k++) {
+      for (int i = 0; i < n; i++) {
+        double distIK = dist[i * n + k];
+        if (distIK == Double.POSITIVE_INFINITY) {
+          continue;
+        }
+        for (int j = 0; j < n; j++) {
+          double viaK = distIK + dist[k * n + j];
+          if (viaK < dist[i * n + j]) {
+            dist[i * n + j] = viaK;
+            next[i * n + j] = next[i * n + k];
+          }
+        }
+      }
+    }
+
+    return new PrecomputedShortestPaths(graph, DoubleBuffer.wrap(dist), IntBuffer.wrap(next));
+  }
+
+  @Override
+  public GraphPath<String, ModelEdge> getPath(String source, String sink) {
+    int sourceIndex = indexOf(source);
+    int sinkIndex = indexOf(sink);
+    if (sourceIndex == sinkIndex) {
+      return new GraphWalk<>(graph,
+                             source,
+                             sink,
+                             Collections.singletonList(source),
+                             Collections.emptyList(),
+                             0.0);
+    }
+
+    int n = vertices.size();
+    if (firstEdges.get(sourceIndex * n + sinkIndex) == NO_EDGE) {
+      return null;
+    }
+
+    List<ModelEdge> edges = new ArrayList<>();
+    int current = sourceIndex;
+    while (current != sinkIndex) {
+      int edgeIndex = firstEdges.get(current * n + sinkIndex);
+      if (edgeIndex == NO_EDGE || edges.size() >= n) {
+        throw new IllegalStateException("Inconsistent routing tables for path from " + source
+            + " to " + sink);
+      }
+      ModelEdge edge = edgesByIndex.get(edgeIndex);
+      edges.add(edge);
+      current = indexOf(graph.getEdgeTarget(edge));
+    }
+    return new GraphWalk<>(graph,
+                           source,
+                           sink,
+                           edges,
+                           distances.get(sourceIndex * n + sinkIndex));
+  }
+
+  @Override
+  public double getPathWeight(String source, String sink) {
+    return distances.get(indexOf(source) * vertices.size() + indexOf(sink));
+  }
+
+  @Override
+  public SingleSourcePaths<String, ModelEdge> getPaths(String source) {
+    indexOf(source);
+    return new SingleSourcePaths<String, ModelEdge>() {
+      @Override
+      public Graph<String, ModelEdge> getGraph() {
+        return graph;
+      }
+
+      @Override
+      public String getSourceVertex() {
+        return source;
+      }
+
+      @Override
+      public double getWeight(String targetVertex) {
+        return getPathWeight(source, targetVertex);
+      }
+
+      @Override
+      public GraphPath<String, ModelEdge> getPath(String targetVertex) {
+        return PrecomputedShortestPaths.this.getPath(source, targetVertex);
+      }
+    };
+  }
+
+  /**
+   * Returns the weights of the shortest paths, in row-major order.
+   *
+   * @return The weights of the shortest paths.
+   */
+  DoubleBuffer getDistances() {
+    return distances.duplicate();
+  }
+
+  /**
+   * Returns the indices of the first edges on the shortest paths, in row-major order.
+   *
+   * @return The indices of the first edges on the shortest paths.
+   */
+  IntBuffer getFirstEdges() {
+    return firstEdges.duplicate();
+  }
+
+  /**
+   * Returns the vertices of the given graph in the order used for the routing tables.
+   *
+   * @param graph The graph.
+   * @return The vertices of the given graph, ordered by their names.
+   */
+  static List<String> sortedVertices(Graph<String, ModelEdge> graph) {
+    List<String> result = new ArrayList<>(graph.vertexSet());
+    Collections.sort(result);
+    return result;
+  }
+
+  private int indexOf(String vertex) {
+    Integer result = vertexIndices.get(vertex);
+    if (result == null) {
+      throw new IllegalArgumentException("Unknown vertex: " + vertex);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.function.Consumer;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.jgrapht.Graph;
+import org.opentcs.customizations.ApplicationHome;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Stores precomputed routing tables in files in the kernel's data directory and memory-maps them
+ * when they are needed again.
+ * <p>
+ * There is one file per routing group, containing a hash of the graph it was computed for, covering
+ * the vertices, the edges and their weights.
+ * Hence, stored routing tables are reused as long as neither the plant model nor the routing costs
+ * change, and recomputed and replaced otherwise.
+ * Routing tables too large to be memory-mapped at once are not stored.
+ * </p>
+ */
+public class RoutingTableStore {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(RoutingTableStore.class);
+  /**
+   * Identifies routing table files.
+   */
+  private static final int MAGIC = 0x4f54_5254;
+  /**
+   * The version of the file format.
+   */
+  private static final int FORMAT_VERSION = 2;
+  /**
+   * The length of a graph's hash in bytes.
+   */
+  private static final int HASH_LENGTH = 32;
+  /**
+   * The size of the file header in bytes: magic, version, graph hash, vertex count and edge count.
+   */
+  private static final int HEADER_SIZE = 4 * Integer.BYTES + HASH_LENGTH;
+  /**
+   * The size of a single entry of the routing tables in bytes: a distance and a first edge.
+   */
+  private static final int ENTRY_SIZE = Double.BYTES + Integer.BYTES;
+  /**
+   * The maximum number of entries of routing tables that can be stored, limited by the maximum
+   * size of a memory-mapped buffer.
+   */
+  private static final long MAX_TABLE_SIZE = (Integer.MAX_VALUE - HEADER_SIZE) / ENTRY_SIZE;
+  /**
+   * The file name extension.
+   */
+  private static final String FILE_EXTENSION = ".rtb";
+  /**
+   * The directory containing the routing table files.
+   */
+  private final Path directory;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param homeDirectory The kernel's home directory.
+   */
+  @Inject
+  public RoutingTableStore(@ApplicationHome File homeDirectory) {
+    requireNonNull(homeDirectory, "homeDirectory");
+    this.directory = new File(new File(homeDirectory, "data"), "routingtables").toPath();
+  }
+
+  /**
+   * Returns the shortest paths for the given graph, either from the routing group's stored file or,
+   * if that was not computed for the given graph, by computing (and then storing) them.
+   *
+   * @param routingGroup The routing group the graph was created for.
+   * @param graph The graph.
+   * @return The shortest paths for the given graph.
+   */
+  @Nonnull
+  public PrecomputedShortestPaths getShortestPaths(@Nonnull String routingGroup,
+                                                   @Nonnull Graph<String, ModelEdge> graph) {
+    requireNonNull(routingGroup, "routingGroup");
+    requireNonNull(graph, "graph");
+
+    long vertexCount = graph.vertexSet().size();
+    if (vertexCount * vertexCount > MAX_TABLE_SIZE) {
+      LOG.warn("Routing tables for {} points are too large to be stored, computing them.",
+               vertexCount);
+      return PrecomputedShortestPaths.compute(graph);
+    }
+
+    // Group names may contain characters not allowed in file names.
+    Path file = directory.resolve(toHex(hash(digest -> update(digest, routingGroup)))
+        + FILE_EXTENSION);
+    byte[] graphHash = hash(digest -> updateGraph(digest, graph));
+    if (Files.isRegularFile(file)) {
+      try {
+        long timeBefore = System.currentTimeMillis();
+        PrecomputedShortestPaths result = load(file, graphHash, graph);
+        if (result != null) {
+          LOG.debug("Loaded routing tables from {} in {} milliseconds.",
+                    file,
+                    System.currentTimeMillis() - timeBefore);
+          return result;
+        }
+        LOG.debug("Routing tables in {} are outdated, recomputing them.", file);
+      }
+      catch (IOException | RuntimeException exc) {
+        LOG.warn("Could not load routing tables from {}, recomputing them.", file, exc);
+      }
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    PrecomputedShortestPaths result = PrecomputedShortestPaths.compute(graph);
+    LOG.debug("Computed routing tables in {} milliseconds.",
+              System.currentTimeMillis() - timeBefore);
+    try {
+      store(file, graphHash, graph, result);
+    }
+    catch (IOException exc) {
+      LOG.warn("Could not store routing tables to {}.", file, exc);
+    }
+    return result;
+  }
+
+  /**
+   * Loads the routing tables from the given file.
+   *
+   * @return The routing tables, or <code>null</code>, if the file was computed for a different
+   * graph.
+   */
+  private PrecomputedShortestPaths load(Path file,
+                                        byte[] graphHash,
+                                        Graph<String, ModelEdge> graph)
+      throws IOException {
+    long vertexCount = graph.vertexSet().size();
+    long tableSize = vertexCount * vertexCount;
+
+    MappedByteBuffer buffer;
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("File too small: " + channel.size());
+      }
+      // The mapping stays valid after the channel has been closed.
+      buffer = channel.map(FileChannel.MapMode.READ_ONLY,
+                           0,
+                           Math.min(channel.size(), HEADER_SIZE + tableSize * ENTRY_SIZE));
+    }
+
+    if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+      throw new IOException("Not a routing table file or unsupported version.");
+    }
+    byte[] fileGraphHash = new byte[HASH_LENGTH];
+    buffer.get(fileGraphHash);
+    if (!Arrays.equals(fileGraphHash, graphHash)) {
+      return null;
+    }
+    if (buffer.getInt() != vertexCount
+        || buffer.getInt() != graph.edgeSet().size()
+        || buffer.capacity() != HEADER_SIZE + tableSize * ENTRY_SIZE) {
+      throw new IOException("Routing tables do not match graph.");
+    }
+
+    DoubleBuffer distances = slice(buffer, HEADER_SIZE, tableSize * Double.BYTES)
+        .asDoubleBuffer();
+    IntBuffer firstEdges = slice(buffer,
+                                 HEADER_SIZE + tableSize * Double.BYTES,
+                                 tableSize * Integer.BYTES)
+        .asIntBuffer();
+    return new PrecomputedShortestPaths(graph, distances, firstEdges);
+  }
+
+  private void store(Path file,
+                     byte[] graphHash,
+                     Graph<String, ModelEdge> graph,
+                     PrecomputedShortestPaths paths)
+      throws IOException {
+    Files.createDirectories(directory);
+    Path tempFile = Files.createTempFile(directory, "routingtables", ".tmp");
+    try {
+      try (OutputStream fileOut = Files.newOutputStream(tempFile);
+           DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.write(graphHash);
+        out.writeInt(graph.vertexSet().size());
+        out.writeInt(graph.edgeSet().size());
+        DoubleBuffer distances = paths.getDistances();
+        for (int i = 0; i < distances.capacity(); i++) {
+          out.writeDouble(distances.get(i));
+        }
+        IntBuffer firstEdges = paths.getFirstEdges();
+        for (int i = 0; i < firstEdges.capacity(); i++) {
+          out.writeInt(firstEdges.get(i));
+        }
+      }
+      // Replaces the routing group's previous file, if any.
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+      LOG.debug("Stored routing tables to {}.", file);
+    }
+    finally {
+      Files.deleteIfExists(tempFile);
+    }
+  }
+
+  private ByteBuffer slice(ByteBuffer buffer, long offset, long length) {
+    // The buffer's capacity, and thus offset + length, has been checked to be an int.
+    ByteBuffer result = buffer.duplicate();
+    result.position(Math.toIntExact(offset));
+    result.limit(Math.toIntExact(offset + length));
+    return result.slice();
+  }
+
+  /**
+   * Computes a SHA-256 hash of the values passed to the given digest.
+   */
+  private byte[] hash(Consumer<MessageDigest> input) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    }
+    catch (NoSuchAlgorithmException exc) {
+      throw new IllegalStateException("SHA-256 not available", exc);
+    }
+    input.accept(digest);
+    return digest.digest();
+  }
+
+  /**
+   * Passes the given graph's vertices, edges and edge weights to the given digest.
+   */
+  private void updateGraph(MessageDigest digest, Graph<String, ModelEdge> graph) {
+    ByteBuffer numberBuffer = ByteBuffer.allocate(Long.BYTES);
+    for (String vertex : PrecomputedShortestPaths.sortedVertices(graph)) {
+      update(digest, vertex);
+    }
+    List<ModelEdge> edges = new ArrayList<>(graph.edgeSet());
+    edges.sort(Comparator.comparingInt(edge -> edge.getIndex()));
+    for (ModelEdge edge : edges) {
+      update(digest, edge.getModelPath().getName());
+      update(digest, graph.getEdgeSource(edge));
+      update(digest, graph.getEdgeTarget(edge));
+      numberBuffer.clear();
+      numberBuffer.putInt(edge.getIndex());
+      digest.update(numberBuffer.array(), 0, Integer.BYTES);
+      numberBuffer.clear();
+      numberBuffer.putLong(Double.doubleToLongBits(graph.getEdgeWeight(edge)));
+      digest.update(numberBuffer.array(), 0, Long.BYTES);
+    }
+  }
+
+  private String toHex(byte[] bytes) {
+    StringBuilder result = new StringBuilder();
+    for (byte b : bytes) {
+      result.append(String.format("%02x", b));
+    }
+    return result.toString();
+  }
+
+  private void update(MessageDigest digest, String value) {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    digest.update(bytes);
+    // Separate values so that different sequences of strings do not result in the same input.
+    digest.update((byte) 0);
+  }
+}
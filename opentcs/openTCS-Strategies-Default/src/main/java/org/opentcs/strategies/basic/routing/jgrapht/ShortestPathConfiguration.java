@@ -41,10 +41,27 @@ public interface ShortestPathConfiguration {
         "'DISTANCE': A route's cost is the sum of the lengths of its paths.",
         "'TRAVELTIME': A route's cost is the vehicle's expected driving time to the destination.",
         "'EXPLICIT': A route's cost is the sum of the explicitly given costs of its paths.",
-        "'EXPLICIT_PROPERTIES': Like 'EXPLICIT', but the costs are extracted from path properties."
+        "'EXPLICIT_PROPERTIES': Like 'EXPLICIT', but the costs are extracted from path properties.",
+        "'CONGESTION': A route's cost is increased for every other vehicle routed over or occupying "
+        + "its paths and points."
       })
   List<EvaluatorType> edgeEvaluators();
 
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The costs added per path or point for every other vehicle routed over or occupying it.",
+        "Used only with the 'CONGESTION' edge evaluator."})
+  int congestionPenalty();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to store the routing tables computed with 'FLOYD_WARSHALL' in the data directory.",
+        "Stored routing tables are reused on startup as long as the plant model and the routing "
+        + "costs do not change."})
+  boolean persistRoutingTables();
+
   enum Algorithm {
     DIJKSTRA(false),
     BELLMAN_FORD(true),
@@ -70,6 +87,7 @@ public interface ShortestPathConfiguration {
      */
     @Deprecated
     EXPLICIT,
-    EXPLICIT_PROPERTIES
+    EXPLICIT_PROPERTIES,
+    CONGESTION
   }
 }
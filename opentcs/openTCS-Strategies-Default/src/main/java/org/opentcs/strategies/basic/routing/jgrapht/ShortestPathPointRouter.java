@@ -7,8 +7,10 @@
  */
 package org.opentcs.strategies.basic.routing.jgrapht;
 
+import org.jgrapht.Graph;
 import org.jgrapht.GraphPath;
 import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm.SingleSourcePaths;
 import org.opentcs.data.TCSObjectReference;
 import org.opentcs.data.model.Point;
 import org.opentcs.data.model.Vehicle;
@@ -20,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import java.util.*;
 
 import static java.util.Objects.requireNonNull;
+import static org.opentcs.util.Assertions.checkArgument;
 
 /**
  * Computes routes between points using a JGraphT-based shortest path algorithm.
@@ -39,11 +42,18 @@ public class ShortestPathPointRouter
 
   private final ShortestPathAlgorithm<String, ModelEdge> algo;
 
+  /**
+   * Computes alternative routes between two points.
+   */
+  private final YenKShortestPaths kShortestPaths;
+
   private final Map<String, Point> points = new HashMap<>();
 
   public ShortestPathPointRouter(ShortestPathAlgorithm<String, ModelEdge> algo,
+                                 Graph<String, ModelEdge> graph,
                                  Collection<Point> points) {
     this.algo = requireNonNull(algo, "algo");
+    this.kShortestPaths = new YenKShortestPaths(requireNonNull(graph, "graph"), algo);
     requireNonNull(points, "points");
 
     for (Point point : points) {
@@ -97,6 +107,99 @@ public class ShortestPathPointRouter
     return (long) graphPath.getWeight();
   }
 
+  @Override
+  public Map<Point, Long> getCosts(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    if (!requiresSearch(srcPoint, destPoints)) {
+      return PointRouter.super.getCosts(srcPoint, destPoints);
+    }
+
+    SingleSourcePaths<String, ModelEdge> paths = algo.getPaths(srcPoint.getName());
+    Map<Point, Long> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+        result.put(destPoint, 0L);
+        continue;
+      }
+      double weight = paths.getWeight(destPoint.getName());
+      result.put(destPoint, Double.isInfinite(weight) ? INFINITE_COSTS : (long) weight);
+    }
+    return result;
+  }
+
+  @Override
+  public Map<Point, Route> getRoutes(Point srcPoint, Collection<Point> destPoints) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoints, "destPoints");
+
+    if (!requiresSearch(srcPoint, destPoints)) {
+      return PointRouter.super.getRoutes(srcPoint, destPoints);
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    SingleSourcePaths<String, ModelEdge> paths = algo.getPaths(srcPoint.getName());
+    Map<Point, Route> result = new HashMap<>();
+    for (Point destPoint : destPoints) {
+      if (Objects.equals(srcPoint.getName(), destPoint.getName())) {
+        List<Route.Step> steps = new ArrayList<>(1);
+        steps.add(new Route.Step(null, null, srcPoint, Vehicle.Orientation.UNDEFINED, 0));
+        result.put(destPoint, new Route(steps, 0));
+        continue;
+      }
+      GraphPath<String, ModelEdge> graphPath = paths.getPath(destPoint.getName());
+      if (graphPath == null) {
+        continue;
+      }
+      result.put(destPoint, new Route(translateToSteps(graphPath), (long) graphPath.getWeight()));
+    }
+
+    LOG.debug("Looking up routes from {} to {} destination points took {} milliseconds.",
+              srcPoint.getName(),
+              destPoints.size(),
+              System.currentTimeMillis() - timeBefore);
+
+    return result;
+  }
+
+  @Override
+  public List<Route> getRoutes(Point srcPoint, Point destPoint, int maxRouteCount) {
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+    checkArgument(maxRouteCount > 0, "maxRouteCount <= 0: %s", maxRouteCount);
+
+    if (maxRouteCount == 1 || Objects.equals(srcPoint.getName(), destPoint.getName())) {
+      return PointRouter.super.getRoutes(srcPoint, destPoint, maxRouteCount);
+    }
+
+    long timeBefore = System.currentTimeMillis();
+    List<Route> result = new ArrayList<>(maxRouteCount);
+    for (GraphPath<String, ModelEdge> graphPath
+             : kShortestPaths.getPaths(srcPoint.getName(), destPoint.getName(), maxRouteCount)) {
+      result.add(new Route(translateToSteps(graphPath), (long) graphPath.getWeight()));
+    }
+
+    LOG.debug("Looking up {} routes from {} to {} took {} milliseconds.",
+              result.size(),
+              srcPoint.getName(),
+              destPoint.getName(),
+              System.currentTimeMillis() - timeBefore);
+
+    return result;
+  }
+
+  /**
+   * Checks whether a search for all paths from the given source point is worth it, i.e. whether
+   * there is more than one destination point different from the source point.
+   * (For a single destination, some algorithms can stop searching early.)
+   */
+  private boolean requiresSearch(Point srcPoint, Collection<Point> destPoints) {
+    return destPoints.stream()
+        .filter(destPoint -> !Objects.equals(srcPoint.getName(), destPoint.getName()))
+        .count() > 1;
+  }
+
   private List<Route.Step> translateToSteps(GraphPath<String, ModelEdge> graphPath) {
     List<ModelEdge> edges = graphPath.getEdgeList();
     List<Route.Step> result = new ArrayList<>(edges.size());
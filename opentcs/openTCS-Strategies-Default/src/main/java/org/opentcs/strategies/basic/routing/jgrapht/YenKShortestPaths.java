@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.jgrapht;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.PriorityQueue;
+import java.util.Set;
+import org.jgrapht.Graph;
+import org.jgrapht.GraphPath;
+import org.jgrapht.alg.interfaces.ShortestPathAlgorithm;
+import org.jgrapht.alg.shortestpath.BellmanFordShortestPath;
+import org.jgrapht.alg.shortestpath.DijkstraShortestPath;
+import org.jgrapht.graph.GraphWalk;
+import org.jgrapht.graph.MaskSubgraph;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * Computes the k shortest loopless paths between two vertices using Yen's algorithm.
+ */
+class YenKShortestPaths {
+
+  /**
+   * The graph.
+   */
+  private final Graph<String, ModelEdge> graph;
+  /**
+   * The algorithm computing the (first) shortest path.
+   */
+  private final ShortestPathAlgorithm<String, ModelEdge> algo;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param graph The graph.
+   * @param algo The algorithm computing the (first) shortest path on the given graph.
+   */
+  YenKShortestPaths(Graph<String, ModelEdge> graph, ShortestPathAlgorithm<String, ModelEdge> algo) {
+    this.graph = requireNonNull(graph, "graph");
+    this.algo = requireNonNull(algo, "algo");
+  }
+
+  /**
+   * Returns up to the given number of loopless paths between the given vertices.
+   *
+   * @param source The source vertex.
+   * @param target The target vertex, which must be different from the source vertex.
+   * @param maxPathCount The maximum number of paths to be returned.
+   * @return The paths, shortest first.
+   */
+  public List<GraphPath<String, ModelEdge>> getPaths(String source,
+                                                     String target,
+                                                     int maxPathCount) {
+    requireNonNull(source, "source");
+    requireNonNull(target, "target");
+    checkArgument(maxPathCount > 0, "maxPathCount <= 0: %s", maxPathCount);
+
+    List<GraphPath<String, ModelEdge>> result = new ArrayList<>();
+    GraphPath<String, ModelEdge> shortestPath = algo.getPath(source, target);
+    if (shortestPath == null) {
+      return result;
+    }
+    result.add(shortestPath);
+
+    PriorityQueue<GraphPath<String, ModelEdge>> candidates
+        = new PriorityQueue<>(Comparator.comparingDouble(path -> path.getWeight()));
+    Set<List<ModelEdge>> knownEdgeLists = new HashSet<>();
+    knownEdgeLists.add(shortestPath.getEdgeList());
+
+    while (result.size() < maxPathCount) {
+      GraphPath<String, ModelEdge> previousPath = result.get(result.size() - 1);
+      List<String> previousVertices = previousPath.getVertexList();
+      List<ModelEdge> previousEdges = previousPath.getEdgeList();
+
+      // Deviate from the previous path at each of its vertices.
+      for (int i = 0; i < previousEdges.size(); i++) {
+        String spurVertex = previousVertices.get(i);
+        List<ModelEdge> rootEdges = previousEdges.subList(0, i);
+
+        // Prevent the spur path from taking the next edge of any path found so far with the same
+        // root, and from visiting the root's vertices again.
+        Set<ModelEdge> maskedEdges = new HashSet<>();
+        for (GraphPath<String, ModelEdge> path : result) {
+          List<ModelEdge> pathEdges = path.getEdgeList();
+          if (pathEdges.size() > i && pathEdges.subList(0, i).equals(rootEdges)) {
+            maskedEdges.add(pathEdges.get(i));
+          }
+        }
+        Set<String> maskedVertices = new HashSet<>(previousVertices.subList(0, i));
+
+        GraphPath<String, ModelEdge> spurPath
+            = findPath(new MaskSubgraph<>(graph, maskedVertices::contains, maskedEdges::contains),
+                       spurVertex,
+                       target);
+        if (spurPath == null) {
+          continue;
+        }
+
+        List<ModelEdge> edges = new ArrayList<>(rootEdges);
+        edges.addAll(spurPath.getEdgeList());
+        if (knownEdgeLists.add(edges)) {
+          candidates.add(new GraphWalk<>(graph, source, target, edges, weightOf(edges)));
+        }
+      }
+
+      if (candidates.isEmpty()) {
+        break;
+      }
+      result.add(candidates.poll());
+    }
+
+    return result;
+  }
+
+  private GraphPath<String, ModelEdge> findPath(Graph<String, ModelEdge> maskedGraph,
+                                                String source,
+                                                String target) {
+    try {
+      return DijkstraShortestPath.findPathBetween(maskedGraph, source, target);
+    }
+    catch (IllegalArgumentException exc) {
+      // Dijkstra's algorithm cannot handle negative weights.
+      return BellmanFordShortestPath.findPathBetween(maskedGraph, source, target);
+    }
+  }
+
+  private double weightOf(List<ModelEdge> edges) {
+    double result = 0.0;
+    for (ModelEdge edge : edges) {
+      result += graph.getEdgeWeight(edge);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,124 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import static org.opentcs.util.Assertions.checkArgument;
+
+/**
+ * A time window in which a vehicle is expected to use a resource (a point or a path).
+ */
+public class Reservation {
+
+  /**
+   * The name of the reserved resource.
+   */
+  private final String resourceName;
+  /**
+   * The name of the vehicle the resource is reserved for.
+   */
+  private final String vehicleName;
+  /**
+   * The start of the time window (in ms since the epoch).
+   */
+  private final long start;
+  /**
+   * The end of the time window (in ms since the epoch).
+   */
+  private final long end;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param resourceName The name of the reserved resource.
+   * @param vehicleName The name of the vehicle the resource is reserved for.
+   * @param start The start of the time window (in ms since the epoch).
+   * @param end The end of the time window (in ms since the epoch).
+   * May be {@link Long#MAX_VALUE} for a reservation without an end.
+   */
+  public Reservation(@Nonnull String resourceName,
+                     @Nonnull String vehicleName,
+                     long start,
+                     long end) {
+    this.resourceName = requireNonNull(resourceName, "resourceName");
+    this.vehicleName = requireNonNull(vehicleName, "vehicleName");
+    checkArgument(start <= end, "start %s > end %s", start, end);
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * Returns the name of the reserved resource.
+   *
+   * @return The name of the reserved resource.
+   */
+  @Nonnull
+  public String getResourceName() {
+    return resourceName;
+  }
+
+  /**
+   * Returns the name of the vehicle the resource is reserved for.
+   *
+   * @return The name of the vehicle the resource is reserved for.
+   */
+  @Nonnull
+  public String getVehicleName() {
+    return vehicleName;
+  }
+
+  /**
+   * Returns the start of the time window.
+   *
+   * @return The start of the time window (in ms since the epoch).
+   */
+  public long getStart() {
+    return start;
+  }
+
+  /**
+   * Returns the end of the time window.
+   *
+   * @return The end of the time window (in ms since the epoch).
+   */
+  public long getEnd() {
+    return end;
+  }
+
+  /**
+   * Creates a copy of this reservation with the given end.
+   *
+   * @param end The end of the time window.
+   * @return A copy of this reservation with the given end.
+   */
+  public Reservation withEnd(long end) {
+    return new Reservation(resourceName, vehicleName, start, end);
+  }
+
+  /**
+   * Checks whether this reservation's time window overlaps with the given one.
+   *
+   * @param otherStart The start of the other time window.
+   * @param otherEnd The end of the other time window.
+   * @return <code>true</code> if, and only if, the time windows overlap.
+   */
+  public boolean overlaps(long otherStart, long otherEnd) {
+    return start < otherEnd && otherStart < end;
+  }
+
+  @Override
+  public String toString() {
+    return "Reservation{"
+        + "resourceName=" + resourceName
+        + ", vehicleName=" + vehicleName
+        + ", start=" + start
+        + ", end=" + end
+        + '}';
+  }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.inject.Inject;
+
+/**
+ * Keeps track of the time windows in which vehicles are expected to use points and paths.
+ */
+public class ReservationTable {
+
+  /**
+   * The reservations, by resource name.
+   */
+  private final Map<String, List<Reservation>> reservationsByResource = new HashMap<>();
+  /**
+   * The reservations, by vehicle name.
+   */
+  private final Map<String, List<Reservation>> reservationsByVehicle = new HashMap<>();
+
+  /**
+   * Creates a new instance.
+   */
+  @Inject
+  public ReservationTable() {
+  }
+
+  /**
+   * Checks whether the resource with the given name is not reserved by any other vehicle in the
+   * given time window.
+   *
+   * @param resourceName The name of the resource.
+   * @param start The start of the time window.
+   * @param end The end of the time window.
+   * @param vehicleName The name of the vehicle whose own reservations are to be ignored, or
+   * <code>null</code>.
+   * @return <code>true</code> if, and only if, the resource is free in the given time window.
+   */
+  public synchronized boolean isFree(@Nonnull String resourceName,
+                                     long start,
+                                     long end,
+                                     @Nullable String vehicleName) {
+    requireNonNull(resourceName, "resourceName");
+
+    List<Reservation> reservations = reservationsByResource.get(resourceName);
+    if (reservations == null) {
+      return true;
+    }
+    for (Reservation reservation : reservations) {
+      if (reservation.overlaps(start, end)
+          && !reservation.getVehicleName().equals(vehicleName)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks whether there are any reservations for the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @return <code>true</code> if, and only if, there are reservations for the given vehicle.
+   */
+  public synchronized boolean hasReservations(@Nonnull String vehicleName) {
+    requireNonNull(vehicleName, "vehicleName");
+
+    return reservationsByVehicle.containsKey(vehicleName);
+  }
+
+  /**
+   * Replaces all reservations for the given vehicle with the given ones.
+   *
+   * @param vehicleName The name of the vehicle.
+   * @param reservations The new reservations.
+   */
+  public synchronized void reserve(@Nonnull String vehicleName,
+                                   @Nonnull Collection<Reservation> reservations) {
+    requireNonNull(vehicleName, "vehicleName");
+    requireNonNull(reservations, "reservations");
+
+    release(vehicleName);
+    if (reservations.isEmpty()) {
+      return;
+    }
+    reservationsByVehicle.put(vehicleName, new ArrayList<>(reservations));
+    for (Reservation reservation : reservations) {
+      reservationsByResource
+          .computeIfAbsent(reservation.getResourceName(), name -> new ArrayList<>())
+          .add(reservation);
+    }
+  }
+
+  /**
+   * Removes all reservations for the given vehicle.
+   *
+   * @param vehicleName The name of the vehicle.
+   */
+  public synchronized void release(@Nonnull String vehicleName) {
+    requireNonNull(vehicleName, "vehicleName");
+
+    List<Reservation> reservations = reservationsByVehicle.remove(vehicleName);
+    if (reservations == null) {
+      return;
+    }
+    for (Reservation reservation : reservations) {
+      List<Reservation> resourceReservations
+          = reservationsByResource.get(reservation.getResourceName());
+      if (resourceReservations == null) {
+        continue;
+      }
+      resourceReservations.remove(reservation);
+      if (resourceReservations.isEmpty()) {
+        reservationsByResource.remove(reservation.getResourceName());
+      }
+    }
+  }
+
+  /**
+   * Removes all reservations whose time windows ended before the given point of time.
+   *
+   * @param time The point of time.
+   */
+  public synchronized void removeExpired(long time) {
+    for (Iterator<List<Reservation>> iter = reservationsByResource.values().iterator();
+         iter.hasNext();) {
+      List<Reservation> reservations = iter.next();
+      reservations.removeIf(reservation -> reservation.getEnd() < time);
+      if (reservations.isEmpty()) {
+        iter.remove();
+      }
+    }
+    // Vehicles with a selected route keep the indefinite reservation of their destination point,
+    // so vehicles without any reservations left are standing still.
+    for (Iterator<List<Reservation>> iter = reservationsByVehicle.values().iterator();
+         iter.hasNext();) {
+      List<Reservation> reservations = iter.next();
+      reservations.removeIf(reservation -> reservation.getEnd() < time);
+      if (reservations.isEmpty()) {
+        iter.remove();
+      }
+    }
+  }
+
+  /**
+   * Removes all reservations from this table.
+   */
+  public synchronized void clear() {
+    reservationsByResource.clear();
+    reservationsByVehicle.clear();
+  }
+}
@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.annotation.Nonnull;
+import org.jgrapht.Graph;
+import static org.opentcs.components.kernel.Router.PROPKEY_ROUTING_GROUP;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.Route;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelEdge;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans routes around the time windows reserved in a {@link ReservationTable}, using an A* search
+ * in space and time.
+ * <p>
+ * A search node is a point along with the time the vehicle is expected to be there.
+ * From each node, the vehicle may either travel along a path to a neighbouring point or wait at the
+ * point for a configured duration, as long as the resources used are not reserved by another
+ * vehicle at that time.
+ * The lower bounds used as the search's heuristic are the travel times to the destination point
+ * without considering any reservations.
+ * </p>
+ * <p>
+ * The search uses the same graphs as the default router, i.e. one per routing group, so paths
+ * excluded by the {@link ModelGraphMapper} or the configured edge evaluators are not used here,
+ * either.
+ * Time windows are based on the paths' lengths and the vehicle's velocities, while the costs of a
+ * planned route are the sum of its edges' weights, as with routes of the default router.
+ * </p>
+ */
+public class SpaceTimePlanner {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SpaceTimePlanner.class);
+  /**
+   * The default value of a vehicle's routing group.
+   */
+  private static final String DEFAULT_ROUTING_GROUP = "";
+  /**
+   * The points of the model.
+   */
+  private final Collection<Point> points;
+  /**
+   * The paths of the model.
+   */
+  private final Collection<Path> paths;
+  /**
+   * The points of the model, by name.
+   */
+  private final Map<String, Point> pointsByName = new HashMap<>();
+  /**
+   * Maps the model to the graphs to plan on.
+   */
+  private final ModelGraphMapper mapper;
+  /**
+   * The graphs to plan on, by vehicle routing group.
+   */
+  private final Map<String, Graph<String, ModelEdge>> graphsByRoutingGroup
+      = new ConcurrentHashMap<>();
+  /**
+   * The reservations to plan around.
+   */
+  private final ReservationTable reservationTable;
+  /**
+   * This planner's configuration.
+   */
+  private final TimeWindowConfiguration configuration;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param points The points of the model.
+   * @param paths The paths of the model.
+   * @param mapper Maps the model to the graphs to plan on.
+   * @param reservationTable The reservations to plan around.
+   * @param configuration This planner's configuration.
+   */
+  public SpaceTimePlanner(@Nonnull Collection<Point> points,
+                          @Nonnull Collection<Path> paths,
+                          @Nonnull ModelGraphMapper mapper,
+                          @Nonnull ReservationTable reservationTable,
+                          @Nonnull TimeWindowConfiguration configuration) {
+    this.points = requireNonNull(points, "points");
+    this.paths = requireNonNull(paths, "paths");
+    this.mapper = requireNonNull(mapper, "mapper");
+    this.reservationTable = requireNonNull(reservationTable, "reservationTable");
+    this.configuration = requireNonNull(configuration, "configuration");
+
+    for (Point point : points) {
+      pointsByName.put(point.getName(), point);
+    }
+  }
+
+  /**
+   * Plans a route for the given vehicle around the reservations of other vehicles.
+   *
+   * @param vehicle The vehicle.
+   * @param srcPoint The source point.
+   * @param destPoint The destination point.
+   * @param startTime The point of time at which the vehicle starts at the source point.
+   * @param blockedPoints The names of points occupied by vehicles without any reservations, which
+   * must not be used at all.
+   * @param holdDestination Whether the vehicle stays at the destination point indefinitely, i.e.
+   * whether the destination point must not be reserved by other vehicles after the arrival.
+   * @return The planned route, or an empty optional, if no route was found within the configured
+   * number of search node expansions.
+   */
+  @Nonnull
+  public Optional<TimedRoute> plan(@Nonnull Vehicle vehicle,
+                                   @Nonnull Point srcPoint,
+                                   @Nonnull Point destPoint,
+                                   long startTime,
+                                   @Nonnull Set<String> blockedPoints,
+                                   boolean holdDestination) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(srcPoint, "srcPoint");
+    requireNonNull(destPoint, "destPoint");
+    requireNonNull(blockedPoints, "blockedPoints");
+
+    long timeBefore = System.currentTimeMillis();
+    Graph<String, ModelEdge> graph = getGraph(vehicle);
+    Map<String, Long> lowerBounds = computeLowerBounds(graph, vehicle, destPoint.getName());
+    if (!lowerBounds.containsKey(srcPoint.getName())) {
+      return Optional.empty();
+    }
+
+    String vehicleName = vehicle.getName();
+    long waitDuration = Math.max(1, configuration.waitDuration());
+    long margin = configuration.safetyMargin();
+    PriorityQueue<Node> openNodes = new PriorityQueue<>(Comparator.comparingLong(
+        node -> node.estimate));
+    Set<String> closedNodes = new HashSet<>();
+    openNodes.add(new Node(srcPoint.getName(),
+                           startTime,
+                           null,
+                           null,
+                           startTime + lowerBounds.get(srcPoint.getName())));
+
+    int expansions = 0;
+    while (!openNodes.isEmpty() && expansions < configuration.maxExpansions()) {
+      Node node = openNodes.poll();
+      if (!closedNodes.add(node.pointName + '@' + node.time / waitDuration)) {
+        continue;
+      }
+      expansions++;
+
+      if (node.pointName.equals(destPoint.getName())
+          && reservationTable.isFree(node.pointName,
+                                     node.time,
+                                     holdDestination ? Long.MAX_VALUE : node.time + margin,
+                                     vehicleName)) {
+        LOG.debug("Planned route for {} from {} to {} with {} expansions in {} milliseconds.",
+                  vehicleName,
+                  srcPoint.getName(),
+                  destPoint.getName(),
+                  expansions,
+                  System.currentTimeMillis() - timeBefore);
+        return Optional.of(toTimedRoute(graph, node, vehicleName, startTime, holdDestination));
+      }
+
+      // Wait at the current point.
+      long waitEnd = node.time + waitDuration;
+      if (reservationTable.isFree(node.pointName, node.time, waitEnd + margin, vehicleName)) {
+        openNodes.add(new Node(node.pointName,
+                               waitEnd,
+                               node,
+                               null,
+                               waitEnd + lowerBounds.get(node.pointName)));
+      }
+
+      // Travel to a neighbouring point.
+      for (ModelEdge edge : graph.outgoingEdgesOf(node.pointName)) {
+        String targetName = graph.getEdgeTarget(edge);
+        Long lowerBound = lowerBounds.get(targetName);
+        long travelTime = travelTime(edge, vehicle);
+        if (lowerBound == null
+            || travelTime < 0
+            || blockedPoints.contains(targetName)) {
+          continue;
+        }
+        long arrival = node.time + travelTime;
+        if (reservationTable.isFree(edge.getModelPath().getName(),
+                                    node.time,
+                                    arrival + margin,
+                                    vehicleName)
+            && reservationTable.isFree(targetName, arrival, arrival + margin, vehicleName)) {
+          openNodes.add(new Node(targetName, arrival, node, edge, arrival + lowerBound));
+        }
+      }
+    }
+
+    LOG.debug("No route for {} from {} to {} found with {} expansions.",
+              vehicleName,
+              srcPoint.getName(),
+              destPoint.getName(),
+              expansions);
+    return Optional.empty();
+  }
+
+  /**
+   * Returns the time windows in which the given vehicle is expected to use the resources of the
+   * given steps if it does not wait anywhere.
+   *
+   * @param vehicle The vehicle.
+   * @param steps The steps.
+   * @param startTime The point of time at which the vehicle starts travelling the first step.
+   * @return The time windows. The last point is reserved indefinitely.
+   */
+  @Nonnull
+  public List<Reservation> computeReservations(@Nonnull Vehicle vehicle,
+                                               @Nonnull List<Route.Step> steps,
+                                               long startTime) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(steps, "steps");
+
+    List<Reservation> result = new ArrayList<>();
+    long margin = configuration.safetyMargin();
+    long time = startTime;
+    String pointName = null;
+    long pointSince = startTime;
+    for (Route.Step step : steps) {
+      if (step.getPath() == null) {
+        continue;
+      }
+      ModelEdge edge = new ModelEdge(step.getPath(),
+                                     step.getVehicleOrientation() == Vehicle.Orientation.BACKWARD);
+      long travelTime = Math.max(0, travelTime(edge, vehicle));
+      result.add(new Reservation(sourceName(edge), vehicle.getName(), pointSince, time + margin));
+      result.add(new Reservation(step.getPath().getName(),
+                                 vehicle.getName(),
+                                 time,
+                                 time + travelTime + margin));
+      time += travelTime;
+      pointName = targetName(edge);
+      pointSince = time;
+    }
+    if (pointName != null) {
+      result.add(new Reservation(pointName, vehicle.getName(), pointSince, Long.MAX_VALUE));
+    }
+    return result;
+  }
+
+  private TimedRoute toTimedRoute(Graph<String, ModelEdge> graph,
+                                  Node goalNode,
+                                  String vehicleName,
+                                  long startTime,
+                                  boolean holdDestination) {
+    LinkedList<Node> nodes = new LinkedList<>();
+    for (Node node = goalNode; node != null; node = node.parent) {
+      nodes.addFirst(node);
+    }
+
+    long margin = configuration.safetyMargin();
+    List<Route.Step> steps = new ArrayList<>();
+    List<Reservation> reservations = new ArrayList<>();
+    long pointSince = startTime;
+    double costs = 0;
+    for (Node node : nodes) {
+      if (node.edge == null) {
+        // Either the start node or waiting at a point.
+        continue;
+      }
+      ModelEdge edge = node.edge;
+      long departure = node.parent.time;
+      reservations.add(new Reservation(sourceName(edge),
+                                       vehicleName,
+                                       pointSince,
+                                       departure + margin));
+      reservations.add(new Reservation(edge.getModelPath().getName(),
+                                       vehicleName,
+                                       departure,
+                                       node.time + margin));
+      steps.add(new Route.Step(edge.getModelPath(),
+                               pointsByName.get(sourceName(edge)),
+                               pointsByName.get(targetName(edge)),
+                               edge.isTravellingReverse()
+                                   ? Vehicle.Orientation.BACKWARD
+                                   : Vehicle.Orientation.FORWARD,
+                               steps.size()));
+      costs += graph.getEdgeWeight(edge);
+      pointSince = node.time;
+    }
+    reservations.add(new Reservation(goalNode.pointName,
+                                     vehicleName,
+                                     pointSince,
+                                     holdDestination ? Long.MAX_VALUE : goalNode.time + margin));
+
+    if (steps.isEmpty()) {
+      // We're already at the destination point - create a single step without a path.
+      steps.add(new Route.Step(null,
+                               null,
+                               pointsByName.get(goalNode.pointName),
+                               Vehicle.Orientation.UNDEFINED,
+                               0));
+    }
+
+    return new TimedRoute(new Route(steps, (long) costs),
+                          reservations,
+                          goalNode.time);
+  }
+
+  /**
+   * Returns the graph for the given vehicle's routing group.
+   */
+  private Graph<String, ModelEdge> getGraph(Vehicle vehicle) {
+    String routingGroup = vehicle.getProperty(PROPKEY_ROUTING_GROUP);
+    return graphsByRoutingGroup.computeIfAbsent(
+        routingGroup == null ? DEFAULT_ROUTING_GROUP : routingGroup,
+        group -> mapper.translateModel(points, paths, vehicle)
+    );
+  }
+
+  /**
+   * Computes the travel times from all points to the given destination point, ignoring any
+   * reservations.
+   */
+  private Map<String, Long> computeLowerBounds(Graph<String, ModelEdge> graph,
+                                               Vehicle vehicle,
+                                               String destName) {
+    Map<String, Long> result = new HashMap<>();
+    if (!graph.containsVertex(destName)) {
+      return result;
+    }
+    PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingLong(node -> node.time));
+    queue.add(new Node(destName, 0, null, null, 0));
+    while (!queue.isEmpty()) {
+      Node node = queue.poll();
+      if (result.containsKey(node.pointName)) {
+        continue;
+      }
+      result.put(node.pointName, node.time);
+
+      for (ModelEdge edge : graph.incomingEdgesOf(node.pointName)) {
+        String sourceName = graph.getEdgeSource(edge);
+        long travelTime = travelTime(edge, vehicle);
+        if (travelTime < 0 || result.containsKey(sourceName)) {
+          continue;
+        }
+        queue.add(new Node(sourceName, node.time + travelTime, null, null, 0));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the time (in ms) the given vehicle needs to travel along the given edge, or -1, if the
+   * vehicle cannot travel along it.
+   */
+  private long travelTime(ModelEdge edge, Vehicle vehicle) {
+    Path path = edge.getModelPath();
+    if (path.isLocked()) {
+      return -1;
+    }
+    int maxVelocity;
+    if (edge.isTravellingReverse()) {
+      maxVelocity = Math.min(vehicle.getMaxReverseVelocity(), path.getMaxReverseVelocity());
+    }
+    else {
+      maxVelocity = Math.min(vehicle.getMaxVelocity(), path.getMaxVelocity());
+    }
+    if (maxVelocity <= 0) {
+      return -1;
+    }
+    // Lengths are given in mm, velocities in mm/s.
+    return Math.max(1, path.getLength() * 1000 / maxVelocity);
+  }
+
+  private static String sourceName(ModelEdge edge) {
+    return edge.isTravellingReverse()
+        ? edge.getModelPath().getDestinationPoint().getName()
+        : edge.getModelPath().getSourcePoint().getName();
+  }
+
+  private static String targetName(ModelEdge edge) {
+    return edge.isTravellingReverse()
+        ? edge.getModelPath().getSourcePoint().getName()
+        : edge.getModelPath().getDestinationPoint().getName();
+  }
+
+  /**
+   * A node in the space-time search.
+   */
+  private static class Node {
+
+    /**
+     * The name of the point.
+     */
+    private final String pointName;
+    /**
+     * The point of time the vehicle is expected to be at the point.
+     */
+    private final long time;
+    /**
+     * The node preceding this one, or <code>null</code>.
+     */
+    private final Node parent;
+    /**
+     * The edge leading from the preceding node to this one, or <code>null</code>, if the vehicle
+     * waited.
+     */
+    private final ModelEdge edge;
+    /**
+     * The estimated time of arrival at the destination point.
+     */
+    private final long estimate;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param pointName The name of the point.
+     * @param time The point of time the vehicle is expected to be at the point.
+     * @param parent The node preceding this one, or <code>null</code>.
+     * @param edge The edge leading from the preceding node to this one, or <code>null</code>.
+     * @param estimate The estimated time of arrival at the destination point.
+     */
+    Node(String pointName, long time, Node parent, ModelEdge edge, long estimate) {
+      this.pointName = pointName;
+      this.time = time;
+      this.parent = parent;
+      this.edge = edge;
+      this.estimate = estimate;
+    }
+  }
+}
@@ -0,0 +1,48 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link TimeWindowRouter}.
+ */
+@ConfigurationPrefix(TimeWindowConfiguration.PREFIX)
+public interface TimeWindowConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultrouter.timewindow";
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = {
+        "Whether to plan routes around the time windows reserved by other vehicles' routes.",
+        "If disabled, routes are computed without considering other vehicles."})
+  boolean enable();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The duration (in ms) a vehicle may be planned to wait at a point at once.")
+  int waitDuration();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The time (in ms) by which every reserved time window is extended.")
+  int safetyMargin();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = {
+        "The maximum number of search nodes to be expanded when planning a route.",
+        "If no route is found within this limit, the route is computed without considering other "
+        + "vehicles."})
+  int maxExpansions();
+}
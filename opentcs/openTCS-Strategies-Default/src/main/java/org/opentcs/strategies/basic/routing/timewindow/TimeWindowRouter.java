@@ -0,0 +1,404 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.TCSObjectReference;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.routing.DefaultRouter;
+import org.opentcs.strategies.basic.routing.jgrapht.ModelGraphMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link Router} planning routes around the time windows in which other vehicles are expected to
+ * use points and paths.
+ * <p>
+ * Every route selected for a vehicle is recorded in a {@link ReservationTable}, with time windows
+ * estimated from the paths' lengths and the vehicle's velocities.
+ * New routes are planned using a {@link SpaceTimePlanner}, so that a vehicle does not enter a path
+ * or point while another vehicle is expected to use it.
+ * This avoids e.g. two vehicles being routed head-on into the same narrow aisle.
+ * Vehicles without a selected route are expected to stay at their current positions.
+ * Note that waiting times planned along a route are not part of the resulting route; where a
+ * vehicle arrives early, it is held back by the scheduler as usual.
+ * </p>
+ * <p>
+ * Choosing destinations (e.g. among a location's access points), routability checks and costs are
+ * delegated to the {@link DefaultRouter}, which is also used as a fallback if the planner does not
+ * find a route. The planner uses the same graphs as the {@link DefaultRouter}, so routing groups,
+ * excluded paths and edge weights apply to planned routes, too.
+ * </p>
+ */
+public class TimeWindowRouter
+    implements Router {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(TimeWindowRouter.class);
+  /**
+   * The router to delegate to.
+   */
+  private final DefaultRouter delegate;
+  /**
+   * The object service providing the model data.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * Maps the model to the graphs to plan on.
+   */
+  private final ModelGraphMapper mapper;
+  /**
+   * The time windows reserved for the vehicles' selected routes.
+   */
+  private final ReservationTable reservationTable;
+  /**
+   * This router's configuration.
+   */
+  private final TimeWindowConfiguration configuration;
+  /**
+   * Provides the current time, to which the time windows refer.
+   */
+  private final SimulationClock clock;
+  /**
+   * The routes most recently planned for each vehicle, by vehicle name.
+   */
+  private final Map<String, PlannedRoutes> plannedRoutes = new ConcurrentHashMap<>();
+  /**
+   * The planner for the current model.
+   */
+  private volatile SpaceTimePlanner planner;
+  /**
+   * Indicates whether this component is enabled.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param delegate The router to delegate to.
+   * @param objectService The object service providing the model data.
+   * @param mapper Maps the model to the graphs to plan on.
+   * @param reservationTable The time windows reserved for the vehicles' selected routes.
+   * @param configuration This router's configuration.
+   * @param clock Provides the current time, to which the time windows refer.
+   */
+  @Inject
+  public TimeWindowRouter(DefaultRouter delegate,
+                          TCSObjectService objectService,
+                          ModelGraphMapper mapper,
+                          ReservationTable reservationTable,
+                          TimeWindowConfiguration configuration,
+                          SimulationClock clock) {
+    this.delegate = requireNonNull(delegate, "delegate");
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.mapper = requireNonNull(mapper, "mapper");
+    this.reservationTable = requireNonNull(reservationTable, "reservationTable");
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.clock = requireNonNull(clock, "clock");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    delegate.initialize();
+    reservationTable.clear();
+    plannedRoutes.clear();
+    planner = createPlanner();
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    delegate.terminate();
+    reservationTable.clear();
+    plannedRoutes.clear();
+    planner = null;
+    initialized = false;
+  }
+
+  @Override
+  public void topologyChanged() {
+    delegate.topologyChanged();
+    planner = createPlanner();
+  }
+
+  @Override
+  @Deprecated
+  public void updateRoutingTables() {
+    topologyChanged();
+  }
+
+  @Override
+  public Set<Vehicle> checkRoutability(TransportOrder order) {
+    return delegate.checkRoutability(order);
+  }
+
+  @Override
+  public Optional<List<DriveOrder>> getRoute(Vehicle vehicle,
+                                             Point sourcePoint,
+                                             TransportOrder transportOrder) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(transportOrder, "transportOrder");
+
+    // Let the delegate choose the destination points, then plan the route to each of them.
+    Optional<List<DriveOrder>> optDriveOrders = delegate.getRoute(vehicle,
+                                                                  sourcePoint,
+                                                                  transportOrder);
+    if (!optDriveOrders.isPresent()) {
+      return optDriveOrders;
+    }
+
+    long time = prepareTable();
+    Set<String> blockedPoints = getBlockedPoints(vehicle);
+    List<DriveOrder> driveOrders = optDriveOrders.get();
+    List<DriveOrder> result = new ArrayList<>(driveOrders.size());
+    List<Reservation> reservations = new ArrayList<>();
+    Point legSource = sourcePoint;
+    for (int i = 0; i < driveOrders.size(); i++) {
+      DriveOrder driveOrder = driveOrders.get(i);
+      Point legDestination = driveOrder.getRoute().getFinalDestinationPoint();
+      boolean lastLeg = i == driveOrders.size() - 1;
+      Optional<TimedRoute> timedRoute = planner.plan(vehicle,
+                                                     legSource,
+                                                     legDestination,
+                                                     time,
+                                                     blockedPoints,
+                                                     lastLeg);
+      if (!timedRoute.isPresent()) {
+        LOG.debug("Could not plan route for {} around reservations, using default route.",
+                  vehicle.getName());
+        plannedRoutes.remove(vehicle.getName());
+        return optDriveOrders;
+      }
+
+      List<Reservation> legReservations = timedRoute.get().getReservations();
+      if (!reservations.isEmpty()) {
+        // The previous leg's destination is covered by this leg's reservations from now on.
+        int lastIndex = reservations.size() - 1;
+        reservations.set(lastIndex, reservations.get(lastIndex).withEnd(time));
+      }
+      reservations.addAll(legReservations);
+      result.add(driveOrder.withRoute(timedRoute.get().getRoute()));
+      time = timedRoute.get().getArrivalTime();
+      legSource = legDestination;
+    }
+
+    plannedRoutes.put(vehicle.getName(), new PlannedRoutes(toRoutes(result), reservations));
+    return Optional.of(result);
+  }
+
+  @Override
+  public Optional<Route> getRoute(Vehicle vehicle,
+                                  Point sourcePoint,
+                                  Point destinationPoint) {
+    requireNonNull(vehicle, "vehicle");
+    requireNonNull(sourcePoint, "sourcePoint");
+    requireNonNull(destinationPoint, "destinationPoint");
+
+    long time = prepareTable();
+    Optional<TimedRoute> timedRoute = planner.plan(vehicle,
+                                                   sourcePoint,
+                                                   destinationPoint,
+                                                   time,
+                                                   getBlockedPoints(vehicle),
+                                                   true);
+    if (!timedRoute.isPresent()) {
+      LOG.debug("Could not plan route for {} around reservations, using default route.",
+                vehicle.getName());
+      return delegate.getRoute(vehicle, sourcePoint, destinationPoint);
+    }
+    return Optional.of(timedRoute.get().getRoute());
+  }
+
+  @Override
+  public List<Route> getRoutes(Vehicle vehicle,
+                               Point sourcePoint,
+                               Point destinationPoint,
+                               int maxRouteCount) {
+    return delegate.getRoutes(vehicle, sourcePoint, destinationPoint, maxRouteCount);
+  }
+
+  @Override
+  public long getCosts(Vehicle vehicle,
+                       Point sourcePoint,
+                       Point destinationPoint) {
+    return delegate.getCosts(vehicle, sourcePoint, destinationPoint);
+  }
+
+  @Override
+  public long getCostsByPointRef(Vehicle vehicle,
+                                 TCSObjectReference<Point> srcPointRef,
+                                 TCSObjectReference<Point> dstPointRef) {
+    return delegate.getCostsByPointRef(vehicle, srcPointRef, dstPointRef);
+  }
+
+  @Override
+  @Deprecated
+  public long getCosts(Vehicle vehicle,
+                       TCSObjectReference<Location> srcRef,
+                       TCSObjectReference<Location> destRef) {
+    return delegate.getCosts(vehicle, srcRef, destRef);
+  }
+
+  @Override
+  public void selectRoute(Vehicle vehicle, List<DriveOrder> driveOrders) {
+    requireNonNull(vehicle, "vehicle");
+
+    delegate.selectRoute(vehicle, driveOrders);
+
+    PlannedRoutes planned = plannedRoutes.remove(vehicle.getName());
+    if (driveOrders == null) {
+      reservationTable.release(vehicle.getName());
+      return;
+    }
+
+    List<DriveOrder> unfinishedOrders = driveOrders.stream()
+        .filter(driveOrder -> driveOrder.getState() != DriveOrder.State.FINISHED
+            && driveOrder.getState() != DriveOrder.State.FAILED)
+        .collect(Collectors.toList());
+    if (planned != null && planned.routes.equals(toRoutes(unfinishedOrders))) {
+      reservationTable.reserve(vehicle.getName(), planned.reservations);
+    }
+    else {
+      // The route was not planned by us (e.g. when rerouting) - assume the vehicle does not wait.
+      reservationTable.reserve(vehicle.getName(),
+                               planner.computeReservations(vehicle,
+                                                           remainingSteps(vehicle, unfinishedOrders),
+                                                           clock.millis()));
+    }
+  }
+
+  @Override
+  public Map<Vehicle, List<DriveOrder>> getSelectedRoutes() {
+    return delegate.getSelectedRoutes();
+  }
+
+  @Override
+  public Set<Point> getTargetedPoints() {
+    return delegate.getTargetedPoints();
+  }
+
+  private SpaceTimePlanner createPlanner() {
+    return new SpaceTimePlanner(objectService.fetchObjects(Point.class),
+                                objectService.fetchObjects(Path.class),
+                                mapper,
+                                reservationTable,
+                                configuration);
+  }
+
+  /**
+   * Removes expired reservations and returns the current time.
+   */
+  private long prepareTable() {
+    long now = clock.millis();
+    reservationTable.removeExpired(now);
+    return now;
+  }
+
+  /**
+   * Returns the names of the points occupied by vehicles other than the given one that do not have
+   * a selected route.
+   */
+  private Set<String> getBlockedPoints(Vehicle vehicle) {
+    return objectService.fetchObjects(Vehicle.class).stream()
+        .filter(curVehicle -> !curVehicle.getName().equals(vehicle.getName()))
+        .filter(curVehicle -> curVehicle.getCurrentPosition() != null)
+        .filter(curVehicle -> !reservationTable.hasReservations(curVehicle.getName()))
+        .map(curVehicle -> curVehicle.getCurrentPosition().getName())
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns the steps of the given drive orders, starting with the first step leaving the vehicle's
+   * current position.
+   */
+  private List<Route.Step> remainingSteps(Vehicle vehicle, List<DriveOrder> driveOrders) {
+    List<Route.Step> result = new ArrayList<>();
+    for (DriveOrder driveOrder : driveOrders) {
+      if (driveOrder.getRoute() != null) {
+        result.addAll(driveOrder.getRoute().getSteps());
+      }
+    }
+
+    TCSObjectReference<Point> position = vehicle.getCurrentPosition();
+    if (position == null) {
+      return result;
+    }
+    for (int i = 0; i < result.size(); i++) {
+      Point stepSource = result.get(i).getSourcePoint();
+      if (stepSource != null && stepSource.getName().equals(position.getName())) {
+        return result.subList(i, result.size());
+      }
+    }
+    return result;
+  }
+
+  private List<Route> toRoutes(List<DriveOrder> driveOrders) {
+    return driveOrders.stream()
+        .map(driveOrder -> driveOrder.getRoute())
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * The routes planned for a vehicle, along with the reservations for them.
+   */
+  private static class PlannedRoutes {
+
+    /**
+     * The planned routes.
+     */
+    private final List<Route> routes;
+    /**
+     * The reservations for the planned routes.
+     */
+    private final List<Reservation> reservations;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param routes The planned routes.
+     * @param reservations The reservations for the planned routes.
+     */
+    PlannedRoutes(List<Route> routes, List<Reservation> reservations) {
+      this.routes = routes;
+      this.reservations = reservations;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.routing.timewindow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import org.opentcs.data.order.Route;
+
+/**
+ * A route along with the time windows in which the vehicle is expected to use its resources.
+ */
+public class TimedRoute {
+
+  /**
+   * The route.
+   */
+  private final Route route;
+  /**
+   * The time windows in which the vehicle is expected to use the route's resources.
+   */
+  private final List<Reservation> reservations;
+  /**
+   * The point of time at which the vehicle is expected to arrive at the route's destination.
+   */
+  private final long arrivalTime;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param route The route.
+   * @param reservations The time windows in which the vehicle is expected to use the route's
+   * resources.
+   * @param arrivalTime The point of time at which the vehicle is expected to arrive at the route's
+   * destination.
+   */
+  public TimedRoute(@Nonnull Route route,
+                    @Nonnull List<Reservation> reservations,
+                    long arrivalTime) {
+    this.route = requireNonNull(route, "route");
+    this.reservations = Collections.unmodifiableList(
+        new ArrayList<>(requireNonNull(reservations, "reservations")));
+    this.arrivalTime = arrivalTime;
+  }
+
+  /**
+   * Returns the route.
+   *
+   * @return The route.
+   */
+  @Nonnull
+  public Route getRoute() {
+    return route;
+  }
+
+  /**
+   * Returns the time windows in which the vehicle is expected to use the route's resources.
+   * The last reservation is the one for the route's destination point.
+   *
+   * @return The time windows in which the vehicle is expected to use the route's resources.
+   */
+  @Nonnull
+  public List<Reservation> getReservations() {
+    return reservations;
+  }
+
+  /**
+   * Returns the point of time at which the vehicle is expected to arrive at the route's
+   * destination.
+   *
+   * @return The point of time at which the vehicle is expected to arrive at the route's
+   * destination.
+   */
+  public long getArrivalTime() {
+    return arrivalTime;
+  }
+}
@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.inject.Inject;
+import org.opentcs.access.SchedulerAllocationStatistics;
+import org.opentcs.access.SchedulerAllocationStatistics.ClientStatistics;
+import org.opentcs.access.SchedulerAllocationStatistics.ResourceStatistics;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.Block;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.TCSResourceReference;
+
+/**
+ * Collects metrics about the time clients had to wait for their resource allocations and about
+ * deadlocks between them.
+ * <p>
+ * The wait time of an allocation is the time between the client's request and the allocation
+ * being granted. The hold time of a resource is the time between its allocation by a client and
+ * its release.
+ * Wait times, deferrals and hold times are also recorded per client and per resource, to find out
+ * which resources are contended most.
+ * </p>
+ */
+public class AllocationMetrics {
+
+  /**
+   * The wait times of all granted allocations (in ms).
+   */
+  private final LatencyHistogram waitTimes = new LatencyHistogram();
+  /**
+   * The metrics of each client, by client ID.
+   */
+  private final Map<String, ClientMetrics> clientMetrics = new HashMap<>();
+  /**
+   * The metrics of each resource, by resource name.
+   */
+  private final Map<String, ResourceMetrics> resourceMetrics = new HashMap<>();
+  /**
+   * The number of granted allocations that had to be deferred at least once.
+   */
+  private long deferredCount;
+  /**
+   * The number of detected deadlocks.
+   */
+  private long deadlocksDetected;
+  /**
+   * The number of resolved deadlocks.
+   */
+  private long deadlocksResolved;
+
+  /**
+   * Creates a new instance.
+   */
+  @Inject
+  public AllocationMetrics() {
+  }
+
+  /**
+   * Records a granted allocation.
+   *
+   * @param client The client the allocation was granted to.
+   * @param resources The allocated resources.
+   * @param blockingResources The resources the allocation had to wait for.
+   * @param waitTime The time the client had to wait for the allocation (in ms).
+   * @param deferred Whether the allocation had to be deferred at least once.
+   */
+  synchronized void allocationGranted(Client client,
+                                      Set<TCSResource<?>> resources,
+                                      Set<TCSResource<?>> blockingResources,
+                                      long waitTime,
+                                      boolean deferred) {
+    waitTimes.record(waitTime);
+    if (deferred) {
+      deferredCount++;
+    }
+    clientMetrics(client).waitTimes.record(waitTime);
+    for (TCSResource<?> resource : resources) {
+      resourceMetrics(resource).allocationCount++;
+    }
+    for (TCSResource<?> resource : blockingResources) {
+      resourceMetrics(resource).totalWaitTime += waitTime;
+    }
+  }
+
+  /**
+   * Records a deferred allocation.
+   *
+   * @param client The client whose allocation was deferred.
+   * @param blockingResources The resources the allocation has to wait for.
+   */
+  synchronized void allocationDeferred(Client client, Set<TCSResource<?>> blockingResources) {
+    clientMetrics(client).deferralCount++;
+    for (TCSResource<?> resource : blockingResources) {
+      resourceMetrics(resource).deferralCount++;
+    }
+  }
+
+  /**
+   * Records the release of a resource.
+   *
+   * @param client The client that held the resource.
+   * @param resource The resource.
+   * @param holdTime The time the client held the resource (in ms).
+   */
+  synchronized void resourceReleased(Client client, TCSResource<?> resource, long holdTime) {
+    clientMetrics(client).holdTimes.record(holdTime);
+    ResourceMetrics metrics = resourceMetrics(resource);
+    metrics.totalHoldTime += holdTime;
+    metrics.maxHoldTime = Math.max(metrics.maxHoldTime, holdTime);
+  }
+
+  /**
+   * Records a detected deadlock.
+   */
+  public synchronized void deadlockDetected() {
+    deadlocksDetected++;
+  }
+
+  /**
+   * Records a resolved deadlock.
+   */
+  public synchronized void deadlockResolved() {
+    deadlocksResolved++;
+  }
+
+  /**
+   * Returns the number of granted allocations.
+   *
+   * @return The number of granted allocations.
+   */
+  public synchronized long getGrantedCount() {
+    return waitTimes.getCount();
+  }
+
+  /**
+   * Returns the number of granted allocations that had to be deferred at least once.
+   *
+   * @return The number of granted allocations that had to be deferred.
+   */
+  public synchronized long getDeferredCount() {
+    return deferredCount;
+  }
+
+  /**
+   * Returns the average wait time of granted allocations.
+   *
+   * @return The average wait time (in ms), or 0 if no allocation has been granted, yet.
+   */
+  public synchronized long getAverageWaitTime() {
+    return waitTimes.getCount() == 0 ? 0 : waitTimes.getTotal() / waitTimes.getCount();
+  }
+
+  /**
+   * Returns the longest wait time of a granted allocation.
+   *
+   * @return The longest wait time (in ms).
+   */
+  public synchronized long getMaxWaitTime() {
+    return waitTimes.getMax();
+  }
+
+  /**
+   * Returns the number of detected deadlocks.
+   *
+   * @return The number of detected deadlocks.
+   */
+  public synchronized long getDeadlocksDetected() {
+    return deadlocksDetected;
+  }
+
+  /**
+   * Returns the number of resolved deadlocks.
+   *
+   * @return The number of resolved deadlocks.
+   */
+  public synchronized long getDeadlocksResolved() {
+    return deadlocksResolved;
+  }
+
+  /**
+   * Returns the statistics for the recorded allocations.
+   * Besides single resources, the blocks of the plant model are ranked by contention, too, with the
+   * metrics of their members summed up.
+   *
+   * @param maxResourceCount The maximum number of most contended resources to be included.
+   * @param blocks The blocks of the plant model.
+   * @return The statistics.
+   */
+  public synchronized SchedulerAllocationStatistics getStatistics(int maxResourceCount,
+                                                                  Collection<Block> blocks) {
+    List<ClientStatistics> clientStatistics = clientMetrics.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .map(entry -> new ClientStatistics(entry.getKey(),
+                                           entry.getValue().deferralCount,
+                                           entry.getValue().waitTimes.toLatency(),
+                                           entry.getValue().holdTimes.toLatency()))
+        .collect(Collectors.toList());
+
+    List<ResourceStatistics> resourceStatistics = new ArrayList<>();
+    for (Map.Entry<String, ResourceMetrics> entry : resourceMetrics.entrySet()) {
+      resourceStatistics.add(entry.getValue().toStatistics(entry.getKey()));
+    }
+    for (Block block : blocks) {
+      ResourceMetrics blockMetrics = new ResourceMetrics(Block.class.getSimpleName());
+      for (TCSResourceReference<?> member : block.getMembers()) {
+        ResourceMetrics memberMetrics = resourceMetrics.get(member.getName());
+        if (memberMetrics != null) {
+          blockMetrics.add(memberMetrics);
+        }
+      }
+      resourceStatistics.add(blockMetrics.toStatistics(block.getName()));
+    }
+
+    return new SchedulerAllocationStatistics(
+        waitTimes.toLatency(),
+        clientStatistics,
+        resourceStatistics.stream()
+            .filter(statistics -> statistics.getDeferralCount() > 0)
+            .sorted(Comparator.comparingLong(ResourceStatistics::getDeferralCount)
+                .thenComparingLong(ResourceStatistics::getTotalWaitTime)
+                .reversed())
+            .limit(Math.max(0, maxResourceCount))
+            .collect(Collectors.toList()));
+  }
+
+  /**
+   * Resets all metrics.
+   */
+  public synchronized void clear() {
+    waitTimes.clear();
+    clientMetrics.clear();
+    resourceMetrics.clear();
+    deferredCount = 0;
+    deadlocksDetected = 0;
+    deadlocksResolved = 0;
+  }
+
+  @Override
+  public synchronized String toString() {
+    return "AllocationMetrics{"
+        + "grantedCount=" + waitTimes.getCount()
+        + ", deferredCount=" + deferredCount
+        + ", waitTimes=" + waitTimes.toLatency()
+        + ", deadlocksDetected=" + deadlocksDetected
+        + ", deadlocksResolved=" + deadlocksResolved
+        + '}';
+  }
+
+  private ClientMetrics clientMetrics(Client client) {
+    return clientMetrics.computeIfAbsent(client.getId(), id -> new ClientMetrics());
+  }
+
+  private ResourceMetrics resourceMetrics(TCSResource<?> resource) {
+    return resourceMetrics.computeIfAbsent(
+        resource.getName(),
+        name -> new ResourceMetrics(resource.getClass().getSimpleName()));
+  }
+
+  /**
+   * The metrics of a single client.
+   */
+  private static class ClientMetrics {
+
+    /**
+     * The wait times of the client's granted allocations.
+     */
+    private final LatencyHistogram waitTimes = new LatencyHistogram();
+    /**
+     * The hold times of the resources released by the client.
+     */
+    private final LatencyHistogram holdTimes = new LatencyHistogram();
+    /**
+     * The number of times an allocation of the client was deferred.
+     */
+    private long deferralCount;
+  }
+
+  /**
+   * The metrics of a single resource.
+   */
+  private static class ResourceMetrics {
+
+    /**
+     * The type of the resource.
+     */
+    private final String type;
+    /**
+     * The number of times the resource was allocated.
+     */
+    private long allocationCount;
+    /**
+     * The number of times an allocation had to wait for the resource.
+     */
+    private long deferralCount;
+    /**
+     * The total time allocations had to wait for the resource.
+     */
+    private long totalWaitTime;
+    /**
+     * The total time the resource was held by clients.
+     */
+    private long totalHoldTime;
+    /**
+     * The longest time the resource was held by a client at once.
+     */
+    private long maxHoldTime;
+
+    ResourceMetrics(String type) {
+      this.type = type;
+    }
+
+    void add(ResourceMetrics other) {
+      allocationCount += other.allocationCount;
+      deferralCount += other.deferralCount;
+      totalWaitTime += other.totalWaitTime;
+      totalHoldTime += other.totalHoldTime;
+      maxHoldTime = Math.max(maxHoldTime, other.maxHoldTime);
+    }
+
+    ResourceStatistics toStatistics(String name) {
+      return new ResourceStatistics(name,
+                                    type,
+                                    allocationCount,
+                                    deferralCount,
+                                    totalWaitTime,
+                                    totalHoldTime,
+                                    maxHoldTime);
+    }
+  }
+}
@@ -7,6 +7,7 @@
  */
 package org.opentcs.strategies.basic.scheduling;
 
+import java.util.HashSet;
 import static java.util.Objects.requireNonNull;
 import java.util.Set;
 import org.opentcs.components.kernel.Scheduler.Client;
@@ -74,6 +75,15 @@ abstract class AllocatorCommand
     return client;
   }
 
+  /**
+   * Returns the point of time at which this command was created.
+   *
+   * @return The point of time at which this command was created.
+   */
+  public long getCreationTime() {
+    return creationTime;
+  }
+
   /**
    * Indicates resources being released by a client.
    */
@@ -107,18 +117,35 @@ abstract class AllocatorCommand
   }
 
   /**
-   * Indicates the receiving task should retry to grant deferred allocations.
+   * Indicates the receiving task should retry to grant deferred allocations waiting for a set of
+   * resources.
    */
   public static class RetryAllocates
       extends AllocatorCommand {
 
+    /**
+     * The resources that have been freed.
+     */
+    private final Set<TCSResource<?>> resources;
+
     /**
      * Creates a new instance.
      *
      * @param client The scheduler client this command is associated with.
+     * @param resources The resources that have been freed.
      */
-    public RetryAllocates(Client client) {
+    public RetryAllocates(Client client, Set<TCSResource<?>> resources) {
       super(3, client);
+      this.resources = requireNonNull(resources, "resources");
+    }
+
+    /**
+     * Returns the resources that have been freed.
+     *
+     * @return The resources that have been freed.
+     */
+    public Set<TCSResource<?>> getResources() {
+      return resources;
     }
   }
 
@@ -165,6 +192,15 @@ abstract class AllocatorCommand
      * The resources to be allocated.
      */
     private final Set<TCSResource<?>> resources;
+    /**
+     * Whether the allocation has been deferred at least once.
+     */
+    private volatile boolean deferred;
+    /**
+     * The resources the allocation had to wait for.
+     * Only accessed by the kernel executor.
+     */
+    private final Set<TCSResource<?>> blockingResources = new HashSet<>();
 
     /**
      * Creates a new instance.
@@ -185,6 +221,35 @@ abstract class AllocatorCommand
     public Set<TCSResource<?>> getResources() {
       return resources;
     }
+
+    /**
+     * Indicates whether the allocation has been deferred at least once.
+     *
+     * @return <code>true</code> if, and only if, the allocation has been deferred.
+     */
+    public boolean isDeferred() {
+      return deferred;
+    }
+
+    /**
+     * Returns the resources the allocation had to wait for.
+     *
+     * @return The resources the allocation had to wait for.
+     */
+    public Set<TCSResource<?>> getBlockingResources() {
+      return blockingResources;
+    }
+
+    /**
+     * Marks the allocation as deferred.
+     *
+     * @param resources The resources the allocation has to wait for. May be empty if it was
+     * restricted by a scheduler module.
+     */
+    public void markDeferred(Set<TCSResource<?>> resources) {
+      this.deferred = true;
+      blockingResources.addAll(resources);
+    }
   }
 
 }
@@ -16,7 +16,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.Nonnull;
-import java.util.Queue;
+import java.util.Collections;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 
@@ -47,7 +47,15 @@ class AllocatorTask
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations;
+  private final DeferredAllocations deferredAllocations;
+  /**
+   * Collects metrics about allocation wait times.
+   */
+  private final AllocationMetrics allocationMetrics;
+  /**
+   * Detects and resolves deadlocks.
+   */
+  private final DeadlockResolver deadlockResolver;
   /**
    * Executes tasks.
    */
@@ -56,6 +64,10 @@ class AllocatorTask
    * A global object to be used for synchronization within the kernel.
    */
   private final Object globalSyncObject;
+  /**
+   * Whether resources are allocated without holding the global lock.
+   */
+  private final boolean fineGrainedLocking;
   /**
    * Describes the actual task.
    */
@@ -66,17 +78,23 @@ class AllocatorTask
    */
   public AllocatorTask(@Nonnull InternalPlantModelService plantModelService,
                        @Nonnull ReservationPool reservationPool,
-                       @Nonnull Queue<AllocatorCommand.Allocate> deferredAllocations,
+                       @Nonnull DeferredAllocations deferredAllocations,
+                       @Nonnull AllocationMetrics allocationMetrics,
+                       @Nonnull DeadlockResolver deadlockResolver,
                        @Nonnull Scheduler.Module allocationAdvisor,
                        @Nonnull ScheduledExecutorService kernelExecutor,
                        @Nonnull @GlobalSyncObject Object globalSyncObject,
+                       boolean fineGrainedLocking,
                        @Nonnull AllocatorCommand command) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
     this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+    this.allocationMetrics = requireNonNull(allocationMetrics, "allocationMetrics");
+    this.deadlockResolver = requireNonNull(deadlockResolver, "deadlockResolver");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.fineGrainedLocking = fineGrainedLocking;
     this.command = requireNonNull(command, "command");
   }
 
@@ -86,7 +104,7 @@ class AllocatorTask
       processAllocate((AllocatorCommand.Allocate) command);
     }
     else if (command instanceof AllocatorCommand.RetryAllocates) {
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(((AllocatorCommand.RetryAllocates) command).getResources());
     }
     else if (command instanceof AllocatorCommand.CheckAllocationsPrepared) {
       checkAllocationsPrepared((AllocatorCommand.CheckAllocationsPrepared) command);
@@ -101,10 +119,13 @@ class AllocatorTask
 
   private void processAllocate(AllocatorCommand.Allocate command) {
     if (!tryAllocate(command)) {
-      LOG.debug("{}: Resources unavailable, deferring allocation...", command.getClient().getId());
-      deferredAllocations.add(command);
       return;
     }
+    allocationMetrics.allocationGranted(command.getClient(),
+                                        command.getResources(),
+                                        command.getBlockingResources(),
+                                        System.currentTimeMillis() - command.getCreationTime(),
+                                        command.isDeferred());
 
     checkAllocationsPrepared(command.getClient(), command.getResources());
   }
@@ -114,7 +135,11 @@ class AllocatorTask
   }
 
   private void checkAllocationsPrepared(Client client, Set<TCSResource<?>> resources) {
-    if (!allocationAdvisor.hasPreparedAllocation(client, resources)) {
+    boolean prepared;
+    synchronized (globalSyncObject) {
+      prepared = allocationAdvisor.hasPreparedAllocation(client, resources);
+    }
+    if (!prepared) {
       LOG.debug("{}: Preparation of resources not yet done.",
                 client.getId());
       // XXX remember the resources a client is waiting for preparation done?
@@ -130,50 +155,104 @@ class AllocatorTask
                resources);
       undoAllocate(client, resources);
       // See if others want the resources this one didn't, then.
-      scheduleRetryWaitingAllocations();
+      scheduleRetryWaitingAllocations(resources);
     }
   }
 
   /**
-   * Allocates the given set of resources, if possible.
+   * Allocates the given set of resources, if possible, or defers the allocation.
+   * The allocation advisor's modules are not thread-safe, so they are always called with the
+   * global lock held. With fine-grained locking, allocations of resources that are held by other
+   * clients are deferred without taking the global lock, though.
    *
    * @param command Describes the requested allocation.
    * @return <code>true</code> if, and only if, the given resources were allocated.
    */
   private boolean tryAllocate(AllocatorCommand.Allocate command) {
-    // TODO 直接返回true ,可以绕开死锁的情况。同是需要注解ReservationPool里的127-135行代码(free)
-//    return true;
+    if (fineGrainedLocking && deferIfUnavailable(command)) {
+      return false;
+    }
+    synchronized (globalSyncObject) {
+      return allocateOrDefer(command);
+    }
+  }
+
+  private boolean allocateOrDefer(AllocatorCommand.Allocate command) {
     Scheduler.Client client = command.getClient();
     Set<TCSResource<?>> resources = command.getResources();
 
-    synchronized (globalSyncObject) {
-      LOG.debug("{}: Checking resource if all resources are available:", client.getId());
-      if (!reservationPool.resourcesAvailableForUser(resources, client)) {
-        LOG.debug("{}: Resources unavailable: {}", client.getId(), resources);
-        return false;
-      }
+    if (deferIfUnavailable(command)) {
+      return false;
+    }
+
+    LOG.debug("{}: Checking if resources may be allocated...", client.getId());
+    if (!allocationAdvisor.mayAllocate(client, resources)) {
+      LOG.debug("{}: Resource allocation restricted by some modules.", client);
+      defer(command, Collections.emptySet());
+      return false;
+    }
+
+    LOG.debug("{}: Some resources need to be prepared for allocation.", client.getId());
+    allocationAdvisor.prepareAllocation(client, resources);
 
-      LOG.debug("{}: Checking if resources may be allocated...", client.getId());
-      if (!allocationAdvisor.mayAllocate(client, resources)) {
-        LOG.debug("{}: Resource allocation restricted by some modules.", client);
-        return false;
-      }
+    LOG.debug("{}: All resources available, allocating...", client.getId());
+    if (!reservationPool.allocateAll(client, resources)) {
+      // Only possible with fine-grained locking, if resources were allocated immediately by another
+      // client in the meantime. Let the modules forget about the prepared allocation.
+      Set<TCSResource<?>> unavailableResources
+          = reservationPool.unavailableResources(resources, client);
+      LOG.debug("{}: Resources allocated concurrently: {}", client.getId(), unavailableResources);
+      allocationAdvisor.allocationReleased(client, resources);
+      defer(command, unavailableResources);
+      return false;
+    }
 
-      LOG.debug("{}: Some resources need to be prepared for allocation.", client.getId());
-      allocationAdvisor.prepareAllocation(client, resources);
+    return true;
+  }
 
-      LOG.debug("{}: All resources available, allocating...", client.getId());
-      // Allocate resources.
-      for (TCSResource<?> curRes : command.getResources()) {
-        reservationPool.getReservationEntry(curRes).allocate(client);
-      }
+  /**
+   * Defers the given allocation if any of its resources is allocated by another client.
+   *
+   * @param command The allocation.
+   * @return <code>true</code> if, and only if, the allocation was deferred.
+   */
+  private boolean deferIfUnavailable(AllocatorCommand.Allocate command) {
+    Scheduler.Client client = command.getClient();
+
+    LOG.debug("{}: Checking resource if all resources are available:", client.getId());
+    Set<TCSResource<?>> unavailableResources
+        = reservationPool.unavailableResources(command.getResources(), client);
+    if (unavailableResources.isEmpty()) {
+      return false;
+    }
+    LOG.debug("{}: Resources unavailable: {}", client.getId(), unavailableResources);
+    defer(command, unavailableResources);
+    return true;
+  }
 
-      return true;
+  /**
+   * Defers the given allocation until one of the given resources has been freed.
+   * With the global lock held, resources cannot be freed before the allocation has been registered
+   * as waiting for them. With fine-grained locking, they can, but since freed resources are
+   * processed by a task on the kernel executor, too, the allocation is still retried.
+   *
+   * @param command The allocation.
+   * @param blockingResources The resources the allocation is waiting for.
+   */
+  private void defer(AllocatorCommand.Allocate command, Set<TCSResource<?>> blockingResources) {
+    LOG.debug("{}: Deferring allocation...", command.getClient().getId());
+    command.markDeferred(blockingResources);
+    allocationMetrics.allocationDeferred(command.getClient(), blockingResources);
+    deferredAllocations.add(command, blockingResources);
+    if (!blockingResources.isEmpty()) {
+      deadlockResolver.allocationDeferred(command.getClient());
     }
   }
 
   private void allocationsReleased(AllocatorCommand.AllocationsReleased command) {
-    allocationAdvisor.allocationReleased(command.getClient(), command.getResources());
+    synchronized (globalSyncObject) {
+      allocationAdvisor.allocationReleased(command.getClient(), command.getResources());
+    }
   }
 
   /**
@@ -182,24 +261,33 @@ class AllocatorTask
    * @param resources Describes the allocated resources.
    */
   private void undoAllocate(Client client, Set<TCSResource<?>> resources) {
+    if (fineGrainedLocking) {
+      reservationPool.free(client, resources);
+      return;
+    }
     synchronized (globalSyncObject) {
       reservationPool.free(client, resources);
     }
   }
 
   /**
-   * Moves all waiting allocations back into the incoming queue so they can be rechecked.
+   * Moves the allocations waiting for the given resources back into the incoming queue so they can
+   * be rechecked.
+   *
+   * @param freedResources The resources that have been freed.
    */
-  private void scheduleRetryWaitingAllocations() {
-    for (AllocatorCommand.Allocate allocate : deferredAllocations) {
+  private void scheduleRetryWaitingAllocations(Set<TCSResource<?>> freedResources) {
+    for (AllocatorCommand.Allocate allocate : deferredAllocations.removeWaitingFor(freedResources)) {
       kernelExecutor.submit(new AllocatorTask(plantModelService,
                                               reservationPool,
                                               deferredAllocations,
+                                              allocationMetrics,
+                                              deadlockResolver,
                                               allocationAdvisor,
                                               kernelExecutor,
                                               globalSyncObject,
+                                              fineGrainedLocking,
                                               allocate));
     }
-    deferredAllocations.clear();
   }
 }
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+
+/**
+ * Emitted when the scheduler detects a deadlock and when it tries to resolve it.
+ */
+public class DeadlockEvent
+    implements Serializable {
+
+  /**
+   * The type of this event.
+   */
+  private final Type type;
+  /**
+   * The IDs of the clients waiting for each other, in the order of the wait-for cycle.
+   */
+  private final List<String> clientIds;
+  /**
+   * The ID of the client chosen to give way, or <code>null</code>.
+   */
+  private final String victimId;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param type The type of this event.
+   * @param clientIds The IDs of the clients waiting for each other, in the order of the wait-for
+   * cycle.
+   * @param victimId The ID of the client chosen to give way, or <code>null</code>.
+   */
+  public DeadlockEvent(@Nonnull Type type,
+                       @Nonnull List<String> clientIds,
+                       @Nullable String victimId) {
+    this.type = requireNonNull(type, "type");
+    this.clientIds = Collections.unmodifiableList(new ArrayList<>(requireNonNull(clientIds,
+                                                                                 "clientIds")));
+    this.victimId = victimId;
+  }
+
+  /**
+   * Returns the type of this event.
+   *
+   * @return The type of this event.
+   */
+  @Nonnull
+  public Type getType() {
+    return type;
+  }
+
+  /**
+   * Returns the IDs of the clients waiting for each other, in the order of the wait-for cycle.
+   *
+   * @return The IDs of the clients involved in the deadlock.
+   */
+  @Nonnull
+  public List<String> getClientIds() {
+    return clientIds;
+  }
+
+  /**
+   * Returns the ID of the client chosen to give way.
+   *
+   * @return The ID of the client chosen to give way, or <code>null</code>, if the deadlock was
+   * not resolved.
+   */
+  @Nullable
+  public String getVictimId() {
+    return victimId;
+  }
+
+  @Override
+  public String toString() {
+    return "DeadlockEvent{"
+        + "type=" + type
+        + ", clientIds=" + clientIds
+        + ", victimId=" + victimId
+        + '}';
+  }
+
+  /**
+   * The event types.
+   */
+  public enum Type {
+    /**
+     * A deadlock has been detected.
+     */
+    DETECTED,
+    /**
+     * A deadlock has been resolved by letting a vehicle give way.
+     */
+    RESOLVED,
+    /**
+     * A deadlock could not be resolved.
+     */
+    UNRESOLVED;
+  }
+}
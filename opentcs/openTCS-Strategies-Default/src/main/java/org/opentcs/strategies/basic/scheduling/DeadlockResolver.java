@@ -0,0 +1,390 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.customizations.ApplicationEventBus;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.Route.Step;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.RerouteUtil;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.AllocationLocking.FINE_GRAINED;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolution.NONE;
+import org.opentcs.util.event.EventHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Detects deadlocks between the scheduler's clients and resolves them by letting one of the
+ * vehicles involved give way.
+ * <p>
+ * A deadlock is detected as a cycle in the {@link WaitForGraph} when an allocation is deferred.
+ * It is then resolved on the kernel executor, outside of the global lock, according to the
+ * configured {@link DefaultSchedulerConfiguration.DeadlockResolution}.
+ * The allocation state is only read with the global lock held if allocations hold it, too, i.e.
+ * unless fine-grained allocation locking is configured.
+ * The vehicles involved are tried in order of ascending priority, i.e. vehicles processing orders
+ * with later deadlines first, until one of them could be rerouted or backed off.
+ * </p>
+ */
+class DeadlockResolver {
+
+  /**
+   * This class's Logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DeadlockResolver.class);
+  /**
+   * This class's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The object service.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The router.
+   */
+  private final Router router;
+  /**
+   * Provides the utility used for rerouting vehicles.
+   */
+  private final Provider<RerouteUtil> rerouteUtilProvider;
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * Allocations deferred because they couldn't be granted, yet.
+   */
+  private final DeferredAllocations deferredAllocations;
+  /**
+   * The clients' wait-for graph.
+   */
+  private final WaitForGraph waitForGraph;
+  /**
+   * Collects metrics about allocations and deadlocks.
+   */
+  private final AllocationMetrics allocationMetrics;
+  /**
+   * Where deadlock events are emitted to.
+   */
+  private final EventHandler eventHandler;
+  /**
+   * Executes the resolution tasks.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * Whether resources are allocated and freed without holding the global lock.
+   */
+  private final boolean fineGrainedLocking;
+  /**
+   * The IDs of the clients of deadlocks currently being resolved.
+   */
+  private final Set<Set<String>> pendingResolutions = new HashSet<>();
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration This class's configuration.
+   * @param objectService The object service.
+   * @param router The router.
+   * @param rerouteUtilProvider Provides the utility used for rerouting vehicles.
+   * @param reservationPool The reservation pool.
+   * @param deferredAllocations Allocations deferred because they couldn't be granted, yet.
+   * @param waitForGraph The clients' wait-for graph.
+   * @param allocationMetrics Collects metrics about allocations and deadlocks.
+   * @param eventHandler Where deadlock events are emitted to.
+   * @param kernelExecutor Executes the resolution tasks.
+   * @param globalSyncObject The kernel threads' global synchronization object.
+   */
+  @Inject
+  DeadlockResolver(@Nonnull DefaultSchedulerConfiguration configuration,
+                   @Nonnull TCSObjectService objectService,
+                   @Nonnull Router router,
+                   @Nonnull Provider<RerouteUtil> rerouteUtilProvider,
+                   @Nonnull ReservationPool reservationPool,
+                   @Nonnull DeferredAllocations deferredAllocations,
+                   @Nonnull WaitForGraph waitForGraph,
+                   @Nonnull AllocationMetrics allocationMetrics,
+                   @Nonnull @ApplicationEventBus EventHandler eventHandler,
+                   @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor,
+                   @Nonnull @GlobalSyncObject Object globalSyncObject) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.objectService = requireNonNull(objectService, "objectService");
+    this.router = requireNonNull(router, "router");
+    this.rerouteUtilProvider = requireNonNull(rerouteUtilProvider, "rerouteUtilProvider");
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+    this.waitForGraph = requireNonNull(waitForGraph, "waitForGraph");
+    this.allocationMetrics = requireNonNull(allocationMetrics, "allocationMetrics");
+    this.eventHandler = requireNonNull(eventHandler, "eventHandler");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.fineGrainedLocking = configuration.allocationLocking() == FINE_GRAINED;
+  }
+
+  /**
+   * Checks whether deferring an allocation for the given client resulted in a deadlock and, if so,
+   * schedules its resolution.
+   * Must be called on the kernel executor, with the same locking as allocations.
+   *
+   * @param client The client whose allocation was deferred.
+   */
+  public void allocationDeferred(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    List<Client> cycle = waitForGraph.findCycle(client);
+    if (cycle.isEmpty()) {
+      return;
+    }
+
+    List<String> clientIds = toIds(cycle);
+    synchronized (pendingResolutions) {
+      if (!pendingResolutions.add(new HashSet<>(clientIds))) {
+        LOG.debug("Deadlock between {} already being resolved.", clientIds);
+        return;
+      }
+    }
+
+    LOG.warn("Deadlock detected: {}", clientIds);
+    allocationMetrics.deadlockDetected();
+    eventHandler.onEvent(new DeadlockEvent(DeadlockEvent.Type.DETECTED, clientIds, null));
+    kernelExecutor.execute(() -> resolve(cycle));
+  }
+
+  private void resolve(List<Client> cycle) {
+    List<String> clientIds = toIds(cycle);
+    try {
+      if (configuration.deadlockResolution() == NONE) {
+        return;
+      }
+
+      if (withAllocationLock(() -> waitForGraph.findCycle(cycle.get(0))).isEmpty()) {
+        LOG.debug("Deadlock between {} dissolved in the meantime.", clientIds);
+        return;
+      }
+
+      for (Client victim : orderByAscendingPriority(cycle)) {
+        if (letGiveWay(victim, cycle)) {
+          LOG.info("Resolved deadlock between {} by letting {} give way.",
+                   clientIds,
+                   victim.getId());
+          allocationMetrics.deadlockResolved();
+          eventHandler.onEvent(new DeadlockEvent(DeadlockEvent.Type.RESOLVED,
+                                                 clientIds,
+                                                 victim.getId()));
+          return;
+        }
+      }
+
+      LOG.warn("Could not resolve deadlock between {}.", clientIds);
+      eventHandler.onEvent(new DeadlockEvent(DeadlockEvent.Type.UNRESOLVED, clientIds, null));
+    }
+    catch (RuntimeException exc) {
+      // The kernel executor would silently discard the exception.
+      LOG.error("Exception resolving deadlock between {}.", clientIds, exc);
+      eventHandler.onEvent(new DeadlockEvent(DeadlockEvent.Type.UNRESOLVED, clientIds, null));
+    }
+    finally {
+      synchronized (pendingResolutions) {
+        pendingResolutions.remove(new HashSet<>(clientIds));
+      }
+    }
+  }
+
+  private List<Client> orderByAscendingPriority(List<Client> cycle) {
+    List<Client> result = new ArrayList<>(cycle);
+    result.sort(Comparator.comparingLong((Client client) -> getDeadline(client)).reversed()
+        .thenComparing(client -> client.getId()));
+    return result;
+  }
+
+  private long getDeadline(Client client) {
+    Vehicle vehicle = objectService.fetchObject(Vehicle.class, client.getId());
+    if (vehicle == null || vehicle.getTransportOrder() == null) {
+      // Vehicles without orders cannot be rerouted, so try them last.
+      return Long.MIN_VALUE;
+    }
+    TransportOrder order = objectService.fetchObject(TransportOrder.class,
+                                                     vehicle.getTransportOrder());
+    return order == null ? Long.MIN_VALUE : order.getDeadline();
+  }
+
+  /**
+   * Tries to let the given client give way to the others in the cycle.
+   *
+   * @param victim The client to give way.
+   * @param cycle The clients waiting for each other.
+   * @return <code>true</code> if, and only if, the client was rerouted.
+   */
+  private boolean letGiveWay(Client victim, List<Client> cycle) {
+    Vehicle vehicle = objectService.fetchObject(Vehicle.class, victim.getId());
+    if (vehicle == null
+        || vehicle.getTransportOrder() == null
+        || !vehicle.hasProcState(Vehicle.ProcState.PROCESSING_ORDER)) {
+      return false;
+    }
+    TransportOrder order = objectService.fetchObject(TransportOrder.class,
+                                                     vehicle.getTransportOrder());
+    DriveOrder currentOrder = order == null ? null : order.getCurrentDriveOrder();
+    if (currentOrder == null || currentOrder.getRoute() == null) {
+      return false;
+    }
+
+    Set<TCSResource<?>> blockedResources = withAllocationLock(() -> {
+      Set<TCSResource<?>> result = new HashSet<>();
+      for (Client client : cycle) {
+        if (client != victim) {
+          result.addAll(reservationPool.allocatedResources(client));
+        }
+      }
+      return result;
+    });
+
+    RerouteUtil rerouteUtil = rerouteUtilProvider.get();
+    Point source = rerouteUtil.getFutureOrCurrentPosition(vehicle);
+    Point destination = currentOrder.getRoute().getFinalDestinationPoint();
+    Optional<Route> route;
+    switch (configuration.deadlockResolution()) {
+      case REROUTE:
+        route = rerouteUtil.findUnblockedRoute(vehicle,
+                                               source,
+                                               destination,
+                                               step -> isBlocked(step, blockedResources),
+                                               configuration.deadlockRerouteRouteCount());
+        break;
+      case BACK_OFF:
+        route = findBackOffRoute(vehicle, source, destination, blockedResources, rerouteUtil);
+        break;
+      default:
+        return false;
+    }
+    if (!route.isPresent() || !rerouteUtil.rerouteCurrentDriveOrder(vehicle, route.get())) {
+      return false;
+    }
+
+    // The allocation the vehicle was waiting for belongs to its old route.
+    List<AllocatorCommand.Allocate> cancelled
+        = withAllocationLock(() -> deferredAllocations.removeAllocationsOf(victim));
+    for (AllocatorCommand.Allocate allocate : cancelled) {
+      victim.allocationFailed(allocate.getResources());
+    }
+    return true;
+  }
+
+  /**
+   * Returns a route leading the vehicle to a free point adjacent to its position first and from
+   * there to its destination.
+   */
+  private Optional<Route> findBackOffRoute(Vehicle vehicle,
+                                           Point source,
+                                           Point destination,
+                                           Set<TCSResource<?>> blockedResources,
+                                           RerouteUtil rerouteUtil) {
+    Set<Path> paths = objectService.fetchObjects(
+        Path.class,
+        path -> !path.isLocked()
+            && ((path.getSourcePoint().equals(source.getReference()) && path.isNavigableForward())
+                || (path.getDestinationPoint().equals(source.getReference())
+                    && path.isNavigableReverse())));
+
+    Route bestRoute = null;
+    for (Path path : paths) {
+      boolean forward = path.getSourcePoint().equals(source.getReference());
+      Point backOffPoint = objectService.fetchObject(Point.class,
+                                                     forward
+                                                         ? path.getDestinationPoint()
+                                                         : path.getSourcePoint());
+      if (!isFree(path, backOffPoint, blockedResources)) {
+        continue;
+      }
+
+      Route backOffRoute = new Route(
+          Collections.singletonList(new Step(path,
+                                             source,
+                                             backOffPoint,
+                                             forward
+                                                 ? Vehicle.Orientation.FORWARD
+                                                 : Vehicle.Orientation.BACKWARD,
+                                             0)),
+          path.getLength());
+      Route route = backOffRoute;
+      if (!backOffPoint.equals(destination)) {
+        Optional<Route> onwardRoute = router.getRoute(vehicle, backOffPoint, destination);
+        if (!onwardRoute.isPresent()) {
+          continue;
+        }
+        route = rerouteUtil.concatenateRoutes(backOffRoute, onwardRoute.get());
+      }
+      if (bestRoute == null || route.getCosts() < bestRoute.getCosts()) {
+        bestRoute = route;
+      }
+    }
+    return Optional.ofNullable(bestRoute);
+  }
+
+  private boolean isFree(Path path, Point point, Set<TCSResource<?>> blockedResources) {
+    if (blockedResources.contains(path) || blockedResources.contains(point)) {
+      return false;
+    }
+    return withAllocationLock(() -> reservationPool.getReservationEntry(path).isFree()
+        && reservationPool.getReservationEntry(point).isFree());
+  }
+
+  private boolean isBlocked(Step step, Set<TCSResource<?>> blockedResources) {
+    return blockedResources.contains(step.getDestinationPoint())
+        || (step.getPath() != null && blockedResources.contains(step.getPath()));
+  }
+
+  /**
+   * Returns the result of the given action, executed with the same locking as allocations.
+   * With fine-grained locking, the reservation pool and the deferred allocations do not require
+   * external synchronization.
+   */
+  private <T> T withAllocationLock(Supplier<T> action) {
+    if (fineGrainedLocking) {
+      return action.get();
+    }
+    synchronized (globalSyncObject) {
+      return action.get();
+    }
+  }
+
+  private List<String> toIds(List<Client> clients) {
+    return clients.stream()
+        .map(client -> client.getId())
+        .collect(Collectors.toList());
+  }
+}
@@ -14,18 +14,18 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import static java.util.Objects.requireNonNull;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.stream.Collectors;
 import javax.annotation.Nonnull;
 import javax.inject.Inject;
+import org.opentcs.access.SchedulerAllocationStatistics;
 import org.opentcs.components.kernel.ResourceAllocationException;
 import org.opentcs.components.kernel.Scheduler;
 import org.opentcs.components.kernel.services.InternalPlantModelService;
 import org.opentcs.customizations.kernel.GlobalSyncObject;
 import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.model.Block;
 import org.opentcs.data.model.TCSResource;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.Allocate;
 import org.opentcs.strategies.basic.scheduling.AllocatorCommand.AllocationsReleased;
@@ -67,7 +67,19 @@ public class DefaultScheduler
   /**
    * Allocations deferred because they couldn't be granted, yet.
    */
-  private final Queue<AllocatorCommand.Allocate> deferredAllocations = new LinkedBlockingQueue<>();
+  private final DeferredAllocations deferredAllocations;
+  /**
+   * Collects metrics about allocation wait times.
+   */
+  private final AllocationMetrics allocationMetrics;
+  /**
+   * Detects and resolves deadlocks.
+   */
+  private final DeadlockResolver deadlockResolver;
+  /**
+   * Records calls to this scheduler.
+   */
+  private final SchedulerTraceRecorder traceRecorder;
   /**
    * Executes scheduling tasks.
    */
@@ -76,6 +88,12 @@ public class DefaultScheduler
    * A global object to be used for synchronization within the kernel.
    */
   private final Object globalSyncObject;
+  /**
+   * Whether resources are allocated and freed without holding the global lock.
+   * Claims and calls to the allocation advisor always require the global lock, as the modules are
+   * not thread-safe.
+   */
+  private final boolean fineGrainedLocking;
   /**
    * Indicates whether this component is enabled.
    */
@@ -84,23 +102,39 @@ public class DefaultScheduler
   /**
    * Creates a new BasicScheduler instance.
    *
+   * @param configuration This class's configuration.
    * @param plantModelService The plant model service.
    * @param allocationAdvisor Takes care of modules.
    * @param reservationPool The reservation pool to be used.
+   * @param deferredAllocations Allocations deferred because they couldn't be granted, yet.
+   * @param allocationMetrics Collects metrics about allocation wait times.
+   * @param deadlockResolver Detects and resolves deadlocks.
+   * @param traceRecorder Records calls to this scheduler.
    * @param kernelExecutor Executes scheduling tasks.
    * @param globalSyncObject The kernel threads' global synchronization object.
    */
   @Inject
-  public DefaultScheduler(InternalPlantModelService plantModelService,
+  public DefaultScheduler(DefaultSchedulerConfiguration configuration,
+                          InternalPlantModelService plantModelService,
                           AllocationAdvisor allocationAdvisor,
                           ReservationPool reservationPool,
+                          DeferredAllocations deferredAllocations,
+                          AllocationMetrics allocationMetrics,
+                          DeadlockResolver deadlockResolver,
+                          SchedulerTraceRecorder traceRecorder,
                           @KernelExecutor ScheduledExecutorService kernelExecutor,
                           @GlobalSyncObject Object globalSyncObject) {
     this.plantModelService = requireNonNull(plantModelService, "plantModelService");
     this.allocationAdvisor = requireNonNull(allocationAdvisor, "allocationAdvisor");
     this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+    this.allocationMetrics = requireNonNull(allocationMetrics, "allocationMetrics");
+    this.deadlockResolver = requireNonNull(deadlockResolver, "deadlockResolver");
+    this.traceRecorder = requireNonNull(traceRecorder, "traceRecorder");
     this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
     this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+    this.fineGrainedLocking = configuration.allocationLocking()
+        == DefaultSchedulerConfiguration.AllocationLocking.FINE_GRAINED;
   }
 
   @Override
@@ -110,7 +144,10 @@ public class DefaultScheduler
     }
 
     reservationPool.clear();
+    deferredAllocations.clear();
+    allocationMetrics.clear();
     allocationAdvisor.initialize();
+    traceRecorder.initialize();
 
     initialized = true;
   }
@@ -126,6 +163,10 @@ public class DefaultScheduler
       return;
     }
 
+    LOG.info("Allocation metrics: {}, still waiting: {}",
+             allocationMetrics,
+             deferredAllocations.size());
+    traceRecorder.terminate();
     allocationAdvisor.terminate();
     initialized = false;
   }
@@ -135,6 +176,7 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
+    traceRecorder.claimed(client, resources);
     synchronized (globalSyncObject) {
       claimsByClient.put(client, resources);
 
@@ -150,6 +192,7 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     checkPositionIndex(index, Integer.MAX_VALUE, "index");
 
+    traceRecorder.progressIndexUpdated(client, index);
     if (index == 0) {
       return;
     }
@@ -168,6 +211,7 @@ public class DefaultScheduler
   public void unclaim(Client client) {
     requireNonNull(client, "client");
 
+    traceRecorder.unclaimed(client);
     synchronized (globalSyncObject) {
       claimsByClient.remove(client);
 
@@ -183,13 +227,8 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
-                                            reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new Allocate(client, resources)));
+    traceRecorder.allocationRequested(client, resources);
+    kernelExecutor.submit(createTask(new Allocate(client, resources)));
   }
 
   @Override
@@ -198,27 +237,13 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
+    traceRecorder.immediateAllocationRequested(client, resources);
+    if (fineGrainedLocking) {
+      allocateAvailable(client, resources);
+      return;
+    }
     synchronized (globalSyncObject) {
-      // Check if all resources are available.
-      final Set<TCSResource<?>> availableResources = new HashSet<>();
-      for (TCSResource<?> curResource : resources) {
-        ReservationEntry entry = reservationPool.getReservationEntry(curResource);
-        if (!entry.isFree() && !entry.isAllocatedBy(client)) {
-          LOG.warn("{}: Resource {} unavailable, reserved by {}",
-                   client.getId(),
-                   curResource.getName(),
-                   entry.getClient().getId());
-          // XXX DO something about it?!
-        }
-        else {
-          availableResources.add(curResource);
-        }
-      }
-      // Allocate all requested resources that are available.
-      LOG.debug("{}: Allocating immediately: {}", client.getId(), availableResources);
-      for (TCSResource<?> curResource : availableResources) {
-        reservationPool.getReservationEntry(curResource).allocate(client);
-      }
+      allocateAvailable(client, resources);
     }
   }
 
@@ -227,56 +252,53 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    synchronized (globalSyncObject) {
-      LOG.debug("{}: Releasing resources: {}", client.getId(), resources);
-      reservationPool.free(client, resources);
-
-      // Check which resources are now completely free
-      Set<TCSResource<?>> completelyFreeResources = resources.stream()
-          .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
-          .collect(Collectors.toCollection(HashSet::new));
-      kernelExecutor.submit(new AllocatorTask(plantModelService,
-                                              reservationPool,
-                                              deferredAllocations,
-                                              allocationAdvisor,
-                                              kernelExecutor,
-                                              globalSyncObject,
-                                              new AllocationsReleased(client,
-                                                                      completelyFreeResources)));
+    traceRecorder.freed(client, resources);
+    Set<TCSResource<?>> completelyFreeResources;
+    if (fineGrainedLocking) {
+      completelyFreeResources = release(client, resources);
+    }
+    else {
+      synchronized (globalSyncObject) {
+        completelyFreeResources = release(client, resources);
+      }
     }
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
-                                            reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new RetryAllocates(client)));
+    kernelExecutor.submit(createTask(new AllocationsReleased(client, completelyFreeResources)));
+    kernelExecutor.submit(createTask(new RetryAllocates(client, completelyFreeResources)));
   }
 
   @Override
   public void freeAll(Client client) {
     requireNonNull(client, "client");
 
-    synchronized (globalSyncObject) {
-      LOG.debug("{}: Releasing all resources", client.getId());
-      reservationPool.freeAll(client);
+    traceRecorder.freedAll(client);
+    Set<TCSResource<?>> freedResources;
+    if (fineGrainedLocking) {
+      freedResources = releaseAll(client);
+    }
+    else {
+      synchronized (globalSyncObject) {
+        freedResources = releaseAll(client);
+      }
     }
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
-                                            reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new RetryAllocates(client)));
+    kernelExecutor.submit(createTask(new RetryAllocates(client, freedResources)));
   }
 
   @Override
   public Map<String, Set<TCSResource<?>>> getAllocations() {
+    if (fineGrainedLocking) {
+      return reservationPool.getAllocations();
+    }
     synchronized (globalSyncObject) {
       return reservationPool.getAllocations();
     }
   }
 
+  @Override
+  public SchedulerAllocationStatistics getAllocationStatistics(int maxResourceCount) {
+    return allocationMetrics.getStatistics(maxResourceCount,
+                                           plantModelService.fetchObjects(Block.class));
+  }
+
   @Override
   public void preparationSuccessful(@Nonnull Module module,
                                     @Nonnull Client client,
@@ -285,12 +307,63 @@ public class DefaultScheduler
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
-    kernelExecutor.submit(new AllocatorTask(plantModelService,
-                                            reservationPool,
-                                            deferredAllocations,
-                                            allocationAdvisor,
-                                            kernelExecutor,
-                                            globalSyncObject,
-                                            new CheckAllocationsPrepared(client, resources)));
+    kernelExecutor.submit(createTask(new CheckAllocationsPrepared(client, resources)));
+  }
+
+  private void allocateAvailable(Client client, Set<TCSResource<?>> resources) {
+    LOG.debug("{}: Allocating immediately: {}", client.getId(), resources);
+    for (TCSResource<?> curResource : resources) {
+      ReservationEntry entry = reservationPool.getReservationEntry(curResource);
+      if (!entry.tryAllocate(client)) {
+        LOG.warn("{}: Resource {} unavailable, reserved by {}",
+                 client.getId(),
+                 curResource.getName(),
+                 entry.getClient());
+        // XXX DO something about it?!
+      }
+    }
+  }
+
+  /**
+   * Frees the given resources.
+   *
+   * @param client The client freeing the resources.
+   * @param resources The resources.
+   * @return The resources that are now completely free.
+   */
+  private Set<TCSResource<?>> release(Client client, Set<TCSResource<?>> resources) {
+    LOG.debug("{}: Releasing resources: {}", client.getId(), resources);
+    reservationPool.free(client, resources);
+
+    // Check which resources are now completely free
+    return resources.stream()
+        .filter(resource -> reservationPool.getReservationEntry(resource).isFree())
+        .collect(Collectors.toCollection(HashSet::new));
+  }
+
+  /**
+   * Frees all resources allocated by the given client.
+   *
+   * @param client The client.
+   * @return The resources that have been freed.
+   */
+  private Set<TCSResource<?>> releaseAll(Client client) {
+    LOG.debug("{}: Releasing all resources", client.getId());
+    Set<TCSResource<?>> freedResources = reservationPool.allocatedResources(client);
+    reservationPool.freeAll(client);
+    return freedResources;
+  }
+
+  private AllocatorTask createTask(AllocatorCommand command) {
+    return new AllocatorTask(plantModelService,
+                             reservationPool,
+                             deferredAllocations,
+                             allocationMetrics,
+                             deadlockResolver,
+                             allocationAdvisor,
+                             kernelExecutor,
+                             globalSyncObject,
+                             fineGrainedLocking,
+                             command);
   }
 }
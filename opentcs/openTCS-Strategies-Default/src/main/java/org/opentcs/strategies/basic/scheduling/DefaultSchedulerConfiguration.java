@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import org.opentcs.configuration.ConfigurationEntry;
+import org.opentcs.configuration.ConfigurationPrefix;
+
+/**
+ * Provides methods to configure the {@link DefaultScheduler}.
+ */
+@ConfigurationPrefix(DefaultSchedulerConfiguration.PREFIX)
+public interface DefaultSchedulerConfiguration {
+
+  /**
+   * This configuration's prefix.
+   */
+  String PREFIX = "defaultscheduler";
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "How resource allocations are synchronized with other kernel operations. Valid values:",
+        "'GLOBAL': Allocating and freeing resources holds the kernel's global lock.",
+        "'FINE_GRAINED': Resources are allocated and freed atomically one by one, in the order of "
+        + "their names, without holding the kernel's global lock. Scheduler modules are still "
+        + "called with the global lock held."})
+  AllocationLocking allocationLocking();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = "Whether to refuse allocations that would lead vehicles head-on into a "
+      + "single-lane segment, based on the vehicles' claimed routes.")
+  boolean deadlockAvoidance();
+
+  @ConfigurationEntry(
+      type = "String",
+      description = {
+        "The way detected deadlocks are resolved. Valid values:",
+        "'NONE': Deadlocks are only reported.",
+        "'REROUTE': The vehicle with the lowest priority is rerouted around the resources allocated "
+        + "by the other vehicles involved.",
+        "'BACK_OFF': The vehicle with the lowest priority backs off to an adjacent free point before "
+        + "continuing its route."})
+  DeadlockResolution deadlockResolution();
+
+  @ConfigurationEntry(
+      type = "Integer",
+      description = "The maximum number of alternative routes considered when rerouting a vehicle "
+      + "to resolve a deadlock.")
+  int deadlockRerouteRouteCount();
+
+  @ConfigurationEntry(
+      type = "Boolean",
+      description = "Whether to record all calls to the scheduler to a trace file in the kernel's "
+      + "data directory, so they can be replayed offline.")
+  boolean traceRecording();
+
+  /**
+   * The ways resource allocations can be synchronized.
+   */
+  enum AllocationLocking {
+    /**
+     * Allocating and freeing resources holds the kernel's global lock.
+     */
+    GLOBAL,
+    /**
+     * Resources are allocated and freed atomically one by one, without the global lock.
+     */
+    FINE_GRAINED;
+  }
+
+  /**
+   * The ways deadlocks can be resolved.
+   */
+  enum DeadlockResolution {
+    /**
+     * Deadlocks are only reported.
+     */
+    NONE,
+    /**
+     * The vehicle with the lowest priority is rerouted.
+     */
+    REROUTE,
+    /**
+     * The vehicle with the lowest priority backs off to a free point.
+     */
+    BACK_OFF;
+  }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Allocations deferred because they couldn't be granted, yet, indexed by the resources they are
+ * waiting for.
+ * <p>
+ * When resources are freed, only the allocations waiting for these resources need to be retried.
+ * Allocations that were restricted by a scheduler module rather than by unavailable resources are
+ * retried whenever any resource is freed.
+ * </p>
+ */
+class DeferredAllocations {
+
+  /**
+   * The waiting allocations by the resources they are waiting for, in the order they were deferred.
+   */
+  private final Map<TCSResource<?>, Set<AllocatorCommand.Allocate>> allocationsByResource
+      = new HashMap<>();
+  /**
+   * The resources each waiting allocation is waiting for.
+   */
+  private final Map<AllocatorCommand.Allocate, Set<TCSResource<?>>> resourcesByAllocation
+      = new HashMap<>();
+  /**
+   * Allocations restricted by scheduler modules, not waiting for specific resources.
+   */
+  private final Set<AllocatorCommand.Allocate> restrictedAllocations = new LinkedHashSet<>();
+
+  /**
+   * Creates a new instance.
+   */
+  @Inject
+  DeferredAllocations() {
+  }
+
+  /**
+   * Adds a deferred allocation.
+   *
+   * @param allocate The allocation.
+   * @param blockingResources The resources the allocation is waiting for. If empty, the allocation
+   * was restricted by a scheduler module and is retried whenever any resource is freed.
+   */
+  public synchronized void add(@Nonnull AllocatorCommand.Allocate allocate,
+                               @Nonnull Set<TCSResource<?>> blockingResources) {
+    requireNonNull(allocate, "allocate");
+    requireNonNull(blockingResources, "blockingResources");
+
+    if (blockingResources.isEmpty()) {
+      restrictedAllocations.add(allocate);
+      return;
+    }
+
+    resourcesByAllocation.put(allocate, new HashSet<>(blockingResources));
+    for (TCSResource<?> resource : blockingResources) {
+      allocationsByResource.computeIfAbsent(resource, res -> new LinkedHashSet<>()).add(allocate);
+    }
+  }
+
+  /**
+   * Removes and returns the allocations that should be retried after the given resources have
+   * been freed, in the natural order of allocator commands (i.e. by age for allocations).
+   *
+   * @param freedResources The resources that have been freed.
+   * @return The allocations to be retried.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeWaitingFor(
+      @Nonnull Set<TCSResource<?>> freedResources) {
+    requireNonNull(freedResources, "freedResources");
+
+    Set<AllocatorCommand.Allocate> result = new LinkedHashSet<>(restrictedAllocations);
+    restrictedAllocations.clear();
+    for (TCSResource<?> resource : freedResources) {
+      Set<AllocatorCommand.Allocate> waiting = allocationsByResource.remove(resource);
+      if (waiting != null) {
+        result.addAll(waiting);
+      }
+    }
+
+    // An allocation may wait for other resources, too. Unregister it for these, as well.
+    for (AllocatorCommand.Allocate allocate : result) {
+      Set<TCSResource<?>> resources = resourcesByAllocation.remove(allocate);
+      if (resources != null) {
+        unregister(allocate, resources);
+      }
+    }
+
+    List<AllocatorCommand.Allocate> sortedResult = new ArrayList<>(result);
+    Collections.sort(sortedResult);
+    return sortedResult;
+  }
+
+  /**
+   * Returns the resources the given client's waiting allocations are waiting for.
+   *
+   * @param client The client.
+   * @return The resources the client is waiting for. The set is empty if the client is not waiting
+   * or if its allocations were restricted by scheduler modules.
+   */
+  @Nonnull
+  public synchronized Set<TCSResource<?>> getBlockingResources(@Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (Map.Entry<AllocatorCommand.Allocate, Set<TCSResource<?>>> entry
+             : resourcesByAllocation.entrySet()) {
+      if (entry.getKey().getClient() == client) {
+        result.addAll(entry.getValue());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Removes and returns all waiting allocations of the given client.
+   *
+   * @param client The client.
+   * @return The removed allocations.
+   */
+  @Nonnull
+  public synchronized List<AllocatorCommand.Allocate> removeAllocationsOf(
+      @Nonnull Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    List<AllocatorCommand.Allocate> result = new ArrayList<>();
+    for (AllocatorCommand.Allocate allocate : resourcesByAllocation.keySet()) {
+      if (allocate.getClient() == client) {
+        result.add(allocate);
+      }
+    }
+    for (AllocatorCommand.Allocate allocate : restrictedAllocations) {
+      if (allocate.getClient() == client) {
+        result.add(allocate);
+      }
+    }
+    restrictedAllocations.removeAll(result);
+    for (AllocatorCommand.Allocate allocate : result) {
+      Set<TCSResource<?>> resources = resourcesByAllocation.remove(allocate);
+      if (resources != null) {
+        unregister(allocate, resources);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of waiting allocations.
+   *
+   * @return The number of waiting allocations.
+   */
+  public synchronized int size() {
+    return resourcesByAllocation.size() + restrictedAllocations.size();
+  }
+
+  /**
+   * Removes all waiting allocations.
+   */
+  public synchronized void clear() {
+    allocationsByResource.clear();
+    resourcesByAllocation.clear();
+    restrictedAllocations.clear();
+  }
+
+  private void unregister(AllocatorCommand.Allocate allocate, Set<TCSResource<?>> resources) {
+    for (TCSResource<?> resource : resources) {
+      Set<AllocatorCommand.Allocate> waiting = allocationsByResource.get(resource);
+      if (waiting != null) {
+        waiting.remove(allocate);
+        if (waiting.isEmpty()) {
+          allocationsByResource.remove(resource);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import org.opentcs.access.SchedulerAllocationStatistics.Latency;
+
+/**
+ * Counts durations in buckets with bounds following a 1-2-5 series, so percentiles can be
+ * estimated without keeping every single duration.
+ * <p>
+ * Estimated percentiles are the upper bound of the bucket they fall into, but never more than the
+ * longest duration recorded.
+ * This class is not thread-safe.
+ * </p>
+ */
+class LatencyHistogram {
+
+  /**
+   * The (inclusive) upper bounds of the buckets (in ms).
+   * Durations longer than the last bound are counted in an additional bucket.
+   */
+  private static final long[] BUCKET_BOUNDS = createBucketBounds(10_000_000);
+  /**
+   * The number of durations in each bucket.
+   */
+  private final long[] bucketCounts = new long[BUCKET_BOUNDS.length + 1];
+  /**
+   * The number of durations.
+   */
+  private long count;
+  /**
+   * The sum of all durations.
+   */
+  private long total;
+  /**
+   * The longest duration.
+   */
+  private long max;
+
+  /**
+   * Creates a new instance.
+   */
+  LatencyHistogram() {
+  }
+
+  /**
+   * Records the given duration.
+   *
+   * @param duration The duration (in ms).
+   */
+  public void record(long duration) {
+    bucketCounts[bucketIndex(duration)]++;
+    count++;
+    total += duration;
+    max = Math.max(max, duration);
+  }
+
+  /**
+   * Returns the number of durations.
+   *
+   * @return The number of durations.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the sum of all durations.
+   *
+   * @return The sum of all durations (in ms).
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * Returns the longest duration.
+   *
+   * @return The longest duration (in ms).
+   */
+  public long getMax() {
+    return max;
+  }
+
+  /**
+   * Estimates the given percentile.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The estimated percentile (in ms), or 0, if no duration has been recorded.
+   */
+  public long getPercentile(double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+
+    long rank = Math.max(1, (long) Math.ceil(count * percentile / 100));
+    long cumulatedCount = 0;
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      cumulatedCount += bucketCounts[i];
+      if (cumulatedCount >= rank) {
+        return Math.min(BUCKET_BOUNDS[i], max);
+      }
+    }
+    return max;
+  }
+
+  /**
+   * Discards all recorded durations.
+   */
+  public void clear() {
+    Arrays.fill(bucketCounts, 0);
+    count = 0;
+    total = 0;
+    max = 0;
+  }
+
+  /**
+   * Returns a summary of the recorded durations.
+   *
+   * @return A summary of the recorded durations.
+   */
+  public Latency toLatency() {
+    return new Latency(count,
+                       count == 0 ? 0 : total / count,
+                       getPercentile(50),
+                       getPercentile(90),
+                       getPercentile(99),
+                       max);
+  }
+
+  private static int bucketIndex(long duration) {
+    for (int i = 0; i < BUCKET_BOUNDS.length; i++) {
+      if (duration <= BUCKET_BOUNDS[i]) {
+        return i;
+      }
+    }
+    return BUCKET_BOUNDS.length;
+  }
+
+  private static long[] createBucketBounds(long maxBound) {
+    int bucketCount = 1 + 3 * (int) Math.ceil(Math.log10(maxBound));
+    long[] bounds = new long[bucketCount];
+    bounds[0] = 0;
+    long decade = 1;
+    for (int i = 1; i < bucketCount; i += 3, decade *= 10) {
+      bounds[i] = decade;
+      bounds[i + 1] = 2 * decade;
+      bounds[i + 2] = 5 * decade;
+    }
+    return bounds;
+  }
+}
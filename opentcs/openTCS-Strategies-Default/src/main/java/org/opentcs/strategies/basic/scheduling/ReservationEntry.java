@@ -9,6 +9,7 @@ package org.opentcs.strategies.basic.scheduling;
 
 import static com.google.common.base.Preconditions.checkState;
 import static java.util.Objects.requireNonNull;
+import java.util.concurrent.atomic.AtomicReference;
 import org.opentcs.components.kernel.Scheduler.Client;
 import org.opentcs.data.model.TCSResource;
 import org.slf4j.Logger;
@@ -18,6 +19,10 @@ import org.slf4j.LoggerFactory;
  * Contains reservation information for a resource - a reference to the
  * <code>ResourceUser</code> currently holding the resource and a counter
  * for how many times the <code>ResouceUser</code> has allocated the resource.
+ * <p>
+ * Client and counter are updated together via compare-and-set, so an entry may be allocated and
+ * freed concurrently without any external synchronization.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -32,15 +37,15 @@ public class ReservationEntry {
    */
   private final TCSResource<?> resource;
   /**
-   * The client for which the resource is currently reserved.
+   * The pool keeping track of the resources allocated by each client, or <code>null</code>.
    */
-  private Client client;
+  private final ReservationPool pool;
   /**
-   * The reservation counter.
+   * The current reservation.
    * With every allocation the counter will be incremented, with every call to <code>free()</code>
    * it will be decremented.
    */
-  private int counter;
+  private final AtomicReference<Reservation> reservation = new AtomicReference<>(Reservation.NONE);
 
   /**
    * Creates a new instance.
@@ -48,7 +53,19 @@ public class ReservationEntry {
    * @param reqResource The resource.
    */
   public ReservationEntry(final TCSResource<?> reqResource) {
+    this(reqResource, null);
+  }
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reqResource The resource.
+   * @param pool The pool to be notified when the resource is allocated by or freed from a client.
+   * May be <code>null</code>.
+   */
+  ReservationEntry(final TCSResource<?> reqResource, ReservationPool pool) {
     this.resource = requireNonNull(reqResource, "reqResource");
+    this.pool = pool;
   }
 
   /**
@@ -67,7 +84,7 @@ public class ReservationEntry {
    * isn't currently allocated.
    */
   public Client getClient() {
-    return client;
+    return reservation.get().client;
   }
 
   /**
@@ -76,23 +93,53 @@ public class ReservationEntry {
    * resource before.
    *
    * @param client The allocating client.
+   * @throws IllegalStateException If the resource is allocated by another client.
    */
   void allocate(Client client) {
-    if (this.client == null) {
-      LOG.debug("Allocating resource {} for client {}", resource, client.getId());
-      this.client = client;
-    }
-    else if (this.client != client) {
+    if (!tryAllocate(client)) {
       // The resource is already allocated by someone else - may not happen.
       throw new IllegalStateException("'" + client + "' tried to allocate resource allocated by "
-          + this.client);
+          + getClient());
+    }
+  }
+
+  /**
+   * Reserves the resource for the given client, if it is not allocated by another client.
+   * Increments the reservation counter for the resource if the user has already allocated this
+   * resource before.
+   *
+   * @param client The allocating client.
+   * @return <code>true</code> if, and only if, the resource was allocated for the given client.
+   */
+  boolean tryAllocate(Client client) {
+    requireNonNull(client, "client");
+
+    Reservation current;
+    do {
+      current = reservation.get();
+      if (current.client != null && current.client != client) {
+        return false;
+      }
+    }
+    while (!reservation.compareAndSet(current,
+                                      current.client == null
+                                          ? new Reservation(client, 1, System.currentTimeMillis())
+                                          : new Reservation(client,
+                                                            current.counter + 1,
+                                                            current.allocationTime)));
+
+    if (current.client == null) {
+      LOG.debug("Allocated resource {} for client {}", resource, client.getId());
+      if (pool != null) {
+        pool.resourceAllocated(client, resource);
+      }
     }
     else {
-      LOG.debug("Incrementing allocation counter for resource {}; client: {}",
+      LOG.debug("Incremented allocation counter for resource {}; client: {}",
                 resource,
                 client.getId());
     }
-    counter++;
+    return true;
   }
 
   /**
@@ -101,10 +148,19 @@ public class ReservationEntry {
    * is set to <code>null</code>.
    */
   void free() {
-    checkState(counter > 0, "counter is already less than 1");
-    counter--;
-    if (counter == 0) {
-      client = null;
+    Reservation current;
+    Reservation next;
+    do {
+      current = reservation.get();
+      checkState(current.counter > 0, "counter is already less than 1");
+      next = current.counter == 1
+          ? Reservation.NONE
+          : new Reservation(current.client, current.counter - 1, current.allocationTime);
+    }
+    while (!reservation.compareAndSet(current, next));
+
+    if (next == Reservation.NONE) {
+      clientRemoved(current);
     }
   }
 
@@ -113,8 +169,7 @@ public class ReservationEntry {
    * to <code>null</code>.
    */
   void freeCompletely() {
-    counter = 0;
-    client = null;
+    clientRemoved(reservation.getAndSet(Reservation.NONE));
   }
 
   /**
@@ -124,7 +179,7 @@ public class ReservationEntry {
    * allocated by anyone.
    */
   boolean isFree() {
-    return (client == null) && (counter == 0);
+    return reservation.get() == Reservation.NONE;
   }
 
   /**
@@ -135,15 +190,53 @@ public class ReservationEntry {
    * client.
    */
   boolean isAllocatedBy(Client client) {
-    return this.client == client;
+    return reservation.get().client == client;
+  }
+
+  private void clientRemoved(Reservation removed) {
+    if (removed.client != null && pool != null) {
+      pool.resourceFreed(removed.client,
+                         resource,
+                         System.currentTimeMillis() - removed.allocationTime);
+    }
   }
 
   @Override
   public String toString() {
+    Reservation current = reservation.get();
     return "ReservationEntry{"
         + "resource=" + resource
-        + ", client=" + client
-        + ", counter=" + counter
+        + ", client=" + current.client
+        + ", counter=" + current.counter
         + '}';
   }
+
+  /**
+   * An immutable snapshot of a resource's reservation.
+   */
+  private static class Reservation {
+
+    /**
+     * The reservation of a free resource.
+     */
+    private static final Reservation NONE = new Reservation(null, 0, 0);
+    /**
+     * The client for which the resource is reserved.
+     */
+    private final Client client;
+    /**
+     * The reservation counter.
+     */
+    private final int counter;
+    /**
+     * The point of time at which the client allocated the resource (in ms).
+     */
+    private final long allocationTime;
+
+    Reservation(Client client, int counter, long allocationTime) {
+      this.client = client;
+      this.counter = counter;
+      this.allocationTime = allocationTime;
+    }
+  }
 }
@@ -13,15 +13,23 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Objects.requireNonNull;
 
 /**
+ * Keeps the reservation entries of all resources.
+ * <p>
+ * The pool itself does not require external synchronization, so reservation entries may be
+ * allocated and freed concurrently and {@link #getAllocations()} does not block allocations.
+ * </p>
  *
  * @author Stefan Walter (Fraunhofer IML)
  */
@@ -34,13 +42,27 @@ public class ReservationPool {
   /**
    * <code>ReservationEntry</code> instances for each <code>TCSResource</code>.
    */
-  private final Map<TCSResource<?>, ReservationEntry> reservations = new HashMap<>();
+  private final Map<TCSResource<?>, ReservationEntry> reservations = new ConcurrentHashMap<>();
+  /**
+   * The resources currently allocated by each client.
+   * Kept in sync with the reservation entries, so that queries for a single client do not have to
+   * look at every entry.
+   */
+  private final Map<Scheduler.Client, Set<TCSResource<?>>> resourcesByClient
+      = new ConcurrentHashMap<>();
+  /**
+   * Collects metrics about the time resources are held.
+   */
+  private final AllocationMetrics allocationMetrics;
 
   /**
    * Creates a new instance.
+   *
+   * @param allocationMetrics Collects metrics about the time resources are held.
    */
   @Inject
-  public ReservationPool() {
+  public ReservationPool(AllocationMetrics allocationMetrics) {
+    this.allocationMetrics = requireNonNull(allocationMetrics, "allocationMetrics");
   }
 
   /**
@@ -52,12 +74,7 @@ public class ReservationPool {
   public ReservationEntry getReservationEntry(TCSResource<?> resource) {
     requireNonNull(resource, "resource");
 
-    ReservationEntry entry = reservations.get(resource);
-    if (entry == null) {
-      entry = new ReservationEntry(resource);
-      reservations.put(resource, entry);
-    }
-    return entry;
+    return reservations.computeIfAbsent(resource, res -> new ReservationEntry(res, this));
   }
 
   /**
@@ -69,10 +86,8 @@ public class ReservationPool {
   public Set<TCSResource<?>> allocatedResources(Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    return reservations.entrySet().stream()
-        .filter(entry -> entry.getValue().isAllocatedBy(client))
-        .map(entry -> entry.getKey())
-        .collect(Collectors.toSet());
+    Set<TCSResource<?>> resources = resourcesByClient.get(client);
+    return resources == null ? new HashSet<>() : new HashSet<>(resources);
   }
 
   /**
@@ -98,6 +113,61 @@ public class ReservationPool {
     return true;
   }
 
+  /**
+   * Returns the resources in the given set that are not available for the given client, i.e. that
+   * are allocated by another client.
+   *
+   * @param resources The set of resources to be checked.
+   * @param client The client for which to check.
+   * @return The resources that are not available for the given client.
+   */
+  public Set<TCSResource<?>> unavailableResources(Set<TCSResource<?>> resources,
+                                                  Scheduler.Client client) {
+    requireNonNull(resources, "resources");
+    requireNonNull(client, "client");
+
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (TCSResource<?> curResource : resources) {
+      ReservationEntry entry = getReservationEntry(curResource);
+      if (!entry.isFree() && !entry.isAllocatedBy(client)) {
+        result.add(curResource);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Allocates all of the given resources for the given client, or none of them.
+   * The resources are allocated in the order of their names, so that concurrent allocations of
+   * overlapping sets of resources cannot keep each other from succeeding.
+   *
+   * @param client The allocating client.
+   * @param resources The resources to be allocated.
+   * @return <code>true</code> if, and only if, all resources were allocated, i.e. none of them is
+   * allocated by another client.
+   */
+  public boolean allocateAll(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    List<TCSResource<?>> orderedResources = new ArrayList<>(resources);
+    orderedResources.sort(Comparator.comparing(resource -> resource.getName()));
+
+    List<ReservationEntry> allocatedEntries = new ArrayList<>(orderedResources.size());
+    for (TCSResource<?> curResource : orderedResources) {
+      ReservationEntry entry = getReservationEntry(curResource);
+      if (!entry.tryAllocate(client)) {
+        LOG.debug("{}: Resource unavailable: {}, undoing allocation", client.getId(), curResource);
+        for (ReservationEntry allocatedEntry : allocatedEntries) {
+          allocatedEntry.free();
+        }
+        return false;
+      }
+      allocatedEntries.add(entry);
+    }
+    return true;
+  }
+
   /**
    * Returns a set of resources that is a subset of the given set of resources and is reserved/could
    * be released by the given client.
@@ -114,7 +184,7 @@ public class ReservationPool {
     for (TCSResource<?> curRes : resources) {
       ReservationEntry entry = getReservationEntry(curRes);
       if (!entry.isAllocatedBy(client)) {
-        LOG.warn("{}发生死锁了: Freed resource not reserved: {}, entry: {}", client.getId(), curRes, entry);
+        LOG.warn("{}: Freed resource not reserved: {}, entry: {}", client.getId(), curRes, entry);
       }
       else {
         freeableResources.add(curRes);
@@ -124,7 +194,6 @@ public class ReservationPool {
   }
 
   public void free(Scheduler.Client client, Set<TCSResource<?>> resources) {
-    // TODO 以下代码全注释掉的话 ,可以绕开死锁的情况。同是需要将AllocatorTask里的tryAllocate方法直接返回true
     requireNonNull(client, "client");
     requireNonNull(resources, "resources");
 
@@ -139,29 +208,60 @@ public class ReservationPool {
   public void freeAll(Scheduler.Client client) {
     requireNonNull(client, "client");
 
-    reservations.values().stream()
-        .filter(reservationEntry -> reservationEntry.isAllocatedBy(client))
-        .forEach(reservationEntry -> reservationEntry.freeCompletely());
+    Set<TCSResource<?>> resources = resourcesByClient.remove(client);
+    if (resources == null) {
+      return;
+    }
+    // The entries would remove themselves from the index, so work on the removed set only.
+    for (TCSResource<?> curResource : resources) {
+      ReservationEntry entry = reservations.get(curResource);
+      if (entry != null && entry.isAllocatedBy(client)) {
+        entry.freeCompletely();
+      }
+    }
   }
 
   public Map<String, Set<TCSResource<?>>> getAllocations() {
     final Map<String, Set<TCSResource<?>>> result = new HashMap<>();
-    for (Map.Entry<TCSResource<?>, ReservationEntry> curEntry : reservations.entrySet()) {
-      final TCSResource<?> curResource = curEntry.getKey();
-      final Scheduler.Client curUser = curEntry.getValue().getClient();
-      if (curUser != null) {
-        Set<TCSResource<?>> userResources = result.get(curUser.getId());
-        if (userResources == null) {
-          userResources = new HashSet<>();
-        }
-        userResources.add(curResource);
-        result.put(curUser.getId(), userResources);
-      }
+    for (Map.Entry<Scheduler.Client, Set<TCSResource<?>>> curEntry : resourcesByClient.entrySet()) {
+      result.computeIfAbsent(curEntry.getKey().getId(), id -> new HashSet<>())
+          .addAll(curEntry.getValue());
     }
     return result;
   }
 
   public void clear() {
     reservations.clear();
+    resourcesByClient.clear();
+  }
+
+  /**
+   * Called by a reservation entry when its resource has been allocated by a client that did not
+   * hold it before.
+   *
+   * @param client The client.
+   * @param resource The resource.
+   */
+  void resourceAllocated(Scheduler.Client client, TCSResource<?> resource) {
+    resourcesByClient.compute(client, (c, resources) -> {
+      Set<TCSResource<?>> result = resources == null ? ConcurrentHashMap.newKeySet() : resources;
+      result.add(resource);
+      return result;
+    });
+  }
+
+  /**
+   * Called by a reservation entry when its resource is no longer held by the given client.
+   *
+   * @param client The client.
+   * @param resource The resource.
+   * @param holdTime The time the client held the resource (in ms).
+   */
+  void resourceFreed(Scheduler.Client client, TCSResource<?> resource, long holdTime) {
+    resourcesByClient.computeIfPresent(client, (c, resources) -> {
+      resources.remove(resource);
+      return resources.isEmpty() ? null : resources;
+    });
+    allocationMetrics.resourceReleased(client, resource, holdTime);
   }
 }
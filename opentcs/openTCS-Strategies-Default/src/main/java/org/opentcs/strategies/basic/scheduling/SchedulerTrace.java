@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Describes the binary format of scheduler traces, i.e. of recorded calls to the scheduler.
+ * <p>
+ * A trace starts with a header consisting of a magic number, the format version and the point of
+ * time the recording started. It is followed by a sequence of records, each starting with a tag
+ * byte.
+ * To keep traces compact, client IDs and resource names are written only once, in a definition
+ * record, and referred to by their index afterwards.
+ * Operation records contain the time passed since the previous operation, the client's index and
+ * the operation's arguments.
+ * Points of time are taken from the kernel's simulation clock, so they are scaled by the kernel's
+ * simulation time factor.
+ * All indices, counts and time differences are written as variable-length quantities.
+ * </p>
+ */
+public final class SchedulerTrace {
+
+  /**
+   * Identifies scheduler trace files.
+   */
+  static final int MAGIC = 0x4f54_5343;
+  /**
+   * The version of the file format.
+   */
+  static final int FORMAT_VERSION = 1;
+  /**
+   * The file name extension.
+   */
+  static final String FILE_EXTENSION = ".sctrace";
+  /**
+   * Tags a record defining a client ID.
+   */
+  static final byte TAG_CLIENT = 0x01;
+  /**
+   * Tags a record defining a resource.
+   */
+  static final byte TAG_RESOURCE = 0x02;
+  /**
+   * Tags of operation records are this value plus the operation's ordinal.
+   */
+  static final byte TAG_OPERATION_BASE = 0x10;
+  /**
+   * Identifies resources that are points.
+   */
+  static final byte KIND_POINT = 0;
+  /**
+   * Identifies resources that are paths.
+   */
+  static final byte KIND_PATH = 1;
+  /**
+   * Identifies resources that are locations.
+   */
+  static final byte KIND_LOCATION = 2;
+
+  /**
+   * Prevents instantiation.
+   */
+  private SchedulerTrace() {
+  }
+
+  /**
+   * Writes the given value as a variable-length quantity.
+   *
+   * @param output The output to write to.
+   * @param value The value, which must not be negative.
+   * @throws IOException If the value could not be written.
+   */
+  static void writeVarLong(DataOutput output, long value)
+      throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      output.writeByte((int) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    output.writeByte((int) value);
+  }
+
+  /**
+   * Reads a value written as a variable-length quantity.
+   *
+   * @param input The input to read from.
+   * @return The value.
+   * @throws IOException If the value could not be read.
+   */
+  static long readVarLong(DataInput input)
+      throws IOException {
+    long result = 0;
+    for (int shift = 0; shift < Long.SIZE; shift += 7) {
+      int b = input.readUnsignedByte();
+      result |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return result;
+      }
+    }
+    throw new IOException("Malformed variable-length quantity");
+  }
+
+  /**
+   * The recorded scheduler operations.
+   */
+  public enum Operation {
+    /**
+     * A call to {@code claim()}.
+     */
+    CLAIM,
+    /**
+     * A call to {@code updateProgressIndex()}.
+     */
+    UPDATE_PROGRESS_INDEX,
+    /**
+     * A call to {@code unclaim()}.
+     */
+    UNCLAIM,
+    /**
+     * A call to {@code allocate()}.
+     */
+    ALLOCATE,
+    /**
+     * A call to {@code allocateNow()}.
+     */
+    ALLOCATE_NOW,
+    /**
+     * A call to {@code free()}.
+     */
+    FREE,
+    /**
+     * A call to {@code freeAll()}.
+     */
+    FREE_ALL;
+  }
+
+  /**
+   * A single recorded scheduler operation.
+   */
+  public static class Entry {
+
+    /**
+     * The operation.
+     */
+    private final Operation operation;
+    /**
+     * The point of time of the operation, relative to the start of the recording (in ms).
+     */
+    private final long time;
+    /**
+     * The ID of the client calling the scheduler.
+     */
+    private final String clientId;
+    /**
+     * The claimed resources, for {@link Operation#CLAIM}.
+     */
+    private final List<Set<TCSResource<?>>> claim;
+    /**
+     * The resources allocated or freed, for {@link Operation#ALLOCATE},
+     * {@link Operation#ALLOCATE_NOW} and {@link Operation#FREE}.
+     */
+    private final Set<TCSResource<?>> resources;
+    /**
+     * The progress index, for {@link Operation#UPDATE_PROGRESS_INDEX}.
+     */
+    private final int index;
+
+    /**
+     * Creates a new instance.
+     *
+     * @param operation The operation.
+     * @param time The point of time of the operation, relative to the start of the recording.
+     * @param clientId The ID of the client calling the scheduler.
+     * @param claim The claimed resources.
+     * @param resources The resources allocated or freed.
+     * @param index The progress index.
+     */
+    Entry(@Nonnull Operation operation,
+          long time,
+          @Nonnull String clientId,
+          @Nonnull List<Set<TCSResource<?>>> claim,
+          @Nonnull Set<TCSResource<?>> resources,
+          int index) {
+      this.operation = requireNonNull(operation, "operation");
+      this.time = time;
+      this.clientId = requireNonNull(clientId, "clientId");
+      this.claim = Collections.unmodifiableList(new ArrayList<>(requireNonNull(claim, "claim")));
+      this.resources = Collections.unmodifiableSet(
+          new HashSet<>(requireNonNull(resources, "resources")));
+      this.index = index;
+    }
+
+    @Nonnull
+    public Operation getOperation() {
+      return operation;
+    }
+
+    /**
+     * Returns the point of time of the operation, relative to the start of the recording.
+     *
+     * @return The point of time of the operation (in ms).
+     */
+    public long getTime() {
+      return time;
+    }
+
+    @Nonnull
+    public String getClientId() {
+      return clientId;
+    }
+
+    @Nonnull
+    public List<Set<TCSResource<?>>> getClaim() {
+      return claim;
+    }
+
+    @Nonnull
+    public Set<TCSResource<?>> getResources() {
+      return resources;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public String toString() {
+      return "Entry{"
+          + "operation=" + operation
+          + ", time=" + time
+          + ", clientId=" + clientId
+          + ", claim=" + claim
+          + ", resources=" + resources
+          + ", index=" + index
+          + '}';
+    }
+  }
+}
@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_LOCATION;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_PATH;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_POINT;
+import org.opentcs.strategies.basic.scheduling.SchedulerTrace.Entry;
+import org.opentcs.strategies.basic.scheduling.SchedulerTrace.Operation;
+
+/**
+ * Reads the operations recorded in a scheduler trace.
+ * Resources are looked up by name in a plant model, which should be the one the trace was recorded
+ * with.
+ *
+ * @see SchedulerTrace
+ */
+public class SchedulerTraceReader
+    implements Closeable {
+
+  /**
+   * The input the trace is read from.
+   */
+  private final DataInputStream input;
+  /**
+   * Provides the resources referred to in the trace.
+   */
+  private final TCSObjectService objectService;
+  /**
+   * The client IDs defined so far, by index.
+   */
+  private final List<String> clientIds = new ArrayList<>();
+  /**
+   * The resources defined so far, by index.
+   */
+  private final List<TCSResource<?>> resources = new ArrayList<>();
+  /**
+   * The point of time the recording was started.
+   */
+  private final long startTime;
+  /**
+   * The point of time of the last operation read, relative to the start of the recording.
+   */
+  private long time;
+
+  /**
+   * Creates a new instance and reads the trace's header.
+   *
+   * @param input The input the trace is read from.
+   * @param objectService Provides the resources referred to in the trace.
+   * @throws IOException If the header could not be read or does not describe a supported trace.
+   */
+  public SchedulerTraceReader(@Nonnull InputStream input,
+                              @Nonnull TCSObjectService objectService)
+      throws IOException {
+    this.input = new DataInputStream(new BufferedInputStream(requireNonNull(input, "input")));
+    this.objectService = requireNonNull(objectService, "objectService");
+
+    if (this.input.readInt() != SchedulerTrace.MAGIC) {
+      throw new IOException("Not a scheduler trace");
+    }
+    int version = this.input.readInt();
+    if (version != SchedulerTrace.FORMAT_VERSION) {
+      throw new IOException("Unsupported scheduler trace version: " + version);
+    }
+    startTime = this.input.readLong();
+  }
+
+  /**
+   * Returns the point of time the recording was started.
+   *
+   * @return The point of time the recording was started (in ms since the epoch).
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Reads the next operation.
+   *
+   * @return The next operation, or <code>null</code>, if the end of the trace has been reached.
+   * @throws IOException If the trace could not be read or refers to a resource that does not exist.
+   */
+  @Nullable
+  public Entry next()
+      throws IOException {
+    while (true) {
+      int tag = input.read();
+      if (tag < 0) {
+        return null;
+      }
+
+      try {
+        if (tag == SchedulerTrace.TAG_CLIENT) {
+          clientIds.add(input.readUTF());
+        }
+        else if (tag == SchedulerTrace.TAG_RESOURCE) {
+          resources.add(readResourceDefinition());
+        }
+        else {
+          return readOperation(tag);
+        }
+      }
+      catch (EOFException exc) {
+        // The recording was interrupted while writing a record, ignore the incomplete record.
+        return null;
+      }
+    }
+  }
+
+  @Override
+  public void close()
+      throws IOException {
+    input.close();
+  }
+
+  private TCSResource<?> readResourceDefinition()
+      throws IOException {
+    byte kind = input.readByte();
+    String name = input.readUTF();
+    TCSResource<?> resource;
+    switch (kind) {
+      case KIND_POINT:
+        resource = objectService.<Point>fetchObject(Point.class, name);
+        break;
+      case KIND_PATH:
+        resource = objectService.<Path>fetchObject(Path.class, name);
+        break;
+      case KIND_LOCATION:
+        resource = objectService.<Location>fetchObject(Location.class, name);
+        break;
+      default:
+        throw new IOException("Unknown resource kind: " + kind);
+    }
+    if (resource == null) {
+      throw new IOException("Resource not in plant model: " + name);
+    }
+    return resource;
+  }
+
+  private Entry readOperation(int tag)
+      throws IOException {
+    int ordinal = tag - SchedulerTrace.TAG_OPERATION_BASE;
+    if (ordinal < 0 || ordinal >= Operation.values().length) {
+      throw new IOException("Unknown record tag: " + tag);
+    }
+    Operation operation = Operation.values()[ordinal];
+    time += SchedulerTrace.readVarLong(input);
+    String clientId = clientIds.get(readIndex(clientIds.size()));
+
+    List<Set<TCSResource<?>>> claim = new ArrayList<>();
+    Set<TCSResource<?>> operationResources = new HashSet<>();
+    int index = 0;
+    switch (operation) {
+      case CLAIM:
+        int claimSize = readIndex(Integer.MAX_VALUE);
+        for (int i = 0; i < claimSize; i++) {
+          claim.add(readResources());
+        }
+        break;
+      case UPDATE_PROGRESS_INDEX:
+        index = readIndex(Integer.MAX_VALUE);
+        break;
+      case ALLOCATE:
+      case ALLOCATE_NOW:
+      case FREE:
+        operationResources = readResources();
+        break;
+      default:
+    }
+    return new Entry(operation, time, clientId, claim, operationResources, index);
+  }
+
+  private Set<TCSResource<?>> readResources()
+      throws IOException {
+    int count = readIndex(Integer.MAX_VALUE);
+    Set<TCSResource<?>> result = new HashSet<>();
+    for (int i = 0; i < count; i++) {
+      result.add(resources.get(readIndex(resources.size())));
+    }
+    return result;
+  }
+
+  private int readIndex(int bound)
+      throws IOException {
+    long value = SchedulerTrace.readVarLong(input);
+    if (value < 0 || value >= bound) {
+      throw new IOException("Index out of bounds: " + value);
+    }
+    return (int) value;
+  }
+}
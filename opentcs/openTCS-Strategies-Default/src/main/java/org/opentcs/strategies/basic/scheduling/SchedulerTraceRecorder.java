@@ -0,0 +1,402 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.components.Lifecycle;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.customizations.ApplicationHome;
+import org.opentcs.customizations.kernel.KernelExecutor;
+import org.opentcs.data.model.Location;
+import org.opentcs.data.model.Path;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_LOCATION;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_PATH;
+import static org.opentcs.strategies.basic.scheduling.SchedulerTrace.KIND_POINT;
+import org.opentcs.strategies.basic.scheduling.SchedulerTrace.Operation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Records calls to the scheduler to a trace file in the kernel's data directory, if enabled in the
+ * configuration.
+ * <p>
+ * A new file is created whenever the scheduler is initialized.
+ * Records are buffered and written to the file at least once per second.
+ * Points of time are taken from the kernel's simulation clock.
+ * If writing fails, recording is stopped.
+ * </p>
+ *
+ * @see SchedulerTrace
+ */
+public class SchedulerTraceRecorder
+    implements Lifecycle {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SchedulerTraceRecorder.class);
+  /**
+   * The maximum time records are kept in the buffer (in ms).
+   */
+  private static final long FLUSH_INTERVAL = 1000;
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The clock providing the points of time of operations.
+   */
+  private final SimulationClock clock;
+  /**
+   * Executes the periodic flushes of the output.
+   */
+  private final ScheduledExecutorService kernelExecutor;
+  /**
+   * The directory containing the trace files.
+   */
+  private final java.nio.file.Path directory;
+  /**
+   * The indices of the client IDs already written.
+   */
+  private final Map<String, Integer> clientIndices = new HashMap<>();
+  /**
+   * The indices of the resources already written.
+   */
+  private final Map<TCSResource<?>, Integer> resourceIndices = new HashMap<>();
+  /**
+   * The output the current trace is written to, or <code>null</code>, if not recording.
+   */
+  private DataOutputStream output;
+  /**
+   * The periodic flush of the output, or <code>null</code>, if not recording.
+   */
+  private ScheduledFuture<?> flushTask;
+  /**
+   * The point of time of the last operation recorded.
+   */
+  private long lastOperationTime;
+  /**
+   * Whether operations have been recorded since the output was last flushed.
+   */
+  private boolean flushPending;
+  /**
+   * Whether this instance is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param configuration The scheduler's configuration.
+   * @param clock The clock providing the points of time of operations.
+   * @param kernelExecutor Executes the periodic flushes of the output.
+   * @param homeDirectory The kernel's home directory.
+   */
+  @Inject
+  public SchedulerTraceRecorder(@Nonnull DefaultSchedulerConfiguration configuration,
+                                @Nonnull SimulationClock clock,
+                                @Nonnull @KernelExecutor ScheduledExecutorService kernelExecutor,
+                                @Nonnull @ApplicationHome File homeDirectory) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.clock = requireNonNull(clock, "clock");
+    this.kernelExecutor = requireNonNull(kernelExecutor, "kernelExecutor");
+    requireNonNull(homeDirectory, "homeDirectory");
+    this.directory = new File(new File(homeDirectory, "data"), "schedulertraces").toPath();
+  }
+
+  @Override
+  public synchronized void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    if (configuration.traceRecording()) {
+      startRecording();
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public synchronized boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public synchronized void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    stopRecording();
+
+    initialized = false;
+  }
+
+  /**
+   * Records a call to {@code claim()}.
+   *
+   * @param client The client.
+   * @param claim The claimed resources.
+   */
+  public synchronized void claimed(Client client, List<Set<TCSResource<?>>> claim) {
+    if (output == null) {
+      return;
+    }
+    try {
+      for (Set<TCSResource<?>> resources : claim) {
+        defineResources(resources);
+      }
+      startOperation(Operation.CLAIM, client);
+      SchedulerTrace.writeVarLong(output, claim.size());
+      for (Set<TCSResource<?>> resources : claim) {
+        writeResources(resources);
+      }
+      finishOperation();
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  /**
+   * Records a call to {@code updateProgressIndex()}.
+   *
+   * @param client The client.
+   * @param index The progress index.
+   */
+  public synchronized void progressIndexUpdated(Client client, int index) {
+    if (output == null) {
+      return;
+    }
+    try {
+      startOperation(Operation.UPDATE_PROGRESS_INDEX, client);
+      SchedulerTrace.writeVarLong(output, index);
+      finishOperation();
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  /**
+   * Records a call to {@code unclaim()}.
+   *
+   * @param client The client.
+   */
+  public synchronized void unclaimed(Client client) {
+    recordClientOperation(Operation.UNCLAIM, client);
+  }
+
+  /**
+   * Records a call to {@code allocate()}.
+   *
+   * @param client The client.
+   * @param resources The requested resources.
+   */
+  public synchronized void allocationRequested(Client client, Set<TCSResource<?>> resources) {
+    recordResourceOperation(Operation.ALLOCATE, client, resources);
+  }
+
+  /**
+   * Records a call to {@code allocateNow()}.
+   *
+   * @param client The client.
+   * @param resources The requested resources.
+   */
+  public synchronized void immediateAllocationRequested(Client client,
+                                                        Set<TCSResource<?>> resources) {
+    recordResourceOperation(Operation.ALLOCATE_NOW, client, resources);
+  }
+
+  /**
+   * Records a call to {@code free()}.
+   *
+   * @param client The client.
+   * @param resources The freed resources.
+   */
+  public synchronized void freed(Client client, Set<TCSResource<?>> resources) {
+    recordResourceOperation(Operation.FREE, client, resources);
+  }
+
+  /**
+   * Records a call to {@code freeAll()}.
+   *
+   * @param client The client.
+   */
+  public synchronized void freedAll(Client client) {
+    recordClientOperation(Operation.FREE_ALL, client);
+  }
+
+  private void recordClientOperation(Operation operation, Client client) {
+    if (output == null) {
+      return;
+    }
+    try {
+      startOperation(operation, client);
+      finishOperation();
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  private void recordResourceOperation(Operation operation,
+                                       Client client,
+                                       Set<TCSResource<?>> resources) {
+    if (output == null) {
+      return;
+    }
+    try {
+      defineResources(resources);
+      startOperation(operation, client);
+      writeResources(resources);
+      finishOperation();
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  private void startRecording() {
+    java.nio.file.Path file = directory.resolve(
+        "scheduler-"
+        + DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss").format(LocalDateTime.now())
+        + SchedulerTrace.FILE_EXTENSION);
+    try {
+      Files.createDirectories(directory);
+      output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+      lastOperationTime = clock.millis();
+      output.writeInt(SchedulerTrace.MAGIC);
+      output.writeInt(SchedulerTrace.FORMAT_VERSION);
+      output.writeLong(lastOperationTime);
+      flushTask = kernelExecutor.scheduleWithFixedDelay(this::flush,
+                                                        FLUSH_INTERVAL,
+                                                        FLUSH_INTERVAL,
+                                                        TimeUnit.MILLISECONDS);
+      LOG.info("Recording scheduler trace to {}", file);
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  private void stopRecording() {
+    if (flushTask != null) {
+      flushTask.cancel(false);
+      flushTask = null;
+    }
+    if (output != null) {
+      try {
+        output.close();
+      }
+      catch (IOException exc) {
+        LOG.warn("Could not close scheduler trace", exc);
+      }
+      output = null;
+    }
+    flushPending = false;
+    clientIndices.clear();
+    resourceIndices.clear();
+  }
+
+  private void recordingFailed(IOException exc) {
+    LOG.warn("Could not write scheduler trace, stopping recording.", exc);
+    stopRecording();
+  }
+
+  private void startOperation(Operation operation, Client client)
+      throws IOException {
+    Integer clientIndex = clientIndices.get(client.getId());
+    if (clientIndex == null) {
+      clientIndex = clientIndices.size();
+      clientIndices.put(client.getId(), clientIndex);
+      output.writeByte(SchedulerTrace.TAG_CLIENT);
+      output.writeUTF(client.getId());
+    }
+
+    long now = clock.millis();
+    output.writeByte(SchedulerTrace.TAG_OPERATION_BASE + operation.ordinal());
+    SchedulerTrace.writeVarLong(output, Math.max(0, now - lastOperationTime));
+    SchedulerTrace.writeVarLong(output, clientIndex);
+    lastOperationTime = now;
+  }
+
+  private void finishOperation() {
+    flushPending = true;
+  }
+
+  /**
+   * Writes the buffered records to the file, if any operations have been recorded since the last
+   * flush.
+   */
+  private synchronized void flush() {
+    if (output == null || !flushPending) {
+      return;
+    }
+    try {
+      output.flush();
+      flushPending = false;
+    }
+    catch (IOException exc) {
+      recordingFailed(exc);
+    }
+  }
+
+  private void defineResources(Set<TCSResource<?>> resources)
+      throws IOException {
+    for (TCSResource<?> resource : resources) {
+      if (!resourceIndices.containsKey(resource)) {
+        resourceIndices.put(resource, resourceIndices.size());
+        output.writeByte(SchedulerTrace.TAG_RESOURCE);
+        output.writeByte(kindOf(resource));
+        output.writeUTF(resource.getName());
+      }
+    }
+  }
+
+  private void writeResources(Set<TCSResource<?>> resources)
+      throws IOException {
+    SchedulerTrace.writeVarLong(output, resources.size());
+    for (TCSResource<?> resource : resources) {
+      SchedulerTrace.writeVarLong(output, resourceIndices.get(resource));
+    }
+  }
+
+  private byte kindOf(TCSResource<?> resource) {
+    if (resource instanceof Point) {
+      return KIND_POINT;
+    }
+    else if (resource instanceof Path) {
+      return KIND_PATH;
+    }
+    else if (resource instanceof Location) {
+      return KIND_LOCATION;
+    }
+    throw new IllegalArgumentException("Unhandled resource type: " + resource.getClass());
+  }
+}
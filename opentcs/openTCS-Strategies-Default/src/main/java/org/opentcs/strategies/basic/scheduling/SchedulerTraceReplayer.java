@@ -0,0 +1,337 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import org.opentcs.components.kernel.ResourceAllocationException;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.SchedulerTrace.Entry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Replays the operations recorded in a scheduler trace on a scheduler.
+ * <p>
+ * Each client's operations are replayed in their recorded order. Since a client does not do
+ * anything else while it is waiting for an allocation, a client's subsequent operations are held
+ * back until its pending allocation has been granted, while other clients' operations are
+ * replayed meanwhile.
+ * Operations are replayed either as fast as possible or according to their recorded points of
+ * time, optionally accelerated.
+ * </p>
+ */
+public class SchedulerTraceReplayer {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(SchedulerTraceReplayer.class);
+  /**
+   * The scheduler the operations are replayed on.
+   */
+  private final Scheduler scheduler;
+  /**
+   * The factor by which the recorded operations are accelerated, or 0 to replay them as fast as
+   * possible.
+   */
+  private final double speed;
+  /**
+   * The maximum time to wait for a pending allocation if there is nothing else to replay (in ms).
+   */
+  private final long stallTimeout;
+  /**
+   * The replayed clients, by ID.
+   */
+  private final Map<String, ReplayClient> clients = new HashMap<>();
+  /**
+   * The clients whose pending allocation has been granted or failed.
+   */
+  private final BlockingQueue<ReplayClient> unblockedClients = new LinkedBlockingQueue<>();
+  /**
+   * The number of operations replayed.
+   */
+  private long operationCount;
+  /**
+   * The number of operations that failed with an exception.
+   */
+  private long errorCount;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param scheduler The scheduler the operations are replayed on.
+   * @param speed The factor by which the recorded operations are accelerated, or 0 to replay them
+   * as fast as possible.
+   * @param stallTimeout The maximum time to wait for a pending allocation if there is nothing else
+   * to replay (in ms).
+   */
+  public SchedulerTraceReplayer(@Nonnull Scheduler scheduler, double speed, long stallTimeout) {
+    this.scheduler = requireNonNull(scheduler, "scheduler");
+    this.speed = speed;
+    this.stallTimeout = stallTimeout;
+  }
+
+  /**
+   * Replays all operations read from the given trace.
+   *
+   * @param reader The trace.
+   * @return The result of the replay.
+   * @throws IOException If the trace could not be read.
+   * @throws InterruptedException If the current thread was interrupted while waiting.
+   */
+  @Nonnull
+  public Result replay(@Nonnull SchedulerTraceReader reader)
+      throws IOException, InterruptedException {
+    requireNonNull(reader, "reader");
+
+    long startTime = System.nanoTime();
+    Entry entry;
+    while ((entry = reader.next()) != null) {
+      if (speed > 0) {
+        long delay = startTime + (long) (entry.getTime() * 1_000_000 / speed) - System.nanoTime();
+        if (delay > 0) {
+          TimeUnit.NANOSECONDS.sleep(delay);
+        }
+      }
+
+      ReplayClient client;
+      while ((client = unblockedClients.poll()) != null) {
+        replayBacklog(client);
+      }
+
+      client = clients.computeIfAbsent(entry.getClientId(), ReplayClient::new);
+      client.backlog.add(entry);
+      replayBacklog(client);
+    }
+
+    while (clients.values().stream().anyMatch(ReplayClient::isAwaitingAllocation)) {
+      ReplayClient client = unblockedClients.poll(stallTimeout, TimeUnit.MILLISECONDS);
+      if (client == null) {
+        break;
+      }
+      replayBacklog(client);
+    }
+    long duration = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+
+    return new Result(operationCount,
+                      errorCount,
+                      duration,
+                      clients.values().stream().mapToLong(c -> c.grantedCount).sum(),
+                      clients.values().stream().mapToLong(c -> c.failedCount).sum(),
+                      clients.values().stream()
+                          .filter(ReplayClient::isAwaitingAllocation)
+                          .map(ReplayClient::getId)
+                          .sorted()
+                          .collect(Collectors.toList()));
+  }
+
+  private void replayBacklog(ReplayClient client) {
+    while (!client.isAwaitingAllocation() && !client.backlog.isEmpty()) {
+      Entry entry = client.backlog.poll();
+      operationCount++;
+      try {
+        replay(client, entry);
+      }
+      catch (ResourceAllocationException | RuntimeException exc) {
+        LOG.warn("{}: Replaying {} failed", client.getId(), entry, exc);
+        errorCount++;
+      }
+    }
+  }
+
+  private void replay(ReplayClient client, Entry entry)
+      throws ResourceAllocationException {
+    switch (entry.getOperation()) {
+      case CLAIM:
+        scheduler.claim(client, entry.getClaim());
+        break;
+      case UPDATE_PROGRESS_INDEX:
+        scheduler.updateProgressIndex(client, entry.getIndex());
+        break;
+      case UNCLAIM:
+        scheduler.unclaim(client);
+        break;
+      case ALLOCATE:
+        client.awaitingAllocation = true;
+        scheduler.allocate(client, entry.getResources());
+        break;
+      case ALLOCATE_NOW:
+        scheduler.allocateNow(client, entry.getResources());
+        break;
+      case FREE:
+        scheduler.free(client, entry.getResources());
+        break;
+      case FREE_ALL:
+        scheduler.freeAll(client);
+        break;
+      default:
+        throw new IllegalArgumentException("Unhandled operation: " + entry.getOperation());
+    }
+  }
+
+  /**
+   * A client replaying the operations recorded for a client.
+   */
+  private class ReplayClient
+      implements Scheduler.Client {
+
+    /**
+     * The client's ID.
+     */
+    private final String id;
+    /**
+     * The operations held back while the client is waiting for an allocation.
+     */
+    private final Queue<Entry> backlog = new ArrayDeque<>();
+    /**
+     * Whether the client is waiting for an allocation.
+     */
+    private volatile boolean awaitingAllocation;
+    /**
+     * The number of granted allocations.
+     */
+    private volatile long grantedCount;
+    /**
+     * The number of failed allocations.
+     */
+    private volatile long failedCount;
+
+    ReplayClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    boolean isAwaitingAllocation() {
+      return awaitingAllocation;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      grantedCount++;
+      awaitingAllocation = false;
+      unblockedClients.add(this);
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+      failedCount++;
+      awaitingAllocation = false;
+      unblockedClients.add(this);
+    }
+  }
+
+  /**
+   * The result of a replay.
+   */
+  public static class Result {
+
+    /**
+     * The number of operations replayed.
+     */
+    private final long operationCount;
+    /**
+     * The number of operations that failed with an exception.
+     */
+    private final long errorCount;
+    /**
+     * The duration of the replay (in ms).
+     */
+    private final long duration;
+    /**
+     * The number of granted allocations.
+     */
+    private final long grantedCount;
+    /**
+     * The number of failed allocations.
+     */
+    private final long failedCount;
+    /**
+     * The IDs of the clients whose allocations were still pending at the end of the replay.
+     */
+    private final List<String> stalledClients;
+
+    Result(long operationCount,
+           long errorCount,
+           long duration,
+           long grantedCount,
+           long failedCount,
+           List<String> stalledClients) {
+      this.operationCount = operationCount;
+      this.errorCount = errorCount;
+      this.duration = duration;
+      this.grantedCount = grantedCount;
+      this.failedCount = failedCount;
+      this.stalledClients = Collections.unmodifiableList(stalledClients);
+    }
+
+    public long getOperationCount() {
+      return operationCount;
+    }
+
+    public long getErrorCount() {
+      return errorCount;
+    }
+
+    public long getDuration() {
+      return duration;
+    }
+
+    public long getGrantedCount() {
+      return grantedCount;
+    }
+
+    public long getFailedCount() {
+      return failedCount;
+    }
+
+    @Nonnull
+    public List<String> getStalledClients() {
+      return stalledClients;
+    }
+
+    /**
+     * Returns the number of operations replayed per second.
+     *
+     * @return The number of operations replayed per second.
+     */
+    public double getThroughput() {
+      return duration == 0 ? operationCount : operationCount * 1000.0 / duration;
+    }
+
+    @Override
+    public String toString() {
+      return "Result{"
+          + "operationCount=" + operationCount
+          + ", errorCount=" + errorCount
+          + ", duration=" + duration
+          + ", grantedCount=" + grantedCount
+          + ", failedCount=" + failedCount
+          + ", stalledClients=" + stalledClients
+          + '}';
+    }
+  }
+}
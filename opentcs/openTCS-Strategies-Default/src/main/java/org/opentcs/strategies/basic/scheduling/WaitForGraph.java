@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler.Client;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * The wait-for graph of the scheduler's clients.
+ * <p>
+ * There is an edge from client A to client B if A has a deferred allocation waiting for a resource
+ * that B currently holds.
+ * The graph is not stored but derived from the deferred allocations and the reservation pool when
+ * it is queried, so it is always up to date.
+ * A cycle in the graph is a deadlock.
+ * </p>
+ * <p>
+ * Methods of this class must be called on the kernel executor and, unless resources are allocated
+ * with fine-grained locking, with the kernel's global synchronization object locked.
+ * </p>
+ */
+class WaitForGraph {
+
+  /**
+   * The reservation pool knowing the holders of the resources.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * The deferred allocations.
+   */
+  private final DeferredAllocations deferredAllocations;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param reservationPool The reservation pool knowing the holders of the resources.
+   * @param deferredAllocations The deferred allocations.
+   */
+  @Inject
+  WaitForGraph(@Nonnull ReservationPool reservationPool,
+               @Nonnull DeferredAllocations deferredAllocations) {
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.deferredAllocations = requireNonNull(deferredAllocations, "deferredAllocations");
+  }
+
+  /**
+   * Looks for a cycle through the given client.
+   * Since a new cycle can only be formed by the wait-for edges added with a deferred allocation,
+   * checking the client whose allocation was just deferred is sufficient to detect every deadlock.
+   *
+   * @param client The client.
+   * @return The clients forming the cycle, starting with the given client, or an empty list, if
+   * there is no cycle through the given client.
+   */
+  @Nonnull
+  public List<Client> findCycle(@Nonnull Client client) {
+    requireNonNull(client, "client");
+
+    Map<Client, Client> predecessors = new HashMap<>();
+    Deque<Client> stack = new ArrayDeque<>();
+    stack.push(client);
+    while (!stack.isEmpty()) {
+      Client current = stack.pop();
+      for (Client holder : getHolders(current)) {
+        if (holder == client) {
+          return toCycle(client, current, predecessors);
+        }
+        if (!predecessors.containsKey(holder)) {
+          predecessors.put(holder, current);
+          stack.push(holder);
+        }
+      }
+    }
+    return Collections.emptyList();
+  }
+
+  /**
+   * Returns the clients holding resources the given client is waiting for.
+   *
+   * @param client The client.
+   * @return The clients the given client is waiting for.
+   */
+  @Nonnull
+  public Set<Client> getHolders(@Nonnull Client client) {
+    Set<Client> result = new LinkedHashSet<>();
+    for (TCSResource<?> resource : deferredAllocations.getBlockingResources(client)) {
+      Client holder = reservationPool.getReservationEntry(resource).getClient();
+      if (holder != null && holder != client) {
+        result.add(holder);
+      }
+    }
+    return result;
+  }
+
+  private List<Client> toCycle(Client start, Client last, Map<Client, Client> predecessors) {
+    List<Client> result = new ArrayList<>();
+    for (Client current = last; current != start; current = predecessors.get(current)) {
+      result.add(current);
+    }
+    result.add(start);
+    Collections.reverse(result);
+    return result;
+  }
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.customizations.kernel.GlobalSyncObject;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration;
+import org.opentcs.strategies.basic.scheduling.ReservationPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Checks the claims of all clients to keep a client from entering a single-lane segment while
+ * another client is coming through it the opposite way.
+ * <p>
+ * Allocating resources is refused if, according to the client's claim, the client would have to
+ * pass through a sequence of points that ends at a resource allocated by another client, and the
+ * other client's claim leads back through the same points up to the requested ones.
+ * Since neither of the clients could pass the other one, granting the allocation would inevitably
+ * result in a circular wait.
+ * The allocation is refused only if the other client could actually leave the segment, i.e. if its
+ * claim does not continue into resources currently allocated by the requesting client.
+ * </p>
+ */
+public class DeadlockAvoidanceModule
+    implements Scheduler.Module {
+
+  /**
+   * This class's logger.
+   */
+  private static final Logger LOG = LoggerFactory.getLogger(DeadlockAvoidanceModule.class);
+  /**
+   * The scheduler's configuration.
+   */
+  private final DefaultSchedulerConfiguration configuration;
+  /**
+   * The reservation pool.
+   */
+  private final ReservationPool reservationPool;
+  /**
+   * A global object to be used for synchronization within the kernel.
+   */
+  private final Object globalSyncObject;
+  /**
+   * The remaining claims of all clients.
+   */
+  private final Map<Scheduler.Client, List<Set<TCSResource<?>>>> claimsByClient = new HashMap<>();
+  /**
+   * Whether this module is initialized.
+   */
+  private boolean initialized;
+
+  @Inject
+  public DeadlockAvoidanceModule(@Nonnull DefaultSchedulerConfiguration configuration,
+                                 @Nonnull ReservationPool reservationPool,
+                                 @Nonnull @GlobalSyncObject Object globalSyncObject) {
+    this.configuration = requireNonNull(configuration, "configuration");
+    this.reservationPool = requireNonNull(reservationPool, "reservationPool");
+    this.globalSyncObject = requireNonNull(globalSyncObject, "globalSyncObject");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    synchronized (globalSyncObject) {
+      claimsByClient.clear();
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    synchronized (globalSyncObject) {
+      claimsByClient.clear();
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void claim(Scheduler.Client client,
+                    List<Set<TCSResource<?>>> claim) {
+    requireNonNull(client, "client");
+    requireNonNull(claim, "claim");
+
+    synchronized (globalSyncObject) {
+      claimsByClient.put(client, new ArrayList<>(claim));
+    }
+  }
+
+  @Override
+  public void unclaim(Scheduler.Client client) {
+    requireNonNull(client, "client");
+
+    synchronized (globalSyncObject) {
+      claimsByClient.remove(client);
+    }
+  }
+
+  @Override
+  public void setAllocationState(Scheduler.Client client,
+                                 Set<TCSResource<?>> alloc,
+                                 List<Set<TCSResource<?>>> remainingClaim) {
+    requireNonNull(client, "client");
+    requireNonNull(remainingClaim, "remainingClaim");
+
+    synchronized (globalSyncObject) {
+      if (remainingClaim.isEmpty()) {
+        claimsByClient.remove(client);
+      }
+      else {
+        claimsByClient.put(client, new ArrayList<>(remainingClaim));
+      }
+    }
+  }
+
+  @Override
+  public boolean mayAllocate(Scheduler.Client client,
+                             Set<TCSResource<?>> resources) {
+    requireNonNull(client, "client");
+    requireNonNull(resources, "resources");
+
+    if (!configuration.deadlockAvoidance()) {
+      return true;
+    }
+
+    synchronized (globalSyncObject) {
+      List<Set<TCSResource<?>>> claim = claimsByClient.get(client);
+      int index = claim == null ? -1 : claim.indexOf(resources);
+      if (index < 0) {
+        return true;
+      }
+
+      Set<TCSResource<?>> allocated = reservationPool.allocatedResources(client);
+      for (Map.Entry<Scheduler.Client, List<Set<TCSResource<?>>>> entry
+               : claimsByClient.entrySet()) {
+        if (entry.getKey().equals(client)) {
+          continue;
+        }
+        if (isOncoming(claim.subList(index, claim.size()),
+                       allocated,
+                       entry.getValue(),
+                       reservationPool.allocatedResources(entry.getKey()))) {
+          LOG.debug("{}: {} is coming the opposite way, not allocating {}",
+                    client.getId(),
+                    entry.getKey().getId(),
+                    resources);
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  @Override
+  public void prepareAllocation(Scheduler.Client client,
+                                Set<TCSResource<?>> resources) {
+  }
+
+  @Override
+  public boolean hasPreparedAllocation(Scheduler.Client client,
+                                       Set<TCSResource<?>> resources) {
+    return true;
+  }
+
+  @Override
+  public void allocationReleased(Scheduler.Client client,
+                                 Set<TCSResource<?>> resources) {
+  }
+
+  /**
+   * Checks whether another client is coming the opposite way through the segment a client is about
+   * to enter.
+   *
+   * @param claim The client's claim, starting with the requested resources.
+   * @param allocated The resources allocated by the client.
+   * @param otherClaim The other client's remaining claim.
+   * @param otherAllocated The resources allocated by the other client.
+   * @return <code>true</code> if, and only if, the other client is coming the opposite way and
+   * could leave the segment if the client waited.
+   */
+  private boolean isOncoming(List<Set<TCSResource<?>>> claim,
+                             Set<TCSResource<?>> allocated,
+                             List<Set<TCSResource<?>>> otherClaim,
+                             Set<TCSResource<?>> otherAllocated) {
+    if (otherAllocated.isEmpty()) {
+      return false;
+    }
+
+    // The points the client would pass before reaching a resource allocated by the other client.
+    Set<Point> segmentPoints = new HashSet<>();
+    boolean reachesOther = false;
+    for (Set<TCSResource<?>> step : claim) {
+      if (!Collections.disjoint(step, otherAllocated)) {
+        reachesOther = true;
+        break;
+      }
+      segmentPoints.addAll(points(step));
+    }
+    if (!reachesOther) {
+      return false;
+    }
+
+    // The points the other client will pass next without leaving the segment.
+    Set<Point> oncomingPoints = new HashSet<>();
+    Set<TCSResource<?>> exitStep = null;
+    boolean skippingAllocated = true;
+    for (Set<TCSResource<?>> step : otherClaim) {
+      if (skippingAllocated && otherAllocated.containsAll(step)) {
+        continue;
+      }
+      skippingAllocated = false;
+
+      Set<Point> stepPoints = points(step);
+      if (!segmentPoints.containsAll(stepPoints)) {
+        exitStep = step;
+        break;
+      }
+      oncomingPoints.addAll(stepPoints);
+    }
+
+    if (!oncomingPoints.containsAll(points(claim.get(0)))) {
+      return false;
+    }
+    // If the other client can't leave the segment without the resources the client already holds,
+    // waiting would not help.
+    return exitStep == null || Collections.disjoint(exitStep, allocated);
+  }
+
+  private Set<Point> points(Set<TCSResource<?>> resources) {
+    return resources.stream()
+        .filter(resource -> resource instanceof Point)
+        .map(resource -> (Point) resource)
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling.modules;
+
+import java.util.List;
+import static java.util.Objects.requireNonNull;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.Nonnull;
+import javax.inject.Inject;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.routing.OccupancyTable;
+
+/**
+ * Reports the resources allocated by clients to the router's {@link OccupancyTable}.
+ * Never restricts any allocations.
+ */
+public class OccupancyTrackingModule
+    implements Scheduler.Module {
+
+  /**
+   * Keeps track of the vehicles using points and paths.
+   */
+  private final OccupancyTable occupancyTable;
+  /**
+   * Whether this module is initialized.
+   */
+  private boolean initialized;
+
+  /**
+   * Creates a new instance.
+   *
+   * @param occupancyTable Keeps track of the vehicles using points and paths.
+   */
+  @Inject
+  public OccupancyTrackingModule(@Nonnull OccupancyTable occupancyTable) {
+    this.occupancyTable = requireNonNull(occupancyTable, "occupancyTable");
+  }
+
+  @Override
+  public void initialize() {
+    if (isInitialized()) {
+      return;
+    }
+
+    initialized = true;
+  }
+
+  @Override
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  @Override
+  public void terminate() {
+    if (!isInitialized()) {
+      return;
+    }
+
+    initialized = false;
+  }
+
+  @Override
+  public void claim(Scheduler.Client client, List<Set<TCSResource<?>>> claim) {
+  }
+
+  @Override
+  public void unclaim(Scheduler.Client client) {
+  }
+
+  @Override
+  public void setAllocationState(Scheduler.Client client,
+                                 Set<TCSResource<?>> alloc,
+                                 List<Set<TCSResource<?>>> remainingClaim) {
+    occupancyTable.allocationsChanged(client.getId(), toNames(alloc));
+  }
+
+  @Override
+  public boolean mayAllocate(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    return true;
+  }
+
+  @Override
+  public void prepareAllocation(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    // Called right before the resources are actually allocated.
+    occupancyTable.resourcesAllocated(client.getId(), toNames(resources));
+  }
+
+  @Override
+  public boolean hasPreparedAllocation(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    return true;
+  }
+
+  @Override
+  public void allocationReleased(Scheduler.Client client, Set<TCSResource<?>> resources) {
+    occupancyTable.resourcesReleased(client.getId(), toNames(resources));
+  }
+
+  private Set<String> toNames(Set<TCSResource<?>> resources) {
+    return resources.stream()
+        .map(resource -> resource.getName())
+        .collect(Collectors.toSet());
+  }
+}
@@ -0,0 +1,278 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.opentcs.components.kernel.Router;
+import org.opentcs.components.kernel.services.TCSObjectService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.Vehicle;
+import org.opentcs.data.order.DriveOrder;
+import org.opentcs.data.order.Route;
+import org.opentcs.data.order.TransportOrder;
+import org.opentcs.strategies.basic.dispatching.RerouteUtil;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.AllocationLocking.FINE_GRAINED;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.AllocationLocking.GLOBAL;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolution.NONE;
+import static org.opentcs.strategies.basic.scheduling.DefaultSchedulerConfiguration.DeadlockResolution.REROUTE;
+import org.opentcs.strategies.basic.scheduling.ReservationPoolTest.TestClient;
+
+/**
+ * Tests for {@link DeadlockResolver}, in particular for the selection of the vehicle giving way.
+ */
+public class DeadlockResolverTest {
+
+  private final Object globalSyncObject = new Object();
+
+  private final List<Object> events = new ArrayList<>();
+
+  private DefaultSchedulerConfiguration configuration;
+
+  private TCSObjectService objectService;
+
+  private RerouteUtil rerouteUtil;
+
+  private ReservationPool reservationPool;
+
+  private DeferredAllocations deferredAllocations;
+
+  private ScheduledExecutorService kernelExecutor;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private Point pointC;
+
+  private TestClient client1;
+
+  private TestClient client2;
+
+  @Before
+  public void setUp() {
+    configuration = mock(DefaultSchedulerConfiguration.class);
+    when(configuration.allocationLocking()).thenReturn(GLOBAL);
+    when(configuration.deadlockResolution()).thenReturn(REROUTE);
+    when(configuration.deadlockRerouteRouteCount()).thenReturn(3);
+    objectService = mock(TCSObjectService.class);
+    rerouteUtil = mock(RerouteUtil.class);
+    reservationPool = new ReservationPool(new AllocationMetrics());
+    deferredAllocations = new DeferredAllocations();
+    kernelExecutor = Executors.newSingleThreadScheduledExecutor();
+
+    pointA = new Point("Point-A");
+    pointB = new Point("Point-B");
+    pointC = new Point("Point-C");
+    client1 = new TestClient("Vehicle-1");
+    client2 = new TestClient("Vehicle-2");
+
+    // Each vehicle holds the point the other one is waiting for.
+    reservationPool.allocateAll(client1, new HashSet<>(Arrays.asList(pointA)));
+    reservationPool.allocateAll(client2, new HashSet<>(Arrays.asList(pointB)));
+    deferredAllocations.add(
+        new AllocatorCommand.Allocate(client1, new HashSet<>(Arrays.asList(pointB))),
+        new HashSet<>(Arrays.asList(pointB)));
+    deferredAllocations.add(
+        new AllocatorCommand.Allocate(client2, new HashSet<>(Arrays.asList(pointA))),
+        new HashSet<>(Arrays.asList(pointA)));
+  }
+
+  @After
+  public void tearDown() {
+    kernelExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldLetVehicleWithLatestDeadlineGiveWay()
+      throws Exception {
+    Vehicle vehicle1 = addVehicle("Vehicle-1", pointA, 1000);
+    Vehicle vehicle2 = addVehicle("Vehicle-2", pointB, 2000);
+    Route route1 = addUnblockedRoute(vehicle1, pointA);
+    Route route2 = addUnblockedRoute(vehicle2, pointB);
+
+    detectAndResolveDeadlock(createResolver());
+
+    verify(rerouteUtil).rerouteCurrentDriveOrder(vehicle2, route2);
+    verify(rerouteUtil, never()).rerouteCurrentDriveOrder(vehicle1, route1);
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.RESOLVED));
+    assertThat(lastEvent().getVictimId(), is("Vehicle-2"));
+    assertThat(deferredAllocations.getBlockingResources(client2).isEmpty(), is(true));
+    assertThat(deferredAllocations.getBlockingResources(client1).isEmpty(), is(false));
+  }
+
+  @Test
+  public void shouldLetNextVehicleGiveWayIfFirstCannotBeRerouted()
+      throws Exception {
+    Vehicle vehicle1 = addVehicle("Vehicle-1", pointA, 1000);
+    Vehicle vehicle2 = addVehicle("Vehicle-2", pointB, 2000);
+    Route route1 = addUnblockedRoute(vehicle1, pointA);
+    when(rerouteUtil.getFutureOrCurrentPosition(vehicle2)).thenReturn(pointB);
+    when(rerouteUtil.findUnblockedRoute(eq(vehicle2), any(), any(), any(), anyInt()))
+        .thenReturn(Optional.empty());
+
+    detectAndResolveDeadlock(createResolver());
+
+    verify(rerouteUtil).rerouteCurrentDriveOrder(vehicle1, route1);
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.RESOLVED));
+    assertThat(lastEvent().getVictimId(), is("Vehicle-1"));
+  }
+
+  @Test
+  public void shouldLetVehicleWithOrderGiveWayIfOtherHasNone()
+      throws Exception {
+    Vehicle vehicle1 = addVehicle("Vehicle-1", pointA, 1000);
+    when(objectService.fetchObject(Vehicle.class, "Vehicle-2"))
+        .thenReturn(new Vehicle("Vehicle-2"));
+    Route route1 = addUnblockedRoute(vehicle1, pointA);
+
+    detectAndResolveDeadlock(createResolver());
+
+    verify(rerouteUtil).rerouteCurrentDriveOrder(vehicle1, route1);
+    assertThat(lastEvent().getVictimId(), is("Vehicle-1"));
+  }
+
+  @Test
+  public void shouldReportUnresolvedDeadlockIfNoVehicleCanGiveWay()
+      throws Exception {
+    when(objectService.fetchObject(Vehicle.class, "Vehicle-1"))
+        .thenReturn(new Vehicle("Vehicle-1"));
+    when(objectService.fetchObject(Vehicle.class, "Vehicle-2"))
+        .thenReturn(new Vehicle("Vehicle-2"));
+
+    detectAndResolveDeadlock(createResolver());
+
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.UNRESOLVED));
+    assertThat(lastEvent().getVictimId(), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReportUnresolvedDeadlockIfReroutingFails()
+      throws Exception {
+    addVehicle("Vehicle-1", pointA, 1000);
+    addVehicle("Vehicle-2", pointB, 2000);
+    when(rerouteUtil.getFutureOrCurrentPosition(any()))
+        .thenThrow(new IllegalStateException("Test failure"));
+
+    detectAndResolveDeadlock(createResolver());
+
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.UNRESOLVED));
+  }
+
+  @Test
+  public void shouldNotRerouteIfResolutionIsDisabled()
+      throws Exception {
+    when(configuration.deadlockResolution()).thenReturn(NONE);
+    Vehicle vehicle1 = addVehicle("Vehicle-1", pointA, 1000);
+    Route route1 = addUnblockedRoute(vehicle1, pointA);
+
+    detectAndResolveDeadlock(createResolver());
+
+    verify(rerouteUtil, never()).rerouteCurrentDriveOrder(vehicle1, route1);
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.DETECTED));
+  }
+
+  @Test
+  public void shouldResolveDeadlockWithoutGlobalLockWithFineGrainedLocking()
+      throws Exception {
+    when(configuration.allocationLocking()).thenReturn(FINE_GRAINED);
+    Vehicle vehicle1 = addVehicle("Vehicle-1", pointA, 1000);
+    Route route1 = addUnblockedRoute(vehicle1, pointA);
+    DeadlockResolver resolver = createResolver();
+
+    // With the global lock held elsewhere, resolving must not wait for it.
+    synchronized (globalSyncObject) {
+      detectAndResolveDeadlock(resolver);
+    }
+
+    verify(rerouteUtil).rerouteCurrentDriveOrder(vehicle1, route1);
+    assertThat(lastEvent().getType(), is(DeadlockEvent.Type.RESOLVED));
+  }
+
+  private DeadlockResolver createResolver() {
+    return new DeadlockResolver(configuration,
+                                objectService,
+                                mock(Router.class),
+                                () -> rerouteUtil,
+                                reservationPool,
+                                deferredAllocations,
+                                new WaitForGraph(reservationPool, deferredAllocations),
+                                new AllocationMetrics(),
+                                event -> events.add(event),
+                                kernelExecutor,
+                                globalSyncObject);
+  }
+
+  /**
+   * Lets the resolver detect the deadlock and waits for the resolution to finish.
+   */
+  private void detectAndResolveDeadlock(DeadlockResolver resolver)
+      throws Exception {
+    kernelExecutor.submit(() -> resolver.allocationDeferred(client1)).get(10, TimeUnit.SECONDS);
+    // The resolution has been scheduled on the same executor.
+    kernelExecutor.submit(() -> null).get(10, TimeUnit.SECONDS);
+    assertThat(((DeadlockEvent) events.get(0)).getClientIds(),
+               contains("Vehicle-1", "Vehicle-2"));
+  }
+
+  private Vehicle addVehicle(String name, Point position, long deadline) {
+    Route route = new Route(
+        Collections.singletonList(new Route.Step(null, pointC, Vehicle.Orientation.FORWARD, 0)),
+        1);
+    DriveOrder driveOrder = new DriveOrder(new DriveOrder.Destination(pointC.getReference()))
+        .withRoute(route);
+    TransportOrder order = new TransportOrder("Order-" + name,
+                                              Collections.singletonList(driveOrder))
+        .withDeadline(deadline)
+        .withCurrentDriveOrderIndex(0);
+    Vehicle vehicle = new Vehicle(name)
+        .withCurrentPosition(position.getReference())
+        .withTransportOrder(order.getReference())
+        .withProcState(Vehicle.ProcState.PROCESSING_ORDER);
+    when(objectService.fetchObject(Vehicle.class, name)).thenReturn(vehicle);
+    when(objectService.fetchObject(TransportOrder.class, order.getReference()))
+        .thenReturn(order);
+    return vehicle;
+  }
+
+  private Route addUnblockedRoute(Vehicle vehicle, Point position) {
+    Route route = new Route(
+        Collections.singletonList(new Route.Step(null, pointC, Vehicle.Orientation.FORWARD, 0)),
+        2);
+    when(rerouteUtil.getFutureOrCurrentPosition(vehicle)).thenReturn(position);
+    when(rerouteUtil.findUnblockedRoute(eq(vehicle), eq(position), eq(pointC), any(), anyInt()))
+        .thenReturn(Optional.of(route));
+    when(rerouteUtil.rerouteCurrentDriveOrder(vehicle, route)).thenReturn(true);
+    return route;
+  }
+
+  private DeadlockEvent lastEvent() {
+    return (DeadlockEvent) events.get(events.size() - 1);
+  }
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.components.kernel.services.InternalPlantModelService;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Tests for {@link DefaultScheduler}, in particular for claims and allocations by concurrent
+ * clients.
+ */
+public class DefaultSchedulerTest {
+
+  private static final int CLIENT_COUNT = 4;
+
+  private static final int ROUNDS = 200;
+
+  private final Object globalSyncObject = new Object();
+
+  private ScheduledExecutorService kernelExecutor;
+
+  private ExecutorService clientExecutor;
+
+  private ConcurrencyCheckingModule module;
+
+  private DefaultScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    kernelExecutor = Executors.newSingleThreadScheduledExecutor();
+    clientExecutor = Executors.newFixedThreadPool(CLIENT_COUNT);
+    module = new ConcurrencyCheckingModule(globalSyncObject);
+  }
+
+  @After
+  public void tearDown() {
+    if (scheduler != null) {
+      scheduler.terminate();
+    }
+    clientExecutor.shutdownNow();
+    kernelExecutor.shutdownNow();
+  }
+
+  @Test
+  public void shouldCallModulesSequentiallyWithGlobalLocking()
+      throws Exception {
+    scheduler = createScheduler(DefaultSchedulerConfiguration.AllocationLocking.GLOBAL);
+    claimAndAllocateConcurrently();
+  }
+
+  @Test
+  public void shouldCallModulesSequentiallyWithFineGrainedLocking()
+      throws Exception {
+    scheduler = createScheduler(DefaultSchedulerConfiguration.AllocationLocking.FINE_GRAINED);
+    claimAndAllocateConcurrently();
+  }
+
+  @Test
+  public void shouldGrantContendedResourcesExclusivelyWithFineGrainedLocking()
+      throws Exception {
+    scheduler = createScheduler(DefaultSchedulerConfiguration.AllocationLocking.FINE_GRAINED);
+    Set<TCSResource<?>> resources
+        = new HashSet<>(Arrays.asList(new Point("Point-A"), new Point("Point-B")));
+    AtomicReference<Scheduler.Client> holder = new AtomicReference<>();
+    AtomicInteger violationCount = new AtomicInteger();
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < CLIENT_COUNT; i++) {
+      GrantRecordingClient client = new GrantRecordingClient("Client-" + i) {
+        @Override
+        public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+          if (!holder.compareAndSet(null, this)) {
+            violationCount.incrementAndGet();
+          }
+          return super.allocationSuccessful(resources);
+        }
+      };
+      results.add(clientExecutor.submit(() -> {
+        start.await();
+        for (int j = 0; j < ROUNDS / CLIENT_COUNT; j++) {
+          scheduler.allocate(client, resources);
+          client.awaitGrant();
+          holder.compareAndSet(client, null);
+          scheduler.free(client, resources);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+
+    for (Future<?> result : results) {
+      result.get(60, TimeUnit.SECONDS);
+    }
+    assertThat(violationCount.get(), is(0));
+  }
+
+  private void claimAndAllocateConcurrently()
+      throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < CLIENT_COUNT; i++) {
+      GrantRecordingClient client = new GrantRecordingClient("Client-" + i);
+      Set<TCSResource<?>> first = Collections.singleton(new Point("Point-" + i + "-1"));
+      Set<TCSResource<?>> second = Collections.singleton(new Point("Point-" + i + "-2"));
+      results.add(clientExecutor.submit(() -> {
+        start.await();
+        for (int j = 0; j < ROUNDS; j++) {
+          scheduler.claim(client, Arrays.asList(first, second));
+          scheduler.allocate(client, first);
+          scheduler.updateProgressIndex(client, 1);
+          client.awaitGrant();
+          scheduler.free(client, first);
+          scheduler.unclaim(client);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+
+    for (Future<?> result : results) {
+      result.get(60, TimeUnit.SECONDS);
+    }
+    assertThat(module.getViolationCount(), is(0));
+    assertTrue(module.getCallCount() > 0);
+  }
+
+  private DefaultScheduler createScheduler(
+      DefaultSchedulerConfiguration.AllocationLocking allocationLocking) {
+    DefaultSchedulerConfiguration configuration = mock(DefaultSchedulerConfiguration.class);
+    when(configuration.allocationLocking()).thenReturn(allocationLocking);
+    AllocationMetrics allocationMetrics = new AllocationMetrics();
+    DefaultScheduler result = new DefaultScheduler(
+        configuration,
+        mock(InternalPlantModelService.class),
+        new AllocationAdvisor(Collections.singleton(module)),
+        new ReservationPool(allocationMetrics),
+        new DeferredAllocations(),
+        allocationMetrics,
+        mock(DeadlockResolver.class),
+        new SchedulerTraceRecorder(configuration,
+                                   new SimulationClock(1.0),
+                                   kernelExecutor,
+                                   new File(System.getProperty("java.io.tmpdir"))),
+        kernelExecutor,
+        globalSyncObject
+    );
+    result.initialize();
+    return result;
+  }
+
+  /**
+   * A client that lets its thread wait for granted allocations.
+   */
+  private static class GrantRecordingClient
+      implements Scheduler.Client {
+
+    private final String id;
+
+    private final Semaphore grants = new Semaphore(0);
+
+    GrantRecordingClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      grants.release();
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+
+    void awaitGrant()
+        throws InterruptedException {
+      assertTrue("Allocation for " + id + " not granted", grants.tryAcquire(10, TimeUnit.SECONDS));
+    }
+  }
+
+  /**
+   * A module that counts calls made concurrently or without the global lock held.
+   */
+  private static class ConcurrencyCheckingModule
+      implements Scheduler.Module {
+
+    private final Object globalSyncObject;
+
+    private final AtomicInteger activeCallCount = new AtomicInteger();
+
+    private final AtomicInteger violationCount = new AtomicInteger();
+
+    private final AtomicInteger callCount = new AtomicInteger();
+
+    private boolean initialized;
+
+    ConcurrencyCheckingModule(Object globalSyncObject) {
+      this.globalSyncObject = globalSyncObject;
+    }
+
+    int getViolationCount() {
+      return violationCount.get();
+    }
+
+    int getCallCount() {
+      return callCount.get();
+    }
+
+    @Override
+    public void initialize() {
+      initialized = true;
+    }
+
+    @Override
+    public boolean isInitialized() {
+      return initialized;
+    }
+
+    @Override
+    public void terminate() {
+      initialized = false;
+    }
+
+    @Override
+    public void claim(Scheduler.Client client, List<Set<TCSResource<?>>> claim) {
+      checkCall();
+    }
+
+    @Override
+    public void unclaim(Scheduler.Client client) {
+      checkCall();
+    }
+
+    @Override
+    public void setAllocationState(Scheduler.Client client,
+                                   Set<TCSResource<?>> alloc,
+                                   List<Set<TCSResource<?>>> remainingClaim) {
+      checkCall();
+    }
+
+    @Override
+    public boolean mayAllocate(Scheduler.Client client, Set<TCSResource<?>> resources) {
+      checkCall();
+      return true;
+    }
+
+    @Override
+    public void prepareAllocation(Scheduler.Client client, Set<TCSResource<?>> resources) {
+      checkCall();
+    }
+
+    @Override
+    public boolean hasPreparedAllocation(Scheduler.Client client, Set<TCSResource<?>> resources) {
+      checkCall();
+      return true;
+    }
+
+    @Override
+    public void allocationReleased(Scheduler.Client client, Set<TCSResource<?>> resources) {
+      checkCall();
+    }
+
+    private void checkCall() {
+      callCount.incrementAndGet();
+      int activeCalls = activeCallCount.incrementAndGet();
+      if (activeCalls != 1 || !Thread.holdsLock(globalSyncObject)) {
+        violationCount.incrementAndGet();
+      }
+      // Widen the window for overlapping calls.
+      Thread.yield();
+      activeCallCount.decrementAndGet();
+    }
+  }
+}
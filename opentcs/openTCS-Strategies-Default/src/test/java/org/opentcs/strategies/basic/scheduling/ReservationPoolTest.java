@@ -0,0 +1,162 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+
+/**
+ * Tests for {@link ReservationPool}, in particular for concurrent allocations.
+ */
+public class ReservationPoolTest {
+
+  private static final int THREAD_COUNT = 8;
+
+  private ReservationPool pool;
+
+  private ExecutorService executor;
+
+  private Set<TCSResource<?>> resources;
+
+  @Before
+  public void setUp() {
+    pool = new ReservationPool(new AllocationMetrics());
+    executor = Executors.newFixedThreadPool(THREAD_COUNT);
+    resources = new HashSet<>();
+    for (int i = 1; i <= 5; i++) {
+      resources.add(new Point("Point-" + i));
+    }
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldGrantOverlappingAllocationToExactlyOneClient()
+      throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<TestClient> clients = new ArrayList<>();
+    List<Future<Boolean>> results = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      TestClient client = new TestClient("Client-" + i);
+      clients.add(client);
+      results.add(executor.submit(() -> {
+        start.await();
+        return pool.allocateAll(client, resources);
+      }));
+    }
+    start.countDown();
+
+    int grantedCount = 0;
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      if (results.get(i).get(10, TimeUnit.SECONDS)) {
+        grantedCount++;
+        assertThat(pool.allocatedResources(clients.get(i)), is(resources));
+      }
+      else {
+        assertThat(pool.allocatedResources(clients.get(i)), is(empty()));
+      }
+    }
+    assertThat(grantedCount, is(1));
+  }
+
+  @Test
+  public void shouldKeepAllocationsExclusiveWhileAllocatingAndFreeingConcurrently()
+      throws Exception {
+    AtomicInteger holderCount = new AtomicInteger();
+    AtomicInteger violationCount = new AtomicInteger();
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> results = new ArrayList<>();
+    for (int i = 0; i < THREAD_COUNT; i++) {
+      TestClient client = new TestClient("Client-" + i);
+      results.add(executor.submit(() -> {
+        start.await();
+        for (int j = 0; j < 1000; j++) {
+          if (!pool.allocateAll(client, resources)) {
+            continue;
+          }
+          if (holderCount.incrementAndGet() != 1
+              || !pool.allocatedResources(client).equals(resources)) {
+            violationCount.incrementAndGet();
+          }
+          holderCount.decrementAndGet();
+          pool.free(client, resources);
+        }
+        return null;
+      }));
+    }
+    start.countDown();
+
+    for (Future<?> result : results) {
+      result.get(30, TimeUnit.SECONDS);
+    }
+    assertThat(violationCount.get(), is(0));
+    assertTrue(pool.getAllocations().isEmpty());
+    for (TCSResource<?> resource : resources) {
+      assertTrue(pool.getReservationEntry(resource).isFree());
+    }
+  }
+
+  @Test
+  public void shouldFreeAllResourcesOfClient() {
+    TestClient client = new TestClient("Client-1");
+    assertTrue(pool.allocateAll(client, resources));
+
+    pool.freeAll(client);
+
+    assertThat(pool.allocatedResources(client), is(empty()));
+    assertTrue(pool.getAllocations().isEmpty());
+  }
+
+  /**
+   * A client doing nothing but identifying itself.
+   */
+  static class TestClient
+      implements Scheduler.Client {
+
+    private final String id;
+
+    TestClient(String id) {
+      this.id = id;
+    }
+
+    @Override
+    public String getId() {
+      return id;
+    }
+
+    @Override
+    public boolean allocationSuccessful(Set<TCSResource<?>> resources) {
+      return true;
+    }
+
+    @Override
+    public void allocationFailed(Set<TCSResource<?>> resources) {
+    }
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import org.opentcs.common.SimulationClock;
+import org.opentcs.data.model.Point;
+import org.opentcs.strategies.basic.scheduling.ReservationPoolTest.TestClient;
+
+/**
+ * Tests for {@link SchedulerTraceRecorder}.
+ */
+public class SchedulerTraceRecorderTest {
+
+  /**
+   * The size of a trace's header (in bytes).
+   */
+  private static final long HEADER_SIZE = 16;
+
+  private ScheduledExecutorService kernelExecutor;
+
+  private Path homeDirectory;
+
+  private SchedulerTraceRecorder recorder;
+
+  @Before
+  public void setUp()
+      throws IOException {
+    DefaultSchedulerConfiguration configuration = mock(DefaultSchedulerConfiguration.class);
+    when(configuration.traceRecording()).thenReturn(true);
+    kernelExecutor = Executors.newSingleThreadScheduledExecutor();
+    homeDirectory = Files.createTempDirectory("schedulertrace");
+    recorder = new SchedulerTraceRecorder(configuration,
+                                          new SimulationClock(1.0),
+                                          kernelExecutor,
+                                          homeDirectory.toFile());
+    recorder.initialize();
+  }
+
+  @After
+  public void tearDown()
+      throws IOException {
+    recorder.terminate();
+    kernelExecutor.shutdownNow();
+    try (Stream<Path> files = Files.walk(homeDirectory)) {
+      files.sorted(Collections.reverseOrder())
+          .map(Path::toFile)
+          .forEach(File::delete);
+    }
+  }
+
+  @Test
+  public void shouldFlushRecordsWithoutFurtherOperations()
+      throws Exception {
+    recorder.allocationRequested(new TestClient("Client-1"),
+                                 Collections.singleton(new Point("Point-1")));
+    Path traceFile = getTraceFile();
+    assertThat(Files.size(traceFile), is(0L));
+
+    // The flush must not depend on any further operation being recorded.
+    long deadline = System.currentTimeMillis() + 5000;
+    while (Files.size(traceFile) == 0 && System.currentTimeMillis() < deadline) {
+      TimeUnit.MILLISECONDS.sleep(50);
+    }
+    assertThat(Files.size(traceFile), is(greaterThan(HEADER_SIZE)));
+  }
+
+  private Path getTraceFile()
+      throws IOException {
+    try (Stream<Path> files = Files.list(homeDirectory.resolve("data")
+        .resolve("schedulertraces"))) {
+      List<Path> traceFiles = files.collect(Collectors.toList());
+      assertThat(traceFiles, hasSize(1));
+      return traceFiles.get(0);
+    }
+  }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) The openTCS Authors.
+ *
+ * This program is free software and subject to the MIT license. (For details,
+ * see the licensing information (LICENSE.txt) you should have received with
+ * this copy of the software.)
+ */
+package org.opentcs.strategies.basic.scheduling;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import org.junit.Before;
+import org.junit.Test;
+import org.opentcs.components.kernel.Scheduler;
+import org.opentcs.data.model.Point;
+import org.opentcs.data.model.TCSResource;
+import org.opentcs.strategies.basic.scheduling.ReservationPoolTest.TestClient;
+
+/**
+ * Tests for {@link WaitForGraph}.
+ */
+public class WaitForGraphTest {
+
+  private ReservationPool reservationPool;
+
+  private DeferredAllocations deferredAllocations;
+
+  private WaitForGraph waitForGraph;
+
+  private TestClient clientA;
+
+  private TestClient clientB;
+
+  private TestClient clientC;
+
+  private Point pointA;
+
+  private Point pointB;
+
+  private Point pointC;
+
+  @Before
+  public void setUp() {
+    reservationPool = new ReservationPool(new AllocationMetrics());
+    deferredAllocations = new DeferredAllocations();
+    waitForGraph = new WaitForGraph(reservationPool, deferredAllocations);
+    clientA = new TestClient("Client-A");
+    clientB = new TestClient("Client-B");
+    clientC = new TestClient("Client-C");
+    pointA = new Point("Point-A");
+    pointB = new Point("Point-B");
+    pointC = new Point("Point-C");
+    reservationPool.allocateAll(clientA, resources(pointA));
+    reservationPool.allocateAll(clientB, resources(pointB));
+    reservationPool.allocateAll(clientC, resources(pointC));
+  }
+
+  @Test
+  public void shouldFindNoCycleWithoutDeferredAllocations() {
+    assertThat(waitForGraph.findCycle(clientA), is(empty()));
+  }
+
+  @Test
+  public void shouldFindNoCycleInChainOfWaitingClients() {
+    waitFor(clientA, pointB);
+    waitFor(clientB, pointC);
+
+    assertThat(waitForGraph.findCycle(clientA), is(empty()));
+    assertThat(waitForGraph.getHolders(clientA), contains(clientB));
+  }
+
+  @Test
+  public void shouldFindCycleOfTwoClients() {
+    waitFor(clientA, pointB);
+    waitFor(clientB, pointA);
+
+    assertThat(waitForGraph.findCycle(clientA), contains(clientA, clientB));
+    assertThat(waitForGraph.findCycle(clientB), contains(clientB, clientA));
+  }
+
+  @Test
+  public void shouldFindCycleOfThreeClientsStartingWithGivenClient() {
+    waitFor(clientA, pointB);
+    waitFor(clientB, pointC);
+    waitFor(clientC, pointA);
+
+    assertThat(waitForGraph.findCycle(clientB), contains(clientB, clientC, clientA));
+  }
+
+  @Test
+  public void shouldFindNoCycleThroughClientOutsideOfCycle() {
+    TestClient clientD = new TestClient("Client-D");
+    waitFor(clientA, pointB);
+    waitFor(clientB, pointA);
+    waitFor(clientD, pointA);
+
+    assertThat(waitForGraph.findCycle(clientD), is(empty()));
+  }
+
+  @Test
+  public void shouldFindNoCycleAfterResourceIsFreed() {
+    waitFor(clientA, pointB);
+    waitFor(clientB, pointA);
+
+    reservationPool.free(clientB, resources(pointB));
+
+    assertThat(waitForGraph.findCycle(clientA), is(empty()));
+  }
+
+  @Test
+  public void shouldIgnoreRestrictedAllocations() {
+    waitFor(clientA, pointB);
+    deferredAllocations.add(new AllocatorCommand.Allocate(clientB, resources(pointA)),
+                            Collections.emptySet());
+
+    assertThat(waitForGraph.findCycle(clientA), is(empty()));
+  }
+
+  private void waitFor(Scheduler.Client client, TCSResource<?>... resources) {
+    deferredAllocations.add(new AllocatorCommand.Allocate(client, resources(resources)),
+                            resources(resources));
+  }
+
+  private static Set<TCSResource<?>> resources(TCSResource<?>... resources) {
+    return new HashSet<>(Arrays.asList(resources));
+  }
+}